@@ -0,0 +1,173 @@
+/* Licensed under GPL-3.0 */
+package analyzer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ApplicationScope class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The classes of a scan target analysed as application code. A class is within the scope
+ *     when it is within one of the included packages, or when no package is included, and within
+ *     none of the excluded packages. When the libraries are only summarized, the classes of the
+ *     dependencies are left out of the scope as well.
+ *     <p>The classes out of the scope are neither mapped, nor searched for call sites, nor used
+ *     for the field initializations. They are only loaded at the signature level, so a slice
+ *     reaching one of their methods still enters it, see {@link
+ *     util.Utils#createAssignInvokeUnitContainer}.
+ */
+public class ApplicationScope {
+
+  /** Constant <code>ALL</code>, the scope analysing every class of the target. */
+  public static final ApplicationScope ALL =
+      new ApplicationScope(new ArrayList<>(), new ArrayList<>(), false);
+
+  private static volatile ApplicationScope active = ALL;
+
+  private final List<String> includes;
+  private final List<String> excludes;
+  private final boolean librariesAsSummaries;
+
+  /**
+   * Constructor for ApplicationScope.
+   *
+   * @param includes a {@link java.util.List} object, the packages analysed, all when empty.
+   * @param excludes a {@link java.util.List} object, the packages not analysed.
+   * @param librariesAsSummaries a boolean, whether the classes of the dependencies are left out.
+   */
+  public ApplicationScope(
+      List<String> includes, List<String> excludes, boolean librariesAsSummaries) {
+    this.includes = Collections.unmodifiableList(normalize(includes));
+    this.excludes = Collections.unmodifiableList(normalize(excludes));
+    this.librariesAsSummaries = librariesAsSummaries;
+  }
+
+  /**
+   * Getter for the field <code>active</code>.
+   *
+   * @return a {@link analyzer.ApplicationScope} object.
+   */
+  public static ApplicationScope getActive() {
+    return active;
+  }
+
+  /**
+   * Setter for the field <code>active</code>.
+   *
+   * @param scope a {@link analyzer.ApplicationScope} object, null for {@link #ALL}.
+   */
+  public static void setActive(ApplicationScope scope) {
+    active = scope == null ? ALL : scope;
+  }
+
+  /**
+   * Checks whether the class is within the included packages and out of the excluded ones.
+   *
+   * @param className a {@link java.lang.String} object.
+   * @return a boolean.
+   */
+  public boolean contains(String className) {
+    return (includes.isEmpty() || isWithin(className, includes))
+        && !isWithin(className, excludes);
+  }
+
+  /**
+   * The classes within the included packages and out of the excluded ones, in the same order.
+   *
+   * @param classNames a {@link java.util.List} object.
+   * @return a {@link java.util.List} object.
+   */
+  public List<String> filter(List<String> classNames) {
+    if (includes.isEmpty() && excludes.isEmpty()) return classNames;
+
+    List<String> filtered = new ArrayList<>();
+    for (String className : classNames) if (contains(className)) filtered.add(className);
+    return filtered;
+  }
+
+  /**
+   * Whether the classes of the dependencies are only entered when a slice reaches them.
+   *
+   * @return a boolean.
+   */
+  public boolean isLibrariesAsSummaries() {
+    return librariesAsSummaries;
+  }
+
+  /**
+   * A fingerprint of the scope, changing with the packages and the summarized libraries.
+   *
+   * @return a {@link java.lang.String} object.
+   */
+  public String getFingerprint() {
+    return String.join(",", includes)
+        + "|"
+        + String.join(",", excludes)
+        + "|"
+        + librariesAsSummaries;
+  }
+
+  /**
+   * The library classes the application classes may reach, following the classes each class
+   * refers to within its constant pool.
+   *
+   * @param applicationClasses a {@link java.util.Collection} object.
+   * @param libraryClasses a {@link java.util.Collection} object.
+   * @param classReferences a {@link java.util.Map} object, the classes referred to by each class.
+   * @return a {@link java.util.Set} object, in the order of the library classes.
+   */
+  public static Set<String> findReachableLibraries(
+      Collection<String> applicationClasses,
+      Collection<String> libraryClasses,
+      Map<String, Set<String>> classReferences) {
+
+    Set<String> libraries = new HashSet<>(libraryClasses);
+    Set<String> visited = new HashSet<>(applicationClasses);
+    Deque<String> worklist = new ArrayDeque<>(applicationClasses);
+
+    while (!worklist.isEmpty()) {
+      for (String referenced :
+          classReferences.getOrDefault(worklist.pop(), Collections.emptySet())) {
+        if (libraries.contains(referenced) && visited.add(referenced)) worklist.push(referenced);
+      }
+    }
+
+    Set<String> reachable = new LinkedHashSet<>();
+    for (String library : libraryClasses) if (visited.contains(library)) reachable.add(library);
+    return reachable;
+  }
+
+  private static boolean isWithin(String className, List<String> packages) {
+    for (String pkg : packages) {
+      if (className.equals(pkg)
+          || className.startsWith(pkg + ".")
+          || className.startsWith(pkg + "$")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Trims the packages, dropping the empty ones and the trailing wildcards. */
+  private static List<String> normalize(List<String> packages) {
+    List<String> normalized = new ArrayList<>();
+    for (String pkg : packages) {
+      String trimmed = pkg.trim();
+      if (trimmed.endsWith(".*")) trimmed = trimmed.substring(0, trimmed.length() - 2);
+      if (trimmed.endsWith(".")) trimmed = trimmed.substring(0, trimmed.length() - 1);
+      if (!trimmed.isEmpty()) normalized.add(trimmed);
+    }
+    return normalized;
+  }
+}
@@ -0,0 +1,268 @@
+/* Licensed under GPL-3.0 */
+package analyzer;
+
+import analyzer.backward.Analysis;
+import analyzer.backward.MethodWrapper;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.logging.log4j.Logger;
+import slicer.backward.MethodCallSiteInfo;
+import slicer.backward.method.MethodSlicingResult;
+import slicer.backward.property.PropertyAnalysisResult;
+
+/**
+ * BackwardSlicingWorklist class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>Slices backwards from a single call site of a criteria, through the callers and the
+ *     property writers of each sliced method. The steps are kept on an explicit stack in the same
+ *     order the recursive slicer visited them, so the analyses are the same while deep call
+ *     hierarchies no longer grow the thread stack. Each root may be bounded by a number of caller
+ *     levels and a time budget, the analyses found within the budget are kept.
+ *     <p>The roots of a batched pass share the slices of the call sites they have in common, each
+ *     caller is then sliced once for all the criteria reaching it with the same parameters.
+ */
+class BackwardSlicingWorklist {
+
+  private static final Logger log =
+      org.apache.logging.log4j.LogManager.getLogger(BackwardSlicingWorklist.class);
+
+  private final Map<MethodWrapper, List<Analysis>> methodVsAnalysisResult = new HashMap<>();
+  private final Set<CriteriaKey> slicedCriteria = new HashSet<>();
+  private final Deque<Runnable> worklist = new ArrayDeque<>();
+
+  private final int maxDepth;
+  private final long maxMillis;
+  private final Map<CriteriaKey, MethodSlicingResult> sharedSlices;
+  private long deadline;
+  private boolean budgetExceeded = false;
+
+  /**
+   * Constructor for BackwardSlicingWorklist.
+   *
+   * @param maxDepth a int, the number of caller levels to follow, 0 for no limit.
+   * @param maxMillis a long, the time allowed for the root, 0 for no limit.
+   * @param sharedSlices a {@link java.util.Map} object, the slices shared with the other roots of
+   *     a batched pass, null to slice each call site again.
+   */
+  BackwardSlicingWorklist(
+      int maxDepth, long maxMillis, Map<CriteriaKey, MethodSlicingResult> sharedSlices) {
+    this.maxDepth = maxDepth;
+    this.maxMillis = maxMillis;
+    this.sharedSlices = sharedSlices;
+  }
+
+  /**
+   * Slices backwards from the call site.
+   *
+   * @param callSiteInfo a {@link slicer.backward.MethodCallSiteInfo} object.
+   * @param slicingParams a {@link java.util.List} object.
+   * @return a {@link java.util.Map} object, the analyses of each method reached.
+   */
+  Map<MethodWrapper, List<Analysis>> slice(
+      MethodCallSiteInfo callSiteInfo, List<Integer> slicingParams) {
+
+    deadline = maxMillis > 0 ? System.currentTimeMillis() + maxMillis : Long.MAX_VALUE;
+
+    worklist.push(() -> sliceCriteria(callSiteInfo, slicingParams, 0));
+    while (!worklist.isEmpty()) {
+      worklist.pop().run();
+    }
+
+    if (budgetExceeded) {
+      log.warn("The slicing budget was exceeded from the call site: " + callSiteInfo);
+    }
+
+    return methodVsAnalysisResult;
+  }
+
+  /** Pushes the steps so that they run in the given order, before the steps already queued. */
+  private void schedule(List<Runnable> steps) {
+    for (int i = steps.size() - 1; i >= 0; i--) {
+      worklist.push(steps.get(i));
+    }
+  }
+
+  private void sliceCallers(MethodWrapper criteria, List<Integer> slicingParams, int depth) {
+
+    if (criteria.getCallerList().isEmpty() || slicingParams == null || slicingParams.isEmpty()) {
+      return;
+    }
+
+    if (maxDepth > 0 && depth > maxDepth) {
+      budgetExceeded = true;
+      return;
+    }
+
+    List<Runnable> steps = new ArrayList<>();
+    for (MethodCallSiteInfo callSiteInfo : BaseAnalyzer.getCallSites(criteria)) {
+      steps.add(() -> sliceCriteria(callSiteInfo, slicingParams, depth));
+    }
+    schedule(steps);
+  }
+
+  private void sliceCriteria(
+      MethodCallSiteInfo callSiteInfo, List<Integer> slicingParams, int depth) {
+
+    if (maxMillis > 0 && System.currentTimeMillis() > deadline) {
+      budgetExceeded = true;
+      return;
+    }
+
+    CriteriaKey criteriaKey = new CriteriaKey(callSiteInfo, slicingParams);
+    if (!slicedCriteria.add(criteriaKey)) {
+      return;
+    }
+
+    MethodSlicingResult methodSlicingResult = getInfluencingInstructions(criteriaKey, callSiteInfo);
+
+    List<Runnable> steps = new ArrayList<>();
+
+    if (methodSlicingResult.getPropertyUseMap() != null) {
+      for (String property : methodSlicingResult.getPropertyUseMap().keySet()) {
+        for (PropertyAnalysisResult propertyAnalysisResult :
+            methodSlicingResult.getPropertyUseMap().get(property)) {
+
+          steps.add(
+              () ->
+                  linkPropertyWriter(callSiteInfo, methodSlicingResult, propertyAnalysisResult));
+          steps.add(
+              () ->
+                  sliceCallers(
+                      propertyAnalysisResult.getMethodWrapper(),
+                      propertyAnalysisResult.getInfluencingParams(),
+                      depth + 1));
+        }
+      }
+    }
+
+    steps.add(() -> linkCaller(callSiteInfo, methodSlicingResult));
+    steps.add(
+        () ->
+            sliceCallers(
+                callSiteInfo.getCaller(),
+                methodSlicingResult.getInfluencingParameters(),
+                depth + 1));
+
+    schedule(steps);
+  }
+
+  private MethodSlicingResult getInfluencingInstructions(
+      CriteriaKey criteriaKey, MethodCallSiteInfo callSiteInfo) {
+
+    MethodSlicingResult methodSlicingResult =
+        sharedSlices == null ? null : sharedSlices.get(criteriaKey);
+
+    if (methodSlicingResult == null) {
+      methodSlicingResult =
+          BaseAnalyzer.getInfluencingInstructions(
+              callSiteInfo, criteriaKey.getParameters(), callSiteInfo.getCaller().getMethod());
+
+      if (sharedSlices != null) {
+        MethodSlicingResult existing = sharedSlices.putIfAbsent(criteriaKey, methodSlicingResult);
+        if (existing != null) {
+          methodSlicingResult = existing;
+        }
+      }
+    }
+
+    return methodSlicingResult;
+  }
+
+  private void linkPropertyWriter(
+      MethodCallSiteInfo callSiteInfo,
+      MethodSlicingResult methodSlicingResult,
+      PropertyAnalysisResult propertyAnalysisResult) {
+
+    List<Analysis> newAnalysisList =
+        BaseAnalyzer.buildNewPropertyAnalysisList(
+            callSiteInfo,
+            methodSlicingResult.getAnalysisResult(),
+            propertyAnalysisResult,
+            methodVsAnalysisResult.get(callSiteInfo.getCallee()));
+
+    methodVsAnalysisResult
+        .computeIfAbsent(propertyAnalysisResult.getMethodWrapper(), k -> new ArrayList<>())
+        .addAll(newAnalysisList);
+  }
+
+  private void linkCaller(
+      MethodCallSiteInfo callSiteInfo, MethodSlicingResult methodSlicingResult) {
+
+    List<Analysis> newAnalysisList =
+        BaseAnalyzer.buildNewAnalysisList(
+            callSiteInfo,
+            methodSlicingResult.getAnalysisResult(),
+            methodVsAnalysisResult.get(callSiteInfo.getCallee()));
+
+    methodVsAnalysisResult
+        .computeIfAbsent(callSiteInfo.getCaller(), k -> new ArrayList<>())
+        .addAll(newAnalysisList);
+  }
+
+  /**
+   * A call site along with the parameters sliced at it. The method wrappers are unique within the
+   * {@link util.NamedMethodMap}, so they are compared by identity and the parameters are kept as
+   * an array, rather than printing them to compare the criteria.
+   */
+  static final class CriteriaKey {
+
+    private final MethodWrapper caller;
+    private final MethodWrapper callee;
+    private final int lineNumber;
+    private final int columnNumber;
+    private final int[] parameters;
+    private final int hash;
+
+    private final List<Integer> slicingParams;
+
+    private CriteriaKey(MethodCallSiteInfo callSiteInfo, List<Integer> slicingParams) {
+      this.slicingParams = slicingParams;
+      this.caller = callSiteInfo.getCaller();
+      this.callee = callSiteInfo.getCallee();
+      this.lineNumber = callSiteInfo.getLineNumber();
+      this.columnNumber = callSiteInfo.getColumnNumber();
+      this.parameters = new int[slicingParams.size()];
+      for (int i = 0; i < parameters.length; i++) {
+        parameters[i] = slicingParams.get(i);
+      }
+
+      int result = System.identityHashCode(caller);
+      result = 31 * result + System.identityHashCode(callee);
+      result = 31 * result + lineNumber;
+      result = 31 * result + columnNumber;
+      this.hash = 31 * result + Arrays.hashCode(parameters);
+    }
+
+    private List<Integer> getParameters() {
+      return slicingParams;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof CriteriaKey)) return false;
+
+      CriteriaKey that = (CriteriaKey) o;
+      return caller == that.caller
+          && callee == that.callee
+          && lineNumber == that.lineNumber
+          && columnNumber == that.columnNumber
+          && Arrays.equals(parameters, that.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -2,27 +2,35 @@
 package analyzer;
 
 import analyzer.backward.Analysis;
+import analyzer.backward.MethodChain;
 import analyzer.backward.MethodWrapper;
+import analyzer.backward.SegmentedSlice;
 import analyzer.backward.UnitContainer;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import org.apache.logging.log4j.Logger;
 import rule.base.BaseRuleChecker;
+import rule.engine.Criteria;
+import rule.engine.RulePack;
 import slicer.backward.MethodCallSiteInfo;
-import slicer.backward.SlicingCriteria;
 import slicer.backward.method.MethodInfluenceInstructions;
 import slicer.backward.method.MethodSlicingResult;
 import slicer.backward.property.PropertyAnalysisResult;
-import soot.Body;
 import soot.Scene;
 import soot.SootClass;
 import soot.SootMethod;
-import soot.toolkits.graph.ExceptionalUnitGraph;
 import soot.toolkits.graph.UnitGraph;
 import util.FieldInitializationInstructionMap;
 import util.NamedMethodMap;
+import util.UnitGraphCache;
 import util.Utils;
 
 /**
@@ -40,6 +48,21 @@ public class BaseAnalyzer {
   private static final Logger log =
       org.apache.logging.log4j.LogManager.getLogger(BaseAnalyzer.class);
 
+  /** The pool slicing the call sites of a criteria, null when they are sliced sequentially. */
+  private static ForkJoinPool slicingPool = null;
+
+  /** The number of caller levels followed from each call site of a criteria, 0 for no limit. */
+  private static int maxCallerDepth = 0;
+
+  /** The time in milliseconds allowed to slice from each call site of a criteria, 0 for none. */
+  private static long maxRootMillis = 0;
+
+  /** The classes whose calls of a criteria are sliced, null for every class. */
+  private static volatile Set<String> analysisScope = null;
+
+  /** The methods whose calls of a criteria are sliced, null for every method. */
+  private static volatile Set<SootMethod> reachableMethods = null;
+
   static {
     CRITERIA_CLASSES.add("javax.crypto.Cipher");
     CRITERIA_CLASSES.add("java.security.MessageDigest");
@@ -55,6 +78,90 @@ public class BaseAnalyzer {
     CRITERIA_CLASSES.add("java.security.SecureRandom");
   }
 
+  /**
+   * getCriteriaClasses.
+   *
+   * <p>The {@link #CRITERIA_CLASSES} along with the classes of the criteria added by the active
+   * {@link rule.engine.RulePack}.
+   *
+   * @return a {@link java.util.List} object.
+   */
+  public static List<String> getCriteriaClasses() {
+    Set<String> criteriaClasses = new LinkedHashSet<>(CRITERIA_CLASSES);
+    criteriaClasses.addAll(RulePack.getActive().getCriteriaClasses());
+    return new ArrayList<>(criteriaClasses);
+  }
+
+  /**
+   * initSlicingThreads.
+   *
+   * <p>Sets the number of threads slicing the call sites of a criteria, a single thread slices
+   * them one after another on the thread checking the rule.
+   *
+   * @param threads a int.
+   */
+  public static synchronized void initSlicingThreads(int threads) {
+    if (slicingPool != null && slicingPool.getParallelism() == threads) {
+      return;
+    }
+
+    if (slicingPool != null) {
+      slicingPool.shutdown();
+    }
+
+    slicingPool = threads > 1 ? new ForkJoinPool(threads) : null;
+  }
+
+  /**
+   * initSlicingBudget.
+   *
+   * <p>Bounds the slicing from each call site of a criteria, the analyses found within the budget
+   * are still checked. A value of 0 removes the limit.
+   *
+   * @param callerDepth a int, the number of caller levels to follow.
+   * @param rootSeconds a int, the time allowed for each call site.
+   */
+  public static synchronized void initSlicingBudget(int callerDepth, int rootSeconds) {
+    maxCallerDepth = Math.max(0, callerDepth);
+    maxRootMillis = Math.max(0, rootSeconds) * 1000L;
+  }
+
+  /**
+   * getSlicingBudget.
+   *
+   * <p>The budget set by {@link #initSlicingBudget}, as the caller levels and the milliseconds
+   * allowed for each call site.
+   *
+   * @return a {@link java.lang.String} object.
+   */
+  public static synchronized String getSlicingBudget() {
+    return maxCallerDepth + ":" + maxRootMillis;
+  }
+
+  /**
+   * initAnalysisScope.
+   *
+   * <p>Restricts the call sites of the criteria sliced to the ones within the classes of the
+   * scope, the slices still follow the callers and the callees out of it.
+   *
+   * @param scope a {@link java.util.Set} object, null to slice every call site.
+   */
+  public static void initAnalysisScope(Set<String> scope) {
+    analysisScope = scope;
+  }
+
+  /**
+   * initReachableMethods.
+   *
+   * <p>Restricts the call sites of the criteria sliced to the ones within the methods reachable
+   * from the entry points of the target, see {@link analyzer.EntryPointReachability}.
+   *
+   * @param methods a {@link java.util.Set} object, null to slice every call site.
+   */
+  public static void initReachableMethods(Set<SootMethod> methods) {
+    reachableMethods = methods;
+  }
+
   static void analyzeSliceInternal(
       String criteriaClass,
       List<String> classNames,
@@ -62,155 +169,218 @@ public class BaseAnalyzer {
       ArrayList<Integer> slicingParameters,
       BaseRuleChecker checker) {
 
-    SootClass criteriaClazz = Scene.v().getSootClass(criteriaClass);
-
-    if (criteriaClazz.isPhantomClass()
-        || !criteriaClazz.getMethods().toString().contains(endPoint)) {
+    if (!isCriteriaPresent(criteriaClass, endPoint)) {
       return;
     }
 
     NamedMethodMap.build(classNames);
 
-    NamedMethodMap.addCriteriaClasses(CRITERIA_CLASSES);
+    NamedMethodMap.addCriteriaClasses(getCriteriaClasses());
     NamedMethodMap.buildCallerCalleeRelation(classNames);
 
     FieldInitializationInstructionMap.build(classNames);
 
     runBackwardSlicingAnalysis(
-        NamedMethodMap.getMethod(endPoint), slicingParameters, null, null, checker);
+        NamedMethodMap.getMethod(endPoint),
+        slicingParameters,
+        Collections.singletonList(checker),
+        null);
+  }
+
+  /**
+   * analyzeCriteria.
+   *
+   * <p>Runs the backward slicing for a single criteria against the program model that is already
+   * loaded, see {@link analyzer.BaseAnalyzerRouting#buildProgramModel}.
+   *
+   * @param criteriaClass a {@link java.lang.String} object.
+   * @param criteriaMethod a {@link java.lang.String} object.
+   * @param criteriaParam a int.
+   * @param checker a {@link rule.base.BaseRuleChecker} object.
+   */
+  public static void analyzeCriteria(
+      String criteriaClass, String criteriaMethod, int criteriaParam, BaseRuleChecker checker) {
+
+    String endPoint = "<" + criteriaClass + ": " + criteriaMethod + ">";
+
+    if (!isCriteriaPresent(criteriaClass, endPoint)) {
+      return;
+    }
+
+    ArrayList<Integer> slicingParameters = new ArrayList<>();
+    slicingParameters.add(criteriaParam);
+
+    runBackwardSlicingAnalysis(
+        NamedMethodMap.getMethod(endPoint),
+        slicingParameters,
+        Collections.singletonList(checker),
+        null);
+  }
+
+  /**
+   * analyzeCriteriaBatch.
+   *
+   * <p>Runs the backward slicing for the criteria of all the rules in a single pass against the
+   * program model that is already loaded. A criteria listed by several rules is sliced once and
+   * its slices are handed to each of them, in the order of the rules. The callers reached from
+   * several criteria with the same parameters are sliced once for the whole pass.
+   *
+   * @param checkers a {@link java.util.List} object.
+   * @param model a {@link analyzer.ProgramModel} object.
+   */
+  public static void analyzeCriteriaBatch(List<BaseRuleChecker> checkers, ProgramModel model) {
+
+    Map<String, CriteriaSeed> seeds = new LinkedHashMap<>();
+    for (BaseRuleChecker checker : checkers) {
+      for (Criteria criteria : checker.getCheckedCriteria()) {
+        if (!model.isCriteriaReferenced(criteria.getClassName(), criteria.getMethodName())) {
+          continue;
+        }
+
+        String endPoint = "<" + criteria.getClassName() + ": " + criteria.getMethodName() + ">";
+        seeds
+            .computeIfAbsent(
+                endPoint + "[" + criteria.getParam() + "]",
+                k -> new CriteriaSeed(criteria.getClassName(), endPoint, criteria.getParam()))
+            .checkers
+            .add(checker);
+      }
+    }
+
+    log.debug("Slicing " + seeds.size() + " criteria for " + checkers.size() + " rule(s)");
+
+    Map<BackwardSlicingWorklist.CriteriaKey, MethodSlicingResult> sharedSlices =
+        new ConcurrentHashMap<>();
+
+    for (CriteriaSeed seed : seeds.values()) {
+      if (!isCriteriaPresent(seed.criteriaClass, seed.endPoint)) {
+        continue;
+      }
+
+      ArrayList<Integer> slicingParameters = new ArrayList<>();
+      slicingParameters.add(seed.criteriaParam);
+
+      runBackwardSlicingAnalysis(
+          NamedMethodMap.getMethod(seed.endPoint), slicingParameters, seed.checkers, sharedSlices);
+    }
+  }
+
+  private static boolean isCriteriaPresent(String criteriaClass, String endPoint) {
+    SootClass criteriaClazz = Scene.v().getSootClass(criteriaClass);
+
+    return !criteriaClazz.isPhantomClass()
+        && criteriaClazz.resolvingLevel() >= SootClass.SIGNATURES
+        && criteriaClazz.getMethods().toString().contains(endPoint);
   }
 
   private static void runBackwardSlicingAnalysis(
       MethodWrapper criteria,
       List<Integer> slicingParams,
-      Map<MethodWrapper, List<Analysis>> methodVsAnalysisResult,
-      Map<SlicingCriteria, Boolean> slicingCriteriaMap,
-      BaseRuleChecker checker) {
+      List<BaseRuleChecker> checkers,
+      Map<BackwardSlicingWorklist.CriteriaKey, MethodSlicingResult> sharedSlices) {
 
     List<MethodWrapper> callers = criteria.getCallerList();
     if (callers.isEmpty() || slicingParams == null || slicingParams.isEmpty()) {
       return;
     }
 
-    List<MethodCallSiteInfo> callSites = new ArrayList<>();
+    List<MethodCallSiteInfo> callSites = getCallSites(criteria);
 
-    for (MethodWrapper caller : callers) {
-      for (MethodCallSiteInfo site : caller.getCalleeList()) {
-        if (site.getCallee().toString().equals(criteria.toString())) {
-          callSites.add(site);
-        }
+    Set<String> scope = analysisScope;
+    if (scope != null) {
+      callSites.removeIf(
+          site -> !scope.contains(site.getCaller().getMethod().getDeclaringClass().getName()));
+    }
+
+    Set<SootMethod> reachable = reachableMethods;
+    if (reachable != null) {
+      callSites.removeIf(site -> !reachable.contains(site.getCaller().getMethod()));
+    }
+
+    // Each call site is an independent root, its slices are kept in its own map and handed to the
+    // checker in the order of the call sites.
+    ForkJoinPool pool = slicingPool;
+    if (pool == null || callSites.size() < 2) {
+      for (MethodCallSiteInfo callSiteInfo : callSites) {
+        analyzeSlices(sliceCallSite(callSiteInfo, slicingParams, sharedSlices), checkers);
       }
+      return;
     }
 
+    List<ForkJoinTask<Map<MethodWrapper, List<Analysis>>>> tasks = new ArrayList<>();
     for (MethodCallSiteInfo callSiteInfo : callSites) {
-      SlicingCriteria slicingCriteria = new SlicingCriteria(callSiteInfo, slicingParams);
-
-      if (methodVsAnalysisResult == null) {
-        Map<MethodWrapper, List<Analysis>> newResult = new HashMap<>();
-        runBackwardSlicingAnalysisInternal(slicingCriteria, newResult, slicingCriteriaMap, checker);
+      tasks.add(pool.submit(() -> sliceCallSite(callSiteInfo, slicingParams, sharedSlices)));
+    }
 
-        for (MethodWrapper methodWrapper : newResult.keySet()) {
-          List<Analysis> analysisList = newResult.get(methodWrapper);
-          for (Analysis analysis : analysisList) {
+    for (int i = 0; i < tasks.size(); i++) {
+      Map<MethodWrapper, List<Analysis>> result = tasks.get(i).join();
+      tasks.set(i, null);
+      analyzeSlices(result, checkers);
+    }
+  }
 
-            if (!analysis.getAnalysisResult().isEmpty()) {
-              Utils.NUM_SLICES++;
-              Utils.SLICE_LENGTH.add(analysis.getAnalysisResult().size());
-            }
+  /**
+   * Lists the call sites of a method, once for each time its caller is listed.
+   *
+   * @param criteria a {@link analyzer.backward.MethodWrapper} object.
+   * @return a {@link java.util.List} object.
+   */
+  static List<MethodCallSiteInfo> getCallSites(MethodWrapper criteria) {
+    List<MethodCallSiteInfo> callSites = new ArrayList<>();
 
-            checker.analyzeSlice(analysis);
-          }
+    for (MethodWrapper caller : criteria.getCallerList()) {
+      for (MethodCallSiteInfo site : caller.getCalleeList()) {
+        if (site.getCallee().toString().equals(criteria.toString())) {
+          callSites.add(site);
         }
-
-        System.gc();
-      } else {
-        runBackwardSlicingAnalysisInternal(
-            slicingCriteria, methodVsAnalysisResult, slicingCriteriaMap, checker);
       }
     }
-  }
 
-  private static void runBackwardSlicingAnalysisInternal(
-      SlicingCriteria slicingCriteria,
-      Map<MethodWrapper, List<Analysis>> methodVsAnalysisResult,
-      Map<SlicingCriteria, Boolean> slicingCriteriaMap,
-      BaseRuleChecker checker) {
+    return callSites;
+  }
 
-    if (slicingCriteriaMap == null) {
-      slicingCriteriaMap = new HashMap<>();
-    }
+  private static Map<MethodWrapper, List<Analysis>> sliceCallSite(
+      MethodCallSiteInfo callSiteInfo,
+      List<Integer> slicingParams,
+      Map<BackwardSlicingWorklist.CriteriaKey, MethodSlicingResult> sharedSlices) {
+    return new BackwardSlicingWorklist(maxCallerDepth, maxRootMillis, sharedSlices)
+        .slice(callSiteInfo, slicingParams);
+  }
 
-    MethodCallSiteInfo callSiteInfo = slicingCriteria.getMethodCallSiteInfo();
-    List<Integer> slicingParams = slicingCriteria.getParameters();
+  private static void analyzeSlices(
+      Map<MethodWrapper, List<Analysis>> result, List<BaseRuleChecker> checkers) {
+    for (MethodWrapper methodWrapper : result.keySet()) {
+      List<Analysis> analysisList = result.get(methodWrapper);
+      for (Analysis analysis : analysisList) {
 
-    if (slicingCriteriaMap.get(slicingCriteria) != null) {
-      return;
-    }
+        if (!analysis.getAnalysisResult().isEmpty()) {
+          Utils.NUM_SLICES.incrementAndGet();
+          Utils.SLICE_LENGTH.add(analysis.getAnalysisResult().size());
+        }
 
-    slicingCriteriaMap.put(slicingCriteria, Boolean.TRUE);
-
-    MethodSlicingResult methodSlicingResult =
-        getInfluencingInstructions(
-            callSiteInfo, slicingParams, callSiteInfo.getCaller().getMethod());
-
-    if (methodSlicingResult.getPropertyUseMap() != null) {
-      for (String property : methodSlicingResult.getPropertyUseMap().keySet()) {
-        List<PropertyAnalysisResult> propertyAnalysisResults =
-            methodSlicingResult.getPropertyUseMap().get(property);
-        for (PropertyAnalysisResult propertyAnalysisResult : propertyAnalysisResults) {
-
-          List<Analysis> calleeAnalysisList = methodVsAnalysisResult.get(callSiteInfo.getCallee());
-          List<Analysis> callerAnalysisList =
-              methodVsAnalysisResult.get(propertyAnalysisResult.getMethodWrapper());
-
-          List<Analysis> newAnalysisList =
-              buildNewPropertyAnalysisList(
-                  callSiteInfo,
-                  methodSlicingResult.getAnalysisResult(),
-                  propertyAnalysisResult,
-                  calleeAnalysisList);
-
-          if (callerAnalysisList == null) {
-            callerAnalysisList = new ArrayList<>();
-            methodVsAnalysisResult.put(
-                propertyAnalysisResult.getMethodWrapper(), callerAnalysisList);
-          }
-
-          callerAnalysisList.addAll(newAnalysisList);
-
-          runBackwardSlicingAnalysis(
-              propertyAnalysisResult.getMethodWrapper(),
-              propertyAnalysisResult.getInfluencingParams(),
-              methodVsAnalysisResult,
-              slicingCriteriaMap,
-              checker);
+        for (BaseRuleChecker checker : checkers) {
+          checker.analyzeSlice(analysis);
         }
       }
     }
+  }
 
-    List<Analysis> calleeAnalysisList = methodVsAnalysisResult.get(callSiteInfo.getCallee());
-    List<Analysis> callerAnalysisList = methodVsAnalysisResult.get(callSiteInfo.getCaller());
+  /** A criteria along with the rules checking its slices. */
+  private static class CriteriaSeed {
 
-    List<Analysis> newAnalysisList =
-        buildNewAnalysisList(
-            callSiteInfo, methodSlicingResult.getAnalysisResult(), calleeAnalysisList);
+    private final String criteriaClass;
+    private final String endPoint;
+    private final int criteriaParam;
+    private final List<BaseRuleChecker> checkers = new ArrayList<>();
 
-    if (callerAnalysisList == null) {
-      callerAnalysisList = new ArrayList<>();
-      methodVsAnalysisResult.put(callSiteInfo.getCaller(), callerAnalysisList);
+    private CriteriaSeed(String criteriaClass, String endPoint, int criteriaParam) {
+      this.criteriaClass = criteriaClass;
+      this.endPoint = endPoint;
+      this.criteriaParam = criteriaParam;
     }
-
-    callerAnalysisList.addAll(newAnalysisList);
-
-    runBackwardSlicingAnalysis(
-        callSiteInfo.getCaller(),
-        methodSlicingResult.getInfluencingParameters(),
-        methodVsAnalysisResult,
-        slicingCriteriaMap,
-        checker);
   }
 
-  private static List<Analysis> buildNewPropertyAnalysisList(
+  static List<Analysis> buildNewPropertyAnalysisList(
       MethodCallSiteInfo callSiteInfo,
       List<UnitContainer> methodSlicingResult,
       PropertyAnalysisResult slicingResult,
@@ -218,50 +388,30 @@ public class BaseAnalyzer {
 
     List<Analysis> newAnalysisList = new ArrayList<>();
 
+    String callSite =
+        callSiteInfo.getCaller()
+            + "["
+            + callSiteInfo.getLineNumber()
+            + "]"
+            + MethodChain.SEPARATOR
+            + callSiteInfo.getCallee();
+
     if (calleeAnalysisList != null && !calleeAnalysisList.isEmpty()) {
       for (Analysis analysis : calleeAnalysisList) {
         Analysis newAnalysis = new Analysis();
 
-        String newChain =
-            callSiteInfo.getCaller()
-                + "["
-                + callSiteInfo.getLineNumber()
-                + "]"
-                + "--->"
-                + callSiteInfo.getCallee()
-                + "--->"
-                + analysis.getMethodChain();
-        newAnalysis.setMethodChain(newChain);
+        newAnalysis.setChain(new MethodChain(callSite, analysis.getChain()));
         newAnalysis.setAnalysisResult(analysis.getAnalysisResult());
-        newAnalysis.getAnalysisResult().addAll(methodSlicingResult);
-        newAnalysis.getAnalysisResult().addAll(slicingResult.getSlicingResult());
-
-        for (String key : slicingResult.getPropertyUseMap().keySet()) {
-          for (PropertyAnalysisResult res : slicingResult.getPropertyUseMap().get(key))
-            newAnalysis.getAnalysisResult().addAll(res.getSlicingResult());
-        }
+        appendPropertySlices(newAnalysis, methodSlicingResult, slicingResult);
 
         newAnalysisList.add(newAnalysis);
       }
     } else {
       Analysis newAnalysis = new Analysis();
 
-      String newChain =
-          callSiteInfo.getCaller()
-              + "["
-              + callSiteInfo.getLineNumber()
-              + "]"
-              + "--->"
-              + callSiteInfo.getCallee();
-      newAnalysis.setMethodChain(newChain);
-      newAnalysis.setAnalysisResult(new ArrayList<>());
-      newAnalysis.getAnalysisResult().addAll(methodSlicingResult);
-      newAnalysis.getAnalysisResult().addAll(slicingResult.getSlicingResult());
-
-      for (String key : slicingResult.getPropertyUseMap().keySet()) {
-        for (PropertyAnalysisResult res : slicingResult.getPropertyUseMap().get(key))
-          newAnalysis.getAnalysisResult().addAll(res.getSlicingResult());
-      }
+      newAnalysis.setChain(new MethodChain(callSite, null));
+      newAnalysis.setAnalysisResult(new SegmentedSlice());
+      appendPropertySlices(newAnalysis, methodSlicingResult, slicingResult);
 
       newAnalysisList.add(newAnalysis);
     }
@@ -269,53 +419,68 @@ public class BaseAnalyzer {
     return newAnalysisList;
   }
 
-  private static List<Analysis> buildNewAnalysisList(
+  private static void appendPropertySlices(
+      Analysis analysis,
+      List<UnitContainer> methodSlicingResult,
+      PropertyAnalysisResult slicingResult) {
+
+    appendSlice(analysis, methodSlicingResult);
+    appendSlice(analysis, slicingResult.getSlicingResult());
+
+    for (String key : slicingResult.getPropertyUseMap().keySet()) {
+      for (PropertyAnalysisResult res : slicingResult.getPropertyUseMap().get(key))
+        appendSlice(analysis, res.getSlicingResult());
+    }
+  }
+
+  static List<Analysis> buildNewAnalysisList(
       MethodCallSiteInfo callSiteInfo,
       List<UnitContainer> slicingResult,
       List<Analysis> calleeAnalysisList) {
     List<Analysis> newAnalysisList = new ArrayList<>();
 
+    String caller = callSiteInfo.getCaller() + "[" + callSiteInfo.getLineNumber() + "]";
+
     if (calleeAnalysisList != null && !calleeAnalysisList.isEmpty()) {
       for (Analysis analysis : calleeAnalysisList) {
         Analysis newAnalysis = new Analysis();
 
-        String newChain =
-            callSiteInfo.getCaller()
-                + "["
-                + callSiteInfo.getLineNumber()
-                + "]"
-                + "--->"
-                + analysis.getMethodChain();
-        newAnalysis.setMethodChain(newChain);
+        newAnalysis.setChain(new MethodChain(caller, analysis.getChain()));
 
         newAnalysis.setAnalysisResult(analysis.getAnalysisResult());
-        newAnalysis.getAnalysisResult().addAll(slicingResult);
+        appendSlice(newAnalysis, slicingResult);
         newAnalysisList.add(newAnalysis);
       }
     } else {
       Analysis newAnalysis = new Analysis();
 
-      String newChain =
-          callSiteInfo.getCaller()
-              + "["
-              + callSiteInfo.getLineNumber()
-              + "]"
-              + "--->"
-              + callSiteInfo.getCallee();
-      newAnalysis.setMethodChain(newChain);
-      newAnalysis.setAnalysisResult(new ArrayList<>());
-      newAnalysis.getAnalysisResult().addAll(slicingResult);
+      newAnalysis.setChain(
+          new MethodChain(caller + MethodChain.SEPARATOR + callSiteInfo.getCallee(), null));
+      newAnalysis.setAnalysisResult(new SegmentedSlice());
+      appendSlice(newAnalysis, slicingResult);
       newAnalysisList.add(newAnalysis);
     }
 
     return newAnalysisList;
   }
 
-  private static MethodSlicingResult getInfluencingInstructions(
-      MethodCallSiteInfo methodCallSiteInfo, List<Integer> slicingParams, SootMethod m) {
-    Body b = m.retrieveActiveBody();
+  /**
+   * Appends a slice to the result of an analysis. The slices produced by the slicers are read
+   * only, so they are referenced rather than copied. The result stays shared with the analysis
+   * of the callee it was built from, as it always was.
+   */
+  private static void appendSlice(Analysis analysis, List<UnitContainer> slice) {
+    List<UnitContainer> analysisResult = analysis.getAnalysisResult();
+    if (analysisResult instanceof SegmentedSlice) {
+      ((SegmentedSlice) analysisResult).appendSegment(slice);
+    } else {
+      analysisResult.addAll(slice);
+    }
+  }
 
-    UnitGraph graph = new ExceptionalUnitGraph(b);
+  static MethodSlicingResult getInfluencingInstructions(
+      MethodCallSiteInfo methodCallSiteInfo, List<Integer> slicingParams, SootMethod m) {
+    UnitGraph graph = UnitGraphCache.getUnitGraph(m);
     MethodInfluenceInstructions vbe =
         new MethodInfluenceInstructions(graph, methodCallSiteInfo, slicingParams);
 
@@ -6,15 +6,26 @@ import frontEnd.Interface.outputRouting.ExceptionId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
 import rule.base.BaseRuleChecker;
 import rule.engine.EngineType;
+import rule.engine.RulePack;
 import soot.Scene;
 import soot.SootClass;
+import soot.SootMethod;
 import soot.options.Options;
+import util.CalleeSummaryMap;
+import util.ConstantPoolIndex;
+import util.FieldInitializationInstructionMap;
+import util.NamedMethodMap;
+import util.UnitGraphCache;
 import util.Utils;
+import util.manifest.ProcessManifest;
 
 /**
  * BaseAnalyzerRouting class.
@@ -116,6 +127,237 @@ public class BaseAnalyzerRouting {
     }
   }
 
+  /**
+   * buildProgramModel.
+   *
+   * <p>Sets up the SOOT environment for the scan target, loads every class once and builds the
+   * method map, the caller/callee graph and the field initialization map shared by all the rules.
+   *
+   * @param routingType a {@link rule.engine.EngineType} object.
+   * @param snippetPath a {@link java.util.List} object.
+   * @param projectDependency a {@link java.util.List} object.
+   * @param mainKlass a {@link java.lang.String} object.
+   * @param androidHome a {@link java.lang.String} object.
+   * @param javaHome a {@link java.lang.String} object.
+   * @return a {@link analyzer.ProgramModel} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public static ProgramModel buildProgramModel(
+      EngineType routingType,
+      List<String> snippetPath,
+      List<String> projectDependency,
+      String mainKlass,
+      String androidHome,
+      String javaHome)
+      throws ExceptionHandler {
+
+    return buildProgramModel(
+        routingType,
+        snippetPath,
+        projectDependency,
+        mainKlass,
+        androidHome,
+        javaHome,
+        indexConstantPools(routingType, snippetPath, projectDependency));
+  }
+
+  /**
+   * indexConstantPools.
+   *
+   * <p>Reads the constant pools of the class files of the scan target and of its dependencies, or
+   * the dex files of an APK, without loading anything into SOOT.
+   *
+   * @param routingType a {@link rule.engine.EngineType} object.
+   * @param snippetPath a {@link java.util.List} object.
+   * @param projectDependency a {@link java.util.List} object.
+   * @return a {@link util.ConstantPoolIndex} object, null when the target has no class files.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public static ConstantPoolIndex indexConstantPools(
+      EngineType routingType, List<String> snippetPath, List<String> projectDependency)
+      throws ExceptionHandler {
+
+    if (routingType != EngineType.JAR
+        && routingType != EngineType.CLASSFILES
+        && routingType != EngineType.APK) {
+      return null;
+    }
+
+    log.debug("Indexing the constant pools of the class files");
+    ConstantPoolIndex constantPoolIndex = new ConstantPoolIndex();
+    if (routingType == EngineType.APK) {
+      constantPoolIndex.addApk(snippetPath.get(0));
+    } else if (routingType == EngineType.JAR) {
+      String dependencyPath = projectDependency.size() >= 1 ? projectDependency.get(0) : null;
+      constantPoolIndex.addJars(Collections.singletonList(snippetPath.get(0)));
+      constantPoolIndex.addJars(Utils.getJarsInDirectory(dependencyPath));
+    } else {
+      constantPoolIndex.addClassFiles(snippetPath);
+      constantPoolIndex.addJars(Utils.getJarsInDirectories(projectDependency));
+    }
+    return constantPoolIndex;
+  }
+
+  /**
+   * buildProgramModel.
+   *
+   * <p>Builds the program model with the constant pool index already read from the target.
+   *
+   * @param routingType a {@link rule.engine.EngineType} object.
+   * @param snippetPath a {@link java.util.List} object.
+   * @param projectDependency a {@link java.util.List} object.
+   * @param mainKlass a {@link java.lang.String} object.
+   * @param androidHome a {@link java.lang.String} object.
+   * @param javaHome a {@link java.lang.String} object.
+   * @param constantPoolIndex a {@link util.ConstantPoolIndex} object, see {@link
+   *     #indexConstantPools}.
+   * @return a {@link analyzer.ProgramModel} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public static ProgramModel buildProgramModel(
+      EngineType routingType,
+      List<String> snippetPath,
+      List<String> projectDependency,
+      String mainKlass,
+      String androidHome,
+      String javaHome,
+      ConstantPoolIndex constantPoolIndex)
+      throws ExceptionHandler {
+
+    List<String> sourceClassNames;
+    List<String> dependencyJars;
+
+    switch (routingType) {
+      case JAR:
+        String dependencyPath = projectDependency.size() >= 1 ? projectDependency.get(0) : null;
+        sourceClassNames = prepareBaseJar(snippetPath.get(0), dependencyPath, javaHome);
+        dependencyJars = Utils.getJarsInDirectory(dependencyPath);
+        mainKlass = "_JAR_";
+        break;
+      case APK:
+        sourceClassNames = prepareBaseAPK(snippetPath.get(0), androidHome, javaHome);
+        dependencyJars = new ArrayList<>();
+        mainKlass = "_APK_";
+        break;
+      case DIR:
+        sourceClassNames = prepareBaseDir(snippetPath, projectDependency, javaHome);
+        dependencyJars = new ArrayList<>();
+        mainKlass = "_DIR_";
+        break;
+      case JAVAFILES:
+        sourceClassNames = prepareBaseJava(snippetPath, projectDependency, javaHome);
+        dependencyJars = Utils.getJarsInDirectories(projectDependency);
+        break;
+      default: //CLASSFILES
+        sourceClassNames = prepareBaseJavaClass(snippetPath, projectDependency, javaHome);
+        dependencyJars = Utils.getJarsInDirectories(projectDependency);
+        break;
+    }
+
+    List<String> dependencyClassNames = getClassNamesFromJars(dependencyJars);
+    List<String> classNames = selectApplicationClasses(sourceClassNames, dependencyClassNames);
+    List<String> libraryClassNames =
+        findLibraryClasses(classNames, sourceClassNames, dependencyClassNames, constantPoolIndex);
+
+    loadBaseSootClasses(classNames, libraryClassNames, mainKlass, constantPoolIndex);
+
+    log.debug("Building the method map and the caller/callee graph");
+    NamedMethodMap.clearCallerCalleeGraph();
+    FieldInitializationInstructionMap.reset();
+    UnitGraphCache.reset();
+    CalleeSummaryMap.reset();
+
+    NamedMethodMap.build(classNames);
+    NamedMethodMap.addCriteriaClasses(BaseAnalyzer.getCriteriaClasses());
+    NamedMethodMap.buildCallerCalleeRelation(classNames);
+
+    Set<SootMethod> reachableMethods =
+        EntryPointReachability.getActive()
+            .findReachableMethods(classNames, findComponentClasses(routingType, snippetPath));
+    BaseAnalyzer.initReachableMethods(reachableMethods);
+    FieldInitializationInstructionMap.build(classNames, reachableMethods);
+
+    String[] excludes = {"web.xml", "pom.xml"};
+    Map<String, String> xmlFiles = Utils.getXmlFiles(snippetPath.get(0), Arrays.asList(excludes));
+
+    return new ProgramModel(
+        routingType,
+        classNames,
+        ApplicationScope.getActive().filter(sourceClassNames),
+        xmlFiles,
+        constantPoolIndex);
+  }
+
+  /**
+   * The classes analysed as application code, the ones of the target within the active {@link
+   * ApplicationScope}, and the ones of the dependencies unless the libraries are only summarized.
+   */
+  private static List<String> selectApplicationClasses(
+      List<String> sourceClassNames, List<String> dependencyClassNames) {
+    ApplicationScope scope = ApplicationScope.getActive();
+
+    List<String> classNames = new ArrayList<>(scope.filter(sourceClassNames));
+    if (!scope.isLibrariesAsSummaries()) classNames.addAll(scope.filter(dependencyClassNames));
+
+    if (classNames.size() < sourceClassNames.size() + dependencyClassNames.size()) {
+      log.info(
+          "Analysing "
+              + classNames.size()
+              + " of the "
+              + (sourceClassNames.size() + dependencyClassNames.size())
+              + " classes as application code");
+    }
+    return classNames;
+  }
+
+  /**
+   * The classes left out of the application code, only loaded at the signature level. With a
+   * constant pool index, only the ones the application code may reach are.
+   */
+  private static List<String> findLibraryClasses(
+      List<String> classNames,
+      List<String> sourceClassNames,
+      List<String> dependencyClassNames,
+      ConstantPoolIndex constantPoolIndex) {
+
+    Set<String> applicationClasses = new HashSet<>(classNames);
+    List<String> libraryClassNames = new ArrayList<>();
+    for (String className : sourceClassNames)
+      if (!applicationClasses.contains(className)) libraryClassNames.add(className);
+    for (String className : dependencyClassNames)
+      if (!applicationClasses.contains(className)) libraryClassNames.add(className);
+
+    if (libraryClassNames.isEmpty() || constantPoolIndex == null) return libraryClassNames;
+
+    return new ArrayList<>(
+        ApplicationScope.findReachableLibraries(
+            classNames, libraryClassNames, constantPoolIndex.getClassReferences()));
+  }
+
+  /**
+   * The classes the platform starts, the components declared within the manifest of an APK. They
+   * are only read when the unreachable methods are left out, a manifest that cannot be read fails
+   * the scan rather than leaving every component unreachable.
+   */
+  private static Set<String> findComponentClasses(
+      EngineType routingType, List<String> snippetPath) throws ExceptionHandler {
+    if (routingType != EngineType.APK || !EntryPointReachability.getActive().isEnabled()) {
+      return Collections.emptySet();
+    }
+
+    ProcessManifest manifest = new ProcessManifest();
+    try {
+      manifest.loadManifestFile(snippetPath.get(0));
+    } catch (RuntimeException e) {
+      log.fatal("Error reading the manifest of " + snippetPath.get(0) + ": " + e.getMessage());
+      throw new ExceptionHandler(
+          "Error reading the manifest of " + snippetPath.get(0) + ": " + e.getMessage(),
+          ExceptionId.FILE_READ);
+    }
+    log.debug("Found " + manifest.getEntryPointClasses().size() + " components in the manifest");
+    return manifest.getEntryPointClasses();
+  }
+
   //region Case Handlers
 
   //region JAR
@@ -144,10 +386,27 @@ public class BaseAnalyzerRouting {
       String javaHome)
       throws ExceptionHandler {
 
-    List<String> classNames = Utils.getClassNamesFromJarArchive(projectJarPath);
+    List<String> sourceClassNames =
+        prepareBaseJar(projectJarPath, projectDependencyPath, javaHome);
+    List<String> dependencyClassNames =
+        getClassNamesFromJars(Utils.getJarsInDirectory(projectDependencyPath));
+    List<String> classNames = selectApplicationClasses(sourceClassNames, dependencyClassNames);
+
+    loadBaseSootInfo(
+        classNames,
+        findLibraryClasses(classNames, sourceClassNames, dependencyClassNames, null),
+        criteriaClass,
+        criteriaMethod,
+        criteriaParam,
+        checker,
+        "_JAR_");
+  }
 
-    for (String dependency : Utils.getJarsInDirectory(projectDependencyPath))
-      classNames.addAll(Utils.getClassNamesFromJarArchive(dependency));
+  private static List<String> prepareBaseJar(
+      String projectJarPath, String projectDependencyPath, String javaHome)
+      throws ExceptionHandler {
+
+    List<String> classNames = Utils.getClassNamesFromJarArchive(projectJarPath);
 
     Scene.v()
         .setSootClassPath(
@@ -158,7 +417,7 @@ public class BaseAnalyzerRouting {
                 Utils.join(":", Utils.getJarsInDirectory(projectDependencyPath))));
     log.debug("Setting the soot class path as: " + Scene.v().getSootClassPath());
 
-    loadBaseSootInfo(classNames, criteriaClass, criteriaMethod, criteriaParam, checker, "_JAR_");
+    return classNames;
   }
 
   //endregion
@@ -188,6 +447,14 @@ public class BaseAnalyzerRouting {
       String javaHome)
       throws ExceptionHandler {
 
+    List<String> classNames = prepareBaseAPK(projectJarPath, androidHome, javaHome);
+
+    loadBaseSootInfo(classNames, criteriaClass, criteriaMethod, criteriaParam, checker, "_APK_");
+  }
+
+  private static List<String> prepareBaseAPK(
+      String projectJarPath, String androidHome, String javaHome) throws ExceptionHandler {
+
     List<String> classNames = Utils.getClassNamesFromApkArchive(projectJarPath);
 
     //enables multi-dex support for soot
@@ -199,7 +466,7 @@ public class BaseAnalyzerRouting {
     Options.v().set_process_dir(Collections.singletonList(projectJarPath));
     Options.v().set_whole_program(true);
 
-    loadBaseSootInfo(classNames, criteriaClass, criteriaMethod, criteriaParam, checker, "_APK_");
+    return classNames;
   }
 
   //endregion
@@ -229,6 +496,15 @@ public class BaseAnalyzerRouting {
       String javaHome)
       throws ExceptionHandler {
 
+    List<String> classNames = prepareBaseDir(snippetPath, projectDependency, javaHome);
+
+    loadBaseSootInfo(classNames, criteriaClass, criteriaMethod, criteriaParam, checker, "_DIR_");
+  }
+
+  private static List<String> prepareBaseDir(
+      List<String> snippetPath, List<String> projectDependency, String javaHome)
+      throws ExceptionHandler {
+
     Options.v().set_output_format(Options.output_format_jimple);
     Options.v().set_src_prec(Options.src_prec_java);
 
@@ -240,9 +516,7 @@ public class BaseAnalyzerRouting {
                 + ":"
                 + Utils.buildSootClassPath(projectDependency));
 
-    List<String> classNames = Utils.getClassNamesFromSnippet(snippetPath);
-
-    loadBaseSootInfo(classNames, criteriaClass, criteriaMethod, criteriaParam, checker, "_DIR_");
+    return Utils.getClassNamesFromSnippet(snippetPath);
   }
 
   //endregion
@@ -273,6 +547,16 @@ public class BaseAnalyzerRouting {
       String javaHome)
       throws ExceptionHandler {
 
+    List<String> classNames = prepareBaseJava(snippetPath, projectDependency, javaHome);
+    classNames.addAll(getClassNamesFromJars(Utils.getJarsInDirectories(projectDependency)));
+
+    loadBaseSootInfo(classNames, criteriaClass, criteriaMethod, criteriaParam, checker, mainKlass);
+  }
+
+  private static List<String> prepareBaseJava(
+      List<String> snippetPath, List<String> projectDependency, String javaHome)
+      throws ExceptionHandler {
+
     Options.v().set_src_prec(Options.src_prec_java);
     Options.v().set_output_format(Options.output_format_jimple);
 
@@ -291,11 +575,7 @@ public class BaseAnalyzerRouting {
                 Utils.buildSootClassPath(projectDependency)));
     log.debug("Setting the soot class path as: " + Scene.v().getSootClassPath());
 
-    for (String dependency : Utils.getJarsInDirectories(projectDependency)) {
-      classNames.addAll(Utils.getClassNamesFromJarArchive(dependency));
-    }
-
-    loadBaseSootInfo(classNames, criteriaClass, criteriaMethod, criteriaParam, checker, mainKlass);
+    return classNames;
   }
 
   //endregion
@@ -326,6 +606,17 @@ public class BaseAnalyzerRouting {
       String javaHome)
       throws ExceptionHandler {
 
+    List<String> classNames =
+        prepareBaseJavaClass(sourceJavaClasses, projectDependencyPath, javaHome);
+    classNames.addAll(getClassNamesFromJars(Utils.getJarsInDirectories(projectDependencyPath)));
+
+    loadBaseSootInfo(classNames, criteriaClass, criteriaMethod, criteriaParam, checker, mainKlass);
+  }
+
+  private static List<String> prepareBaseJavaClass(
+      List<String> sourceJavaClasses, List<String> projectDependencyPath, String javaHome)
+      throws ExceptionHandler {
+
     Options.v().set_src_prec(Options.src_prec_only_class);
     Options.v().set_output_format(Options.output_format_jimple);
 
@@ -349,13 +640,16 @@ public class BaseAnalyzerRouting {
       Options.v().classes().add(clazz);
     }
 
-    for (String dependency : Utils.getJarsInDirectories(projectDependencyPath))
-      classNames.addAll(Utils.getClassNamesFromJarArchive(dependency));
-
-    loadBaseSootInfo(classNames, criteriaClass, criteriaMethod, criteriaParam, checker, mainKlass);
+    return classNames;
   }
   //endregion
 
+  private static List<String> getClassNamesFromJars(List<String> jars) throws ExceptionHandler {
+    List<String> classNames = new ArrayList<>();
+    for (String jar : jars) classNames.addAll(Utils.getClassNamesFromJarArchive(jar));
+    return classNames;
+  }
+
   /**
    * loadBaseSootInfo.
    *
@@ -376,11 +670,54 @@ public class BaseAnalyzerRouting {
       String mainKlass)
       throws ExceptionHandler {
 
+    loadBaseSootInfo(
+        classNames,
+        new ArrayList<>(),
+        criteriaClass,
+        criteriaMethod,
+        criteriaParam,
+        checker,
+        mainKlass);
+  }
+
+  private static void loadBaseSootInfo(
+      List<String> classNames,
+      List<String> libraryClassNames,
+      String criteriaClass,
+      String criteriaMethod,
+      int criteriaParam,
+      BaseRuleChecker checker,
+      String mainKlass)
+      throws ExceptionHandler {
+
+    loadBaseSootClasses(classNames, libraryClassNames, mainKlass, null);
+
+    String endPoint = "<" + criteriaClass + ": " + criteriaMethod + ">";
+    ArrayList<Integer> slicingParameters = new ArrayList<>();
+    slicingParameters.add(criteriaParam);
+
+    log.debug("Starting the slicer");
+    BaseAnalyzer.analyzeSliceInternal(
+        criteriaClass, classNames, endPoint, slicingParameters, checker);
+  }
+
+  private static void loadBaseSootClasses(
+      List<String> classNames,
+      List<String> libraryClassNames,
+      String mainKlass,
+      ConstantPoolIndex constantPoolIndex)
+      throws ExceptionHandler {
+
     Options.v().set_keep_line_number(true);
     Options.v().set_allow_phantom_refs(true);
     List<String> ignoreLibs =
         Arrays.asList("okhttp3.Request$Builder", "retrofit2.Retrofit$Builder");
     for (String clazz : BaseAnalyzer.CRITERIA_CLASSES) {
+      if (constantPoolIndex != null && !constantPoolIndex.mayUseClass(clazz)) {
+        log.debug("Skipping the class no class file uses: " + clazz);
+        continue;
+      }
+
       log.debug("Loading with the class: " + clazz);
       try {
         SootClass runningClass;
@@ -399,6 +736,23 @@ public class BaseAnalyzerRouting {
       }
     }
 
+    // The criteria of a rule pack may refer to classes missing from the target, they are skipped
+    for (String clazz : RulePack.getActive().getCriteriaClasses()) {
+      if (BaseAnalyzer.CRITERIA_CLASSES.contains(clazz)
+          || (constantPoolIndex != null && !constantPoolIndex.mayUseClass(clazz))) {
+        continue;
+      }
+
+      log.debug("Loading with the rule pack class: " + clazz);
+      try {
+        if (Scene.v().loadClassAndSupport(clazz).isPhantom()) {
+          log.warn("Rule pack class: " + clazz + " is not available");
+        }
+      } catch (Error | Exception e) {
+        log.warn("Error loading the rule pack class: " + clazz);
+      }
+    }
+
     boolean mainMethodFound = false;
     boolean avoidMainKlass =
         StringUtils.isNotEmpty(mainKlass)
@@ -435,6 +789,18 @@ public class BaseAnalyzerRouting {
       }
     }
 
+    // The classes out of the application scope are loaded at the signature level, their bodies
+    // are only resolved when a slice reaches them
+    for (String clazz : libraryClassNames) {
+      try {
+        if (Scene.v().loadClass(clazz, SootClass.SIGNATURES).isPhantom()) {
+          log.debug("Library class: " + clazz + " is not available");
+        }
+      } catch (Error | Exception e) {
+        log.warn("Error loading the library class: " + clazz);
+      }
+    }
+
     Scene.v().loadNecessaryClasses();
     Scene.v().setDoneResolving();
     Options.v().set_prepend_classpath(true);
@@ -471,13 +837,5 @@ public class BaseAnalyzerRouting {
             "The class " + mainKlass + " does not have a main method.", ExceptionId.LOADING);
       }
     }
-
-    String endPoint = "<" + criteriaClass + ": " + criteriaMethod + ">";
-    ArrayList<Integer> slicingParameters = new ArrayList<>();
-    slicingParameters.add(criteriaParam);
-
-    log.debug("Starting the slicer");
-    BaseAnalyzer.analyzeSliceInternal(
-        criteriaClass, classNames, endPoint, slicingParameters, checker);
   }
 }
@@ -0,0 +1,265 @@
+/* Licensed under GPL-3.0 */
+package analyzer;
+
+import analyzer.backward.MethodWrapper;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import org.apache.logging.log4j.Logger;
+import slicer.backward.MethodCallSiteInfo;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.jimple.DynamicInvokeExpr;
+import soot.jimple.MethodHandle;
+import soot.jimple.Stmt;
+import util.NamedMethodMap;
+
+/**
+ * EntryPointReachability class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The methods of the application code reachable from its entry points over the
+ *     caller/callee graph: the components of the Android manifest, the main methods and the
+ *     configured entry points. Only the call sites of a criteria within a reachable method are
+ *     sliced and only the field writes of the reachable methods initialize a field.
+ *     <p>The callbacks the platform invokes are not within the graph, so once a constructor of a
+ *     class is reached every method of the class is, along with the static initializer of each
+ *     class reached. The methods handed to the bootstrap of an invokedynamic, such as the body of
+ *     a lambda, are called back as well and are reached along with the method holding the call.
+ *     An entry point is either a class, for all of its methods, or the signature of a single
+ *     method.
+ */
+public class EntryPointReachability {
+
+  /** Constant <code>DISABLED</code>, every method of the application code is analysed. */
+  public static final EntryPointReachability DISABLED =
+      new EntryPointReachability(false, new ArrayList<>());
+
+  private static final Logger log =
+      org.apache.logging.log4j.LogManager.getLogger(EntryPointReachability.class);
+
+  private static volatile EntryPointReachability active = DISABLED;
+
+  private final boolean enabled;
+  private final List<String> entryPoints;
+
+  /**
+   * Constructor for EntryPointReachability.
+   *
+   * @param enabled a boolean, whether the unreachable methods are left out.
+   * @param entryPoints a {@link java.util.List} object, the classes or the method signatures
+   *     added to the entry points found.
+   */
+  public EntryPointReachability(boolean enabled, List<String> entryPoints) {
+    this.enabled = enabled;
+    this.entryPoints = Collections.unmodifiableList(normalize(entryPoints));
+  }
+
+  /**
+   * Getter for the field <code>active</code>.
+   *
+   * @return a {@link analyzer.EntryPointReachability} object.
+   */
+  public static EntryPointReachability getActive() {
+    return active;
+  }
+
+  /**
+   * Setter for the field <code>active</code>.
+   *
+   * @param reachability a {@link analyzer.EntryPointReachability} object, null for {@link
+   *     #DISABLED}.
+   */
+  public static void setActive(EntryPointReachability reachability) {
+    active = reachability == null ? DISABLED : reachability;
+  }
+
+  /**
+   * Getter for the field <code>enabled</code>.
+   *
+   * @return a boolean.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Getter for the field <code>entryPoints</code>.
+   *
+   * @return a {@link java.util.List} object.
+   */
+  public List<String> getEntryPoints() {
+    return entryPoints;
+  }
+
+  /**
+   * A fingerprint of the reachability, changing with the configured entry points.
+   *
+   * @return a {@link java.lang.String} object.
+   */
+  public String getFingerprint() {
+    return enabled + "|" + String.join(",", entryPoints);
+  }
+
+  /**
+   * The methods of the application classes reachable from the entry points, requires the
+   * caller/callee graph of {@link util.NamedMethodMap}.
+   *
+   * @param classNames a {@link java.util.List} object, the application classes.
+   * @param componentClasses a {@link java.util.Collection} object, the classes the platform
+   *     starts, the components of the Android manifest.
+   * @return a {@link java.util.Set} object, null when disabled or when no entry point is found.
+   */
+  public Set<SootMethod> findReachableMethods(
+      List<String> classNames, Collection<String> componentClasses) {
+    if (!enabled) return null;
+
+    Set<String> applicationClasses = new HashSet<>(classNames);
+    Set<SootMethod> roots = new LinkedHashSet<>();
+
+    for (String className : componentClasses)
+      if (applicationClasses.contains(className)) addClassMethods(className, roots);
+
+    for (String className : classNames) {
+      SootClass sClass = Scene.v().getSootClassUnsafe(className, false);
+      if (sClass == null) continue;
+      for (SootMethod method : sClass.getMethods())
+        if (method.isStatic() && method.getSubSignature().equals("void main(java.lang.String[])"))
+          roots.add(method);
+    }
+
+    for (String entryPoint : entryPoints) {
+      if (!entryPoint.startsWith("<")) {
+        if (!addClassMethods(entryPoint, roots))
+          log.warn("The entry point class " + entryPoint + " is not loaded");
+      } else if (Scene.v().containsMethod(entryPoint)) {
+        roots.add(Scene.v().getMethod(entryPoint));
+      } else {
+        log.warn("The entry point method " + entryPoint + " is not loaded");
+      }
+    }
+
+    if (roots.isEmpty()) {
+      log.warn("No entry point found, every method is analysed");
+      return null;
+    }
+
+    Set<SootMethod> reachable = findReachable(roots, EntryPointReachability::getSuccessors);
+    log.info(reachable.size() + " methods reachable from " + roots.size() + " entry points");
+    return reachable;
+  }
+
+  /**
+   * Splits the comma separated entry points, the commas within a method signature excluded.
+   *
+   * @param entryPoints a {@link java.lang.String} object.
+   * @return a {@link java.util.List} object.
+   */
+  public static List<String> parseEntryPoints(String entryPoints) {
+    List<String> parsed = new ArrayList<>();
+    int depth = 0;
+    int start = 0;
+    for (int i = 0; i < entryPoints.length(); i++) {
+      char c = entryPoints.charAt(i);
+      if (c == '<') depth++;
+      else if (c == '>') depth = Math.max(0, depth - 1);
+      else if (c == ',' && depth == 0) {
+        parsed.add(entryPoints.substring(start, i));
+        start = i + 1;
+      }
+    }
+    parsed.add(entryPoints.substring(start));
+    return normalize(parsed);
+  }
+
+  /**
+   * The nodes reachable from the roots, the roots included.
+   *
+   * @param roots a {@link java.util.Collection} object.
+   * @param successors a {@link java.util.function.Function} object, the nodes each node leads to.
+   * @param <T> the type of the nodes.
+   * @return a {@link java.util.Set} object, in the order the nodes are first reached.
+   */
+  public static <T> Set<T> findReachable(
+      Collection<T> roots, Function<T, Collection<T>> successors) {
+    Set<T> visited = new LinkedHashSet<>(roots);
+    Deque<T> worklist = new ArrayDeque<>(roots);
+
+    while (!worklist.isEmpty()) {
+      for (T successor : successors.apply(worklist.poll())) {
+        if (visited.add(successor)) worklist.add(successor);
+      }
+    }
+    return visited;
+  }
+
+  /** The callees of the method, widened to the classes constructed and their initializers. */
+  private static Collection<SootMethod> getSuccessors(SootMethod method) {
+    List<SootMethod> successors = new ArrayList<>();
+
+    SootMethod staticInitializer = method.getDeclaringClass().getMethodUnsafe("void <clinit>()");
+    if (staticInitializer != null) successors.add(staticInitializer);
+
+    if (method.hasActiveBody()) {
+      for (Unit unit : method.getActiveBody().getUnits()) {
+        Stmt stmt = (Stmt) unit;
+        if (stmt.containsInvokeExpr() && stmt.getInvokeExpr() instanceof DynamicInvokeExpr) {
+          addBootstrapTargets((DynamicInvokeExpr) stmt.getInvokeExpr(), successors);
+        }
+      }
+    }
+
+    MethodWrapper wrapper = NamedMethodMap.getMethod(method);
+    if (wrapper == null) return successors;
+
+    for (MethodCallSiteInfo site : wrapper.getCalleeList()) {
+      addCallee(site.getCallee().getMethod(), successors);
+    }
+    return successors;
+  }
+
+  /** The methods of the method handles passed to the bootstrap, such as lambda$main$0. */
+  private static void addBootstrapTargets(DynamicInvokeExpr invoke, List<SootMethod> successors) {
+    for (Value arg : invoke.getBootstrapArgs()) {
+      if (arg instanceof MethodHandle && ((MethodHandle) arg).isMethodRef()) {
+        SootMethod target = ((MethodHandle) arg).getMethodRef().tryResolve();
+        if (target != null) addCallee(target, successors);
+      }
+    }
+  }
+
+  private static void addCallee(SootMethod callee, List<SootMethod> successors) {
+    if (callee.isConstructor()) successors.addAll(callee.getDeclaringClass().getMethods());
+    else successors.add(callee);
+  }
+
+  private static boolean addClassMethods(String className, Set<SootMethod> methods) {
+    SootClass sClass = Scene.v().getSootClassUnsafe(className, false);
+    if (sClass == null || sClass.isPhantom()) return false;
+
+    methods.addAll(sClass.getMethods());
+    return true;
+  }
+
+  /** Trims the entry points, dropping the empty ones. */
+  private static List<String> normalize(List<String> entryPoints) {
+    List<String> normalized = new ArrayList<>();
+    for (String entryPoint : entryPoints) {
+      String trimmed = entryPoint.trim();
+      if (!trimmed.isEmpty()) normalized.add(trimmed);
+    }
+    return normalized;
+  }
+}
@@ -0,0 +1,148 @@
+/* Licensed under GPL-3.0 */
+package analyzer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import rule.engine.EngineType;
+import util.ConstantPoolIndex;
+
+/**
+ * ProgramModel class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The loaded state of a single scan target. The SOOT scene, the method map, the
+ *     caller/callee graph and the field initialization map are built once by {@link
+ *     BaseAnalyzerRouting#buildProgramModel} and shared by every rule run against the target.
+ */
+public class ProgramModel {
+
+  private final EngineType type;
+  private final List<String> classNames;
+  private final List<String> sourceClassNames;
+  private final Map<String, String> xmlFiles;
+  private final ConstantPoolIndex constantPoolIndex;
+
+  /**
+   * Constructor for ProgramModel.
+   *
+   * @param type a {@link rule.engine.EngineType} object.
+   * @param classNames a {@link java.util.List} object.
+   * @param sourceClassNames a {@link java.util.List} object.
+   * @param xmlFiles a {@link java.util.Map} object.
+   */
+  public ProgramModel(
+      EngineType type,
+      List<String> classNames,
+      List<String> sourceClassNames,
+      Map<String, String> xmlFiles) {
+    this(type, classNames, sourceClassNames, xmlFiles, null);
+  }
+
+  /**
+   * Constructor for ProgramModel.
+   *
+   * @param type a {@link rule.engine.EngineType} object.
+   * @param classNames a {@link java.util.List} object.
+   * @param sourceClassNames a {@link java.util.List} object.
+   * @param xmlFiles a {@link java.util.Map} object.
+   * @param constantPoolIndex a {@link util.ConstantPoolIndex} object, null when the target has no
+   *     class files to index.
+   */
+  public ProgramModel(
+      EngineType type,
+      List<String> classNames,
+      List<String> sourceClassNames,
+      Map<String, String> xmlFiles,
+      ConstantPoolIndex constantPoolIndex) {
+    this.type = type;
+    this.classNames = Collections.unmodifiableList(classNames);
+    this.sourceClassNames = Collections.unmodifiableList(sourceClassNames);
+    this.xmlFiles = Collections.unmodifiableMap(xmlFiles);
+    this.constantPoolIndex = constantPoolIndex;
+  }
+
+  /**
+   * Checks whether the criteria may have a call site within the target. Without a constant pool
+   * index, or before its platform classes are resolved, every criteria may.
+   *
+   * @param criteriaClass a {@link java.lang.String} object.
+   * @param criteriaMethod a {@link java.lang.String} object.
+   * @return a boolean.
+   */
+  public boolean isCriteriaReferenced(String criteriaClass, String criteriaMethod) {
+    return constantPoolIndex == null
+        || constantPoolIndex.mayCall(
+            criteriaClass, "<" + criteriaClass + ": " + criteriaMethod + ">");
+  }
+
+  /**
+   * Restricts the classes of the project checked by the rules iterating over them, the classes
+   * are all still loaded. See {@link analyzer.BaseAnalyzer#initAnalysisScope} for the rules
+   * slicing backwards.
+   *
+   * @param scope a {@link java.util.Set} object, the classes to check.
+   * @return a {@link analyzer.ProgramModel} object.
+   */
+  public ProgramModel restrictSourceClasses(Set<String> scope) {
+    List<String> scopedClassNames = new ArrayList<>();
+    for (String className : sourceClassNames) {
+      if (scope.contains(className)) {
+        scopedClassNames.add(className);
+      }
+    }
+
+    return new ProgramModel(type, classNames, scopedClassNames, xmlFiles, constantPoolIndex);
+  }
+
+  /**
+   * Getter for the field <code>constantPoolIndex</code>.
+   *
+   * @return a {@link util.ConstantPoolIndex} object, null when the target has no class files to
+   *     index.
+   */
+  public ConstantPoolIndex getConstantPoolIndex() {
+    return constantPoolIndex;
+  }
+
+  /**
+   * Getter for the field <code>type</code>.
+   *
+   * @return a {@link rule.engine.EngineType} object.
+   */
+  public EngineType getType() {
+    return type;
+  }
+
+  /**
+   * Getter for the field <code>classNames</code>, the project classes along with the classes of
+   * its dependencies.
+   *
+   * @return a {@link java.util.List} object.
+   */
+  public List<String> getClassNames() {
+    return classNames;
+  }
+
+  /**
+   * Getter for the field <code>sourceClassNames</code>, the classes of the project only.
+   *
+   * @return a {@link java.util.List} object.
+   */
+  public List<String> getSourceClassNames() {
+    return sourceClassNames;
+  }
+
+  /**
+   * Getter for the field <code>xmlFiles</code>.
+   *
+   * @return a {@link java.util.Map} object.
+   */
+  public Map<String, String> getXmlFiles() {
+    return xmlFiles;
+  }
+}
@@ -2,6 +2,7 @@
 package analyzer.backward;
 
 import java.util.List;
+import util.DefUseIndex;
 
 /**
  * Analysis class.
@@ -11,16 +12,17 @@ import java.util.List;
  * @since V01.00.00
  */
 public class Analysis {
-  private String methodChain;
+  private MethodChain methodChain;
   private List<UnitContainer> analysisResult;
+  private DefUseIndex defUseIndex;
 
   /**
-   * Getter for the field <code>methodChain</code>.
+   * Getter for the field <code>methodChain</code>, the text of the chain is built on each call.
    *
    * @return a {@link java.lang.String} object.
    */
   public String getMethodChain() {
-    return methodChain;
+    return methodChain == null ? null : methodChain.toString();
   }
 
   /**
@@ -29,6 +31,24 @@ public class Analysis {
    * @param methodChain a {@link java.lang.String} object.
    */
   public void setMethodChain(String methodChain) {
+    this.methodChain = methodChain == null ? null : new MethodChain(methodChain, null);
+  }
+
+  /**
+   * Getter for the linked form of the field <code>methodChain</code>.
+   *
+   * @return a {@link analyzer.backward.MethodChain} object.
+   */
+  public MethodChain getChain() {
+    return methodChain;
+  }
+
+  /**
+   * Setter for the linked form of the field <code>methodChain</code>.
+   *
+   * @param methodChain a {@link analyzer.backward.MethodChain} object.
+   */
+  public void setChain(MethodChain methodChain) {
     this.methodChain = methodChain;
   }
 
@@ -48,5 +68,19 @@ public class Analysis {
    */
   public void setAnalysisResult(List<UnitContainer> analysisResult) {
     this.analysisResult = analysisResult;
+    this.defUseIndex = null;
+  }
+
+  /**
+   * Getter for the def-use index of the field <code>analysisResult</code>, built on the first call
+   * and again once units were added to the result.
+   *
+   * @return a {@link util.DefUseIndex} object.
+   */
+  public synchronized DefUseIndex getDefUseIndex() {
+    if (defUseIndex == null || !defUseIndex.isIndexOf(analysisResult)) {
+      defUseIndex = new DefUseIndex(analysisResult);
+    }
+    return defUseIndex;
   }
 }
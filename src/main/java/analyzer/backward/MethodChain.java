@@ -0,0 +1,61 @@
+/* Licensed under GPL-3.0 */
+package analyzer.backward;
+
+/**
+ * MethodChain class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The chain of methods leading to a slicing criteria, such as <code>
+ *     caller[line]---&gt;callee</code>. Each caller only links to the chain of its callee, so the
+ *     chains of a deep call hierarchy share their tails instead of copying them at every level.
+ *     The text is only built when it is requested.
+ */
+public class MethodChain {
+
+  /** Constant <code>SEPARATOR="--->"</code> */
+  public static final String SEPARATOR = "--->";
+
+  private final String head;
+  private final MethodChain tail;
+
+  /**
+   * Constructor for MethodChain.
+   *
+   * @param head a {@link java.lang.String} object, the text of this link.
+   * @param tail a {@link analyzer.backward.MethodChain} object, the chain of the callee or null.
+   */
+  public MethodChain(String head, MethodChain tail) {
+    this.head = head;
+    this.tail = tail;
+  }
+
+  /**
+   * Getter for the field <code>head</code>.
+   *
+   * @return a {@link java.lang.String} object.
+   */
+  public String getHead() {
+    return head;
+  }
+
+  /**
+   * Getter for the field <code>tail</code>.
+   *
+   * @return a {@link analyzer.backward.MethodChain} object.
+   */
+  public MethodChain getTail() {
+    return tail;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    StringBuilder chain = new StringBuilder(head);
+    for (MethodChain link = tail; link != null; link = link.tail) {
+      chain.append(SEPARATOR).append(link.head);
+    }
+    return chain.toString();
+  }
+}
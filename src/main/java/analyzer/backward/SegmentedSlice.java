@@ -0,0 +1,125 @@
+/* Licensed under GPL-3.0 */
+package analyzer.backward;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * SegmentedSlice class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The slice of an {@link analyzer.backward.Analysis}, kept as the list of the slices it was
+ *     built from. The slices of each method are produced once and are read only, so they are
+ *     referenced by every analysis that includes them instead of being copied into each one.
+ */
+public class SegmentedSlice extends AbstractList<UnitContainer> {
+
+  private final List<List<UnitContainer>> segments = new ArrayList<>();
+  private int[] segmentEnds = new int[4];
+  private int size = 0;
+
+  /** The last segment when it was created by this slice for single additions, null otherwise. */
+  private List<UnitContainer> ownedTail = null;
+
+  /**
+   * Appends a slice without copying it, the slice must not be modified afterwards.
+   *
+   * @param segment a {@link java.util.List} object.
+   */
+  public void appendSegment(List<UnitContainer> segment) {
+    if (segment.isEmpty()) {
+      return;
+    }
+
+    if (segments.size() == segmentEnds.length) {
+      segmentEnds = Arrays.copyOf(segmentEnds, segmentEnds.length * 2);
+    }
+
+    size += segment.size();
+    segmentEnds[segments.size()] = size;
+    segments.add(segment);
+    ownedTail = null;
+    modCount++;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean add(UnitContainer unitContainer) {
+    if (ownedTail == null) {
+      List<UnitContainer> tail = new ArrayList<>();
+      tail.add(unitContainer);
+      appendSegment(tail);
+      ownedTail = tail;
+    } else {
+      ownedTail.add(unitContainer);
+      segmentEnds[segments.size() - 1] = ++size;
+      modCount++;
+    }
+    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean addAll(Collection<? extends UnitContainer> c) {
+    if (c.isEmpty()) {
+      return false;
+    }
+    appendSegment(new ArrayList<>(c));
+    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public UnitContainer get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    int segment = Arrays.binarySearch(segmentEnds, 0, segments.size(), index);
+    segment = segment >= 0 ? segment + 1 : -segment - 1;
+
+    int segmentStart = segment == 0 ? 0 : segmentEnds[segment - 1];
+    return segments.get(segment).get(index - segmentStart);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Iterator<UnitContainer> iterator() {
+    return new Iterator<UnitContainer>() {
+      private int segment = 0;
+      private Iterator<UnitContainer> current = null;
+
+      @Override
+      public boolean hasNext() {
+        while (current == null || !current.hasNext()) {
+          if (segment >= segments.size()) {
+            return false;
+          }
+          current = segments.get(segment++).iterator();
+        }
+        return true;
+      }
+
+      @Override
+      public UnitContainer next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return current.next();
+      }
+    };
+  }
+}
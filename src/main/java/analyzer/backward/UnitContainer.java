@@ -14,6 +14,9 @@ public class UnitContainer {
 
   private Unit unit;
   private String method;
+  // Printing a unit is expensive and containers are compared by their text within the flow sets
+  private String unitString;
+  private String description;
 
   /**
    * Getter for the field <code>unit</code>.
@@ -31,6 +34,8 @@ public class UnitContainer {
    */
   public void setUnit(Unit unit) {
     this.unit = unit;
+    this.unitString = null;
+    this.description = null;
   }
 
   /**
@@ -49,6 +54,7 @@ public class UnitContainer {
    */
   public void setMethod(String method) {
     this.method = method;
+    this.description = null;
   }
 
   /** {@inheritDoc} */
@@ -59,18 +65,29 @@ public class UnitContainer {
 
     UnitContainer that = (UnitContainer) o;
 
-    return unit.toString().equals(that.unit.toString());
+    return getUnitString().equals(that.getUnitString());
   }
 
   /** {@inheritDoc} */
   @Override
   public int hashCode() {
-    return ("UnitContainer{" + "unit=" + unit + ", method='" + method + "\'" + "}").hashCode();
+    return toString().hashCode();
   }
 
   /** {@inheritDoc} */
   @Override
   public String toString() {
-    return "UnitContainer{" + "unit=" + unit + ", method='" + method + '\'' + '}';
+    if (description == null) {
+      description =
+          "UnitContainer{" + "unit=" + getUnitString() + ", method='" + method + '\'' + '}';
+    }
+    return description;
+  }
+
+  private String getUnitString() {
+    if (unitString == null) {
+      unitString = String.valueOf(unit);
+    }
+    return unitString;
   }
 }
@@ -1,6 +1,9 @@
 /* Licensed under GPL-3.0 */
 package frontEnd.Interface;
 
+import analyzer.ApplicationScope;
+import analyzer.BaseAnalyzer;
+import analyzer.EntryPointReachability;
 import frontEnd.Interface.outputRouting.ExceptionHandler;
 import frontEnd.Interface.outputRouting.ExceptionId;
 import frontEnd.Interface.outputRouting.parcelHandling;
@@ -18,6 +21,7 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.config.Configurator;
 import rule.engine.EngineType;
+import rule.engine.RulePack;
 import util.Utils;
 
 /**
@@ -213,6 +217,105 @@ public class ArgumentsCheck {
         Integer.parseInt(cmd.getOptionValue(argsIdentifier.DEPTH.getId(), String.valueOf(1))));
     log.debug("Scanning using a depth of " + Utils.DEPTH);
 
+    try {
+      info.setRuleThreads(
+          Integer.parseInt(
+              cmd.getOptionValue(argsIdentifier.THREADS.getId(), String.valueOf(1))));
+    } catch (NumberFormatException e) {
+      log.fatal("Please Enter a valid number of threads.");
+      throw new ExceptionHandler("Please Enter a valid number of threads.", ExceptionId.ARG_VALID);
+    }
+    if (info.getRuleThreads() < 1) {
+      log.fatal("Please Enter a valid number of threads.");
+      throw new ExceptionHandler("Please Enter a valid number of threads.", ExceptionId.ARG_VALID);
+    }
+    log.debug("Checking the rules using " + info.getRuleThreads() + " thread(s)");
+
+    int rootDepth;
+    int rootTime;
+    try {
+      rootDepth =
+          Integer.parseInt(
+              cmd.getOptionValue(argsIdentifier.ROOTDEPTH.getId(), String.valueOf(0)));
+      rootTime =
+          Integer.parseInt(cmd.getOptionValue(argsIdentifier.ROOTTIME.getId(), String.valueOf(0)));
+    } catch (NumberFormatException e) {
+      log.fatal("Please Enter a valid slicing budget.");
+      throw new ExceptionHandler("Please Enter a valid slicing budget.", ExceptionId.ARG_VALID);
+    }
+    if (rootDepth < 0 || rootTime < 0) {
+      log.fatal("Please Enter a valid slicing budget.");
+      throw new ExceptionHandler("Please Enter a valid slicing budget.", ExceptionId.ARG_VALID);
+    }
+    BaseAnalyzer.initSlicingBudget(rootDepth, rootTime);
+    log.debug("Slicing each call site up to " + rootDepth + " level(s) and " + rootTime + "s");
+
+    info.setBatchSlicing(cmd.hasOption(argsIdentifier.BATCH.getId()));
+    log.debug("Batch slicing flag: " + cmd.hasOption(argsIdentifier.BATCH.getId()));
+
+    if (cmd.hasOption(argsIdentifier.RULES.getId())) {
+      String rulePack = cmd.getOptionValue(argsIdentifier.RULES.getId());
+      RulePack.setActive(RulePack.load(rulePack));
+      log.debug("Using the rule pack: " + rulePack);
+    } else {
+      RulePack.setActive(null);
+    }
+
+    List<String> includes =
+        cmd.hasOption(argsIdentifier.INCLUDE.getId())
+            ? Arrays.asList(cmd.getOptionValue(argsIdentifier.INCLUDE.getId()).split(","))
+            : new ArrayList<>();
+    List<String> excludes =
+        cmd.hasOption(argsIdentifier.EXCLUDE.getId())
+            ? Arrays.asList(cmd.getOptionValue(argsIdentifier.EXCLUDE.getId()).split(","))
+            : new ArrayList<>();
+    ApplicationScope.setActive(
+        new ApplicationScope(
+            includes, excludes, cmd.hasOption(argsIdentifier.LIBSUMMARIES.getId())));
+    log.debug(
+        "Application scope (included|excluded|libraries summarized): "
+            + ApplicationScope.getActive().getFingerprint());
+
+    EntryPointReachability.setActive(
+        new EntryPointReachability(
+            cmd.hasOption(argsIdentifier.REACHABLE.getId()),
+            cmd.hasOption(argsIdentifier.ENTRYPOINTS.getId())
+                ? EntryPointReachability.parseEntryPoints(
+                    cmd.getOptionValue(argsIdentifier.ENTRYPOINTS.getId()))
+                : new ArrayList<>()));
+    log.debug(
+        "Entry point reachability (enabled|entry points): "
+            + EntryPointReachability.getActive().getFingerprint());
+
+    if (cmd.hasOption(argsIdentifier.CACHE.getId())) {
+      info.setCacheDir(cmd.getOptionValue(argsIdentifier.CACHE.getId()));
+      log.debug("Caching the findings within: " + info.getCacheDir());
+    }
+
+    try {
+      info.setModuleWorkers(
+          Integer.parseInt(
+              cmd.getOptionValue(argsIdentifier.WORKERS.getId(), String.valueOf(1))));
+    } catch (NumberFormatException e) {
+      info.setModuleWorkers(0);
+    }
+    if (info.getModuleWorkers() < 1) {
+      log.fatal("Please Enter a valid number of workers.");
+      throw new ExceptionHandler("Please Enter a valid number of workers.", ExceptionId.ARG_VALID);
+    }
+
+    if (cmd.hasOption(argsIdentifier.MODULE.getId())) {
+      if (type != EngineType.DIR) {
+        log.fatal("Only the modules of a project can be scanned on their own.");
+        throw new ExceptionHandler(
+            "Only the modules of a project can be scanned on their own.", ExceptionId.ARG_VALID);
+      }
+      info.setModule(cmd.getOptionValue(argsIdentifier.MODULE.getId()));
+      log.debug("Scanning only the module: " + info.getModule());
+    } else if (type == EngineType.DIR) {
+      log.debug("Scanning the modules using " + info.getModuleWorkers() + " worker(s)");
+    }
+
     boolean noExitJVM = cmd.hasOption(argsIdentifier.NOEXIT.getId());
     log.debug("Exiting the JVM: " + noExitJVM);
     if (noExitJVM) info.setKillJVM(false);
@@ -220,6 +323,7 @@ public class ArgumentsCheck {
 
     //Setting the raw command within info
     info.setRawCommand(Utils.join(" ", originalArguments));
+    info.setRawArguments(originalArguments);
 
     return info;
   }
@@ -301,6 +405,151 @@ public class ArgumentsCheck {
     depth.setOptionalArg(argsIdentifier.DEPTH.getRequired());
     cmdLineArgs.addOption(depth);
 
+    Option threads =
+        Option.builder(argsIdentifier.THREADS.getId())
+            .hasArg()
+            .argName(argsIdentifier.THREADS.getArgName())
+            .desc(argsIdentifier.THREADS.getDesc())
+            .build();
+    threads.setType(String.class);
+    threads.setOptionalArg(argsIdentifier.THREADS.getRequired());
+    cmdLineArgs.addOption(threads);
+
+    Option rootDepth =
+        Option.builder(argsIdentifier.ROOTDEPTH.getId())
+            .hasArg()
+            .argName(argsIdentifier.ROOTDEPTH.getArgName())
+            .desc(argsIdentifier.ROOTDEPTH.getDesc())
+            .build();
+    rootDepth.setType(String.class);
+    rootDepth.setOptionalArg(argsIdentifier.ROOTDEPTH.getRequired());
+    cmdLineArgs.addOption(rootDepth);
+
+    Option rootTime =
+        Option.builder(argsIdentifier.ROOTTIME.getId())
+            .hasArg()
+            .argName(argsIdentifier.ROOTTIME.getArgName())
+            .desc(argsIdentifier.ROOTTIME.getDesc())
+            .build();
+    rootTime.setType(String.class);
+    rootTime.setOptionalArg(argsIdentifier.ROOTTIME.getRequired());
+    cmdLineArgs.addOption(rootTime);
+
+    Option batch = new Option(argsIdentifier.BATCH.getId(), false, argsIdentifier.BATCH.getDesc());
+    batch.setOptionalArg(argsIdentifier.BATCH.getRequired());
+    cmdLineArgs.addOption(batch);
+
+    Option rules =
+        Option.builder(argsIdentifier.RULES.getId())
+            .hasArg()
+            .argName(argsIdentifier.RULES.getArgName())
+            .desc(argsIdentifier.RULES.getDesc())
+            .build();
+    rules.setType(String.class);
+    rules.setOptionalArg(argsIdentifier.RULES.getRequired());
+    cmdLineArgs.addOption(rules);
+
+    Option cache =
+        Option.builder(argsIdentifier.CACHE.getId())
+            .hasArg()
+            .argName(argsIdentifier.CACHE.getArgName())
+            .desc(argsIdentifier.CACHE.getDesc())
+            .build();
+    cache.setType(String.class);
+    cache.setOptionalArg(argsIdentifier.CACHE.getRequired());
+    cmdLineArgs.addOption(cache);
+
+    Option include =
+        Option.builder(argsIdentifier.INCLUDE.getId())
+            .hasArg()
+            .argName(argsIdentifier.INCLUDE.getArgName())
+            .desc(argsIdentifier.INCLUDE.getDesc())
+            .build();
+    include.setType(String.class);
+    include.setOptionalArg(argsIdentifier.INCLUDE.getRequired());
+    cmdLineArgs.addOption(include);
+
+    Option exclude =
+        Option.builder(argsIdentifier.EXCLUDE.getId())
+            .hasArg()
+            .argName(argsIdentifier.EXCLUDE.getArgName())
+            .desc(argsIdentifier.EXCLUDE.getDesc())
+            .build();
+    exclude.setType(String.class);
+    exclude.setOptionalArg(argsIdentifier.EXCLUDE.getRequired());
+    cmdLineArgs.addOption(exclude);
+
+    Option libSummaries =
+        new Option(
+            argsIdentifier.LIBSUMMARIES.getId(), false, argsIdentifier.LIBSUMMARIES.getDesc());
+    libSummaries.setOptionalArg(argsIdentifier.LIBSUMMARIES.getRequired());
+    cmdLineArgs.addOption(libSummaries);
+
+    Option reachable =
+        new Option(argsIdentifier.REACHABLE.getId(), false, argsIdentifier.REACHABLE.getDesc());
+    reachable.setOptionalArg(argsIdentifier.REACHABLE.getRequired());
+    cmdLineArgs.addOption(reachable);
+
+    Option entryPoints =
+        Option.builder(argsIdentifier.ENTRYPOINTS.getId())
+            .hasArg()
+            .argName(argsIdentifier.ENTRYPOINTS.getArgName())
+            .desc(argsIdentifier.ENTRYPOINTS.getDesc())
+            .build();
+    entryPoints.setType(String.class);
+    entryPoints.setOptionalArg(argsIdentifier.ENTRYPOINTS.getRequired());
+    cmdLineArgs.addOption(entryPoints);
+
+    Option daemon =
+        Option.builder(argsIdentifier.DAEMON.getId())
+            .hasArg()
+            .argName(argsIdentifier.DAEMON.getArgName())
+            .desc(argsIdentifier.DAEMON.getDesc())
+            .build();
+    daemon.setType(Integer.class);
+    daemon.setOptionalArg(argsIdentifier.DAEMON.getRequired());
+    cmdLineArgs.addOption(daemon);
+
+    Option manifest =
+        Option.builder(argsIdentifier.MANIFEST.getId())
+            .hasArg()
+            .argName(argsIdentifier.MANIFEST.getArgName())
+            .desc(argsIdentifier.MANIFEST.getDesc())
+            .build();
+    manifest.setType(String.class);
+    manifest.setOptionalArg(argsIdentifier.MANIFEST.getRequired());
+    cmdLineArgs.addOption(manifest);
+
+    Option workers =
+        Option.builder(argsIdentifier.WORKERS.getId())
+            .hasArg()
+            .argName(argsIdentifier.WORKERS.getArgName())
+            .desc(argsIdentifier.WORKERS.getDesc())
+            .build();
+    workers.setType(Integer.class);
+    workers.setOptionalArg(argsIdentifier.WORKERS.getRequired());
+    cmdLineArgs.addOption(workers);
+
+    Option jobTimeout =
+        Option.builder(argsIdentifier.JOBTIMEOUT.getId())
+            .hasArg()
+            .argName(argsIdentifier.JOBTIMEOUT.getArgName())
+            .desc(argsIdentifier.JOBTIMEOUT.getDesc())
+            .build();
+    jobTimeout.setType(Integer.class);
+    jobTimeout.setOptionalArg(argsIdentifier.JOBTIMEOUT.getRequired());
+    cmdLineArgs.addOption(jobTimeout);
+
+    Option module =
+        Option.builder(argsIdentifier.MODULE.getId())
+            .hasArg()
+            .argName(argsIdentifier.MODULE.getArgName())
+            .desc(argsIdentifier.MODULE.getDesc())
+            .build();
+    module.setType(String.class);
+    module.setOptionalArg(argsIdentifier.MODULE.getRequired());
+    cmdLineArgs.addOption(module);
+
     Option output =
         Option.builder(argsIdentifier.OUT.getId())
             .hasArg()
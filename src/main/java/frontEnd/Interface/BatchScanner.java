@@ -0,0 +1,799 @@
+/* Licensed under GPL-3.0 */
+package frontEnd.Interface;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import frontEnd.Interface.outputRouting.ExceptionHandler;
+import frontEnd.Interface.outputRouting.ExceptionId;
+import frontEnd.argsIdentifier;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.Logger;
+import rule.engine.EngineType;
+import util.Utils;
+
+/**
+ * BatchScanner class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>Scans every target of a manifest, written in YAML, or JSON when its name ends with <code>
+ *     .json</code>, such as:
+ *     <pre>
+ * targets:
+ *   - id: app
+ *     format: jar
+ *     source: [/builds/app.jar]
+ *     dependency: /builds/libs
+ *     args: ["-depth", "2"]
+ * </pre>
+ *     <p>The targets are spread over a bounded number of worker JVMs, each one a {@link
+ *     ScanDaemon} scanning its targets one after another, so that the JVM startup is paid once per
+ *     worker rather than once per target and a target crashing its worker cannot affect the
+ *     others. Every target gets its own report within the output directory, named after its id,
+ *     and the outcome of all of them is written to the <code>summary.json</code> next to them.
+ *     <p>A worker still scanning a target once the job timeout expires is stopped and replaced,
+ *     the target fails rather than holding up the rest of the batch.
+ */
+public class BatchScanner {
+
+  private static final Logger log =
+      org.apache.logging.log4j.LogManager.getLogger(BatchScanner.class);
+
+  /** Constant <code>SUMMARY="summary.json"</code>, the file the outcome of the batch is in. */
+  public static final String SUMMARY = "summary.json";
+
+  /** The minutes a worker may spend on a single job unless the job timeout argument is given. */
+  static final int DEFAULT_JOB_TIMEOUT = 60;
+
+  /** The arguments describing a single target, only allowed within the manifest. */
+  private static final List<argsIdentifier> TARGET_ARGS =
+      Arrays.asList(
+          argsIdentifier.FORMAT,
+          argsIdentifier.SOURCE,
+          argsIdentifier.DEPENDENCY,
+          argsIdentifier.DAEMON);
+
+  /**
+   * Scans the targets of the manifest following the manifest argument. The other arguments, such
+   * as the output format, are used for every target.
+   *
+   * @param args a {@link java.util.List} object, the arguments of the command line.
+   * @return a {@link java.lang.String} object, the path of the summary.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public static String run(List<String> args) throws ExceptionHandler {
+    List<String> shared = new ArrayList<>(args);
+    String manifestPath = takeValue(shared, argsIdentifier.MANIFEST);
+    String workersValue = takeValue(shared, argsIdentifier.WORKERS);
+    long jobTimeout = parseJobTimeout(takeValue(shared, argsIdentifier.JOBTIMEOUT));
+    String outPath = takeValue(shared, argsIdentifier.OUT);
+    shared.remove(argsIdentifier.NOEXIT.getArg());
+    shared.remove(argsIdentifier.NEW.getArg());
+
+    for (argsIdentifier targetArg : TARGET_ARGS) {
+      if (shared.contains(targetArg.getArg())) {
+        log.fatal("The argument " + targetArg.getArg() + " belongs within the manifest.");
+        throw new ExceptionHandler(
+            "The argument " + targetArg.getArg() + " belongs within the manifest.",
+            ExceptionId.ARG_VALID);
+      }
+    }
+
+    int workers;
+    try {
+      workers = workersValue == null ? 1 : Integer.parseInt(workersValue);
+    } catch (NumberFormatException e) {
+      workers = 0;
+    }
+    if (workers < 1) {
+      log.fatal("Please Enter a valid number of workers.");
+      throw new ExceptionHandler("Please Enter a valid number of workers.", ExceptionId.ARG_VALID);
+    }
+
+    List<BatchTarget> targets = loadManifest(manifestPath);
+
+    File outDir =
+        outPath == null
+            ? new File(manifestPath).getAbsoluteFile().getParentFile()
+            : new File(outPath).getAbsoluteFile();
+    if (!outDir.isDirectory() && !outDir.mkdirs()) {
+      log.fatal("The output directory " + outDir.getPath() + " cannot be created.");
+      throw new ExceptionHandler(
+          "The output directory " + outDir.getPath() + " cannot be created.",
+          ExceptionId.FILE_CON);
+    }
+
+    List<ObjectNode> jobs = new ArrayList<>();
+    ObjectMapper mapper = new ObjectMapper();
+    for (BatchTarget target : targets) {
+      ObjectNode job = mapper.createObjectNode().put("id", target.getId());
+      ArrayNode jobArgs = job.putArray("args");
+      for (String arg : toJobArgs(target, outDir, shared)) jobArgs.add(arg);
+      jobs.add(job);
+    }
+
+    log.info("Scanning " + jobs.size() + " target(s) using " + workers + " worker(s)");
+    long start = System.currentTimeMillis();
+    BatchResult[] results = scanAll(jobs, Math.min(workers, jobs.size()), jobTimeout);
+
+    int failed = 0;
+    for (BatchResult result : results) {
+      if (result.getCode() != ExceptionId.SUCCESS.getId()) failed++;
+    }
+
+    BatchSummary summary = new BatchSummary();
+    summary.setMillis(System.currentTimeMillis() - start);
+    summary.setSucceeded(results.length - failed);
+    summary.setFailed(failed);
+    summary.setResults(Arrays.asList(results));
+
+    File summaryFile = new File(outDir, SUMMARY);
+    try {
+      mapper.writerWithDefaultPrettyPrinter().writeValue(summaryFile, summary);
+    } catch (IOException e) {
+      log.fatal("Error writing the summary " + summaryFile.getPath());
+      throw new ExceptionHandler(
+          "Error writing the summary " + summaryFile.getPath(), ExceptionId.FILE_O);
+    }
+
+    if (summary.getFailed() > 0) {
+      log.fatal(summary.getFailed() + " target(s) failed, see " + summaryFile.getPath());
+      throw new ExceptionHandler(
+          summary.getFailed() + " target(s) failed, see " + summaryFile.getPath(),
+          ExceptionId.SCAN_GEN);
+    }
+    return summaryFile.getPath();
+  }
+
+  /**
+   * Reads and checks a manifest, giving every target without an id the name of its first source.
+   *
+   * @param path a {@link java.lang.String} object.
+   * @return a {@link java.util.List} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public static List<BatchTarget> loadManifest(String path) throws ExceptionHandler {
+    File file = new File(path);
+    if (!file.isFile()) {
+      log.fatal("The manifest " + path + " is not available.");
+      throw new ExceptionHandler(
+          "The manifest " + path + " is not available.", ExceptionId.FILE_AFK);
+    }
+
+    ObjectMapper mapper =
+        path.toLowerCase().endsWith(".json")
+            ? new ObjectMapper()
+            : new ObjectMapper(new YAMLFactory());
+
+    BatchManifest manifest;
+    try {
+      manifest = mapper.readValue(file, BatchManifest.class);
+    } catch (JsonProcessingException e) {
+      log.fatal("Error parsing the manifest " + path + ": " + e.getOriginalMessage());
+      throw new ExceptionHandler(
+          "Error parsing the manifest " + path + ": " + e.getOriginalMessage(),
+          ExceptionId.ARG_VALID);
+    } catch (IOException e) {
+      log.fatal("Error reading the manifest " + path);
+      throw new ExceptionHandler("Error reading the manifest " + path, ExceptionId.FILE_READ);
+    }
+
+    List<BatchTarget> targets = manifest == null ? new ArrayList<>() : manifest.getTargets();
+    if (targets.isEmpty()) {
+      log.fatal("The manifest " + path + " has no targets.");
+      throw new ExceptionHandler(
+          "The manifest " + path + " has no targets.", ExceptionId.ARG_VALID);
+    }
+
+    Set<String> ids = new HashSet<>();
+    for (BatchTarget target : targets) {
+      if (target.getSource().isEmpty()) {
+        log.fatal("A target of the manifest has no source.");
+        throw new ExceptionHandler(
+            "A target of the manifest has no source.", ExceptionId.ARG_VALID);
+      }
+      if (target.getId() == null) {
+        String name = new File(target.getSource().get(0)).getName();
+        target.setId(name.contains(".") ? name.substring(0, name.lastIndexOf('.')) : name);
+      }
+      if (EngineType.getFromFlag(target.getFormat()) == null) {
+        log.fatal("The target " + target.getId() + " has no valid format.");
+        throw new ExceptionHandler(
+            "The target " + target.getId() + " has no valid format.", ExceptionId.ARG_VALID);
+      }
+      if (!ids.add(target.getId())) {
+        log.fatal("The id " + target.getId() + " is used by more than one target.");
+        throw new ExceptionHandler(
+            "The id " + target.getId() + " is used by more than one target.",
+            ExceptionId.ARG_VALID);
+      }
+    }
+    return targets;
+  }
+
+  /**
+   * The arguments scanning a target, writing its report within the output directory.
+   *
+   * @param target a {@link frontEnd.Interface.BatchScanner.BatchTarget} object.
+   * @param outDir a {@link java.io.File} object.
+   * @param shared a {@link java.util.List} object, the arguments used for every target.
+   * @return a {@link java.util.List} object.
+   */
+  static List<String> toJobArgs(BatchTarget target, File outDir, List<String> shared) {
+    List<String> args = new ArrayList<>();
+    args.add(argsIdentifier.FORMAT.getArg());
+    args.add(target.getFormat());
+    args.add(argsIdentifier.SOURCE.getArg());
+    args.addAll(target.getSource());
+    if (target.getDependency() != null) {
+      args.add(argsIdentifier.DEPENDENCY.getArg());
+      args.add(target.getDependency());
+    }
+    args.add(argsIdentifier.OUT.getArg());
+    args.add(new File(outDir, target.getId()).getPath());
+    args.add(argsIdentifier.NEW.getArg());
+    args.addAll(target.getArgs());
+    args.addAll(shared);
+    return args;
+  }
+
+  /** Removes the argument and its value from the arguments, returning the value. */
+  static String takeValue(List<String> args, argsIdentifier id) throws ExceptionHandler {
+    int index = args.indexOf(id.getArg());
+    if (index < 0) return null;
+
+    if (index + 1 >= args.size()) {
+      log.fatal("Please Enter a value for the argument " + id.getArg() + ".");
+      throw new ExceptionHandler(
+          "Please Enter a value for the argument " + id.getArg() + ".", ExceptionId.ARG_VALID);
+    }
+    args.remove(index);
+    return args.remove(index);
+  }
+
+  /**
+   * The milliseconds a worker may spend on a single job.
+   *
+   * @param minutes a {@link java.lang.String} object, the value of the job timeout argument.
+   * @return a long, 0 for no limit.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  static long parseJobTimeout(String minutes) throws ExceptionHandler {
+    int timeout;
+    try {
+      timeout = minutes == null ? DEFAULT_JOB_TIMEOUT : Integer.parseInt(minutes);
+    } catch (NumberFormatException e) {
+      timeout = -1;
+    }
+    if (timeout < 0) {
+      log.fatal("Please Enter a valid job timeout.");
+      throw new ExceptionHandler("Please Enter a valid job timeout.", ExceptionId.ARG_VALID);
+    }
+    return TimeUnit.MINUTES.toMillis(timeout);
+  }
+
+  /**
+   * Scans the jobs using the number of workers given, the results are in the order of the jobs. A
+   * worker still scanning a job once the timeout expires is stopped and the job fails.
+   */
+  static BatchResult[] scanAll(List<ObjectNode> jobs, int workers, long jobTimeout)
+      throws ExceptionHandler {
+    List<String> command = workerCommand();
+    BatchResult[] results = new BatchResult[jobs.size()];
+    AtomicInteger next = new AtomicInteger();
+
+    ExecutorService pool = Executors.newFixedThreadPool(workers);
+    try {
+      List<Future<?>> running = new ArrayList<>();
+      for (int i = 0; i < workers; i++) {
+        running.add(pool.submit(() -> scanJobs(command, jobs, next, results, jobTimeout)));
+      }
+      for (Future<?> worker : running) worker.get();
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExceptionHandler("Interrupted while scanning the targets.", ExceptionId.SCAN_GEN);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+      if (e.getCause() instanceof Error) throw (Error) e.getCause();
+      throw new ExceptionHandler(
+          "Error scanning the targets: " + e.getCause().getMessage(), ExceptionId.SCAN_GEN);
+    } finally {
+      pool.shutdownNow();
+    }
+    return results;
+  }
+
+  /**
+   * Takes the next job until there is none left, starting a worker when there is none, such as
+   * after the previous one stopped while scanning.
+   */
+  private static void scanJobs(
+      List<String> command,
+      List<ObjectNode> jobs,
+      AtomicInteger next,
+      BatchResult[] results,
+      long jobTimeout) {
+    Worker worker = null;
+    try {
+      for (int i = next.getAndIncrement(); i < jobs.size(); i = next.getAndIncrement()) {
+        ObjectNode job = jobs.get(i);
+        String id = job.get("id").asText();
+        long start = System.currentTimeMillis();
+
+        BatchResult result = new BatchResult();
+        result.setId(id);
+        try {
+          if (worker == null) worker = Worker.start(command);
+          log.info("Scanning the target " + id);
+          JsonNode reply = worker.send(job, jobTimeout);
+
+          result.setCode(reply.path("code").asInt(ExceptionId.UNKWN.getId()));
+          if (reply.hasNonNull("output")) result.setOutput(reply.get("output").asText());
+          if (reply.hasNonNull("message")) result.setMessage(reply.get("message").asText());
+        } catch (SocketTimeoutException e) {
+          log.error("The target " + id + " timed out, stopping its worker");
+          worker.kill();
+          worker = null;
+
+          result.setCode(ExceptionId.SCAN_GEN.getId());
+          result.setMessage(
+              "The target timed out after " + TimeUnit.MILLISECONDS.toMinutes(jobTimeout) + "min");
+        } catch (IOException e) {
+          log.error("The worker stopped while scanning the target " + id + ": " + e.getMessage());
+          if (worker != null) worker.close();
+          worker = null;
+
+          result.setCode(ExceptionId.SCAN_GEN.getId());
+          result.setMessage("The worker stopped while scanning the target: " + e.getMessage());
+        }
+        result.setMillis(System.currentTimeMillis() - start);
+        results[i] = result;
+      }
+    } finally {
+      if (worker != null) worker.close();
+    }
+  }
+
+  /** The command starting a worker, a daemon within a JVM like the current one. */
+  private static List<String> workerCommand() {
+    List<String> command = new ArrayList<>();
+    command.add(Utils.osPathJoin(System.getProperty("java.home"), "bin", "java"));
+    for (String jvmArg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+      if (jvmArg.startsWith("-X") || jvmArg.startsWith("-D")) command.add(jvmArg);
+    }
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(EntryPoint.class.getName());
+    command.add(argsIdentifier.DAEMON.getArg());
+    command.add("0");
+    return command;
+  }
+
+  /** A worker JVM running a {@link ScanDaemon}, and the connection to it. */
+  private static class Worker implements Closeable {
+
+    private static final String LISTENING = "Listening on ";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Process process;
+    private final Socket socket;
+    private final BufferedReader in;
+    private final PrintWriter out;
+
+    private Worker(Process process, Socket socket) throws IOException {
+      this.process = process;
+      this.socket = socket;
+      this.in =
+          new BufferedReader(
+              new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      this.out =
+          new PrintWriter(
+              new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+    }
+
+    /** Starts the JVM and connects to the port it listens on once started. */
+    private static Worker start(List<String> command) throws IOException {
+      Process process =
+          new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+      try {
+        BufferedReader console =
+            new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+
+        String line = console.readLine();
+        while (line != null && !line.startsWith(LISTENING)) line = console.readLine();
+        if (line == null) throw new IOException("The worker stopped before listening");
+        int port = Integer.parseInt(line.substring(line.lastIndexOf(':') + 1).trim());
+
+        //The logs of the worker have to be read for it not to block on its console
+        Thread drain =
+            new Thread(
+                () -> {
+                  try {
+                    for (String logLine = console.readLine();
+                        logLine != null;
+                        logLine = console.readLine()) log.debug(logLine);
+                  } catch (IOException e) {
+                    log.debug("Stopped reading the logs of a worker");
+                  }
+                });
+        drain.setDaemon(true);
+        drain.start();
+
+        return new Worker(process, new Socket(InetAddress.getLoopbackAddress(), port));
+      } catch (IOException | RuntimeException e) {
+        process.destroyForcibly();
+        throw e instanceof IOException ? (IOException) e : new IOException(e);
+      }
+    }
+
+    /** Sends a job and waits for its reply, up to the timeout given when it is not 0. */
+    private JsonNode send(ObjectNode job, long timeout) throws IOException {
+      socket.setSoTimeout((int) Math.min(timeout, Integer.MAX_VALUE));
+      out.println(mapper.writeValueAsString(job));
+      String reply = in.readLine();
+      if (reply == null) throw new IOException("The worker closed the connection");
+      return mapper.readTree(reply);
+    }
+
+    /** Stops the JVM without waiting for the job it is scanning. */
+    private void kill() {
+      process.destroyForcibly();
+      try {
+        socket.close();
+      } catch (IOException e) {
+        log.debug("Error closing the connection to a stopped worker");
+      }
+    }
+
+    /** Asks the daemon to shut down, stopping the JVM if it does not. */
+    @Override
+    public void close() {
+      try {
+        socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(30));
+        out.println(mapper.writeValueAsString(mapper.createObjectNode().put("shutdown", true)));
+        in.readLine();
+        socket.close();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) process.destroyForcibly();
+      } catch (IOException e) {
+        process.destroyForcibly();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  /** The content of a manifest. */
+  public static class BatchManifest {
+
+    private List<BatchTarget> targets = new ArrayList<>();
+
+    /**
+     * Getter for the field <code>targets</code>.
+     *
+     * @return a {@link java.util.List} object.
+     */
+    public List<BatchTarget> getTargets() {
+      return targets;
+    }
+
+    /**
+     * Setter for the field <code>targets</code>.
+     *
+     * @param targets a {@link java.util.List} object.
+     */
+    public void setTargets(List<BatchTarget> targets) {
+      this.targets = targets == null ? new ArrayList<>() : targets;
+    }
+  }
+
+  /** A target of a manifest. */
+  public static class BatchTarget {
+
+    private String id;
+    private String format;
+    private List<String> source = new ArrayList<>();
+    private String dependency;
+    private List<String> args = new ArrayList<>();
+
+    /**
+     * Getter for the field <code>id</code>.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getId() {
+      return id;
+    }
+
+    /**
+     * Setter for the field <code>id</code>.
+     *
+     * @param id a {@link java.lang.String} object.
+     */
+    public void setId(String id) {
+      this.id = id;
+    }
+
+    /**
+     * Getter for the field <code>format</code>.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getFormat() {
+      return format;
+    }
+
+    /**
+     * Setter for the field <code>format</code>.
+     *
+     * @param format a {@link java.lang.String} object.
+     */
+    public void setFormat(String format) {
+      this.format = format;
+    }
+
+    /**
+     * Getter for the field <code>source</code>.
+     *
+     * @return a {@link java.util.List} object.
+     */
+    public List<String> getSource() {
+      return source;
+    }
+
+    /**
+     * Setter for the field <code>source</code>.
+     *
+     * @param source a {@link java.util.List} object.
+     */
+    public void setSource(List<String> source) {
+      this.source = source == null ? new ArrayList<>() : source;
+    }
+
+    /**
+     * Getter for the field <code>dependency</code>.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getDependency() {
+      return dependency;
+    }
+
+    /**
+     * Setter for the field <code>dependency</code>.
+     *
+     * @param dependency a {@link java.lang.String} object.
+     */
+    public void setDependency(String dependency) {
+      this.dependency = dependency;
+    }
+
+    /**
+     * Getter for the field <code>args</code>.
+     *
+     * @return a {@link java.util.List} object.
+     */
+    public List<String> getArgs() {
+      return args;
+    }
+
+    /**
+     * Setter for the field <code>args</code>.
+     *
+     * @param args a {@link java.util.List} object.
+     */
+    public void setArgs(List<String> args) {
+      this.args = args == null ? new ArrayList<>() : args;
+    }
+  }
+
+  /** The outcome of scanning a target. */
+  public static class BatchResult {
+
+    private String id;
+    private int code;
+    private String output;
+    private String message;
+    private long millis;
+
+    /**
+     * Getter for the field <code>id</code>.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getId() {
+      return id;
+    }
+
+    /**
+     * Setter for the field <code>id</code>.
+     *
+     * @param id a {@link java.lang.String} object.
+     */
+    public void setId(String id) {
+      this.id = id;
+    }
+
+    /**
+     * Getter for the field <code>code</code>.
+     *
+     * @return a int.
+     */
+    public int getCode() {
+      return code;
+    }
+
+    /**
+     * Setter for the field <code>code</code>.
+     *
+     * @param code a int.
+     */
+    public void setCode(int code) {
+      this.code = code;
+    }
+
+    /**
+     * Getter for the field <code>output</code>.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getOutput() {
+      return output;
+    }
+
+    /**
+     * Setter for the field <code>output</code>.
+     *
+     * @param output a {@link java.lang.String} object.
+     */
+    public void setOutput(String output) {
+      this.output = output;
+    }
+
+    /**
+     * Getter for the field <code>message</code>.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getMessage() {
+      return message;
+    }
+
+    /**
+     * Setter for the field <code>message</code>.
+     *
+     * @param message a {@link java.lang.String} object.
+     */
+    public void setMessage(String message) {
+      this.message = message;
+    }
+
+    /**
+     * Getter for the field <code>millis</code>.
+     *
+     * @return a long.
+     */
+    public long getMillis() {
+      return millis;
+    }
+
+    /**
+     * Setter for the field <code>millis</code>.
+     *
+     * @param millis a long.
+     */
+    public void setMillis(long millis) {
+      this.millis = millis;
+    }
+  }
+
+  /** The outcome of scanning all the targets of a manifest. */
+  public static class BatchSummary {
+
+    private int succeeded;
+    private int failed;
+    private long millis;
+    private List<BatchResult> results = new ArrayList<>();
+
+    /**
+     * Getter for the field <code>succeeded</code>.
+     *
+     * @return a int.
+     */
+    public int getSucceeded() {
+      return succeeded;
+    }
+
+    /**
+     * Setter for the field <code>succeeded</code>.
+     *
+     * @param succeeded a int.
+     */
+    public void setSucceeded(int succeeded) {
+      this.succeeded = succeeded;
+    }
+
+    /**
+     * Getter for the field <code>failed</code>.
+     *
+     * @return a int.
+     */
+    public int getFailed() {
+      return failed;
+    }
+
+    /**
+     * Setter for the field <code>failed</code>.
+     *
+     * @param failed a int.
+     */
+    public void setFailed(int failed) {
+      this.failed = failed;
+    }
+
+    /**
+     * Getter for the field <code>millis</code>.
+     *
+     * @return a long.
+     */
+    public long getMillis() {
+      return millis;
+    }
+
+    /**
+     * Setter for the field <code>millis</code>.
+     *
+     * @param millis a long.
+     */
+    public void setMillis(long millis) {
+      this.millis = millis;
+    }
+
+    /**
+     * Getter for the field <code>results</code>.
+     *
+     * @return a {@link java.util.List} object.
+     */
+    public List<BatchResult> getResults() {
+      return results;
+    }
+
+    /**
+     * Setter for the field <code>results</code>.
+     *
+     * @param results a {@link java.util.List} object.
+     */
+    public void setResults(List<BatchResult> results) {
+      this.results = results == null ? new ArrayList<>() : results;
+    }
+  }
+}
@@ -37,6 +37,20 @@ public class EntryPoint {
     boolean exitingJVM = !strippedArgs.contains(argsIdentifier.NOEXIT.getArg());
 
     try {
+      if (strippedArgs.contains(argsIdentifier.DAEMON.getArg())) {
+        ScanDaemon.run(strippedArgs);
+
+        if (exitingJVM) System.exit(ExceptionId.SUCCESS.getId());
+        return;
+      }
+
+      if (strippedArgs.contains(argsIdentifier.MANIFEST.getArg())) {
+        System.out.println(BatchScanner.run(strippedArgs));
+
+        if (exitingJVM) System.exit(ExceptionId.SUCCESS.getId());
+        return;
+      }
+
       //Fail Fast on the input validation
       EnvironmentInformation generalInfo = ArgumentsCheck.paramaterCheck(strippedArgs);
 
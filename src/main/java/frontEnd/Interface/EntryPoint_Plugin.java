@@ -53,6 +53,9 @@ public class EntryPoint_Plugin {
     setDebuggingLevel(debuggingLevel);
     //endregion
 
+    //The JVM is reused by the plugin, nothing of a previous scan may carry over
+    SubRunner.resetScanState();
+
     try {
       EnvironmentInformation info =
           Core.paramaterCheck(
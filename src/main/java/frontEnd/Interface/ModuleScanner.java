@@ -0,0 +1,84 @@
+/* Licensed under GPL-3.0 */
+package frontEnd.Interface;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import frontEnd.Interface.BatchScanner.BatchResult;
+import frontEnd.Interface.outputRouting.ExceptionHandler;
+import frontEnd.Interface.outputRouting.ExceptionId;
+import frontEnd.MessagingSystem.routing.EnvironmentInformation;
+import frontEnd.argsIdentifier;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * ModuleScanner class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>Scans the modules of a project over a bounded number of worker JVMs, the ones of the
+ *     {@link BatchScanner}. SOOT and the maps built from it only have a single analysis per JVM,
+ *     each module is scanned within a worker of its own with the arguments of the project scan and
+ *     the module argument, writing its findings for the project scan to merge into its report.
+ */
+public class ModuleScanner {
+
+  private static final Logger log =
+      org.apache.logging.log4j.LogManager.getLogger(ModuleScanner.class);
+
+  /**
+   * Scans each module within a worker, the files the findings are written to are in the order of
+   * the modules.
+   *
+   * @param info a {@link frontEnd.MessagingSystem.routing.EnvironmentInformation} object, the
+   *     project scan.
+   * @param modules a {@link java.util.List} object, the names of the modules to scan.
+   * @param outDir a {@link java.io.File} object, the directory the findings are written within.
+   * @return a {@link java.util.List} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any module fails.
+   */
+  public static List<String> scan(EnvironmentInformation info, List<String> modules, File outDir)
+      throws ExceptionHandler {
+    List<String> shared = new ArrayList<>(info.getRawArguments());
+    BatchScanner.takeValue(shared, argsIdentifier.WORKERS);
+    long jobTimeout =
+        BatchScanner.parseJobTimeout(BatchScanner.takeValue(shared, argsIdentifier.JOBTIMEOUT));
+    BatchScanner.takeValue(shared, argsIdentifier.OUT);
+    BatchScanner.takeValue(shared, argsIdentifier.MODULE);
+    shared.remove(argsIdentifier.NOEXIT.getArg());
+    shared.remove(argsIdentifier.NEW.getArg());
+
+    List<ObjectNode> jobs = new ArrayList<>();
+    ObjectMapper mapper = new ObjectMapper();
+    for (int i = 0; i < modules.size(); i++) {
+      ObjectNode job = mapper.createObjectNode().put("id", modules.get(i));
+      ArrayNode jobArgs = job.putArray("args");
+      for (String arg : shared) jobArgs.add(arg);
+      jobArgs.add(argsIdentifier.MODULE.getArg()).add(modules.get(i));
+      jobArgs.add(argsIdentifier.OUT.getArg()).add(new File(outDir, "module" + i).getPath());
+      jobArgs.add(argsIdentifier.NEW.getArg());
+      jobs.add(job);
+    }
+
+    int workers = Math.min(info.getModuleWorkers(), jobs.size());
+    log.info("Scanning " + jobs.size() + " module(s) using " + workers + " worker(s)");
+    BatchResult[] results = BatchScanner.scanAll(jobs, workers, jobTimeout);
+
+    List<String> outputs = new ArrayList<>();
+    for (BatchResult result : results) {
+      if (result.getCode() != ExceptionId.SUCCESS.getId()) {
+        log.fatal("Error scanning the module " + result.getId() + ": " + result.getMessage());
+        throw new ExceptionHandler(
+            "Error scanning the module " + result.getId() + ": " + result.getMessage(),
+            ExceptionId.SCAN_GEN);
+      }
+      log.debug("Scanned the module " + result.getId() + " in " + result.getMillis() + "ms");
+      outputs.add(result.getOutput());
+    }
+    return outputs;
+  }
+}
@@ -0,0 +1,169 @@
+/* Licensed under GPL-3.0 */
+package frontEnd.Interface;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import frontEnd.Interface.outputRouting.ExceptionHandler;
+import frontEnd.Interface.outputRouting.ExceptionId;
+import frontEnd.MessagingSystem.routing.EnvironmentInformation;
+import frontEnd.argsIdentifier;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.Logger;
+import util.Utils;
+
+/**
+ * ScanDaemon class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>Keeps the JVM running between scans, reading the scan jobs from a port of the loopback
+ *     interface. A job is a JSON line carrying the usual arguments, <code>{"id": "1", "args":
+ *     ["-in", "jar", "-s", "app.jar"]}</code>, answered by a JSON line carrying the same id, the
+ *     error code and either the output file or the error message. The line <code>{"shutdown":
+ *     true}</code> stops the daemon.
+ *     <p>SOOT only has a single scene per JVM, the jobs are scanned one after another and the
+ *     state of the JVM is reset around each of them, see {@link SubRunner#resetScanState()}. The
+ *     scene is rebuilt for every job, the JDK classes included, as SOOT cannot drop the classes of
+ *     a job while keeping the others resolved. The daemon only saves the start of the JVM, the JIT
+ *     compiled code, the slicing threads and the platform hierarchy read by {@link
+ *     util.PlatformClassCache}, which is not part of the scene.
+ */
+public class ScanDaemon {
+
+  private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(ScanDaemon.class);
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final ServerSocket server;
+  private boolean running = true;
+
+  /**
+   * Constructor for ScanDaemon.
+   *
+   * @param server a {@link java.net.ServerSocket} object, the socket the jobs are read from.
+   */
+  ScanDaemon(ServerSocket server) {
+    this.server = server;
+  }
+
+  /**
+   * Listens on the port following the daemon argument and scans the jobs received until the
+   * daemon is shut down.
+   *
+   * @param args a {@link java.util.List} object, the arguments of the command line.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public static void run(List<String> args) throws ExceptionHandler {
+    int port;
+    try {
+      port = Integer.parseInt(args.get(args.indexOf(argsIdentifier.DAEMON.getArg()) + 1));
+    } catch (IndexOutOfBoundsException | NumberFormatException e) {
+      port = -1;
+    }
+    if (port < 0 || port > 65535) {
+      log.fatal("Please Enter a valid port for the daemon.");
+      throw new ExceptionHandler(
+          "Please Enter a valid port for the daemon.", ExceptionId.ARG_VALID);
+    }
+
+    try (ServerSocket server = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+      System.out.println(
+          "Listening on " + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort());
+      new ScanDaemon(server).serve();
+    } catch (IOException e) {
+      log.fatal("Error listening on the port " + port);
+      throw new ExceptionHandler("Error listening on the port " + port, ExceptionId.SCAN_GEN);
+    }
+  }
+
+  /** Serves one connection after another until a shutdown is requested. */
+  void serve() {
+    while (running) {
+      try (Socket client = server.accept();
+          BufferedReader in =
+              new BufferedReader(
+                  new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+          PrintWriter out =
+              new PrintWriter(
+                  new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8),
+                  true)) {
+
+        for (String line = in.readLine(); running && line != null; line = in.readLine()) {
+          if (!line.trim().isEmpty()) out.println(mapper.writeValueAsString(handle(line)));
+        }
+      } catch (IOException e) {
+        if (server.isClosed()) return;
+        log.warn("Lost the connection to the client: " + e.getMessage());
+      }
+    }
+  }
+
+  /** Parses a line and scans the job it carries, the reply is never null. */
+  private ObjectNode handle(String line) {
+    ObjectNode reply = mapper.createObjectNode();
+
+    JsonNode job;
+    try {
+      job = mapper.readTree(line);
+    } catch (IOException e) {
+      return fail(reply, ExceptionId.ARG_VALID, "The job is not valid JSON: " + e.getMessage());
+    }
+    if (job == null || !job.isObject()) {
+      return fail(reply, ExceptionId.ARG_VALID, "The job is not a JSON object.");
+    }
+    if (job.has("id")) reply.set("id", job.get("id"));
+
+    if (job.path("shutdown").asBoolean(false)) {
+      log.info("Shutting the daemon down");
+      running = false;
+      reply.put("code", ExceptionId.SUCCESS.getId());
+      return reply;
+    }
+
+    if (!job.path("args").isArray()) {
+      return fail(reply, ExceptionId.ARG_VALID, "The job has no array of arguments.");
+    }
+    List<String> rawArgs = new ArrayList<>();
+    for (JsonNode arg : job.get("args")) rawArgs.add(arg.asText());
+    List<String> args = Utils.stripEmpty(rawArgs.toArray(new String[0]));
+    if (args.contains(argsIdentifier.DAEMON.getArg())) {
+      return fail(reply, ExceptionId.ARG_VALID, "A job cannot start another daemon.");
+    }
+
+    log.info("Scanning the job " + reply.path("id").asText());
+    SubRunner.resetScanState();
+    try {
+      EnvironmentInformation info = ArgumentsCheck.paramaterCheck(args);
+      info.setKillJVM(false);
+
+      reply.put("output", SubRunner.run(info));
+      reply.put("code", ExceptionId.SUCCESS.getId());
+    } catch (ExceptionHandler e) {
+      fail(reply, e.getErrorCode(), e.getLongDescriptionString());
+    } catch (RuntimeException e) {
+      log.error("Error scanning the job " + reply.path("id").asText(), e);
+      fail(reply, ExceptionId.SCAN_GEN, e.toString());
+    } finally {
+      //Releasing the scene of the job rather than holding it until the next one
+      SubRunner.resetScanState();
+    }
+    return reply;
+  }
+
+  private static ObjectNode fail(ObjectNode reply, ExceptionId id, String message) {
+    reply.put("code", id.getId());
+    reply.put("message", message);
+    return reply;
+  }
+}
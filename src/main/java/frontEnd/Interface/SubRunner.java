@@ -1,10 +1,22 @@
 /* Licensed under GPL-3.0 */
 package frontEnd.Interface;
 
+import analyzer.ApplicationScope;
+import analyzer.BaseAnalyzer;
+import analyzer.EntryPointReachability;
 import frontEnd.Interface.outputRouting.ExceptionHandler;
 import frontEnd.MessagingSystem.routing.EnvironmentInformation;
+import frontEnd.MessagingSystem.routing.outputStructures.common.CSVMapper;
 import org.apache.logging.log4j.Logger;
 import rule.engine.*;
+import soot.G;
+import util.ArchiveIndex;
+import util.CalleeSummaryMap;
+import util.DexArchiveIndex;
+import util.FieldInitializationInstructionMap;
+import util.NamedMethodMap;
+import util.UnitGraphCache;
+import util.Utils;
 
 /**
  * SubRunner class.
@@ -25,6 +37,11 @@ public class SubRunner {
    */
   public static String run(EnvironmentInformation info) throws ExceptionHandler {
 
+    if (info.getModule() != null) {
+      log.info("Scanning only the module " + info.getModule());
+      return new SourceEntry().scanModule(info);
+    }
+
     EntryHandler handler = null;
     switch (info.getSourceType()) {
       case APK:
@@ -63,4 +80,30 @@ public class SubRunner {
 
     return info.getFileOut();
   }
+
+  /**
+   * Resets everything a scan leaves behind within the JVM: the SOOT scene and options, the method
+   * and field maps built from them, the caches of the slicing and of the archives, the findings
+   * gathered by the rule checkers, the heuristics counters, the issue counter of the CSV output,
+   * the rule pack, the application scope, the entry points and the analysis scopes. The next scan
+   * starts as if it were the first one of the JVM, its SOOT scene loads the JDK classes again.
+   */
+  public static void resetScanState() {
+    G.reset();
+    NamedMethodMap.clearCallerCalleeGraph();
+    FieldInitializationInstructionMap.reset();
+    UnitGraphCache.reset();
+    CalleeSummaryMap.reset();
+    for (RuleChecker ruleChecker : CommonRules.ruleCheckerList) ruleChecker.reset();
+    ArchiveIndex.reset();
+    DexArchiveIndex.reset();
+    Utils.resetHeuristics();
+    Utils.resetPreparedBodies();
+    CSVMapper.setIssueCounter(0);
+    RulePack.setActive(null);
+    ApplicationScope.setActive(null);
+    EntryPointReachability.setActive(null);
+    BaseAnalyzer.initAnalysisScope(null);
+    BaseAnalyzer.initReachableMethods(null);
+  }
 }
@@ -69,6 +69,12 @@ public class EnvironmentInformation {
   private Long analysisMilliSeconds;
   private String fileOut;
   private Boolean streaming = false;
+  private Integer ruleThreads = 1;
+  private Boolean batchSlicing = false;
+  private String cacheDir = null;
+  private Integer moduleWorkers = 1;
+  private String module = null;
+  private List<String> rawArguments = new ArrayList<>();
   String javaHome;
   String androidHome;
   //region From Outside and defaulted unless set
@@ -449,10 +455,10 @@ public class EnvironmentInformation {
 
   /** setHuristicsInfo. */
   public void setHuristicsInfo() {
-    this.heuristics.setNumberOfOrthogonal(Utils.NUM_ORTHOGONAL);
-    this.heuristics.setNumberOfConstantsToCheck(Utils.NUM_CONSTS_TO_CHECK);
-    this.heuristics.setNumberOfSlices(Utils.NUM_SLICES);
-    this.heuristics.setNumberOfHeuristics(Utils.NUM_HEURISTIC);
+    this.heuristics.setNumberOfOrthogonal(Utils.NUM_ORTHOGONAL.get());
+    this.heuristics.setNumberOfConstantsToCheck(Utils.NUM_CONSTS_TO_CHECK.get());
+    this.heuristics.setNumberOfSlices(Utils.NUM_SLICES.get());
+    this.heuristics.setNumberOfHeuristics(Utils.NUM_HEURISTIC.get());
     this.heuristics.setSliceAverage(Utils.calculateAverage());
     this.heuristics.setDepthCount(Utils.createDepthCountList());
   }
@@ -700,6 +706,61 @@ public class EnvironmentInformation {
     return this.streaming;
   }
 
+  /**
+   * Getter for the field <code>ruleThreads</code>.
+   *
+   * @return a {@link java.lang.Integer} object.
+   */
+  public Integer getRuleThreads() {
+    return this.ruleThreads;
+  }
+
+  /**
+   * Getter for the field <code>batchSlicing</code>.
+   *
+   * @return a {@link java.lang.Boolean} object.
+   */
+  public Boolean getBatchSlicing() {
+    return this.batchSlicing;
+  }
+
+  /**
+   * Getter for the field <code>cacheDir</code>.
+   *
+   * @return a {@link java.lang.String} object.
+   */
+  public String getCacheDir() {
+    return this.cacheDir;
+  }
+
+  /**
+   * Getter for the field <code>moduleWorkers</code>, the number of worker JVMs scanning the
+   * modules of a project.
+   *
+   * @return a {@link java.lang.Integer} object.
+   */
+  public Integer getModuleWorkers() {
+    return this.moduleWorkers;
+  }
+
+  /**
+   * Getter for the field <code>module</code>, the only module of the project to scan.
+   *
+   * @return a {@link java.lang.String} object, null to scan every module.
+   */
+  public String getModule() {
+    return this.module;
+  }
+
+  /**
+   * Getter for the field <code>rawArguments</code>, the arguments of the command line.
+   *
+   * @return a {@link java.util.List} object.
+   */
+  public List<String> getRawArguments() {
+    return this.rawArguments;
+  }
+
   /**
    * getAssessmentFramework.
    *
@@ -1060,6 +1121,60 @@ public class EnvironmentInformation {
     this.streaming = streaming;
   }
 
+  /**
+   * Setter for the field <code>ruleThreads</code>.
+   *
+   * @param ruleThreads a {@link java.lang.Integer} object.
+   */
+  public void setRuleThreads(Integer ruleThreads) {
+    this.ruleThreads = ruleThreads;
+  }
+
+  /**
+   * Setter for the field <code>batchSlicing</code>.
+   *
+   * @param batchSlicing a {@link java.lang.Boolean} object.
+   */
+  public void setBatchSlicing(Boolean batchSlicing) {
+    this.batchSlicing = batchSlicing;
+  }
+
+  /**
+   * Setter for the field <code>cacheDir</code>.
+   *
+   * @param cacheDir a {@link java.lang.String} object.
+   */
+  public void setCacheDir(String cacheDir) {
+    this.cacheDir = cacheDir;
+  }
+
+  /**
+   * Setter for the field <code>moduleWorkers</code>.
+   *
+   * @param moduleWorkers a {@link java.lang.Integer} object.
+   */
+  public void setModuleWorkers(Integer moduleWorkers) {
+    this.moduleWorkers = moduleWorkers;
+  }
+
+  /**
+   * Setter for the field <code>module</code>.
+   *
+   * @param module a {@link java.lang.String} object.
+   */
+  public void setModule(String module) {
+    this.module = module;
+  }
+
+  /**
+   * Setter for the field <code>rawArguments</code>.
+   *
+   * @param rawArguments a {@link java.util.List} object.
+   */
+  public void setRawArguments(List<String> rawArguments) {
+    this.rawArguments = rawArguments;
+  }
+
   /**
    * Setter for the field <code>javaHome</code>.
    *
@@ -65,6 +65,114 @@ public enum argsIdentifier {
   VERYVERBOSE("VV", null, "Display logs from trace levels", null, null, false),
   TIMESTAMP("ts", null, "Add a timestamp to the file output.", null, null, false),
   DEPTH("depth", null, "The depth of slicing to go into", "depth", null, false),
+  THREADS(
+      "threads",
+      null,
+      "The number of threads checking the rules and slicing their call sites, defaults to 1",
+      "threads",
+      null,
+      false),
+  ROOTDEPTH(
+      "rootdepth",
+      null,
+      "The number of callers to follow back from each call of a criteria, defaults to 0 (no limit)",
+      "levels",
+      null,
+      false),
+  ROOTTIME(
+      "roottime",
+      null,
+      "The seconds allowed to slice from each call of a criteria, defaults to 0 (no limit)",
+      "seconds",
+      null,
+      false),
+  BATCH("batch", null, "Slice the criteria of all the rules in a single pass.", null, null, false),
+  RULES(
+      "rules",
+      null,
+      "A rule pack file (YAML or JSON) adding criteria and patterns to the rules",
+      "file",
+      null,
+      false),
+  CACHE(
+      "cache",
+      null,
+      "A directory caching the findings, only the classes changed since are scanned again",
+      "dir",
+      null,
+      false),
+  INCLUDE(
+      "include",
+      null,
+      "The packages analysed as application code (comma separated), defaults to all",
+      "packages",
+      null,
+      false),
+  EXCLUDE(
+      "exclude",
+      null,
+      "The packages not analysed as application code (comma separated)",
+      "packages",
+      null,
+      false),
+  LIBSUMMARIES(
+      "libsummaries",
+      null,
+      "Analyse the dependencies only where a slice reaches them, not as application code.",
+      null,
+      null,
+      false),
+  REACHABLE(
+      "reachable",
+      null,
+      "Slice only the methods reachable from the entry points (manifest components, main methods).",
+      null,
+      null,
+      false),
+  ENTRYPOINTS(
+      "entrypoints",
+      null,
+      "The classes or method signatures added to the entry points (comma separated)",
+      "entries",
+      null,
+      false),
+  DAEMON(
+      "daemon",
+      null,
+      "Run as a daemon scanning the jobs sent as JSON lines to the local port (0 picks a free one)",
+      "port",
+      null,
+      false),
+  MANIFEST(
+      "manifest",
+      null,
+      "A manifest file (YAML or JSON) of the targets to scan, one report each and a summary",
+      "file",
+      null,
+      false),
+  WORKERS(
+      "workers",
+      null,
+      "The number of worker JVMs scanning the targets of a manifest or the modules of a project,"
+          + " defaults to 1",
+      "workers",
+      null,
+      false),
+  JOBTIMEOUT(
+      "jobtimeout",
+      null,
+      "The minutes a worker may spend on a single target or module before it is restarted,"
+          + " defaults to 60 (0 for no limit)",
+      "minutes",
+      null,
+      false),
+  MODULE(
+      "module",
+      null,
+      "Scan only the named module of a project, the findings are written as JSON for the workers",
+      "module",
+      null,
+      false),
   //LOG("L", null, "Enable logging to the console.", null, null, false),
   JAVA(
       "java",
@@ -94,6 +94,12 @@ public class AssymCryptoFinder extends BaseRuleChecker {
     return CRITERIA_LIST;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public String getRuleId() {
+    return rule;
+  }
+
   /**
    * Setter for the field <code>crypto</code>.
    *
@@ -110,7 +116,11 @@ public class AssymCryptoFinder extends BaseRuleChecker {
       throws ExceptionHandler {
     //region New Analysis
     //region PBEInterationCountFinder
-    Utils.createAnalysisOutput(xmlFileStr, sourcePaths, predictableSourcMap, rule, output);
+    try {
+      Utils.createAnalysisOutput(xmlFileStr, sourcePaths, predictableSourcMap, rule, output);
+    } finally {
+      reset();
+    }
     //endregion
     //region ExportGradeKeyIniFinder
     /*
@@ -126,4 +136,10 @@ public class AssymCryptoFinder extends BaseRuleChecker {
     //endregion
     //endregion
   }
+
+  /** {@inheritDoc} */
+  @Override
+  public void reset() {
+    predictableSourcMap.clear();
+  }
 }
@@ -1,6 +1,7 @@
 /* Licensed under GPL-3.0 */
 package rule;
 
+import analyzer.ProgramModel;
 import analyzer.UniqueRuleAnalyzer;
 import analyzer.backward.UnitContainer;
 import frontEnd.Interface.outputRouting.ExceptionHandler;
@@ -15,9 +16,9 @@ import soot.*;
 import soot.jimple.internal.JAssignStmt;
 import soot.jimple.internal.JInvokeStmt;
 import soot.toolkits.graph.DirectedGraph;
-import soot.toolkits.graph.ExceptionalUnitGraph;
 import util.FieldInitializationInstructionMap;
 import util.NamedMethodMap;
+import util.UnitGraphCache;
 import util.Utils;
 
 /**
@@ -49,11 +50,8 @@ public class CustomTrustManagerFinder implements RuleChecker {
 
     Map<String, List<OtherAnalysisResult>> analysisList = new HashMap<>();
 
-    NamedMethodMap.build(classNames);
-    FieldInitializationInstructionMap.build(classNames);
-
     for (String className : classNames) {
-      SootClass sClass = Scene.v().loadClassAndSupport(className);
+      SootClass sClass = Utils.loadClassAndSupport(className);
 
       if (sClass.getInterfaces().toString().contains(TRUST_MANAGER)) {
 
@@ -101,10 +99,29 @@ public class CustomTrustManagerFinder implements RuleChecker {
       String javaHome)
       throws ExceptionHandler {
 
-    Map<String, List<OtherAnalysisResult>> analysisLists =
-        getAnalysisForTrustManager(
-            UniqueRuleAnalyzer.environmentRouting(
-                projectJarPath, projectDependencyPath, type, androidHome, javaHome));
+    List<String> classNames =
+        UniqueRuleAnalyzer.environmentRouting(
+            projectJarPath, projectDependencyPath, type, androidHome, javaHome);
+
+    NamedMethodMap.build(classNames);
+    FieldInitializationInstructionMap.build(classNames);
+
+    analyzeClasses(classNames, sourcePaths, output);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void checkRule(ProgramModel model, List<String> sourcePaths, OutputStructure output)
+      throws ExceptionHandler {
+
+    analyzeClasses(model.getSourceClassNames(), sourcePaths, output);
+  }
+
+  private void analyzeClasses(
+      List<String> classNames, List<String> sourcePaths, OutputStructure output)
+      throws ExceptionHandler {
+
+    Map<String, List<OtherAnalysisResult>> analysisLists = getAnalysisForTrustManager(classNames);
 
     for (String className : analysisLists.keySet()) {
 
@@ -169,8 +186,7 @@ public class CustomTrustManagerFinder implements RuleChecker {
   }
 
   private boolean isThrowException(SootMethod method) {
-    Body b = method.retrieveActiveBody();
-    DirectedGraph graph = new ExceptionalUnitGraph(b);
+    DirectedGraph graph = UnitGraphCache.getUnitGraph(method);
 
     Iterator unitIt = graph.iterator();
 
@@ -189,7 +205,7 @@ public class CustomTrustManagerFinder implements RuleChecker {
   }
 
   private boolean hasTryCatch(SootMethod method) {
-    Body b = method.retrieveActiveBody();
+    Body b = Utils.retrieveActiveBody(method);
     return b.getTraps().size() > 0;
   }
 }
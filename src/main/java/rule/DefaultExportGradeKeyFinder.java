@@ -1,6 +1,7 @@
 /* Licensed under GPL-3.0 */
 package rule;
 
+import analyzer.ProgramModel;
 import analyzer.UniqueRuleAnalyzer;
 import frontEnd.Interface.outputRouting.ExceptionHandler;
 import frontEnd.MessagingSystem.AnalysisIssue;
@@ -15,8 +16,9 @@ import slicer.forward.ForwardInfluenceInstructions;
 import slicer.forward.SlicingCriteria;
 import slicer.forward.SlicingResult;
 import soot.*;
-import soot.toolkits.graph.ExceptionalUnitGraph;
 import soot.toolkits.graph.UnitGraph;
+import util.UnitGraphCache;
+import util.Utils;
 
 /**
  * DefaultExportGradeKeyFinder class.
@@ -52,7 +54,7 @@ public class DefaultExportGradeKeyFinder implements RuleChecker {
 
     for (String className : classNames) {
 
-      SootClass sClass = Scene.v().loadClassAndSupport(className);
+      SootClass sClass = Utils.loadClassAndSupport(className);
 
       sClass.setApplicationClass();
 
@@ -81,9 +83,7 @@ public class DefaultExportGradeKeyFinder implements RuleChecker {
       SlicingCriteria slicingCriteria, SootMethod m) {
     if (m.isConcrete()) {
 
-      Body b = m.retrieveActiveBody();
-
-      UnitGraph graph = new ExceptionalUnitGraph(b);
+      UnitGraph graph = UnitGraphCache.getUnitGraph(m);
       ForwardInfluenceInstructions vbe = new ForwardInfluenceInstructions(graph, slicingCriteria);
       return vbe.getSlicingResult();
     }
@@ -103,13 +103,29 @@ public class DefaultExportGradeKeyFinder implements RuleChecker {
       String javaHome)
       throws ExceptionHandler {
 
+    analyzeClasses(
+        UniqueRuleAnalyzer.environmentRouting(
+            projectJarPath, projectDependencyPath, type, androidHome, javaHome),
+        sourcePaths,
+        output);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void checkRule(ProgramModel model, List<String> sourcePaths, OutputStructure output)
+      throws ExceptionHandler {
+
+    analyzeClasses(model.getSourceClassNames(), sourcePaths, output);
+  }
+
+  private void analyzeClasses(
+      List<String> classNames, List<String> sourcePaths, OutputStructure output)
+      throws ExceptionHandler {
+
     for (String slicing_criterion : SLICING_CRITERIA) {
 
       Map<String, List<Unit>> analysisLists =
-          getForwardSlice(
-              UniqueRuleAnalyzer.environmentRouting(
-                  projectJarPath, projectDependencyPath, type, androidHome, javaHome),
-              new SlicingCriteria(slicing_criterion));
+          getForwardSlice(classNames, new SlicingCriteria(slicing_criterion));
 
       for (String method : analysisLists.keySet()) {
 
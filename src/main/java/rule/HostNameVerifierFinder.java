@@ -1,6 +1,7 @@
 /* Licensed under GPL-3.0 */
 package rule;
 
+import analyzer.ProgramModel;
 import analyzer.UniqueRuleAnalyzer;
 import analyzer.backward.UnitContainer;
 import frontEnd.Interface.outputRouting.ExceptionHandler;
@@ -17,6 +18,7 @@ import soot.*;
 import soot.jimple.Constant;
 import util.FieldInitializationInstructionMap;
 import util.NamedMethodMap;
+import util.Utils;
 
 /**
  * HostNameVerifierFinder class.
@@ -36,11 +38,8 @@ public class HostNameVerifierFinder implements RuleChecker {
 
     Map<String, List<UnitContainer>> analysisList = new HashMap<>();
 
-    NamedMethodMap.build(classNames);
-    FieldInitializationInstructionMap.build(classNames);
-
     for (String className : classNames) {
-      SootClass sClass = Scene.v().loadClassAndSupport(className);
+      SootClass sClass = Utils.loadClassAndSupport(className);
 
       if (sClass.getInterfaces().toString().contains(HOST_NAME_VERIFIER)) {
 
@@ -74,10 +73,29 @@ public class HostNameVerifierFinder implements RuleChecker {
       String javaHome)
       throws ExceptionHandler {
 
-    Map<String, List<UnitContainer>> analysisLists =
-        getHostNameVerifiers(
-            UniqueRuleAnalyzer.environmentRouting(
-                projectJarPath, projectDependencyPath, type, androidHome, javaHome));
+    List<String> classNames =
+        UniqueRuleAnalyzer.environmentRouting(
+            projectJarPath, projectDependencyPath, type, androidHome, javaHome);
+
+    NamedMethodMap.build(classNames);
+    FieldInitializationInstructionMap.build(classNames);
+
+    analyzeClasses(classNames, sourcePaths, output);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void checkRule(ProgramModel model, List<String> sourcePaths, OutputStructure output)
+      throws ExceptionHandler {
+
+    analyzeClasses(model.getSourceClassNames(), sourcePaths, output);
+  }
+
+  private void analyzeClasses(
+      List<String> classNames, List<String> sourcePaths, OutputStructure output)
+      throws ExceptionHandler {
+
+    Map<String, List<UnitContainer>> analysisLists = getHostNameVerifiers(classNames);
 
     for (String className : analysisLists.keySet()) {
       List<UnitContainer> analysis = analysisLists.get(className);
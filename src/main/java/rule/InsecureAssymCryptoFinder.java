@@ -1,6 +1,8 @@
 /* Licensed under GPL-3.0 */
 package rule;
 
+import analyzer.BaseAnalyzerRouting;
+import analyzer.ProgramModel;
 import frontEnd.Interface.outputRouting.ExceptionHandler;
 import frontEnd.MessagingSystem.routing.outputStructures.OutputStructure;
 import java.util.ArrayList;
@@ -43,38 +45,24 @@ public class InsecureAssymCryptoFinder implements RuleChecker {
       String javaHome)
       throws ExceptionHandler {
 
-    checkAssym(
-        type,
-        projectJarPath,
-        projectDependencyPath,
-        AssymType.RSA,
+    checkRule(
+        BaseAnalyzerRouting.buildProgramModel(
+            type, projectJarPath, projectDependencyPath, mainKlass, androidHome, javaHome),
         sourcePaths,
-        output,
-        mainKlass,
-        androidHome,
-        javaHome);
-    checkAssym(
-        type,
-        projectJarPath,
-        projectDependencyPath,
-        AssymType.EC,
-        sourcePaths,
-        output,
-        mainKlass,
-        androidHome,
-        javaHome);
+        output);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void checkRule(ProgramModel model, List<String> sourcePaths, OutputStructure output)
+      throws ExceptionHandler {
+
+    checkAssym(model, AssymType.RSA, sourcePaths, output);
+    checkAssym(model, AssymType.EC, sourcePaths, output);
   }
 
   private void checkAssym(
-      EngineType type,
-      List<String> projectJarPath,
-      List<String> projectDependencyPath,
-      AssymType assymType,
-      List<String> sourcePaths,
-      OutputStructure output,
-      String mainKlass,
-      String androidHome,
-      String javaHome)
+      ProgramModel model, AssymType assymType, List<String> sourcePaths, OutputStructure output)
       throws ExceptionHandler {
 
     List<String> cryptoType = new ArrayList<>();
@@ -86,43 +74,19 @@ public class InsecureAssymCryptoFinder implements RuleChecker {
         new ExportGradeKeyInitializationFinder();
 
     assymCryptoFinder.setCrypto(cryptoType);
-    assymCryptoFinder.checkRule(
-        type,
-        projectJarPath,
-        projectDependencyPath,
-        sourcePaths,
-        output,
-        mainKlass,
-        androidHome,
-        javaHome);
+    assymCryptoFinder.checkRule(model, sourcePaths, output);
 
     ArrayList<String> foundSites = assymCryptoFinder.getOccurrenceSites();
 
     initializationFinder.setMethodsToLook(foundSites);
     initializationFinder.setDefaultSecure(IS_DEFAULT_SECURE_MAP.get(assymType));
-    initializationFinder.checkRule(
-        type,
-        projectJarPath,
-        projectDependencyPath,
-        sourcePaths,
-        output,
-        mainKlass,
-        androidHome,
-        javaHome);
+    initializationFinder.checkRule(model, sourcePaths, output);
 
     ArrayList<String> initializationCallsites = initializationFinder.getInitializationCallsites();
 
     insecureInitializationFinder.setInitializationCallsites(initializationCallsites);
     insecureInitializationFinder.setMinSize(SIZE_MAP.get(assymType));
-    insecureInitializationFinder.checkRule(
-        type,
-        projectJarPath,
-        projectDependencyPath,
-        sourcePaths,
-        output,
-        mainKlass,
-        androidHome,
-        javaHome);
+    insecureInitializationFinder.checkRule(model, sourcePaths, output);
   }
 
   private enum AssymType {
@@ -71,6 +71,12 @@ public class PBEInterationCountFinder extends BaseRuleChecker {
     return CRITERIA_LIST;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public String getRuleId() {
+    return rule;
+  }
+
   /** {@inheritDoc} */
   @Override
   public void analyzeSlice(Analysis analysis) {
@@ -225,6 +231,17 @@ public class PBEInterationCountFinder extends BaseRuleChecker {
       Map<String, String> xmlFileStr, List<String> sourcePaths, OutputStructure output)
       throws ExceptionHandler {
 
-    Utils.createAnalysisOutput(xmlFileStr, sourcePaths, predictableSourcMap, rule, output);
+    try {
+      Utils.createAnalysisOutput(xmlFileStr, sourcePaths, predictableSourcMap, rule, output);
+    } finally {
+      reset();
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void reset() {
+    predictableSourcMap.clear();
+    othersSourceMap.clear();
   }
 }
@@ -1,6 +1,7 @@
 /* Licensed under GPL-3.0 */
 package rule;
 
+import analyzer.ProgramModel;
 import analyzer.UniqueRuleAnalyzer;
 import frontEnd.Interface.outputRouting.ExceptionHandler;
 import frontEnd.MessagingSystem.AnalysisIssue;
@@ -17,8 +18,8 @@ import slicer.forward.SlicingResult;
 import soot.*;
 import soot.jimple.IfStmt;
 import soot.jimple.internal.JAssignStmt;
-import soot.toolkits.graph.ExceptionalUnitGraph;
 import soot.toolkits.graph.UnitGraph;
+import util.UnitGraphCache;
 import util.Utils;
 
 /**
@@ -51,7 +52,7 @@ public class SSLSocketFactoryFinder implements RuleChecker {
 
     for (String className : classNames) {
 
-      SootClass sClass = Scene.v().loadClassAndSupport(className);
+      SootClass sClass = Utils.loadClassAndSupport(className);
 
       sClass.setApplicationClass();
 
@@ -83,9 +84,7 @@ public class SSLSocketFactoryFinder implements RuleChecker {
       SlicingCriteria slicingCriteria, SootMethod m) {
     if (m.isConcrete()) {
 
-      Body b = m.retrieveActiveBody();
-
-      UnitGraph graph = new ExceptionalUnitGraph(b);
+      UnitGraph graph = UnitGraphCache.getUnitGraph(m);
       ForwardInfluenceInstructions vbe = new ForwardInfluenceInstructions(graph, slicingCriteria);
       return vbe.getSlicingResult();
     }
@@ -105,14 +104,29 @@ public class SSLSocketFactoryFinder implements RuleChecker {
       String javaHome)
       throws ExceptionHandler {
 
+    analyzeClasses(
+        UniqueRuleAnalyzer.environmentRouting(
+            projectJarPath, projectDependencyPath, type, androidHome, javaHome),
+        sourcePaths,
+        output);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void checkRule(ProgramModel model, List<String> sourcePaths, OutputStructure output)
+      throws ExceptionHandler {
+
+    analyzeClasses(model.getSourceClassNames(), sourcePaths, output);
+  }
+
+  private void analyzeClasses(
+      List<String> classNames, List<String> sourcePaths, OutputStructure output)
+      throws ExceptionHandler {
+
     for (String slicing_criterion : SLICING_CRITERIA) {
 
       SlicingCriteria criteria = new SlicingCriteria(slicing_criterion);
-      Map<String, List<Unit>> analysisLists =
-          getForwardSlice(
-              UniqueRuleAnalyzer.environmentRouting(
-                  projectJarPath, projectDependencyPath, type, androidHome, javaHome),
-              criteria);
+      Map<String, List<Unit>> analysisLists = getForwardSlice(classNames, criteria);
 
       for (String method : analysisLists.keySet()) {
 
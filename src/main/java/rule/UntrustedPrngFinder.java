@@ -1,6 +1,7 @@
 /* Licensed under GPL-3.0 */
 package rule;
 
+import analyzer.ProgramModel;
 import analyzer.UniqueRuleAnalyzer;
 import frontEnd.Interface.outputRouting.ExceptionHandler;
 import frontEnd.MessagingSystem.AnalysisIssue;
@@ -10,7 +11,8 @@ import rule.engine.EngineType;
 import rule.engine.RuleChecker;
 import soot.*;
 import soot.toolkits.graph.DirectedGraph;
-import soot.toolkits.graph.ExceptionalUnitGraph;
+import util.UnitGraphCache;
+import util.Utils;
 
 /**
  * UntrustedPrngFinder class.
@@ -33,15 +35,14 @@ public class UntrustedPrngFinder implements RuleChecker {
     Map<String, List<Unit>> analysisList = new HashMap<>();
 
     for (String className : classNames) {
-      SootClass sClass = Scene.v().loadClassAndSupport(className);
+      SootClass sClass = Utils.loadClassAndSupport(className);
 
       for (SootMethod method : sClass.getMethods()) {
         if (method.isConcrete()) {
 
           List<Unit> analysis = new ArrayList<>();
 
-          Body b = method.retrieveActiveBody();
-          DirectedGraph g = new ExceptionalUnitGraph(b);
+          DirectedGraph g = UnitGraphCache.getUnitGraph(method);
           Iterator gitr = g.iterator();
           while (gitr.hasNext()) {
             Unit unit = (Unit) gitr.next();
@@ -74,10 +75,26 @@ public class UntrustedPrngFinder implements RuleChecker {
       String javaHome)
       throws ExceptionHandler {
 
-    Map<String, List<Unit>> analysisLists =
-        getUntrustedPrngInstructions(
-            UniqueRuleAnalyzer.environmentRouting(
-                projectJarPath, projectDependencyPath, type, androidHome, javaHome));
+    analyzeClasses(
+        UniqueRuleAnalyzer.environmentRouting(
+            projectJarPath, projectDependencyPath, type, androidHome, javaHome),
+        sourcePaths,
+        output);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void checkRule(ProgramModel model, List<String> sourcePaths, OutputStructure output)
+      throws ExceptionHandler {
+
+    analyzeClasses(model.getSourceClassNames(), sourcePaths, output);
+  }
+
+  private void analyzeClasses(
+      List<String> classNames, List<String> sourcePaths, OutputStructure output)
+      throws ExceptionHandler {
+
+    Map<String, List<Unit>> analysisLists = getUntrustedPrngInstructions(classNames);
 
     if (!analysisLists.isEmpty()) {
       for (String method : analysisLists.keySet()) {
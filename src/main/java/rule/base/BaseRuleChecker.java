@@ -1,7 +1,9 @@
 /* Licensed under GPL-3.0 */
 package rule.base;
 
+import analyzer.BaseAnalyzer;
 import analyzer.BaseAnalyzerRouting;
+import analyzer.ProgramModel;
 import analyzer.backward.Analysis;
 import analyzer.backward.UnitContainer;
 import frontEnd.Interface.outputRouting.ExceptionHandler;
@@ -10,6 +12,7 @@ import java.util.*;
 import rule.engine.Criteria;
 import rule.engine.EngineType;
 import rule.engine.RuleChecker;
+import rule.engine.RulePack;
 import util.Utils;
 
 /**
@@ -59,7 +62,7 @@ public abstract class BaseRuleChecker implements RuleChecker {
     Map<String, String> xmlFileStr =
         Utils.getXmlFiles(projectPaths.get(0), Arrays.asList(excludes));
 
-    for (Criteria criteria : getCriteriaList()) {
+    for (Criteria criteria : getCheckedCriteria()) {
       BaseAnalyzerRouting.environmentRouting(
           type,
           criteria.getClassName(),
@@ -76,6 +79,22 @@ public abstract class BaseRuleChecker implements RuleChecker {
     createAnalysisOutput(xmlFileStr, sourcePaths, output);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public void checkRule(ProgramModel model, List<String> sourcePaths, OutputStructure output)
+      throws ExceptionHandler {
+
+    for (Criteria criteria : getCheckedCriteria()) {
+      if (!model.isCriteriaReferenced(criteria.getClassName(), criteria.getMethodName())) {
+        continue;
+      }
+      BaseAnalyzer.analyzeCriteria(
+          criteria.getClassName(), criteria.getMethodName(), criteria.getParam(), this);
+    }
+
+    createAnalysisOutput(model.getXmlFiles(), sourcePaths, output);
+  }
+
   /**
    * getCriteriaList.
    *
@@ -83,6 +102,25 @@ public abstract class BaseRuleChecker implements RuleChecker {
    */
   public abstract List<Criteria> getCriteriaList();
 
+  /**
+   * getCheckedCriteria.
+   *
+   * <p>The criteria of the rule along with the ones added to it by the active {@link
+   * rule.engine.RulePack}.
+   *
+   * @return a {@link java.util.List} object.
+   */
+  public List<Criteria> getCheckedCriteria() {
+    return RulePack.getActive().withCriteria(getRuleId(), getCriteriaList());
+  }
+
+  /**
+   * getRuleId.
+   *
+   * @return a {@link java.lang.String} object.
+   */
+  public abstract String getRuleId();
+
   /**
    * analyzeSlice.
    *
@@ -0,0 +1,155 @@
+/* Licensed under GPL-3.0 */
+package rule.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * CompiledPatternSet class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The patterns of a rule compiled once into a single case insensitive alternation. A
+ *     constant is matched in one pass and the first pattern of the list matching the whole
+ *     constant is reported, as if the patterns were tried one after another.
+ *     <p>Most patterns require a literal, such as <code>DES</code> in <code>(.)*DES(.)*</code>.
+ *     When every pattern has one, constants containing none of them are rejected without running
+ *     the expression.
+ */
+public class CompiledPatternSet {
+
+  private static final String GROUP_PREFIX = "p";
+  private static final String LITERAL_CHARS = "\"/_:- ";
+
+  private final List<String> patterns;
+  private final Pattern combined;
+  private final String[] requiredLiterals;
+
+  /**
+   * Constructor for CompiledPatternSet.
+   *
+   * @param patterns a {@link java.util.List} object, the regular expressions in priority order.
+   */
+  public CompiledPatternSet(List<String> patterns) {
+    this.patterns = new ArrayList<>(patterns);
+
+    StringBuilder alternation = new StringBuilder();
+    for (int i = 0; i < patterns.size(); i++) {
+      if (i > 0) alternation.append('|');
+      alternation.append("(?<").append(GROUP_PREFIX).append(i).append('>');
+      alternation.append(patterns.get(i)).append(')');
+    }
+    this.combined = Pattern.compile(alternation.toString(), Pattern.CASE_INSENSITIVE);
+
+    String[] literals = new String[patterns.size()];
+    for (int i = 0; i < patterns.size(); i++) {
+      literals[i] = findRequiredLiteral(patterns.get(i));
+      if (literals[i] == null) {
+        literals = null;
+        break;
+      }
+    }
+    this.requiredLiterals = literals;
+  }
+
+  /**
+   * Matches the whole constant against the patterns.
+   *
+   * @param constant a {@link java.lang.String} object.
+   * @return a int, the index of the first pattern matching the constant or -1.
+   */
+  public int match(String constant) {
+    if (patterns.isEmpty() || !mayMatch(constant)) {
+      return -1;
+    }
+
+    Matcher matcher = combined.matcher(constant);
+    if (!matcher.matches()) {
+      return -1;
+    }
+
+    for (int i = 0; i < patterns.size(); i++) {
+      if (matcher.start(GROUP_PREFIX + i) != -1) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Matches the whole constant against the patterns.
+   *
+   * @param constant a {@link java.lang.String} object.
+   * @return a {@link java.lang.String} object, the first pattern matching the constant or null.
+   */
+  public String findMatchingPattern(String constant) {
+    int index = match(constant);
+    return index == -1 ? null : patterns.get(index);
+  }
+
+  private boolean mayMatch(String constant) {
+    if (requiredLiterals == null) {
+      return true;
+    }
+
+    String lowerConstant = constant.toLowerCase(Locale.ROOT);
+    for (String literal : requiredLiterals) {
+      if (lowerConstant.contains(literal)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds the longest run of plain characters the pattern can only match by containing. Only the
+   * characters outside of any group that are not quantified are considered, patterns using
+   * alternations, escapes, character classes or bounded repetitions have no required literal.
+   *
+   * @param regex a {@link java.lang.String} object.
+   * @return a {@link java.lang.String} object in lower case, or null.
+   */
+  static String findRequiredLiteral(String regex) {
+    if (regex.indexOf('|') >= 0
+        || regex.indexOf('\\') >= 0
+        || regex.indexOf('[') >= 0
+        || regex.indexOf('{') >= 0) {
+      return null;
+    }
+
+    String longest = "";
+    StringBuilder run = new StringBuilder();
+    int groupDepth = 0;
+
+    for (int i = 0; i < regex.length(); i++) {
+      char c = regex.charAt(i);
+
+      if (c == '(') {
+        groupDepth++;
+      } else if (c == ')') {
+        groupDepth--;
+      }
+
+      boolean quantified = i + 1 < regex.length() && "*+?{".indexOf(regex.charAt(i + 1)) >= 0;
+      boolean literal =
+          groupDepth == 0
+              && c < 128
+              && (Character.isLetterOrDigit(c) || LITERAL_CHARS.indexOf(c) >= 0);
+
+      if (literal && !quantified) {
+        run.append(c);
+        continue;
+      }
+
+      if (run.length() > longest.length()) longest = run.toString();
+      run.setLength(0);
+    }
+    if (run.length() > longest.length()) longest = run.toString();
+
+    return longest.isEmpty() ? null : longest.toLowerCase(Locale.ROOT);
+  }
+}
@@ -10,7 +10,7 @@ import frontEnd.MessagingSystem.routing.outputStructures.OutputStructure;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
+import rule.engine.RulePack;
 import soot.ValueBox;
 import soot.jimple.Constant;
 import util.Utils;
@@ -28,6 +28,8 @@ public abstract class PatternMatcherRuleChecker extends BaseRuleChecker {
 
   private final String rule = getRuleId();
   private final String ruleDesc = RULE_VS_DESCRIPTION.get(rule);
+  private RulePack compiledRulePack = null;
+  private CompiledPatternSet patternsToMatch = null;
   private Map<UnitContainer, List<String>> predictableSourcMap = new HashMap<>();
   private Map<UnitContainer, List<String>> othersSourceMap = new HashMap<>();
 
@@ -84,31 +86,47 @@ public abstract class PatternMatcherRuleChecker extends BaseRuleChecker {
   private void checkForMatchInternal(UnitContainer e) {
     for (ValueBox usebox : e.getUnit().getUseBoxes()) {
       if (usebox.getValue() instanceof Constant) {
-        boolean found = false;
-
-        for (String regex : getPatternsToMatch()) {
-          if (Pattern.compile(regex, Pattern.CASE_INSENSITIVE)
-              .matcher(usebox.getValue().toString())
-              .matches()) {
-            putIntoMap(predictableSourcMap, e, usebox.getValue().toString());
-            found = true;
-            break;
-          }
-        }
+        String constant = usebox.getValue().toString();
 
-        if (!found) {
-          putIntoMap(othersSourceMap, e, usebox.getValue().toString());
+        if (getCompiledPatterns().match(constant) != -1) {
+          putIntoMap(predictableSourcMap, e, constant);
+        } else {
+          putIntoMap(othersSourceMap, e, constant);
         }
       }
     }
   }
 
+  /**
+   * Compiles the patterns of the rule along with the ones added by the active {@link
+   * rule.engine.RulePack}, once for each rule pack.
+   */
+  private CompiledPatternSet getCompiledPatterns() {
+    RulePack rulePack = RulePack.getActive();
+    if (patternsToMatch == null || compiledRulePack != rulePack) {
+      patternsToMatch = new CompiledPatternSet(rulePack.withPatterns(rule, getPatternsToMatch()));
+      compiledRulePack = rulePack;
+    }
+    return patternsToMatch;
+  }
+
   /** {@inheritDoc} */
   @Override
   public void createAnalysisOutput(
       Map<String, String> xmlFileStr, List<String> sourcePaths, OutputStructure output)
       throws ExceptionHandler {
-    Utils.createAnalysisOutput(xmlFileStr, sourcePaths, predictableSourcMap, rule, output);
+    try {
+      Utils.createAnalysisOutput(xmlFileStr, sourcePaths, predictableSourcMap, rule, output);
+    } finally {
+      reset();
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void reset() {
+    predictableSourcMap.clear();
+    othersSourceMap.clear();
   }
 
   /**
@@ -117,11 +135,4 @@ public abstract class PatternMatcherRuleChecker extends BaseRuleChecker {
    * @return a {@link java.util.List} object.
    */
   public abstract List<String> getPatternsToMatch();
-
-  /**
-   * getRuleId.
-   *
-   * @return a {@link java.lang.String} object.
-   */
-  public abstract String getRuleId();
 }
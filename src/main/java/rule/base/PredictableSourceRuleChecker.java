@@ -9,12 +9,14 @@ import frontEnd.Interface.outputRouting.ExceptionHandler;
 import frontEnd.MessagingSystem.routing.outputStructures.OutputStructure;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import soot.*;
 import soot.jimple.AssignStmt;
 import soot.jimple.Constant;
 import soot.jimple.InvokeExpr;
+import soot.jimple.Stmt;
 import soot.jimple.internal.JAssignStmt;
 import soot.jimple.internal.JInvokeStmt;
 import soot.jimple.internal.RValueBox;
@@ -38,6 +40,21 @@ public abstract class PredictableSourceRuleChecker extends BaseRuleChecker {
     PREDICTABLE_SOURCES.add("<java.util.Date: java.util.Date <init>");
   }
 
+  /**
+   * The predictable sources by declaring class, each one being the start of the sub signature of
+   * the methods it covers.
+   */
+  private static final Map<String, List<String>> PREDICTABLE_SOURCES_BY_CLASS = new HashMap<>();
+
+  static {
+    for (String predictableSource : PREDICTABLE_SOURCES) {
+      int separator = predictableSource.indexOf(": ");
+      PREDICTABLE_SOURCES_BY_CLASS
+          .computeIfAbsent(predictableSource.substring(1, separator), k -> new ArrayList<>())
+          .add(predictableSource.substring(separator + 2).replaceAll(">$", ""));
+    }
+  }
+
   // Todo: Add a field to keep track of all the predictable sources ...
 
   private final String rule = getRuleId();
@@ -45,6 +62,9 @@ public abstract class PredictableSourceRuleChecker extends BaseRuleChecker {
   private Map<UnitContainer, List<String>> predictableSourcMap = new HashMap<>();
   private Map<UnitContainer, List<String>> othersSourceMap = new HashMap<>();
 
+  /** The constants used by each unit already checked, along with whether they are predictable. */
+  private final Map<Unit, List<ConstantUse>> constantUses = new IdentityHashMap<>();
+
   /** {@inheritDoc} */
   @Override
   public void analyzeSlice(Analysis analysis) {
@@ -86,13 +106,8 @@ public abstract class PredictableSourceRuleChecker extends BaseRuleChecker {
       } else if (e instanceof InvokeUnitContainer) {
         List<UnitContainer> resFromInside = ((InvokeUnitContainer) e).getAnalysisResult();
         checkPredictableSourceFromInside(resFromInside, e, outSet);
-      } else {
-        for (String predictableSource : PREDICTABLE_SOURCES) {
-          if (e.getUnit().toString().contains(predictableSource)) {
-            outSet.put(e, e.toString());
-            break;
-          }
-        }
+      } else if (isPredictableSource(e.getUnit())) {
+        outSet.put(e, e.toString());
       }
 
       if (e instanceof AssignInvokeUnitContainer) {
@@ -192,14 +207,40 @@ public abstract class PredictableSourceRuleChecker extends BaseRuleChecker {
         continue;
       }
 
-      for (String predictableSource : PREDICTABLE_SOURCES) {
-        if (key.getUnit().toString().contains(predictableSource)) {
-          outSet.put(e, e.toString());
-        }
+      if (isPredictableSource(key.getUnit())) {
+        outSet.put(e, e.toString());
       }
     }
   }
 
+  /**
+   * Checks whether the unit invokes one of the {@link #PREDICTABLE_SOURCES}, by looking up the
+   * reference of the invoked method rather than printing the unit.
+   *
+   * @param unit a {@link soot.Unit} object.
+   * @return a boolean.
+   */
+  static boolean isPredictableSource(Unit unit) {
+    if (!(unit instanceof Stmt) || !((Stmt) unit).containsInvokeExpr()) {
+      return false;
+    }
+
+    SootMethodRef methodRef = ((Stmt) unit).getInvokeExpr().getMethodRef();
+    List<String> subSignatures =
+        PREDICTABLE_SOURCES_BY_CLASS.get(methodRef.getDeclaringClass().getName());
+    if (subSignatures == null) {
+      return false;
+    }
+
+    String subSignature = methodRef.getSubSignature().getString();
+    for (String predictableSubSignature : subSignatures) {
+      if (subSignature.startsWith(predictableSubSignature)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private void checkHeuristics(UnitContainer e, Map<UnitContainer, String> outSet) {
 
     if (e instanceof AssignInvokeUnitContainer) {
@@ -216,38 +257,62 @@ public abstract class PredictableSourceRuleChecker extends BaseRuleChecker {
       return;
     }
 
-    for (ValueBox usebox : e.getUnit().getUseBoxes()) {
+    List<ConstantUse> uses = constantUses.get(e.getUnit());
+    if (uses == null) {
+      uses = classifyConstants(e.getUnit());
+      constantUses.put(e.getUnit(), uses);
+    }
+
+    for (ConstantUse use : uses) {
+      if (use.predictable) {
+        outSet.put(e, use.constant);
+      } else {
+        putIntoMap(othersSourceMap, e, use.constant);
+      }
+    }
+  }
+
+  /**
+   * Classifies the constants used by the unit, in the order of its use boxes. The classification
+   * only depends on the unit, so it is done once for all the slices the unit is part of.
+   */
+  private static List<ConstantUse> classifyConstants(Unit unit) {
+    List<ConstantUse> uses = new ArrayList<>();
+
+    for (ValueBox usebox : unit.getUseBoxes()) {
       if (usebox.getValue() instanceof Constant) {
 
-        if (usebox.getValue().toString().equals("null")
-            || usebox.getValue().toString().equals("\"null\"")
-            || usebox.getValue().toString().equals("\"\"")
-            || usebox.getValue().toString().contains(" = class ")) {
-          putIntoMap(othersSourceMap, e, usebox.getValue().toString());
+        String constant = usebox.getValue().toString();
+
+        if (constant.equals("null")
+            || constant.equals("\"null\"")
+            || constant.equals("\"\"")
+            || constant.contains(" = class ")) {
+          uses.add(new ConstantUse(constant, false));
           continue;
         }
 
-        if (e.getUnit() instanceof JAssignStmt) {
-          if (((AssignStmt) e.getUnit()).containsInvokeExpr()) {
-            InvokeExpr invokeExpr = ((AssignStmt) e.getUnit()).getInvokeExpr();
+        if (unit instanceof JAssignStmt) {
+          if (((AssignStmt) unit).containsInvokeExpr()) {
+            InvokeExpr invokeExpr = ((AssignStmt) unit).getInvokeExpr();
             List<Value> args = invokeExpr.getArgs();
             for (Value arg : args) {
               if (arg.equivTo(usebox.getValue())) {
-                putIntoMap(othersSourceMap, e, usebox.getValue().toString());
+                uses.add(new ConstantUse(constant, false));
                 break;
               }
             }
           } else if (usebox.getValue().getType() instanceof IntegerType) {
 
-            List<ValueBox> defBoxes = e.getUnit().getDefBoxes();
+            List<ValueBox> defBoxes = unit.getDefBoxes();
 
             if (defBoxes != null && !defBoxes.isEmpty()) {
               if (usebox instanceof RValueBox
                   && (defBoxes.get(0).getValue().getType() instanceof ByteType
                       || defBoxes.get(0).getValue().getType() instanceof CharType)) {
-                outSet.put(e, usebox.getValue().toString());
+                uses.add(new ConstantUse(constant, true));
               } else {
-                putIntoMap(othersSourceMap, e, usebox.getValue().toString());
+                uses.add(new ConstantUse(constant, false));
               }
             }
 
@@ -255,21 +320,22 @@ public abstract class PredictableSourceRuleChecker extends BaseRuleChecker {
             if (usebox.getValue().getType() instanceof BooleanType
                 || usebox.getValue().getType() instanceof FloatType
                 || usebox.getValue().getType() instanceof DoubleType) {
-              putIntoMap(othersSourceMap, e, usebox.getValue().toString());
+              uses.add(new ConstantUse(constant, false));
             } else {
-              outSet.put(e, usebox.getValue().toString());
+              uses.add(new ConstantUse(constant, true));
             }
           }
-        } else if (e.getUnit().toString().contains(" newarray ")) {
-          putIntoMap(othersSourceMap, e, usebox.getValue().toString());
+        } else if (unit.toString().contains(" newarray ")) {
+          uses.add(new ConstantUse(constant, false));
         } else {
-          if (usebox.getValue().getType() instanceof LongType
-              || usebox.getValue().toString().startsWith("\"")) {
-            outSet.put(e, usebox.getValue().toString());
+          if (usebox.getValue().getType() instanceof LongType || constant.startsWith("\"")) {
+            uses.add(new ConstantUse(constant, true));
           }
         }
       }
     }
+
+    return uses;
   }
 
   /** {@inheritDoc} */
@@ -277,13 +343,30 @@ public abstract class PredictableSourceRuleChecker extends BaseRuleChecker {
   public void createAnalysisOutput(
       Map<String, String> xmlFileStr, List<String> sourcePaths, OutputStructure output)
       throws ExceptionHandler {
-    Utils.createAnalysisOutput(xmlFileStr, sourcePaths, predictableSourcMap, rule, output);
+    try {
+      Utils.createAnalysisOutput(xmlFileStr, sourcePaths, predictableSourcMap, rule, output);
+    } finally {
+      reset();
+    }
   }
 
-  /**
-   * getRuleId.
-   *
-   * @return a {@link java.lang.String} object.
-   */
-  public abstract String getRuleId();
+  /** {@inheritDoc} */
+  @Override
+  public void reset() {
+    predictableSourcMap.clear();
+    othersSourceMap.clear();
+    constantUses.clear();
+  }
+
+  /** A constant used by a unit, either as a predictable source or as another source. */
+  private static class ConstantUse {
+
+    private final String constant;
+    private final boolean predictable;
+
+    private ConstantUse(String constant, boolean predictable) {
+      this.constant = constant;
+      this.predictable = predictable;
+    }
+  }
 }
@@ -19,19 +19,17 @@ public class ApkEntry implements EntryHandler {
 
   /** {@inheritDoc} */
   public void Scan(EnvironmentInformation generalInfo) throws ExceptionHandler {
-    log.debug("Starting scanner looper");
-    for (RuleChecker ruleChecker : CommonRules.ruleCheckerList) {
-      log.info("Checking the rule: " + ruleChecker.getClass().getSimpleName());
-      ruleChecker.checkRule(
-          EngineType.APK,
-          generalInfo.getSource(),
-          null,
-          generalInfo.getSourcePaths(),
-          generalInfo.getOutput(),
-          generalInfo.getMain(),
-          generalInfo.getAndroidHome(),
-          generalInfo.getJavaHome());
-    }
-    log.debug("Scanner looper stopped");
+    ScanEngine.scan(
+        EngineType.APK,
+        generalInfo.getSource(),
+        null,
+        generalInfo.getSourcePaths(),
+        generalInfo.getOutput(),
+        generalInfo.getMain(),
+        generalInfo.getAndroidHome(),
+        generalInfo.getJavaHome(),
+        generalInfo.getRuleThreads(),
+        generalInfo.getBatchSlicing(),
+        generalInfo.getCacheDir());
   }
 }
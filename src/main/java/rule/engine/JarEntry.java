@@ -20,19 +20,17 @@ public class JarEntry implements EntryHandler {
   /** {@inheritDoc} */
   public void Scan(EnvironmentInformation generalInfo) throws ExceptionHandler {
 
-    log.debug("Starting scanner looper");
-    for (RuleChecker ruleChecker : CommonRules.ruleCheckerList) {
-      log.info("Checking the rule: " + ruleChecker.getClass().getSimpleName());
-      ruleChecker.checkRule(
-          EngineType.JAR,
-          generalInfo.getSource(),
-          generalInfo.getDependencies(),
-          generalInfo.getSourcePaths(),
-          generalInfo.getOutput(),
-          generalInfo.getMain(),
-          null,
-          generalInfo.getJavaHome());
-    }
-    log.debug("Scanner looper stopped");
+    ScanEngine.scan(
+        EngineType.JAR,
+        generalInfo.getSource(),
+        generalInfo.getDependencies(),
+        generalInfo.getSourcePaths(),
+        generalInfo.getOutput(),
+        generalInfo.getMain(),
+        null,
+        generalInfo.getJavaHome(),
+        generalInfo.getRuleThreads(),
+        generalInfo.getBatchSlicing(),
+        generalInfo.getCacheDir());
   }
 }
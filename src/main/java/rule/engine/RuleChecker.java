@@ -1,6 +1,7 @@
 /* Licensed under GPL-3.0 */
 package rule.engine;
 
+import analyzer.ProgramModel;
 import frontEnd.Interface.outputRouting.ExceptionHandler;
 import frontEnd.MessagingSystem.routing.outputStructures.OutputStructure;
 import java.util.List;
@@ -39,4 +40,27 @@ public interface RuleChecker {
       String androidHome,
       String javaHome)
       throws ExceptionHandler;
+
+  /**
+   * checkRule.
+   *
+   * <p>Checks the rule against a program model that has already been loaded, the environment is
+   * not set up again.
+   *
+   * @param model a {@link analyzer.ProgramModel} object.
+   * @param sourcePaths a {@link java.util.List} object.
+   * @param output a {@link frontEnd.MessagingSystem.routing.outputStructures.OutputStructure}
+   *     object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  void checkRule(ProgramModel model, List<String> sourcePaths, OutputStructure output)
+      throws ExceptionHandler;
+
+  /**
+   * reset.
+   *
+   * <p>Clears what the checker gathered while checking the rule, the checkers are shared by every
+   * scan of the JVM and the next scan has to start from nothing.
+   */
+  default void reset() {}
 }
@@ -0,0 +1,403 @@
+/* Licensed under GPL-3.0 */
+package rule.engine;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import frontEnd.Interface.outputRouting.ExceptionHandler;
+import frontEnd.Interface.outputRouting.ExceptionId;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.apache.logging.log4j.Logger;
+import rule.base.BaseRuleChecker;
+import rule.base.CompiledPatternSet;
+import rule.base.PatternMatcherRuleChecker;
+import util.Utils;
+
+/**
+ * RulePack class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The criteria and the patterns added to the rules by a rule pack file, so that the APIs of
+ *     an organization can be checked without changing the rules. The file is written in YAML, or
+ *     JSON when its name ends with <code>.json</code>, such as:
+ *     <pre>
+ * rules:
+ *   - rule: "1"
+ *     criteria:
+ *       - className: com.example.crypto.Ciphers
+ *         methodName: javax.crypto.Cipher create(java.lang.String)
+ *         param: 0
+ *     patterns:
+ *       - "(.)*SKIPJACK(.)*"
+ * </pre>
+ *     <p>Criteria may be added to the rules slicing backwards from them, and patterns to the ones
+ *     matching patterns. The file is read and checked once, into a read only model indexed by rule
+ *     and by the classes of the criteria.
+ */
+public class RulePack {
+
+  private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(RulePack.class);
+
+  /** Constant <code>EMPTY</code>, the rule pack adding nothing. */
+  public static final RulePack EMPTY = new RulePack(new ArrayList<>(), "");
+
+  private static volatile RulePack active = EMPTY;
+
+  private final Map<String, List<Criteria>> criteriaByRule;
+  private final Map<String, List<String>> patternsByRule;
+  private final Set<String> criteriaClasses;
+  private final String fingerprint;
+
+  private RulePack(List<RuleEntry> rules, String fingerprint) {
+    Map<String, List<Criteria>> criteria = new HashMap<>();
+    Map<String, List<String>> patterns = new HashMap<>();
+    Set<String> classes = new LinkedHashSet<>();
+
+    for (RuleEntry rule : rules) {
+      for (Criteria entry : rule.getCriteria()) {
+        Criteria copy = new Criteria();
+        copy.setClassName(entry.getClassName());
+        copy.setMethodName(entry.getMethodName());
+        copy.setParam(entry.getParam());
+
+        criteria.computeIfAbsent(rule.getRule(), k -> new ArrayList<>()).add(copy);
+        classes.add(entry.getClassName());
+      }
+
+      if (!rule.getPatterns().isEmpty()) {
+        patterns
+            .computeIfAbsent(rule.getRule(), k -> new ArrayList<>())
+            .addAll(rule.getPatterns());
+      }
+    }
+
+    criteria.replaceAll((rule, list) -> Collections.unmodifiableList(list));
+    patterns.replaceAll((rule, list) -> Collections.unmodifiableList(list));
+
+    this.criteriaByRule = Collections.unmodifiableMap(criteria);
+    this.patternsByRule = Collections.unmodifiableMap(patterns);
+    this.criteriaClasses = Collections.unmodifiableSet(classes);
+    this.fingerprint = fingerprint;
+  }
+
+  /**
+   * Reads and checks a rule pack file.
+   *
+   * @param path a {@link java.lang.String} object.
+   * @return a {@link rule.engine.RulePack} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public static RulePack load(String path) throws ExceptionHandler {
+    File file = new File(path);
+    if (!file.isFile()) {
+      log.fatal("The rule pack " + path + " is not available.");
+      throw new ExceptionHandler(
+          "The rule pack " + path + " is not available.", ExceptionId.FILE_AFK);
+    }
+
+    ObjectMapper mapper =
+        path.toLowerCase().endsWith(".json")
+            ? new ObjectMapper()
+            : new ObjectMapper(new YAMLFactory());
+
+    byte[] content;
+    RuleFile ruleFile;
+    try {
+      content = Files.readAllBytes(file.toPath());
+      ruleFile = mapper.readValue(content, RuleFile.class);
+    } catch (JsonProcessingException e) {
+      log.fatal("Error parsing the rule pack " + path + ": " + e.getOriginalMessage());
+      throw new ExceptionHandler(
+          "Error parsing the rule pack " + path + ": " + e.getOriginalMessage(),
+          ExceptionId.ARG_VALID);
+    } catch (IOException e) {
+      log.fatal("Error reading the rule pack " + path);
+      throw new ExceptionHandler("Error reading the rule pack " + path, ExceptionId.FILE_READ);
+    }
+
+    List<RuleEntry> rules = ruleFile == null ? new ArrayList<>() : ruleFile.getRules();
+    for (RuleEntry rule : rules) {
+      validate(rule);
+    }
+
+    RulePack rulePack = new RulePack(rules, Utils.getContentHash(content));
+    for (String rule : rulePack.patternsByRule.keySet()) {
+      rulePack.validatePatterns(rule);
+    }
+
+    log.debug(
+        "Loaded the rule pack "
+            + path
+            + " adding "
+            + rulePack.criteriaClasses.size()
+            + " criteria class(es)");
+    return rulePack;
+  }
+
+  private static void validate(RuleEntry rule) throws ExceptionHandler {
+    if (rule == null) {
+      throw invalid("The rule pack has an empty rule");
+    }
+
+    BaseRuleChecker checker = findChecker(rule.getRule());
+
+    if (checker == null) {
+      throw invalid("The rule pack refers to a rule without criteria: " + rule.getRule());
+    }
+
+    if (!rule.getPatterns().isEmpty() && !(checker instanceof PatternMatcherRuleChecker)) {
+      throw invalid("The rule " + rule.getRule() + " does not match patterns");
+    }
+
+    for (Criteria criteria : rule.getCriteria()) {
+      if (criteria.getClassName() == null
+          || criteria.getClassName().trim().isEmpty()
+          || criteria.getMethodName() == null
+          || criteria.getMethodName().trim().isEmpty()
+          || criteria.getParam() < 0) {
+        throw invalid("The rule pack has an incomplete criteria for the rule " + rule.getRule());
+      }
+    }
+
+    for (String pattern : rule.getPatterns()) {
+      try {
+        Pattern.compile(pattern);
+      } catch (PatternSyntaxException | NullPointerException e) {
+        throw invalid("The rule pack has an invalid pattern for the rule " + rule.getRule());
+      }
+    }
+  }
+
+  private static BaseRuleChecker findChecker(String rule) {
+    BaseRuleChecker checker = null;
+    for (RuleChecker ruleChecker : CommonRules.ruleCheckerList) {
+      if (ruleChecker instanceof BaseRuleChecker
+          && ((BaseRuleChecker) ruleChecker).getRuleId().equals(rule)) {
+        checker = (BaseRuleChecker) ruleChecker;
+      }
+    }
+    return checker;
+  }
+
+  /**
+   * Compiles the patterns of the rule along with the ones added to it, as the rule does. Each
+   * pattern is a group of a single alternation there, so a numbered backreference would refer to
+   * the groups of the patterns before it and is rejected, a named one still refers to its group.
+   */
+  private void validatePatterns(String rule) throws ExceptionHandler {
+    for (String pattern : patternsByRule.get(rule)) {
+      if (hasNumberedBackreference(pattern)) {
+        throw invalid(
+            "The rule pack has a numbered backreference in a pattern for the rule "
+                + rule
+                + ", use a named group instead");
+      }
+    }
+
+    PatternMatcherRuleChecker checker = (PatternMatcherRuleChecker) findChecker(rule);
+    try {
+      new CompiledPatternSet(withPatterns(rule, checker.getPatternsToMatch()));
+    } catch (PatternSyntaxException e) {
+      throw invalid("The rule pack has an invalid pattern for the rule " + rule);
+    }
+  }
+
+  /**
+   * Checks whether the pattern refers to a group by its number, such as <code>(a)\1</code>.
+   *
+   * @param pattern a {@link java.lang.String} object.
+   * @return a boolean.
+   */
+  static boolean hasNumberedBackreference(String pattern) {
+    for (int i = 0; i < pattern.length() - 1; i++) {
+      if (pattern.charAt(i) != '\\') {
+        continue;
+      }
+
+      char escaped = pattern.charAt(++i);
+      if (escaped == 'Q') {
+        // The quoted characters are literals up to the end of the quote
+        int end = pattern.indexOf("\\E", i + 1);
+        if (end < 0) {
+          return false;
+        }
+        i = end + 1;
+      } else if (escaped >= '1' && escaped <= '9') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static ExceptionHandler invalid(String message) {
+    log.fatal(message);
+    return new ExceptionHandler(message, ExceptionId.ARG_VALID);
+  }
+
+  /**
+   * Getter for the rule pack used by the scans.
+   *
+   * @return a {@link rule.engine.RulePack} object.
+   */
+  public static RulePack getActive() {
+    return active;
+  }
+
+  /**
+   * Setter for the rule pack used by the scans.
+   *
+   * @param rulePack a {@link rule.engine.RulePack} object, null for none.
+   */
+  public static void setActive(RulePack rulePack) {
+    active = rulePack == null ? EMPTY : rulePack;
+  }
+
+  /**
+   * Adds the criteria of the rule pack to the ones of the rule.
+   *
+   * @param rule a {@link java.lang.String} object, the number of the rule.
+   * @param criteria a {@link java.util.List} object, the criteria of the rule.
+   * @return a {@link java.util.List} object, the criteria itself when the rule pack adds none.
+   */
+  public List<Criteria> withCriteria(String rule, List<Criteria> criteria) {
+    return concat(criteria, criteriaByRule.get(rule));
+  }
+
+  /**
+   * Adds the patterns of the rule pack to the ones of the rule.
+   *
+   * @param rule a {@link java.lang.String} object, the number of the rule.
+   * @param patterns a {@link java.util.List} object, the patterns of the rule.
+   * @return a {@link java.util.List} object, the patterns themselves when the rule pack adds none.
+   */
+  public List<String> withPatterns(String rule, List<String> patterns) {
+    return concat(patterns, patternsByRule.get(rule));
+  }
+
+  /**
+   * Getter for the classes of the criteria added by the rule pack.
+   *
+   * @return a {@link java.util.Set} object.
+   */
+  public Set<String> getCriteriaClasses() {
+    return criteriaClasses;
+  }
+
+  /**
+   * Getter for the hash of the rule pack file, empty for the rule pack adding nothing.
+   *
+   * @return a {@link java.lang.String} object.
+   */
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  private static <T> List<T> concat(List<T> base, List<T> added) {
+    if (added == null) {
+      return base;
+    }
+
+    List<T> all = new ArrayList<>(base);
+    all.addAll(added);
+    return Collections.unmodifiableList(all);
+  }
+
+  /** The content of a rule pack file. */
+  public static class RuleFile {
+
+    private List<RuleEntry> rules = new ArrayList<>();
+
+    /**
+     * Getter for the field <code>rules</code>.
+     *
+     * @return a {@link java.util.List} object.
+     */
+    public List<RuleEntry> getRules() {
+      return rules;
+    }
+
+    /**
+     * Setter for the field <code>rules</code>.
+     *
+     * @param rules a {@link java.util.List} object.
+     */
+    public void setRules(List<RuleEntry> rules) {
+      this.rules = rules == null ? new ArrayList<>() : rules;
+    }
+  }
+
+  /** The criteria and the patterns a rule pack file adds to a rule. */
+  public static class RuleEntry {
+
+    private String rule;
+    private List<Criteria> criteria = new ArrayList<>();
+    private List<String> patterns = new ArrayList<>();
+
+    /**
+     * Getter for the field <code>rule</code>.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getRule() {
+      return rule;
+    }
+
+    /**
+     * Setter for the field <code>rule</code>.
+     *
+     * @param rule a {@link java.lang.String} object.
+     */
+    public void setRule(String rule) {
+      this.rule = rule;
+    }
+
+    /**
+     * Getter for the field <code>criteria</code>.
+     *
+     * @return a {@link java.util.List} object.
+     */
+    public List<Criteria> getCriteria() {
+      return criteria;
+    }
+
+    /**
+     * Setter for the field <code>criteria</code>.
+     *
+     * @param criteria a {@link java.util.List} object.
+     */
+    public void setCriteria(List<Criteria> criteria) {
+      this.criteria = criteria == null ? new ArrayList<>() : criteria;
+    }
+
+    /**
+     * Getter for the field <code>patterns</code>.
+     *
+     * @return a {@link java.util.List} object.
+     */
+    public List<String> getPatterns() {
+      return patterns;
+    }
+
+    /**
+     * Setter for the field <code>patterns</code>.
+     *
+     * @param patterns a {@link java.util.List} object.
+     */
+    public void setPatterns(List<String> patterns) {
+      this.patterns = patterns == null ? new ArrayList<>() : patterns;
+    }
+  }
+}
@@ -0,0 +1,754 @@
+/* Licensed under GPL-3.0 */
+package rule.engine;
+
+import analyzer.ApplicationScope;
+import analyzer.BaseAnalyzer;
+import analyzer.EntryPointReachability;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import frontEnd.Interface.outputRouting.ExceptionHandler;
+import frontEnd.Interface.outputRouting.ExceptionId;
+import frontEnd.MessagingSystem.AnalysisIssue;
+import frontEnd.MessagingSystem.AnalysisLocation;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.apache.logging.log4j.Logger;
+import util.ConstantPoolIndex;
+import util.Utils;
+
+/**
+ * ScanCache class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The findings of the previous scan of a target, along with the content hash of each of its
+ *     classes and the classes each of them refers to, kept in a cache directory between scans.
+ *     <p>A scan then only checks the classes that may report different findings: the classes
+ *     changed, added or removed since the previous scan, the classes referring to them directly or
+ *     not, whose calls may now slice differently, and the classes they refer to directly or not,
+ *     whose slices may reach one of their calls. A changed class may also write a field read by
+ *     classes that never refer to it, the classes whose fields it reads or writes are taken along
+ *     with the classes referring to them. The findings of every other class are taken from the
+ *     cache. A change of the version, the target type, the main class, the slicing budget or the
+ *     rule pack scans everything again.
+ *     <p>Only the targets whose classes are indexed are hashed, the jars, the class files and the
+ *     dex files of the APKs.
+ *     <p>The findings that are not reported on a class are always taken from the cache, along with
+ *     the ones the scan finds again.
+ */
+public class ScanCache {
+
+  private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(ScanCache.class);
+
+  /** The version of the layout of the cache file, a cache of another version is ignored. */
+  private static final int FORMAT = 2;
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private final File cacheFile;
+  private final String settings;
+  private final Map<String, String> classHashes;
+  private final Map<String, Set<String>> classReferences;
+  private final Map<String, Set<String>> classFieldOwners;
+  private final CacheFile previous;
+  private final Set<String> rescanScope;
+
+  private ScanCache(
+      File cacheFile,
+      String settings,
+      Map<String, String> classHashes,
+      Map<String, Set<String>> classReferences,
+      Map<String, Set<String>> classFieldOwners,
+      CacheFile previous) {
+    this.cacheFile = cacheFile;
+    this.settings = settings;
+    this.classHashes = classHashes;
+    this.classReferences = classReferences;
+    this.classFieldOwners = classFieldOwners;
+    this.previous = previous;
+
+    if (previous == null) {
+      this.rescanScope = null;
+    } else {
+      Map<String, String> previousHashes = new HashMap<>();
+      Map<String, Set<String>> previousReferences = new HashMap<>();
+      Map<String, Set<String>> previousFieldOwners = new HashMap<>();
+      for (Map.Entry<String, CachedClass> entry : previous.getClasses().entrySet()) {
+        previousHashes.put(entry.getKey(), entry.getValue().getHash());
+        previousReferences.put(entry.getKey(), entry.getValue().getReferences());
+        previousFieldOwners.put(entry.getKey(), entry.getValue().getFieldOwners());
+      }
+
+      this.rescanScope =
+          findRescanScope(
+              previousHashes,
+              previousReferences,
+              previousFieldOwners,
+              classHashes,
+              classReferences,
+              classFieldOwners);
+    }
+  }
+
+  /**
+   * Opens the cache of the scan target within the cache directory.
+   *
+   * @param cacheDir a {@link java.lang.String} object.
+   * @param type a {@link rule.engine.EngineType} object.
+   * @param target a {@link java.util.List} object, the paths of the scan target.
+   * @param mainKlass a {@link java.lang.String} object, the main class of the target, if any.
+   * @param constantPoolIndex a {@link util.ConstantPoolIndex} object, the index of the target.
+   * @return a {@link rule.engine.ScanCache} object, null when the target cannot be hashed.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public static ScanCache open(
+      String cacheDir,
+      EngineType type,
+      List<String> target,
+      String mainKlass,
+      ConstantPoolIndex constantPoolIndex)
+      throws ExceptionHandler {
+
+    if (constantPoolIndex == null) {
+      log.warn(
+          "Incremental scanning only supports jars, class files and APKs, scanning everything.");
+      return null;
+    }
+
+    File dir = new File(cacheDir);
+    if (!dir.isDirectory() && !dir.mkdirs()) {
+      log.fatal("The cache directory " + cacheDir + " cannot be created.");
+      throw new ExceptionHandler(
+          "The cache directory " + cacheDir + " cannot be created.", ExceptionId.FILE_CON);
+    }
+
+    List<String> targetPaths = new ArrayList<>();
+    for (String path : target) targetPaths.add(new File(path).getAbsolutePath());
+    Collections.sort(targetPaths);
+
+    String targetKey =
+        Utils.getContentHash(
+            (type + ":" + String.join(":", targetPaths)).getBytes(StandardCharsets.UTF_8));
+    File cacheFile = new File(dir, "scan-" + targetKey.substring(0, 16) + ".json");
+
+    String settings =
+        FORMAT
+            + ":"
+            + Utils.projectVersion
+            + ":"
+            + type
+            + ":"
+            + mainKlass
+            + ":"
+            + Utils.DEPTH
+            + ":"
+            + BaseAnalyzer.getSlicingBudget()
+            + ":"
+            + RulePack.getActive().getFingerprint()
+            + ":"
+            + ApplicationScope.getActive().getFingerprint()
+            + ":"
+            + EntryPointReachability.getActive().getFingerprint();
+
+    CacheFile previous = null;
+    if (cacheFile.isFile()) {
+      try {
+        previous = mapper.readValue(cacheFile, CacheFile.class);
+        if (!settings.equals(previous.getSettings())) {
+          log.info("The settings changed since the cached scan, scanning everything.");
+          previous = null;
+        }
+      } catch (IOException e) {
+        log.warn("Ignoring the unreadable cache " + cacheFile.getPath());
+        previous = null;
+      }
+    }
+
+    ScanCache cache =
+        new ScanCache(
+            cacheFile,
+            settings,
+            constantPoolIndex.getClassHashes(),
+            constantPoolIndex.getClassReferences(),
+            constantPoolIndex.getClassFieldOwners(),
+            previous);
+
+    if (cache.rescanScope == null) {
+      log.info("No cached scan of the target, scanning everything.");
+    } else {
+      log.info(
+          "Rescanning "
+              + cache.rescanScope.size()
+              + " of "
+              + cache.classHashes.size()
+              + " classes since the cached scan");
+    }
+    return cache;
+  }
+
+  /**
+   * Finds the classes to scan again.
+   *
+   * @param previousHashes a {@link java.util.Map} object, the hash of each class when cached.
+   * @param previousReferences a {@link java.util.Map} object, the classes each class referred to
+   *     when cached.
+   * @param previousFieldOwners a {@link java.util.Map} object, the classes whose fields each class
+   *     read or wrote when cached.
+   * @param classHashes a {@link java.util.Map} object, the hash of each class now.
+   * @param classReferences a {@link java.util.Map} object, the classes each class refers to now.
+   * @param classFieldOwners a {@link java.util.Map} object, the classes whose fields each class
+   *     reads or writes now.
+   * @return a {@link java.util.Set} object.
+   */
+  static Set<String> findRescanScope(
+      Map<String, String> previousHashes,
+      Map<String, Set<String>> previousReferences,
+      Map<String, Set<String>> previousFieldOwners,
+      Map<String, String> classHashes,
+      Map<String, Set<String>> classReferences,
+      Map<String, Set<String>> classFieldOwners) {
+
+    Set<String> changed = new HashSet<>();
+    for (Map.Entry<String, String> entry : classHashes.entrySet()) {
+      if (!entry.getValue().equals(previousHashes.get(entry.getKey()))) {
+        changed.add(entry.getKey());
+      }
+    }
+    for (String className : previousHashes.keySet()) {
+      if (!classHashes.containsKey(className)) {
+        changed.add(className);
+      }
+    }
+
+    // A changed class may have stopped referring to a class, its previous references are kept
+    Map<String, Set<String>> references = new HashMap<>(classReferences);
+    for (String className : changed) {
+      Set<String> previous = previousReferences.get(className);
+      if (previous != null) {
+        Set<String> both = new HashSet<>(previous);
+        both.addAll(references.getOrDefault(className, Collections.emptySet()));
+        references.put(className, both);
+      }
+    }
+
+    Map<String, Set<String>> referrers = new HashMap<>();
+    for (Map.Entry<String, Set<String>> entry : references.entrySet()) {
+      for (String referenced : entry.getValue()) {
+        referrers.computeIfAbsent(referenced, k -> new HashSet<>()).add(entry.getKey());
+      }
+    }
+
+    // A field written by a changed class is read by the classes referring to the field owner
+    Set<String> affected = new HashSet<>(changed);
+    for (String className : changed) {
+      affected.addAll(previousFieldOwners.getOrDefault(className, Collections.emptySet()));
+      affected.addAll(classFieldOwners.getOrDefault(className, Collections.emptySet()));
+    }
+
+    Set<String> scope = reach(affected, referrers);
+    scope.addAll(reach(changed, references));
+
+    // The classes of the platform referred to are not part of the target
+    Set<String> known = new HashSet<>(classHashes.keySet());
+    known.addAll(previousHashes.keySet());
+    scope.retainAll(known);
+    return scope;
+  }
+
+  /** The classes reached from the classes through the edges, directly or not. */
+  private static Set<String> reach(Set<String> from, Map<String, Set<String>> edges) {
+    Set<String> reached = new HashSet<>(from);
+    Deque<String> worklist = new ArrayDeque<>(from);
+
+    while (!worklist.isEmpty()) {
+      for (String next : edges.getOrDefault(worklist.pop(), Collections.emptySet())) {
+        if (reached.add(next)) {
+          worklist.push(next);
+        }
+      }
+    }
+    return reached;
+  }
+
+  /**
+   * Getter for the classes to scan again.
+   *
+   * @return a {@link java.util.Set} object, null when every class is scanned.
+   */
+  public Set<String> getRescanScope() {
+    return rescanScope;
+  }
+
+  /**
+   * Merges the findings of the classes scanned again with the cached findings of the others.
+   *
+   * @param issues a {@link java.util.List} object, the findings of the scan.
+   * @return a {@link java.util.List} object.
+   */
+  public List<AnalysisIssue> merge(List<AnalysisIssue> issues) {
+    if (rescanScope == null) {
+      return issues;
+    }
+
+    List<AnalysisIssue> merged = new ArrayList<>(issues);
+
+    Set<String> found = new HashSet<>();
+    for (AnalysisIssue issue : issues) found.add(CachedIssue.of(issue).toString());
+
+    for (CachedIssue cached : previous.getIssues()) {
+      if ((cached.getClassName() == null || !rescanScope.contains(cached.getClassName()))
+          && !found.contains(cached.toString())) {
+        merged.add(cached.toIssue());
+      }
+    }
+
+    log.debug(
+        "Merged "
+            + issues.size()
+            + " finding(s) with "
+            + (merged.size() - issues.size())
+            + " cached finding(s)");
+    return merged;
+  }
+
+  /**
+   * Writes the findings of the scan into the cache, along with the classes of the target.
+   *
+   * @param issues a {@link java.util.List} object, the findings returned by {@link #merge}.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public void save(List<AnalysisIssue> issues) throws ExceptionHandler {
+    CacheFile content = new CacheFile();
+    content.setSettings(settings);
+
+    for (Map.Entry<String, String> entry : classHashes.entrySet()) {
+      CachedClass cachedClass = new CachedClass();
+      cachedClass.setHash(entry.getValue());
+      cachedClass.setReferences(
+          new TreeSet<>(classReferences.getOrDefault(entry.getKey(), Collections.emptySet())));
+      cachedClass.setFieldOwners(
+          new TreeSet<>(classFieldOwners.getOrDefault(entry.getKey(), Collections.emptySet())));
+      content.getClasses().put(entry.getKey(), cachedClass);
+    }
+
+    for (AnalysisIssue issue : issues) content.getIssues().add(CachedIssue.of(issue));
+
+    File temp = new File(cacheFile.getPath() + ".tmp");
+    try {
+      mapper.writeValue(temp, content);
+      if (!temp.renameTo(cacheFile) && !(cacheFile.delete() && temp.renameTo(cacheFile))) {
+        throw new IOException("Cannot replace " + cacheFile.getPath());
+      }
+    } catch (IOException e) {
+      log.fatal("Error writing the cache " + cacheFile.getPath());
+      throw new ExceptionHandler(
+          "Error writing the cache " + cacheFile.getPath(), ExceptionId.FILE_O);
+    }
+  }
+
+  /** The content of a cache file. */
+  public static class CacheFile {
+
+    private String settings;
+    private Map<String, CachedClass> classes = new TreeMap<>();
+    private List<CachedIssue> issues = new ArrayList<>();
+
+    /**
+     * Getter for the field <code>settings</code>.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getSettings() {
+      return settings;
+    }
+
+    /**
+     * Setter for the field <code>settings</code>.
+     *
+     * @param settings a {@link java.lang.String} object.
+     */
+    public void setSettings(String settings) {
+      this.settings = settings;
+    }
+
+    /**
+     * Getter for the field <code>classes</code>.
+     *
+     * @return a {@link java.util.Map} object.
+     */
+    public Map<String, CachedClass> getClasses() {
+      return classes;
+    }
+
+    /**
+     * Setter for the field <code>classes</code>.
+     *
+     * @param classes a {@link java.util.Map} object.
+     */
+    public void setClasses(Map<String, CachedClass> classes) {
+      this.classes = classes == null ? new TreeMap<>() : classes;
+    }
+
+    /**
+     * Getter for the field <code>issues</code>.
+     *
+     * @return a {@link java.util.List} object.
+     */
+    public List<CachedIssue> getIssues() {
+      return issues;
+    }
+
+    /**
+     * Setter for the field <code>issues</code>.
+     *
+     * @param issues a {@link java.util.List} object.
+     */
+    public void setIssues(List<CachedIssue> issues) {
+      this.issues = issues == null ? new ArrayList<>() : issues;
+    }
+  }
+
+  /** The hash of a class file, the classes it refers to and the ones whose fields it uses. */
+  public static class CachedClass {
+
+    private String hash;
+    private Set<String> references = new TreeSet<>();
+    private Set<String> fieldOwners = new TreeSet<>();
+
+    /**
+     * Getter for the field <code>hash</code>.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getHash() {
+      return hash;
+    }
+
+    /**
+     * Setter for the field <code>hash</code>.
+     *
+     * @param hash a {@link java.lang.String} object.
+     */
+    public void setHash(String hash) {
+      this.hash = hash;
+    }
+
+    /**
+     * Getter for the field <code>references</code>.
+     *
+     * @return a {@link java.util.Set} object.
+     */
+    public Set<String> getReferences() {
+      return references;
+    }
+
+    /**
+     * Setter for the field <code>references</code>.
+     *
+     * @param references a {@link java.util.Set} object.
+     */
+    public void setReferences(Set<String> references) {
+      this.references = references == null ? new TreeSet<>() : references;
+    }
+
+    /**
+     * Getter for the field <code>fieldOwners</code>.
+     *
+     * @return a {@link java.util.Set} object.
+     */
+    public Set<String> getFieldOwners() {
+      return fieldOwners;
+    }
+
+    /**
+     * Setter for the field <code>fieldOwners</code>.
+     *
+     * @param fieldOwners a {@link java.util.Set} object.
+     */
+    public void setFieldOwners(Set<String> fieldOwners) {
+      this.fieldOwners = fieldOwners == null ? new TreeSet<>() : fieldOwners;
+    }
+  }
+
+  /** A finding as written into the cache. */
+  public static class CachedIssue {
+
+    private Integer rule;
+    private String className;
+    private String fullPathName;
+    private String info;
+    private List<String> methods = new ArrayList<>();
+    private List<CachedLocation> locations = new ArrayList<>();
+
+    static CachedIssue of(AnalysisIssue issue) {
+      CachedIssue cached = new CachedIssue();
+      cached.rule = issue.getRuleId();
+      cached.className = issue.getClassName();
+      cached.fullPathName = issue.getFullPathName();
+      cached.info = issue.getInfo();
+      for (Object method : issue.getMethods()) cached.methods.add(String.valueOf(method));
+      for (AnalysisLocation location : issue.getLocations())
+        cached.locations.add(CachedLocation.of(location));
+      return cached;
+    }
+
+    AnalysisIssue toIssue() {
+      AnalysisIssue issue = new AnalysisIssue(rule);
+      issue.setClassName(className);
+      issue.setFullPathName(fullPathName);
+      issue.setInfo(info);
+      for (String method : methods) issue.addMethod(method);
+      for (CachedLocation location : locations) issue.addLocation(location.toLocation());
+      return issue;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+      return rule + "|" + className + "|" + info + "|" + methods + "|" + locations;
+    }
+
+    /**
+     * Getter for the field <code>rule</code>.
+     *
+     * @return a {@link java.lang.Integer} object.
+     */
+    public Integer getRule() {
+      return rule;
+    }
+
+    /**
+     * Setter for the field <code>rule</code>.
+     *
+     * @param rule a {@link java.lang.Integer} object.
+     */
+    public void setRule(Integer rule) {
+      this.rule = rule;
+    }
+
+    /**
+     * Getter for the field <code>className</code>.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getClassName() {
+      return className;
+    }
+
+    /**
+     * Setter for the field <code>className</code>.
+     *
+     * @param className a {@link java.lang.String} object.
+     */
+    public void setClassName(String className) {
+      this.className = className;
+    }
+
+    /**
+     * Getter for the field <code>fullPathName</code>.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getFullPathName() {
+      return fullPathName;
+    }
+
+    /**
+     * Setter for the field <code>fullPathName</code>.
+     *
+     * @param fullPathName a {@link java.lang.String} object.
+     */
+    public void setFullPathName(String fullPathName) {
+      this.fullPathName = fullPathName;
+    }
+
+    /**
+     * Getter for the field <code>info</code>.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getInfo() {
+      return info;
+    }
+
+    /**
+     * Setter for the field <code>info</code>.
+     *
+     * @param info a {@link java.lang.String} object.
+     */
+    public void setInfo(String info) {
+      this.info = info;
+    }
+
+    /**
+     * Getter for the field <code>methods</code>.
+     *
+     * @return a {@link java.util.List} object.
+     */
+    public List<String> getMethods() {
+      return methods;
+    }
+
+    /**
+     * Setter for the field <code>methods</code>.
+     *
+     * @param methods a {@link java.util.List} object.
+     */
+    public void setMethods(List<String> methods) {
+      this.methods = methods == null ? new ArrayList<>() : methods;
+    }
+
+    /**
+     * Getter for the field <code>locations</code>.
+     *
+     * @return a {@link java.util.List} object.
+     */
+    public List<CachedLocation> getLocations() {
+      return locations;
+    }
+
+    /**
+     * Setter for the field <code>locations</code>.
+     *
+     * @param locations a {@link java.util.List} object.
+     */
+    public void setLocations(List<CachedLocation> locations) {
+      this.locations = locations == null ? new ArrayList<>() : locations;
+    }
+  }
+
+  /** A location of a finding as written into the cache. */
+  public static class CachedLocation {
+
+    private Integer lineStart;
+    private Integer lineEnd;
+    private Integer colStart;
+    private Integer colEnd;
+    private Integer methodNumber;
+
+    static CachedLocation of(AnalysisLocation location) {
+      CachedLocation cached = new CachedLocation();
+      cached.lineStart = location.getLineStart();
+      cached.lineEnd = location.getLineEnd();
+      cached.colStart = location.getColStart();
+      cached.colEnd = location.getColEnd();
+      cached.methodNumber = location.getMethodNumber();
+      return cached;
+    }
+
+    AnalysisLocation toLocation() {
+      AnalysisLocation location = new AnalysisLocation(lineStart, lineEnd, methodNumber);
+      location.setColStart(colStart);
+      location.setColEnd(colEnd);
+      return location;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+      return lineStart + "-" + lineEnd + ":" + colStart + "-" + colEnd + "@" + methodNumber;
+    }
+
+    /**
+     * Getter for the field <code>lineStart</code>.
+     *
+     * @return a {@link java.lang.Integer} object.
+     */
+    public Integer getLineStart() {
+      return lineStart;
+    }
+
+    /**
+     * Setter for the field <code>lineStart</code>.
+     *
+     * @param lineStart a {@link java.lang.Integer} object.
+     */
+    public void setLineStart(Integer lineStart) {
+      this.lineStart = lineStart;
+    }
+
+    /**
+     * Getter for the field <code>lineEnd</code>.
+     *
+     * @return a {@link java.lang.Integer} object.
+     */
+    public Integer getLineEnd() {
+      return lineEnd;
+    }
+
+    /**
+     * Setter for the field <code>lineEnd</code>.
+     *
+     * @param lineEnd a {@link java.lang.Integer} object.
+     */
+    public void setLineEnd(Integer lineEnd) {
+      this.lineEnd = lineEnd;
+    }
+
+    /**
+     * Getter for the field <code>colStart</code>.
+     *
+     * @return a {@link java.lang.Integer} object.
+     */
+    public Integer getColStart() {
+      return colStart;
+    }
+
+    /**
+     * Setter for the field <code>colStart</code>.
+     *
+     * @param colStart a {@link java.lang.Integer} object.
+     */
+    public void setColStart(Integer colStart) {
+      this.colStart = colStart;
+    }
+
+    /**
+     * Getter for the field <code>colEnd</code>.
+     *
+     * @return a {@link java.lang.Integer} object.
+     */
+    public Integer getColEnd() {
+      return colEnd;
+    }
+
+    /**
+     * Setter for the field <code>colEnd</code>.
+     *
+     * @param colEnd a {@link java.lang.Integer} object.
+     */
+    public void setColEnd(Integer colEnd) {
+      this.colEnd = colEnd;
+    }
+
+    /**
+     * Getter for the field <code>methodNumber</code>.
+     *
+     * @return a {@link java.lang.Integer} object.
+     */
+    public Integer getMethodNumber() {
+      return methodNumber;
+    }
+
+    /**
+     * Setter for the field <code>methodNumber</code>.
+     *
+     * @param methodNumber a {@link java.lang.Integer} object.
+     */
+    public void setMethodNumber(Integer methodNumber) {
+      this.methodNumber = methodNumber;
+    }
+  }
+}
@@ -0,0 +1,313 @@
+/* Licensed under GPL-3.0 */
+package rule.engine;
+
+import analyzer.BaseAnalyzer;
+import analyzer.BaseAnalyzerRouting;
+import analyzer.ProgramModel;
+import frontEnd.Interface.outputRouting.ExceptionHandler;
+import frontEnd.Interface.outputRouting.ExceptionId;
+import frontEnd.MessagingSystem.AnalysisIssue;
+import frontEnd.MessagingSystem.routing.outputStructures.OutputStructure;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.logging.log4j.Logger;
+import rule.base.BaseRuleChecker;
+import util.ConstantPoolIndex;
+import util.PlatformClassCache;
+import util.Utils;
+
+/**
+ * ScanEngine class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>Loads the scan target into a single {@link analyzer.ProgramModel} and runs every rule of
+ *     {@link rule.engine.CommonRules} against it. The model is read only once it is built, so
+ *     the rules can be checked by several threads at once.
+ *     <p>In a batched scan, the criteria of every rule slicing backwards are sliced together first,
+ *     those rules then only produce their output.
+ *     <p>With a cache directory, only the classes that may report different findings since the
+ *     previous scan are checked again, see {@link rule.engine.ScanCache}. The platform classes are
+ *     cached there as well, and read in memory without one, so the criteria classes the target
+ *     never uses are not loaded.
+ */
+public class ScanEngine {
+
+  private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(ScanEngine.class);
+
+  /**
+   * scan.
+   *
+   * @param type a {@link rule.engine.EngineType} object.
+   * @param projectJarPath a {@link java.util.List} object.
+   * @param projectDependencyPath a {@link java.util.List} object.
+   * @param sourcePaths a {@link java.util.List} object.
+   * @param output a {@link frontEnd.MessagingSystem.routing.outputStructures.OutputStructure}
+   *     object.
+   * @param mainKlass a {@link java.lang.String} object.
+   * @param androidHome a {@link java.lang.String} object.
+   * @param javaHome a {@link java.lang.String} object.
+   * @param ruleThreads a int, the number of threads checking the rules and slicing their call
+   *     sites.
+   * @param batchSlicing a boolean, whether the criteria of all the rules are sliced in a single
+   *     pass.
+   * @param cacheDir a {@link java.lang.String} object, the directory caching the findings between
+   *     scans, null to scan everything.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public static void scan(
+      EngineType type,
+      List<String> projectJarPath,
+      List<String> projectDependencyPath,
+      List<String> sourcePaths,
+      OutputStructure output,
+      String mainKlass,
+      String androidHome,
+      String javaHome,
+      int ruleThreads,
+      boolean batchSlicing,
+      String cacheDir)
+      throws ExceptionHandler {
+
+    ConstantPoolIndex constantPoolIndex =
+        BaseAnalyzerRouting.indexConstantPools(type, projectJarPath, projectDependencyPath);
+
+    if (constantPoolIndex != null) {
+      List<String> platformJars = getPlatformJars(type, projectJarPath, androidHome, javaHome);
+      if (platformJars != null) resolvePlatform(constantPoolIndex, cacheDir, platformJars);
+    }
+
+    ScanCache cache =
+        cacheDir == null
+            ? null
+            : ScanCache.open(cacheDir, type, projectJarPath, mainKlass, constantPoolIndex);
+    Set<String> rescanScope = cache == null ? null : cache.getRescanScope();
+
+    if (rescanScope != null && rescanScope.isEmpty()) {
+      log.info("No class changed since the cached scan");
+      for (AnalysisIssue issue : cache.merge(new ArrayList<>())) output.addIssue(issue);
+      return;
+    }
+
+    log.debug("Loading the program model");
+    ProgramModel model =
+        BaseAnalyzerRouting.buildProgramModel(
+            type,
+            projectJarPath,
+            projectDependencyPath,
+            mainKlass,
+            androidHome,
+            javaHome,
+            constantPoolIndex);
+    log.debug("Program model loaded with " + model.getClassNames().size() + " classes");
+
+    if (cache == null) {
+      checkRules(model, sourcePaths, output, ruleThreads, batchSlicing);
+      return;
+    }
+
+    IssueBuffer buffer = new IssueBuffer();
+    BaseAnalyzer.initAnalysisScope(rescanScope);
+    try {
+      checkRules(
+          rescanScope == null ? model : model.restrictSourceClasses(rescanScope),
+          sourcePaths,
+          buffer,
+          ruleThreads,
+          batchSlicing);
+    } finally {
+      BaseAnalyzer.initAnalysisScope(null);
+    }
+
+    List<AnalysisIssue> issues = cache.merge(buffer.issues);
+    for (AnalysisIssue issue : issues) output.addIssue(issue);
+    cache.save(issues);
+  }
+
+  /**
+   * Lists the platform jars the classes of the target are resolved against. The android classes
+   * an APK extends, such as <code>android.net.SSLCertificateSocketFactory</code>, are only within
+   * the <code>android.jar</code> of the platform it targets, listed ahead of the JDK.
+   *
+   * @param type a {@link rule.engine.EngineType} object.
+   * @param projectJarPath a {@link java.util.List} object.
+   * @param androidHome a {@link java.lang.String} object.
+   * @param javaHome a {@link java.lang.String} object.
+   * @return a {@link java.util.List} object, null when the platform of the target is not known.
+   */
+  static List<String> getPlatformJars(
+      EngineType type, List<String> projectJarPath, String androidHome, String javaHome) {
+
+    List<String> platformJars = new ArrayList<>();
+    if (type == EngineType.APK) {
+      if (androidHome == null) {
+        return null;
+      }
+
+      String androidJar = null;
+      try {
+        androidJar = Utils.getAndroidJar(androidHome, projectJarPath.get(0));
+      } catch (RuntimeException e) {
+        log.debug("Error finding the android platform: " + e.getMessage());
+      }
+
+      if (androidJar == null || !new File(androidJar).isFile()) {
+        log.warn("The android platform of " + projectJarPath.get(0) + " is not found");
+        return null;
+      }
+      platformJars.add(androidJar);
+    }
+
+    if (javaHome != null) {
+      platformJars.addAll(Utils.getBaseSootJars(javaHome));
+    }
+
+    return platformJars.isEmpty() ? null : platformJars;
+  }
+
+  /**
+   * Resolves the platform classes the index refers to, kept in the cache directory when there is
+   * one and in memory otherwise. The index is left unresolved when none of the platform jars is
+   * found, so that no criteria is ruled out against an empty platform.
+   *
+   * @param constantPoolIndex a {@link util.ConstantPoolIndex} object.
+   * @param cacheDir a {@link java.lang.String} object, null to read the platform classes in
+   *     memory.
+   * @param platformJars a {@link java.util.List} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  static void resolvePlatform(
+      ConstantPoolIndex constantPoolIndex, String cacheDir, List<String> platformJars)
+      throws ExceptionHandler {
+
+    for (String platformJar : platformJars) {
+      if (new File(platformJar).isFile()) {
+        constantPoolIndex.resolvePlatform(PlatformClassCache.open(cacheDir, platformJars));
+        return;
+      }
+    }
+
+    log.warn("None of the platform jars " + platformJars + " is found, every criteria is kept");
+  }
+
+  /** Checks every rule against the model. */
+  private static void checkRules(
+      ProgramModel model,
+      List<String> sourcePaths,
+      OutputStructure output,
+      int ruleThreads,
+      boolean batchSlicing)
+      throws ExceptionHandler {
+
+    BaseAnalyzer.initSlicingThreads(ruleThreads);
+
+    if (batchSlicing) {
+      List<BaseRuleChecker> slicingRules = new ArrayList<>();
+      for (RuleChecker ruleChecker : CommonRules.ruleCheckerList)
+        if (ruleChecker instanceof BaseRuleChecker) slicingRules.add((BaseRuleChecker) ruleChecker);
+
+      log.debug("Slicing the criteria of " + slicingRules.size() + " rule(s) in a single pass");
+      BaseAnalyzer.analyzeCriteriaBatch(slicingRules, model);
+    }
+
+    log.debug("Starting scanner looper");
+    if (ruleThreads > 1)
+      checkRulesInParallel(model, sourcePaths, output, ruleThreads, batchSlicing);
+    else
+      for (RuleChecker ruleChecker : CommonRules.ruleCheckerList) {
+        log.info("Checking the rule: " + ruleChecker.getClass().getSimpleName());
+        checkRule(ruleChecker, model, sourcePaths, output, batchSlicing);
+      }
+    log.debug("Scanner looper stopped");
+  }
+
+  /** Checks the rule, or only creates its output when its criteria were sliced in a batch. */
+  private static void checkRule(
+      RuleChecker ruleChecker,
+      ProgramModel model,
+      List<String> sourcePaths,
+      OutputStructure output,
+      boolean batchSlicing)
+      throws ExceptionHandler {
+
+    if (batchSlicing && ruleChecker instanceof BaseRuleChecker)
+      ((BaseRuleChecker) ruleChecker)
+          .createAnalysisOutput(model.getXmlFiles(), sourcePaths, output);
+    else ruleChecker.checkRule(model, sourcePaths, output);
+  }
+
+  /**
+   * Checks every rule on its own thread of a fixed pool. Each rule writes its issues into its own
+   * buffer, the buffers are then added to the output in the order of the rules so the output is
+   * the same as the one of a sequential scan.
+   */
+  private static void checkRulesInParallel(
+      ProgramModel model,
+      List<String> sourcePaths,
+      OutputStructure output,
+      int ruleThreads,
+      boolean batchSlicing)
+      throws ExceptionHandler {
+
+    ExecutorService pool =
+        Executors.newFixedThreadPool(Math.min(ruleThreads, CommonRules.ruleCheckerList.size()));
+    try {
+      List<Future<IssueBuffer>> results = new ArrayList<>();
+      for (RuleChecker ruleChecker : CommonRules.ruleCheckerList) {
+        results.add(
+            pool.submit(
+                () -> {
+                  log.info("Checking the rule: " + ruleChecker.getClass().getSimpleName());
+                  IssueBuffer buffer = new IssueBuffer();
+                  checkRule(ruleChecker, model, sourcePaths, buffer, batchSlicing);
+                  return buffer;
+                }));
+      }
+
+      for (Future<IssueBuffer> result : results)
+        for (AnalysisIssue issue : result.get().issues) output.addIssue(issue);
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExceptionHandler("Interrupted while checking the rules.", ExceptionId.SCAN_GEN);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof ExceptionHandler) throw (ExceptionHandler) e.getCause();
+      if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+      if (e.getCause() instanceof Error) throw (Error) e.getCause();
+      throw new ExceptionHandler(
+          "Error checking the rules: " + e.getCause().getMessage(), ExceptionId.SCAN_GEN);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Holds the issues found by a single rule, or by a single module, until they are added to the
+   * actual output.
+   */
+  static class IssueBuffer extends OutputStructure {
+
+    final List<AnalysisIssue> issues = new ArrayList<>();
+
+    /** {@inheritDoc} */
+    @Override
+    public void startAnalyzing() {}
+
+    /** {@inheritDoc} */
+    @Override
+    public void addIssue(AnalysisIssue issue) {
+      this.issues.add(issue);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void stopAnalyzing() {}
+  }
+}
@@ -1,16 +1,32 @@
 /* Licensed under GPL-3.0 */
 package rule.engine;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import frontEnd.Interface.ModuleScanner;
 import frontEnd.Interface.outputRouting.ExceptionHandler;
+import frontEnd.Interface.outputRouting.ExceptionId;
+import frontEnd.MessagingSystem.AnalysisIssue;
 import frontEnd.MessagingSystem.routing.EnvironmentInformation;
+import frontEnd.MessagingSystem.routing.outputStructures.OutputStructure;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.logging.log4j.Logger;
+import rule.engine.ScanCache.CachedIssue;
 import util.BuildFileParser;
 import util.BuildFileParserFactory;
+import util.CalleeSummaryMap;
 import util.FieldInitializationInstructionMap;
 import util.NamedMethodMap;
+import util.UnitGraphCache;
+import util.Utils;
 
 /**
  * SourceEntry class.
@@ -19,15 +35,70 @@ import util.NamedMethodMap;
  * @version 03.07.01
  * @since 01.01.06
  *     <p>The method in the Engine handling Source Scanning
+ *     <p>Each module is scanned along with the modules it depends on, a module already scanned as
+ *     the dependency of another is not scanned on its own. With more than one worker, the modules
+ *     are scanned concurrently by the {@link ModuleScanner}, each within a JVM of its own, and
+ *     their findings are merged into the output in the order of the modules, their heuristics
+ *     summed.
  */
 public class SourceEntry implements EntryHandler {
 
   private static final Logger log =
       org.apache.logging.log4j.LogManager.getLogger(SourceEntry.class);
 
+  private static final ObjectMapper mapper = new ObjectMapper();
+
   /** {@inheritDoc} */
   public void Scan(EnvironmentInformation generalInfo) throws ExceptionHandler {
 
+    BuildFileParser buildFileParser = retrieveBuildFileParser(generalInfo);
+    Map<String, List<String>> moduleScans =
+        planModuleScans(buildFileParser.getDependencyList(), generalInfo.getSource().get(0));
+
+    if (generalInfo.getModuleWorkers() > 1 && moduleScans.size() > 1) {
+      scanInWorkers(generalInfo, new ArrayList<>(moduleScans.keySet()));
+      return;
+    }
+
+    log.debug("Module Iteration Start");
+    for (List<String> dependencies : moduleScans.values()) {
+      scanModule(generalInfo, dependencies, generalInfo.getOutput());
+    }
+    log.debug("Module Iteration Stop");
+  }
+
+  /**
+   * Scans only the module of the environment, writing its findings as JSON into the output file
+   * rather than a report, for the project scan of a {@link ModuleScanner} to read.
+   *
+   * @param generalInfo a {@link frontEnd.MessagingSystem.routing.EnvironmentInformation} object.
+   * @return a {@link java.lang.String} object, the path of the findings.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public String scanModule(EnvironmentInformation generalInfo) throws ExceptionHandler {
+
+    BuildFileParser buildFileParser = retrieveBuildFileParser(generalInfo);
+    List<String> dependencies = buildFileParser.getDependencyList().get(generalInfo.getModule());
+    if (dependencies == null) {
+      log.fatal("The module " + generalInfo.getModule() + " is not part of the project.");
+      throw new ExceptionHandler(
+          "The module " + generalInfo.getModule() + " is not part of the project.",
+          ExceptionId.ARG_VALID);
+    }
+
+    ScanEngine.IssueBuffer buffer = new ScanEngine.IssueBuffer();
+    scanModule(generalInfo, dependencies, buffer);
+
+    File issuesFile = new File(generalInfo.getFileOut());
+    writeIssues(issuesFile, buffer.issues);
+    writeHeuristics(getHeuristicsFile(issuesFile), ModuleHeuristics.counted());
+    log.info("Wrote " + buffer.issues.size() + " finding(s) to " + issuesFile.getPath());
+    return issuesFile.getPath();
+  }
+
+  private static BuildFileParser retrieveBuildFileParser(EnvironmentInformation generalInfo)
+      throws ExceptionHandler {
+
     log.debug("Retrieving the specific project-based build parser.");
     BuildFileParser buildFileParser =
         BuildFileParserFactory.getBuildfileParser(generalInfo.getSource().get(0));
@@ -38,62 +109,333 @@ public class SourceEntry implements EntryHandler {
     generalInfo.setTargetProjectVersion(buildFileParser.getProjectVersion());
 
     generalInfo.setIsGradle(buildFileParser.isGradle());
+    return buildFileParser;
+  }
 
-    Map<String, List<String>> moduleVsDependency = buildFileParser.getDependencyList();
-    List<String> analyzedModules = new ArrayList<>();
+  /**
+   * The modules to scan, each with the source paths of the modules it depends on and its own. The
+   * modules depending on the most others are taken first, so the modules they depend on are
+   * scanned along with them rather than on their own as well.
+   *
+   * @param moduleVsDependency a {@link java.util.Map} object, the source paths of each module.
+   * @param projectRoot a {@link java.lang.String} object, the directory of the project.
+   * @return a {@link java.util.Map} object, the source paths of each module to scan.
+   */
+  static Map<String, List<String>> planModuleScans(
+      Map<String, List<String>> moduleVsDependency, String projectRoot) {
 
-    log.debug("Module Iteration Start");
-    for (String module : moduleVsDependency.keySet()) {
+    List<String> modules = new ArrayList<>(moduleVsDependency.keySet());
+    modules.sort(
+        Comparator.comparingInt((String module) -> -moduleVsDependency.get(module).size())
+            .thenComparing(module -> module));
 
-      if (!analyzedModules.contains(module)) {
+    Map<String, List<String>> moduleScans = new LinkedHashMap<>();
+    Set<String> analyzedModules = new HashSet<>();
 
-        List<String> dependencies = moduleVsDependency.get(module);
-        List<String> otherdependencies = new ArrayList<>();
+    log.debug("Dependency Builder Start");
+    for (String module : modules) {
+      if (analyzedModules.contains(module)) continue;
 
-        log.debug("Dependency Builder Start");
-        for (String dependency : dependencies) {
+      List<String> dependencies = moduleVsDependency.get(module);
+      for (String dependency : dependencies) {
+        String dependencyModule = toModuleName(dependency, projectRoot);
 
-          String dependencyModule;
+        log.debug("Added the module: " + dependencyModule);
+        analyzedModules.add(dependencyModule);
+      }
+      moduleScans.put(module, dependencies);
+    }
+    log.debug("Dependency Builder Stop");
 
-          if (dependency.equals(generalInfo.getSource().get(0) + "/src/main/java"))
-            dependencyModule =
-                generalInfo
-                    .getSource()
-                    .get(0)
-                    .substring(generalInfo.getSource().get(0).lastIndexOf("/") + 1);
-          else
-            dependencyModule =
-                dependency.substring(
-                    generalInfo.getSource().get(0).length() + 1, dependency.length() - 14);
+    return moduleScans;
+  }
 
-          /* This is needed when the dependency path is relative*/
-          //otherdependencies.add(dependency.substring(0, dependency.length() - 13) + generalInfo.getDependencies());
-          otherdependencies.addAll(generalInfo.getDependencies());
+  /** The name of the module of a source path, <code>root/module/src/main/java</code>. */
+  private static String toModuleName(String dependency, String projectRoot) {
+    if (dependency.equals(projectRoot + "/src/main/java"))
+      return projectRoot.substring(projectRoot.lastIndexOf("/") + 1);
+    else return dependency.substring(projectRoot.length() + 1, dependency.length() - 14);
+  }
 
-          log.debug("Added the module: " + dependencyModule);
-          analyzedModules.add(dependencyModule);
-        }
-        log.debug("Dependency Builder Stop");
-
-        log.debug("Starting scanner looper");
-        for (RuleChecker ruleChecker : CommonRules.ruleCheckerList) {
-          log.info("Checking the rule: " + ruleChecker.getClass().getSimpleName());
-          ruleChecker.checkRule(
-              EngineType.DIR,
-              dependencies,
-              otherdependencies,
-              generalInfo.getSourcePaths(),
-              generalInfo.getOutput(),
-              generalInfo.getMain(),
-              null,
-              generalInfo.getJavaHome());
+  /** Scans the source paths of a module, clearing the maps built for it afterwards. */
+  private static void scanModule(
+      EnvironmentInformation generalInfo, List<String> dependencies, OutputStructure output)
+      throws ExceptionHandler {
+
+    ScanEngine.scan(
+        EngineType.DIR,
+        dependencies,
+        new ArrayList<>(generalInfo.getDependencies()),
+        generalInfo.getSourcePaths(),
+        output,
+        generalInfo.getMain(),
+        null,
+        generalInfo.getJavaHome(),
+        generalInfo.getRuleThreads(),
+        generalInfo.getBatchSlicing(),
+        generalInfo.getCacheDir());
+
+    NamedMethodMap.clearCallerCalleeGraph();
+    FieldInitializationInstructionMap.reset();
+    UnitGraphCache.reset();
+    CalleeSummaryMap.reset();
+  }
+
+  /** Scans the modules within the workers and adds their findings to the output. */
+  private static void scanInWorkers(EnvironmentInformation generalInfo, List<String> modules)
+      throws ExceptionHandler {
+
+    File outDir;
+    try {
+      outDir = Files.createTempDirectory("modules").toFile();
+    } catch (IOException e) {
+      log.fatal("Error creating the directory for the findings of the modules.");
+      throw new ExceptionHandler(
+          "Error creating the directory for the findings of the modules.", ExceptionId.FILE_CON);
+    }
+
+    try {
+      for (String issuesFile : ModuleScanner.scan(generalInfo, modules, outDir)) {
+        for (AnalysisIssue issue : readIssues(new File(issuesFile))) {
+          generalInfo.getOutput().addIssue(issue);
         }
-        log.debug("Scanner looper stopped");
+        readHeuristics(getHeuristicsFile(new File(issuesFile))).addToCounted();
+      }
+    } finally {
+      File[] files = outDir.listFiles();
+      if (files != null) for (File file : files) file.delete();
+      outDir.delete();
+    }
+  }
+
+  /**
+   * Writes the findings of a module as JSON.
+   *
+   * @param file a {@link java.io.File} object.
+   * @param issues a {@link java.util.List} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  static void writeIssues(File file, List<AnalysisIssue> issues) throws ExceptionHandler {
+    List<CachedIssue> content = new ArrayList<>();
+    for (AnalysisIssue issue : issues) content.add(CachedIssue.of(issue));
+
+    try {
+      mapper.writeValue(file, content);
+    } catch (IOException e) {
+      log.fatal("Error writing the findings " + file.getPath());
+      throw new ExceptionHandler(
+          "Error writing the findings " + file.getPath(), ExceptionId.FILE_O);
+    }
+  }
+
+  /**
+   * Reads the findings of a module written by {@link #writeIssues}.
+   *
+   * @param file a {@link java.io.File} object.
+   * @return a {@link java.util.List} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  static List<AnalysisIssue> readIssues(File file) throws ExceptionHandler {
+    CachedIssue[] content;
+    try {
+      content = mapper.readValue(file, CachedIssue[].class);
+    } catch (IOException e) {
+      log.fatal("Error reading the findings " + file.getPath());
+      throw new ExceptionHandler(
+          "Error reading the findings " + file.getPath(), ExceptionId.FILE_READ);
+    }
 
-        NamedMethodMap.clearCallerCalleeGraph();
-        FieldInitializationInstructionMap.reset();
+    List<AnalysisIssue> issues = new ArrayList<>();
+    for (CachedIssue cached : content) issues.add(cached.toIssue());
+    return issues;
+  }
+
+  /** The heuristics of a module, written next to its findings. */
+  private static File getHeuristicsFile(File issuesFile) {
+    return new File(issuesFile.getPath() + ".heuristics");
+  }
+
+  /**
+   * Writes the heuristics counted while scanning a module as JSON.
+   *
+   * @param file a {@link java.io.File} object.
+   * @param heuristics a {@link rule.engine.SourceEntry.ModuleHeuristics} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  static void writeHeuristics(File file, ModuleHeuristics heuristics) throws ExceptionHandler {
+    try {
+      mapper.writeValue(file, heuristics);
+    } catch (IOException e) {
+      log.fatal("Error writing the heuristics " + file.getPath());
+      throw new ExceptionHandler(
+          "Error writing the heuristics " + file.getPath(), ExceptionId.FILE_O);
+    }
+  }
+
+  /**
+   * Reads the heuristics of a module written by {@link #writeHeuristics}.
+   *
+   * @param file a {@link java.io.File} object.
+   * @return a {@link rule.engine.SourceEntry.ModuleHeuristics} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  static ModuleHeuristics readHeuristics(File file) throws ExceptionHandler {
+    try {
+      return mapper.readValue(file, ModuleHeuristics.class);
+    } catch (IOException e) {
+      log.fatal("Error reading the heuristics " + file.getPath());
+      throw new ExceptionHandler(
+          "Error reading the heuristics " + file.getPath(), ExceptionId.FILE_READ);
+    }
+  }
+
+  /**
+   * The heuristics counted while scanning a module within a worker, summed into the counters of
+   * the project scan, see {@link util.Utils#NUM_SLICES}.
+   */
+  public static class ModuleHeuristics {
+
+    private int orthogonal;
+    private int constantsToCheck;
+    private int slices;
+    private int heuristics;
+    private List<Integer> sliceLengths = new ArrayList<>();
+    private List<Integer> depthCount = new ArrayList<>();
+
+    /** The heuristics counted so far within this JVM. */
+    static ModuleHeuristics counted() {
+      ModuleHeuristics counted = new ModuleHeuristics();
+      counted.orthogonal = Utils.NUM_ORTHOGONAL.get();
+      counted.constantsToCheck = Utils.NUM_CONSTS_TO_CHECK.get();
+      counted.slices = Utils.NUM_SLICES.get();
+      counted.heuristics = Utils.NUM_HEURISTIC.get();
+      synchronized (Utils.SLICE_LENGTH) {
+        counted.sliceLengths.addAll(Utils.SLICE_LENGTH);
       }
+      if (Utils.DEPTH_COUNT != null)
+        for (int i = 0; i < Utils.DEPTH_COUNT.length(); i++)
+          counted.depthCount.add(Utils.DEPTH_COUNT.get(i));
+      return counted;
+    }
+
+    /** Adds the heuristics to the ones counted within this JVM. */
+    void addToCounted() {
+      Utils.NUM_ORTHOGONAL.addAndGet(orthogonal);
+      Utils.NUM_CONSTS_TO_CHECK.addAndGet(constantsToCheck);
+      Utils.NUM_SLICES.addAndGet(slices);
+      Utils.NUM_HEURISTIC.addAndGet(heuristics);
+      Utils.SLICE_LENGTH.addAll(sliceLengths);
+      if (Utils.DEPTH_COUNT != null)
+        for (int i = 0; i < depthCount.size() && i < Utils.DEPTH_COUNT.length(); i++)
+          Utils.DEPTH_COUNT.addAndGet(i, depthCount.get(i));
+    }
+
+    /**
+     * Getter for the field <code>orthogonal</code>.
+     *
+     * @return a int.
+     */
+    public int getOrthogonal() {
+      return orthogonal;
+    }
+
+    /**
+     * Setter for the field <code>orthogonal</code>.
+     *
+     * @param orthogonal a int.
+     */
+    public void setOrthogonal(int orthogonal) {
+      this.orthogonal = orthogonal;
+    }
+
+    /**
+     * Getter for the field <code>constantsToCheck</code>.
+     *
+     * @return a int.
+     */
+    public int getConstantsToCheck() {
+      return constantsToCheck;
+    }
+
+    /**
+     * Setter for the field <code>constantsToCheck</code>.
+     *
+     * @param constantsToCheck a int.
+     */
+    public void setConstantsToCheck(int constantsToCheck) {
+      this.constantsToCheck = constantsToCheck;
+    }
+
+    /**
+     * Getter for the field <code>slices</code>.
+     *
+     * @return a int.
+     */
+    public int getSlices() {
+      return slices;
+    }
+
+    /**
+     * Setter for the field <code>slices</code>.
+     *
+     * @param slices a int.
+     */
+    public void setSlices(int slices) {
+      this.slices = slices;
+    }
+
+    /**
+     * Getter for the field <code>heuristics</code>.
+     *
+     * @return a int.
+     */
+    public int getHeuristics() {
+      return heuristics;
+    }
+
+    /**
+     * Setter for the field <code>heuristics</code>.
+     *
+     * @param heuristics a int.
+     */
+    public void setHeuristics(int heuristics) {
+      this.heuristics = heuristics;
+    }
+
+    /**
+     * Getter for the field <code>sliceLengths</code>.
+     *
+     * @return a {@link java.util.List} object.
+     */
+    public List<Integer> getSliceLengths() {
+      return sliceLengths;
+    }
+
+    /**
+     * Setter for the field <code>sliceLengths</code>.
+     *
+     * @param sliceLengths a {@link java.util.List} object.
+     */
+    public void setSliceLengths(List<Integer> sliceLengths) {
+      this.sliceLengths = sliceLengths;
+    }
+
+    /**
+     * Getter for the field <code>depthCount</code>.
+     *
+     * @return a {@link java.util.List} object, the number of slices reaching each depth.
+     */
+    public List<Integer> getDepthCount() {
+      return depthCount;
+    }
+
+    /**
+     * Setter for the field <code>depthCount</code>.
+     *
+     * @param depthCount a {@link java.util.List} object.
+     */
+    public void setDepthCount(List<Integer> depthCount) {
+      this.depthCount = depthCount;
     }
-    log.debug("Module Iteration Stop");
   }
 }
@@ -0,0 +1,321 @@
+/* Licensed under GPL-3.0 */
+package slicer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import soot.EquivTo;
+import soot.toolkits.scalar.AbstractFlowSet;
+import soot.toolkits.scalar.FlowSet;
+
+/**
+ * IndexedValueSparseSet class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>A flow set with the same semantics as {@link slicer.ValueArraySparseSet}, two elements are
+ *     the same if their text is equal or if one of them is an {@link soot.EquivTo} equivalent to
+ *     the other. The text of every element is kept in a hash index so a membership check does not
+ *     have to print every element of the set. The elements are kept in an array in the same order
+ *     as {@link slicer.ValueArraySparseSet}, so the slices built from both sets are the same.
+ */
+public class IndexedValueSparseSet extends AbstractFlowSet {
+  /** Constant <code>DEFAULT_SIZE=8</code> */
+  protected static final int DEFAULT_SIZE = 8;
+
+  protected int numElements;
+  protected int maxElements;
+  protected Object[] elements;
+  protected Set<String> index;
+  protected List<EquivTo> equivElements;
+
+  /** Constructor for IndexedValueSparseSet. */
+  public IndexedValueSparseSet() {
+    maxElements = DEFAULT_SIZE;
+    elements = new Object[DEFAULT_SIZE];
+    numElements = 0;
+    index = new HashSet<>();
+    equivElements = new ArrayList<>();
+  }
+
+  /**
+   * Constructor for IndexedValueSparseSet.
+   *
+   * @param other a {@link slicer.IndexedValueSparseSet} object.
+   */
+  protected IndexedValueSparseSet(IndexedValueSparseSet other) {
+    numElements = other.numElements;
+    maxElements = other.maxElements;
+    elements = other.elements.clone();
+    index = new HashSet<>(other.index);
+    equivElements = new ArrayList<>(other.equivElements);
+  }
+
+  /**
+   * sameType.
+   *
+   * <p>Returns true if flowSet is the same type of flow set as this.
+   *
+   * @param flowSet a {@link java.lang.Object} object.
+   * @return a boolean.
+   */
+  protected boolean sameType(Object flowSet) {
+    return (flowSet instanceof IndexedValueSparseSet);
+  }
+
+  /**
+   * clone.
+   *
+   * @return a {@link slicer.IndexedValueSparseSet} object.
+   */
+  public IndexedValueSparseSet clone() {
+    return new IndexedValueSparseSet(this);
+  }
+
+  /**
+   * emptySet.
+   *
+   * @return a {@link slicer.IndexedValueSparseSet} object.
+   */
+  public IndexedValueSparseSet emptySet() {
+    return new IndexedValueSparseSet();
+  }
+
+  /** clear. */
+  public void clear() {
+    numElements = 0;
+    index.clear();
+    equivElements.clear();
+  }
+
+  /**
+   * size.
+   *
+   * @return a int.
+   */
+  public int size() {
+    return numElements;
+  }
+
+  /**
+   * isEmpty.
+   *
+   * @return a boolean.
+   */
+  public boolean isEmpty() {
+    return numElements == 0;
+  }
+
+  /**
+   * Returns a unbacked list of elements in this set.
+   *
+   * @return a {@link java.util.List} object.
+   */
+  public List toList() {
+    Object[] copiedElements = new Object[numElements];
+    System.arraycopy(elements, 0, copiedElements, 0, numElements);
+    return Arrays.asList(copiedElements);
+  }
+
+  /**
+   * iterator.
+   *
+   * @return a {@link java.util.Iterator} object.
+   */
+  public Iterator iterator() {
+    return toList().iterator();
+  }
+
+  /** {@inheritDoc} */
+  public void add(Object e) {
+    String key = e.toString();
+
+    if (!contains(e, key)) {
+      if (numElements == maxElements) {
+        doubleCapacity();
+      }
+      elements[numElements++] = e;
+      index.add(key);
+      if (e instanceof EquivTo) {
+        equivElements.add((EquivTo) e);
+      }
+    }
+  }
+
+  /** doubleCapacity. */
+  protected void doubleCapacity() {
+    int newSize = maxElements * 2;
+
+    Object[] newElements = new Object[newSize];
+
+    System.arraycopy(elements, 0, newElements, 0, numElements);
+    elements = newElements;
+    maxElements = newSize;
+  }
+
+  /** {@inheritDoc} */
+  public void remove(Object obj) {
+    int i = 0;
+    while (i < this.numElements) {
+      if (elements[i].equals(obj)) {
+        index.remove(elements[i].toString());
+        if (elements[i] instanceof EquivTo) {
+          equivElements.remove(elements[i]);
+        }
+        elements[i] = elements[--numElements];
+        return;
+      } else {
+        i++;
+      }
+    }
+  }
+
+  /** {@inheritDoc} */
+  public void union(FlowSet otherFlow, FlowSet destFlow) {
+    if (sameType(otherFlow) && sameType(destFlow)) {
+      IndexedValueSparseSet other = (IndexedValueSparseSet) otherFlow;
+      IndexedValueSparseSet dest = (IndexedValueSparseSet) destFlow;
+
+      // For the special case that dest == other
+      if (dest == other) {
+        for (int i = 0; i < this.numElements; i++) dest.add(this.elements[i]);
+      }
+
+      // Else, force that dest starts with contents of this
+      else {
+        if (this != dest) {
+          copy(dest);
+        }
+
+        for (int i = 0; i < other.numElements; i++) dest.add(other.elements[i]);
+      }
+    } else {
+      super.union(otherFlow, destFlow);
+    }
+  }
+
+  /** {@inheritDoc} */
+  public void intersection(FlowSet otherFlow, FlowSet destFlow) {
+    if (sameType(otherFlow) && sameType(destFlow)) {
+      IndexedValueSparseSet other = (IndexedValueSparseSet) otherFlow;
+      IndexedValueSparseSet dest = (IndexedValueSparseSet) destFlow;
+      IndexedValueSparseSet workingSet;
+
+      if (dest == other || dest == this) {
+        workingSet = new IndexedValueSparseSet();
+      } else {
+        workingSet = dest;
+        workingSet.clear();
+      }
+
+      for (int i = 0; i < this.numElements; i++) {
+        if (other.contains(this.elements[i])) {
+          workingSet.add(this.elements[i]);
+        }
+      }
+
+      if (workingSet != dest) {
+        workingSet.copy(dest);
+      }
+    } else {
+      super.intersection(otherFlow, destFlow);
+    }
+  }
+
+  /** {@inheritDoc} */
+  public void difference(FlowSet otherFlow, FlowSet destFlow) {
+    if (sameType(otherFlow) && sameType(destFlow)) {
+      IndexedValueSparseSet other = (IndexedValueSparseSet) otherFlow;
+      IndexedValueSparseSet dest = (IndexedValueSparseSet) destFlow;
+      IndexedValueSparseSet workingSet;
+
+      if (dest == other || dest == this) {
+        workingSet = new IndexedValueSparseSet();
+      } else {
+        workingSet = dest;
+        workingSet.clear();
+      }
+
+      for (int i = 0; i < this.numElements; i++) {
+        if (!other.contains(this.elements[i])) {
+          workingSet.add(this.elements[i]);
+        }
+      }
+
+      if (workingSet != dest) {
+        workingSet.copy(dest);
+      }
+    } else {
+      super.difference(otherFlow, destFlow);
+    }
+  }
+
+  /** {@inheritDoc} */
+  public boolean contains(Object obj) {
+    return contains(obj, obj.toString());
+  }
+
+  private boolean contains(Object obj, String key) {
+    if (index.contains(key)) {
+      return true;
+    }
+
+    for (EquivTo element : equivElements) {
+      if (element.equivTo(obj)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /** {@inheritDoc} */
+  public boolean equals(Object otherFlow) {
+    if (sameType(otherFlow)) {
+      IndexedValueSparseSet other = (IndexedValueSparseSet) otherFlow;
+
+      if (other.numElements != this.numElements) {
+        return false;
+      }
+
+      // Both sets have the same size and no element appears twice in either of them
+      for (int i = 0; i < this.numElements; i++) {
+        if (!other.contains(this.elements[i])) {
+          return false;
+        }
+      }
+
+      return true;
+    } else {
+      return super.equals(otherFlow);
+    }
+  }
+
+  /** {@inheritDoc} */
+  public void copy(FlowSet destFlow) {
+    if (sameType(destFlow)) {
+      IndexedValueSparseSet dest = (IndexedValueSparseSet) destFlow;
+
+      if (dest == this) {
+        return;
+      }
+
+      while (dest.maxElements < this.maxElements) dest.doubleCapacity();
+
+      dest.numElements = this.numElements;
+
+      System.arraycopy(this.elements, 0, dest.elements, 0, this.numElements);
+
+      dest.index.clear();
+      dest.index.addAll(this.index);
+      dest.equivElements.clear();
+      dest.equivElements.addAll(this.equivElements);
+    } else {
+      super.copy(destFlow);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/* Licensed under GPL-3.0 */
+package slicer.backward;
+
+import analyzer.backward.UnitContainer;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * CalleeSliceSummary class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The intra-procedural slice of a callee for a single slicing criteria, along with the
+ *     parameters and the properties influencing it. The lists are shared by every call site of
+ *     the callee and must not be modified.
+ */
+public class CalleeSliceSummary {
+
+  private final List<UnitContainer> analysisResult;
+  private final List<Integer> influencingParams;
+  private final Set<String> usedProperties;
+
+  /**
+   * Constructor for CalleeSliceSummary.
+   *
+   * @param analysisResult a {@link java.util.List} object.
+   * @param influencingParams a {@link java.util.List} object.
+   * @param usedProperties a {@link java.util.Set} object.
+   */
+  public CalleeSliceSummary(
+      List<UnitContainer> analysisResult,
+      List<Integer> influencingParams,
+      Set<String> usedProperties) {
+    this.analysisResult = analysisResult;
+    this.influencingParams = influencingParams;
+    this.usedProperties = usedProperties;
+  }
+
+  /**
+   * Getter for the field <code>analysisResult</code>, null when the callee has no units.
+   *
+   * @return a {@link java.util.List} object.
+   */
+  public List<UnitContainer> getAnalysisResult() {
+    return analysisResult;
+  }
+
+  /**
+   * Getter for the field <code>influencingParams</code>.
+   *
+   * @return a {@link java.util.List} object.
+   */
+  public List<Integer> getInfluencingParams() {
+    return influencingParams;
+  }
+
+  /**
+   * Getter for the field <code>usedProperties</code>, the properties of the callee's instance
+   * used by the slice.
+   *
+   * @return a {@link java.util.Set} object.
+   */
+  public Set<String> getUsedProperties() {
+    return usedProperties;
+  }
+}
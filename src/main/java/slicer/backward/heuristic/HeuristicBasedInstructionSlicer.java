@@ -6,7 +6,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import slicer.ValueArraySparseSet;
+import slicer.IndexedValueSparseSet;
 import slicer.backward.property.PropertyAnalysisResult;
 import soot.ArrayType;
 import soot.Unit;
@@ -60,7 +60,7 @@ public class HeuristicBasedInstructionSlicer extends BackwardFlowAnalysis {
    */
   public HeuristicBasedInstructionSlicer(DirectedGraph g, String slicingCriteria, String method) {
     super(g);
-    this.emptySet = new ValueArraySparseSet();
+    this.emptySet = new IndexedValueSparseSet();
     this.slicingCriteria = slicingCriteria;
     this.method = method;
     this.propertyUseMap = new HashMap<>();
@@ -7,12 +7,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import slicer.backward.property.PropertyAnalysisResult;
-import soot.Body;
 import soot.SootMethod;
 import soot.Unit;
 import soot.toolkits.graph.DirectedGraph;
-import soot.toolkits.graph.ExceptionalUnitGraph;
 import soot.toolkits.scalar.FlowSet;
+import util.UnitGraphCache;
 
 /**
  * HeuristicBasedInstructions class.
@@ -32,8 +31,7 @@ public class HeuristicBasedInstructions {
    */
   public HeuristicBasedInstructions(SootMethod method, String slicingCriteria) {
 
-    Body b = method.retrieveActiveBody();
-    DirectedGraph methodToSlice = new ExceptionalUnitGraph(b);
+    DirectedGraph methodToSlice = UnitGraphCache.getUnitGraph(method);
 
     HeuristicBasedInstructionSlicer analysis =
         new HeuristicBasedInstructionSlicer(methodToSlice, slicingCriteria, method.toString());
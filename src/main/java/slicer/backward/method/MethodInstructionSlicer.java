@@ -6,7 +6,7 @@ import analyzer.backward.InvokeUnitContainer;
 import analyzer.backward.ParamFakeUnitContainer;
 import analyzer.backward.UnitContainer;
 import java.util.*;
-import slicer.ValueArraySparseSet;
+import slicer.IndexedValueSparseSet;
 import slicer.backward.MethodCallSiteInfo;
 import slicer.backward.property.PropertyAnalysisResult;
 import soot.ArrayType;
@@ -49,7 +49,7 @@ public class MethodInstructionSlicer extends BackwardFlowAnalysis {
   public MethodInstructionSlicer(
       DirectedGraph g, MethodCallSiteInfo methodCallSiteInfo, List<Integer> slicingParams) {
     super(g);
-    this.emptySet = new ValueArraySparseSet();
+    this.emptySet = new IndexedValueSparseSet();
     this.methodCallSiteInfo = methodCallSiteInfo;
     this.slicingParams = slicingParams;
     this.usedFields = new ArrayList<>();
@@ -5,12 +5,11 @@ import analyzer.backward.UnitContainer;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import soot.Body;
 import soot.SootMethod;
 import soot.Unit;
 import soot.toolkits.graph.DirectedGraph;
-import soot.toolkits.graph.ExceptionalUnitGraph;
 import soot.toolkits.scalar.FlowSet;
+import util.UnitGraphCache;
 
 /**
  * Created by RigorityJTeam on 7/1/17.
@@ -31,8 +30,7 @@ public class OrthogonalInfluenceInstructions {
    */
   public OrthogonalInfluenceInstructions(SootMethod method, String slicingCriteria, int depth) {
 
-    Body b = method.retrieveActiveBody();
-    DirectedGraph methodToSlice = new ExceptionalUnitGraph(b);
+    DirectedGraph methodToSlice = UnitGraphCache.getUnitGraph(method);
 
     OrthogonalInstructionSlicer analysis =
         new OrthogonalInstructionSlicer(methodToSlice, slicingCriteria, method.toString(), depth);
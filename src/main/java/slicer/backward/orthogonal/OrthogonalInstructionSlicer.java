@@ -5,7 +5,7 @@ import analyzer.backward.AssignInvokeUnitContainer;
 import analyzer.backward.InvokeUnitContainer;
 import analyzer.backward.UnitContainer;
 import java.util.*;
-import slicer.ValueArraySparseSet;
+import slicer.IndexedValueSparseSet;
 import slicer.backward.property.PropertyAnalysisResult;
 import soot.ArrayType;
 import soot.Unit;
@@ -63,7 +63,7 @@ public class OrthogonalInstructionSlicer extends BackwardFlowAnalysis {
   public OrthogonalInstructionSlicer(
       DirectedGraph g, String slicingCriteria, String method, int depth) {
     super(g);
-    this.emptySet = new ValueArraySparseSet();
+    this.emptySet = new IndexedValueSparseSet();
     this.slicingCriteria = slicingCriteria;
     this.method = method;
     this.depth = depth;
@@ -5,7 +5,7 @@ import analyzer.backward.UnitContainer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import slicer.ValueArraySparseSet;
+import slicer.IndexedValueSparseSet;
 import slicer.backward.property.PropertyAnalysisResult;
 import soot.ArrayType;
 import soot.Unit;
@@ -39,7 +39,7 @@ public class OtherInstructionSlicer extends BackwardFlowAnalysis {
    */
   public OtherInstructionSlicer(DirectedGraph g, String slicingCriteria, String method) {
     super(g);
-    this.emptySet = new ValueArraySparseSet();
+    this.emptySet = new IndexedValueSparseSet();
     this.slicingCriteria = slicingCriteria;
     this.method = method;
     this.propertyUseMap = new HashMap<>();
@@ -6,11 +6,10 @@ import analyzer.backward.UnitContainer;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import soot.Body;
 import soot.Unit;
-import soot.toolkits.graph.ExceptionalUnitGraph;
 import soot.toolkits.graph.UnitGraph;
 import soot.toolkits.scalar.FlowSet;
+import util.UnitGraphCache;
 import util.Utils;
 
 /**
@@ -32,8 +31,7 @@ public class PropertyInfluencingInstructions {
    */
   public PropertyInfluencingInstructions(MethodWrapper initMethod, String slicingCriteria) {
 
-    Body initBody = initMethod.getMethod().retrieveActiveBody();
-    UnitGraph graph = new ExceptionalUnitGraph(initBody);
+    UnitGraph graph = UnitGraphCache.getUnitGraph(initMethod.getMethod());
     PropertyInstructionSlicer analysis =
         new PropertyInstructionSlicer(graph, slicingCriteria, initMethod.toString());
 
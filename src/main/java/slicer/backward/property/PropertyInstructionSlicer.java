@@ -6,7 +6,7 @@ import analyzer.backward.InvokeUnitContainer;
 import analyzer.backward.PropertyFakeUnitContainer;
 import analyzer.backward.UnitContainer;
 import java.util.*;
-import slicer.ValueArraySparseSet;
+import slicer.IndexedValueSparseSet;
 import soot.ArrayType;
 import soot.Unit;
 import soot.Value;
@@ -46,7 +46,7 @@ public class PropertyInstructionSlicer extends BackwardFlowAnalysis {
    */
   public PropertyInstructionSlicer(DirectedGraph g, String slicingCriteria, String initMethod) {
     super(g);
-    this.emptySet = new ValueArraySparseSet();
+    this.emptySet = new IndexedValueSparseSet();
     this.slicingCriteria = slicingCriteria;
     this.initMethod = initMethod;
     usedFields = new ArrayList<>();
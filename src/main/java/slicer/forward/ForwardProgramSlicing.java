@@ -2,7 +2,7 @@
 package slicer.forward;
 
 import java.util.List;
-import slicer.ValueArraySparseSet;
+import slicer.IndexedValueSparseSet;
 import soot.Unit;
 import soot.Value;
 import soot.ValueBox;
@@ -35,7 +35,7 @@ public class ForwardProgramSlicing extends ForwardFlowAnalysis {
    */
   public ForwardProgramSlicing(DirectedGraph g, SlicingCriteria slicingCriteria) {
     super(g);
-    this.emptySet = new ValueArraySparseSet();
+    this.emptySet = new IndexedValueSparseSet();
     this.methodCallSiteInfo = new MethodCallSiteInfo();
     this.methodCallSiteInfo.setSlicingCriteria(slicingCriteria);
     doAnalysis();
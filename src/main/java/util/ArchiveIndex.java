@@ -0,0 +1,204 @@
+/* Licensed under GPL-3.0 */
+package util;
+
+import frontEnd.Interface.outputRouting.ExceptionHandler;
+import frontEnd.Interface.outputRouting.ExceptionId;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * ArchiveIndex class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The entries of a jar or an APK, read once from its central directory. The class names
+ *     and the XML resources are served from the index for the rest of the scan, the XML resources
+ *     are read with a single open of the archive the first time they are asked for.
+ *     <p>An index is kept for each archive until the archive changes or the index is reset.
+ */
+public class ArchiveIndex {
+
+  private static final Logger log =
+      org.apache.logging.log4j.LogManager.getLogger(ArchiveIndex.class);
+
+  private static final Map<String, ArchiveIndex> OPENED = new HashMap<>();
+
+  private final String path;
+  private final String key;
+  private final List<String> entryNames;
+  private Map<String, String> xmlFiles = null;
+
+  private ArchiveIndex(String path, String key, List<String> entryNames) {
+    this.path = path;
+    this.key = key;
+    this.entryNames = Collections.unmodifiableList(entryNames);
+  }
+
+  /**
+   * Reads the entries of the archive, or returns the index already read when it is unchanged.
+   *
+   * @param archivePath a {@link java.lang.String} object.
+   * @return a {@link util.ArchiveIndex} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public static synchronized ArchiveIndex open(String archivePath) throws ExceptionHandler {
+    File archive = new File(archivePath);
+    if (!archive.isFile()) {
+      log.fatal("File " + archivePath + " is not found.");
+      throw new ExceptionHandler("File " + archivePath + " is not found.", ExceptionId.FILE_AFK);
+    }
+
+    String key = archive.length() + ":" + archive.lastModified();
+    ArchiveIndex index = OPENED.get(archive.getAbsolutePath());
+    if (index != null && index.key.equals(key)) {
+      return index;
+    }
+
+    List<String> entryNames = new ArrayList<>();
+    try (ZipFile zipFile = new ZipFile(archive)) {
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        if (!entry.isDirectory()) {
+          entryNames.add(entry.getName());
+        }
+      }
+    } catch (IOException e) {
+      log.fatal("Error with file " + archivePath);
+      throw new ExceptionHandler("Error with file " + archivePath, ExceptionId.FILE_I);
+    }
+
+    index = new ArchiveIndex(archivePath, key, entryNames);
+    OPENED.put(archive.getAbsolutePath(), index);
+    return index;
+  }
+
+  /**
+   * Checks whether the file is a zip archive, such as a jar or an APK, from its signature.
+   *
+   * @param path a {@link java.lang.String} object.
+   * @return a boolean.
+   */
+  public static boolean isArchive(String path) {
+    File file = new File(path);
+    if (!file.isFile()) {
+      return false;
+    }
+
+    try (InputStream in = new FileInputStream(file)) {
+      return in.read() == 'P' && in.read() == 'K';
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /** Drops the index of every archive read. */
+  public static synchronized void reset() {
+    OPENED.clear();
+  }
+
+  /**
+   * Getter for the field <code>entryNames</code>, the files within the archive.
+   *
+   * @return a {@link java.util.List} object.
+   */
+  public List<String> getEntryNames() {
+    return entryNames;
+  }
+
+  /**
+   * The names of the classes within the archive.
+   *
+   * @return a {@link java.util.List} object.
+   */
+  public List<String> getClassNames() {
+    List<String> classNames = new ArrayList<>();
+    for (String entryName : entryNames) {
+      if (entryName.endsWith(".class")) {
+        String className = entryName.replace('/', '.');
+        classNames.add(className.substring(0, className.length() - ".class".length()));
+      }
+    }
+    return classNames;
+  }
+
+  /**
+   * The content of the XML files within the archive, the ones whose name ends with an exclude
+   * left out.
+   *
+   * @param excludes a {@link java.util.List} object, such as <code>pom.xml</code>.
+   * @return a {@link java.util.Map} object, the content of each file by its name.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public synchronized Map<String, String> getXmlFiles(List<String> excludes)
+      throws ExceptionHandler {
+    if (xmlFiles == null) {
+      xmlFiles = readXmlFiles();
+    }
+
+    Map<String, String> selected = new LinkedHashMap<>();
+    for (Map.Entry<String, String> xmlFile : xmlFiles.entrySet()) {
+      if (excludes.stream().noneMatch(xmlFile.getKey()::endsWith)) {
+        selected.put(xmlFile.getKey(), xmlFile.getValue());
+      }
+    }
+    return selected;
+  }
+
+  private Map<String, String> readXmlFiles() throws ExceptionHandler {
+    Map<String, String> contents = new LinkedHashMap<>();
+    if (entryNames.stream().noneMatch(name -> name.endsWith(".xml"))) {
+      return contents;
+    }
+
+    try (ZipFile zipFile = new ZipFile(path)) {
+      for (String entryName : entryNames) {
+        if (!entryName.endsWith(".xml")) continue;
+
+        ZipEntry entry = zipFile.getEntry(entryName);
+        if (entry == null) continue;
+
+        try (InputStream in = zipFile.getInputStream(entry)) {
+          contents.put(entryName, new String(readFully(in), StandardCharsets.UTF_8));
+        }
+      }
+    } catch (IOException e) {
+      log.fatal("Error Reading " + path + ".");
+      throw new ExceptionHandler("Error Reading " + path + ".", ExceptionId.FILE_I);
+    }
+
+    log.debug("Read " + contents.size() + " XML files from " + path);
+    return contents;
+  }
+
+  /**
+   * Reads the stream to its end.
+   *
+   * @param in a {@link java.io.InputStream} object.
+   * @return an array of {@link byte} objects.
+   * @throws java.io.IOException if any.
+   */
+  static byte[] readFully(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] chunk = new byte[8192];
+    for (int read = in.read(chunk); read != -1; read = in.read(chunk)) {
+      out.write(chunk, 0, read);
+    }
+    return out.toByteArray();
+  }
+}
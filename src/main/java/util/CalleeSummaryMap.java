@@ -0,0 +1,134 @@
+/* Licensed under GPL-3.0 */
+package util;
+
+import analyzer.backward.UnitContainer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import slicer.backward.CalleeSliceSummary;
+import slicer.backward.heuristic.HeuristicBasedAnalysisResult;
+import slicer.backward.heuristic.HeuristicBasedInstructions;
+import slicer.backward.orthogonal.OrthogonalInfluenceInstructions;
+import slicer.backward.orthogonal.OrthogonalSlicingResult;
+import soot.SootMethod;
+import soot.ValueBox;
+
+/**
+ * CalleeSummaryMap class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The intra-procedural slices of the callees met while slicing, keyed by the callee, the
+ *     slicing criteria and the remaining depth. A callee reached from many call sites, such as a
+ *     small key helper, is sliced once per scan target instead of once per call site and rule.
+ */
+public class CalleeSummaryMap {
+
+  private static Map<Key, CalleeSliceSummary> summaries = new ConcurrentHashMap<>();
+
+  /** reset. */
+  public static void reset() {
+    summaries = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * getSummary.
+   *
+   * <p>Slices the callee for the criteria on the first request. At a depth of one the heuristic
+   * slicer is used, otherwise the orthogonal slicer with one level less.
+   *
+   * @param method a {@link soot.SootMethod} object.
+   * @param slicingCriteria a {@link java.lang.String} object.
+   * @param depth a int.
+   * @return a {@link slicer.backward.CalleeSliceSummary} object.
+   */
+  public static CalleeSliceSummary getSummary(
+      SootMethod method, String slicingCriteria, int depth) {
+
+    Map<Key, CalleeSliceSummary> current = summaries;
+    Key key = new Key(method, slicingCriteria, depth);
+
+    CalleeSliceSummary summary = current.get(key);
+    if (summary != null) {
+      return summary;
+    }
+
+    // Slicing a callee may summarize further callees, so the summary is not computed within the
+    // map, two threads may slice the same callee but only the first result is kept.
+    CalleeSliceSummary newSummary = summarize(method, slicingCriteria, depth);
+    summary = current.putIfAbsent(key, newSummary);
+    return summary != null ? summary : newSummary;
+  }
+
+  private static CalleeSliceSummary summarize(
+      SootMethod method, String slicingCriteria, int depth) {
+
+    List<UnitContainer> analysis;
+
+    if (depth == 1) {
+      HeuristicBasedAnalysisResult heuristicResult =
+          new HeuristicBasedInstructions(method, slicingCriteria).getAnalysisResult();
+      analysis = heuristicResult.getAnalysis();
+    } else {
+      OrthogonalSlicingResult orthogonalResult =
+          new OrthogonalInfluenceInstructions(method, slicingCriteria, depth - 1)
+              .getOrthogonalSlicingResult();
+      analysis = orthogonalResult.getAnalysisResult();
+    }
+
+    if (analysis == null) {
+      return new CalleeSliceSummary(null, new ArrayList<>(), Collections.emptySet());
+    }
+
+    Set<String> usedProperties = new HashSet<>();
+    for (UnitContainer iUnit : analysis) {
+      for (ValueBox usebox : iUnit.getUnit().getUseBoxes()) {
+        String usedValue = usebox.getValue().toString();
+        if (usedValue.startsWith("r0.") || usedValue.startsWith("this.")) {
+          usedProperties.add(usedValue);
+        }
+      }
+    }
+
+    return new CalleeSliceSummary(
+        analysis,
+        Collections.unmodifiableList(Utils.findInfluencingParamters(analysis)),
+        Collections.unmodifiableSet(usedProperties));
+  }
+
+  private static final class Key {
+
+    private final SootMethod method;
+    private final String slicingCriteria;
+    private final int depth;
+    private final int hash;
+
+    private Key(SootMethod method, String slicingCriteria, int depth) {
+      this.method = method;
+      this.slicingCriteria = slicingCriteria;
+      this.depth = depth;
+      this.hash = Objects.hash(System.identityHashCode(method), slicingCriteria, depth);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      Key key = (Key) o;
+      return method == key.method
+          && depth == key.depth
+          && slicingCriteria.equals(key.slicingCriteria);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
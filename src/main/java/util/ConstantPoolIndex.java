@@ -0,0 +1,329 @@
+/* Licensed under GPL-3.0 */
+package util;
+
+import frontEnd.Interface.outputRouting.ExceptionHandler;
+import frontEnd.Interface.outputRouting.ExceptionId;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Type;
+
+/**
+ * ConstantPoolIndex class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The methods referenced by the class files of a scan target, read from their constant pools
+ *     with ASM before SOOT loads anything. A criteria whose method is never referenced cannot have
+ *     a call site, so it does not need to be sliced.
+ *     <p>A call through a subclass of the criteria class names the subclass in the constant pool.
+ *     Every class extended by a class of the target is recorded, and all the methods of an
+ *     extended class are considered referenced.
+ *     <p>The content hash of each class file, the classes it refers to and the classes whose fields
+ *     it reads or writes are kept as well, for {@link rule.engine.ScanCache} to find the classes
+ *     changed since a previous scan. The classes of an APK are read from its dex files instead,
+ *     with the hash of their dex file.
+ */
+public class ConstantPoolIndex {
+
+  private static final Logger log =
+      org.apache.logging.log4j.LogManager.getLogger(ConstantPoolIndex.class);
+
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_FIELDREF = 9;
+  private static final int CONSTANT_METHODREF = 10;
+  private static final int CONSTANT_INTERFACE_METHODREF = 11;
+
+  private final Set<String> methodSignatures = new HashSet<>();
+  private final Set<String> extendedClasses = new HashSet<>();
+  private final Map<String, String> classHashes = new HashMap<>();
+  private final Map<String, Set<String>> classReferences = new HashMap<>();
+  private final Map<String, Set<String>> classFieldOwners = new HashMap<>();
+  private final Set<String> referencedClasses = new HashSet<>();
+  private boolean platformResolved = false;
+  private boolean decoded = true;
+
+  /**
+   * Indexes every class file of the jars.
+   *
+   * @param jars a {@link java.util.List} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public void addJars(List<String> jars) throws ExceptionHandler {
+    for (String jar : jars) {
+      try (ZipFile zipFile = new ZipFile(jar)) {
+        Enumeration<? extends ZipEntry> entries = zipFile.entries();
+        while (entries.hasMoreElements()) {
+          ZipEntry entry = entries.nextElement();
+          if (!entry.isDirectory() && entry.getName().endsWith(".class")) {
+            try (InputStream in = zipFile.getInputStream(entry)) {
+              addClass(in);
+            }
+          }
+        }
+      } catch (IOException | RuntimeException e) {
+        log.fatal("Error reading the constant pools of " + jar);
+        throw new ExceptionHandler("Error reading the file: " + jar, ExceptionId.FILE_READ);
+      }
+    }
+  }
+
+  /**
+   * Indexes the class files.
+   *
+   * @param classFiles a {@link java.util.List} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public void addClassFiles(List<String> classFiles) throws ExceptionHandler {
+    for (String classFile : classFiles) {
+      try (InputStream in = new FileInputStream(classFile)) {
+        addClass(in);
+      } catch (IOException | RuntimeException e) {
+        log.fatal("Error reading the constant pool of " + classFile);
+        throw new ExceptionHandler("Error reading the file: " + classFile, ExceptionId.FILE_READ);
+      }
+    }
+  }
+
+  /**
+   * Indexes every class of the dex files of the APK, see {@link DexArchiveIndex}.
+   *
+   * @param apkfile a {@link java.lang.String} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public void addApk(String apkfile) throws ExceptionHandler {
+    addDexClasses(DexArchiveIndex.open(apkfile).getClasses());
+  }
+
+  /**
+   * Indexes the classes read from dex files. The references of a class that is not decoded are
+   * unknown, it is taken as referring to every class of the dex files and nothing is ruled out by
+   * {@link #mayUseClass} or {@link #mayCall}.
+   *
+   * @param dexClasses a {@link java.util.List} object.
+   */
+  void addDexClasses(List<DexArchiveIndex.DexClass> dexClasses) {
+    List<String> undecoded = new ArrayList<>();
+    for (DexArchiveIndex.DexClass dexClass : dexClasses) {
+      classHashes.put(dexClass.getName(), dexClass.getHash());
+      classReferences.put(dexClass.getName(), new HashSet<>(dexClass.getReferences()));
+      classFieldOwners.put(dexClass.getName(), new HashSet<>(dexClass.getFieldOwners()));
+      methodSignatures.addAll(dexClass.getMethodSignatures());
+      if (dexClass.getSuperClass() != null) {
+        extendedClasses.add(dexClass.getSuperClass());
+      }
+      if (!dexClass.isDecoded()) {
+        undecoded.add(dexClass.getName());
+      }
+    }
+
+    for (String className : undecoded) {
+      Set<String> everyClass = new HashSet<>(classHashes.keySet());
+      everyClass.remove(className);
+      classReferences.put(className, everyClass);
+      classFieldOwners.put(className, new HashSet<>(everyClass));
+      decoded = false;
+    }
+  }
+
+  /**
+   * Records the method references and the super class of a class file.
+   *
+   * @param classFile a {@link java.io.InputStream} object.
+   * @throws java.io.IOException if any.
+   */
+  public void addClass(InputStream classFile) throws IOException {
+    byte[] bytes = ArchiveIndex.readFully(classFile);
+    ClassReader reader = new ClassReader(bytes);
+    char[] buffer = new char[reader.getMaxStringLength()];
+
+    String className = Type.getObjectType(reader.getClassName()).getClassName();
+    Set<String> references = new HashSet<>();
+    Set<String> fieldOwners = new HashSet<>();
+    classHashes.put(className, Utils.getContentHash(bytes));
+    classReferences.put(className, references);
+    classFieldOwners.put(className, fieldOwners);
+
+    if (reader.getSuperName() != null) {
+      extendedClasses.add(Type.getObjectType(reader.getSuperName()).getClassName());
+    }
+
+    for (int item = 1; item < reader.getItemCount(); item++) {
+      int offset = reader.getItem(item);
+
+      // The second slot of a long or a double has no offset
+      if (offset == 0) {
+        continue;
+      }
+
+      int tag = reader.readByte(offset - 1);
+      if (tag == CONSTANT_CLASS) {
+        addReference(references, reader.readUTF8(offset, buffer), className);
+        continue;
+      }
+
+      if (tag == CONSTANT_FIELDREF) {
+        addReference(fieldOwners, reader.readClass(offset, buffer), className);
+        continue;
+      }
+
+      if (tag != CONSTANT_METHODREF && tag != CONSTANT_INTERFACE_METHODREF) {
+        continue;
+      }
+
+      String owner = reader.readClass(offset, buffer);
+      int nameAndType = reader.getItem(reader.readUnsignedShort(offset + 2));
+      String name = reader.readUTF8(nameAndType, buffer);
+      String descriptor = reader.readUTF8(nameAndType + 2, buffer);
+
+      // Array types may own a method reference, such as clone, they are never a criteria
+      if (owner.startsWith("[")) {
+        continue;
+      }
+
+      methodSignatures.add(toSootSignature(owner, name, descriptor));
+    }
+  }
+
+  private static void addReference(Set<String> references, String internalName, String self) {
+    Type type = internalName.startsWith("[") ? Type.getType(internalName) : null;
+    if (type != null) {
+      type = type.getElementType();
+      if (type.getSort() != Type.OBJECT) {
+        return;
+      }
+    } else {
+      type = Type.getObjectType(internalName);
+    }
+
+    if (!type.getClassName().equals(self)) {
+      references.add(type.getClassName());
+    }
+  }
+
+  /**
+   * Getter for the content hash of each class file indexed, by class name.
+   *
+   * @return a {@link java.util.Map} object.
+   */
+  public Map<String, String> getClassHashes() {
+    return Collections.unmodifiableMap(classHashes);
+  }
+
+  /**
+   * Getter for the classes each class file indexed refers to, by class name.
+   *
+   * @return a {@link java.util.Map} object.
+   */
+  public Map<String, Set<String>> getClassReferences() {
+    return Collections.unmodifiableMap(classReferences);
+  }
+
+  /**
+   * Getter for the classes whose fields each class file indexed reads or writes, by class name.
+   *
+   * @return a {@link java.util.Map} object.
+   */
+  public Map<String, Set<String>> getClassFieldOwners() {
+    return Collections.unmodifiableMap(classFieldOwners);
+  }
+
+  /**
+   * Completes the index with the hierarchy of the platform classes the target refers to. A method
+   * referenced through a platform class is also recorded under the platform class declaring it,
+   * and the platform classes extended are recorded along with their own super types.
+   *
+   * @param platform a {@link util.PlatformClassCache} object.
+   */
+  public void resolvePlatform(PlatformClassCache platform) {
+    for (Set<String> references : classReferences.values()) {
+      referencedClasses.addAll(references);
+    }
+    referencedClasses.addAll(extendedClasses);
+
+    for (String referenced : new ArrayList<>(referencedClasses)) {
+      referencedClasses.addAll(platform.getSuperTypes(referenced));
+    }
+
+    for (String extended : new ArrayList<>(extendedClasses)) {
+      extendedClasses.addAll(platform.getSuperTypes(extended));
+    }
+
+    for (String methodSignature : new ArrayList<>(methodSignatures)) {
+      int separator = methodSignature.indexOf(": ");
+      String owner = methodSignature.substring(1, separator);
+      String subSignature = methodSignature.substring(separator + 2, methodSignature.length() - 1);
+
+      String declaringClass = platform.findDeclaringClass(owner, subSignature);
+      if (declaringClass != null && !declaringClass.equals(owner)) {
+        methodSignatures.add("<" + declaringClass + ": " + subSignature + ">");
+      }
+    }
+
+    platformResolved = true;
+  }
+
+  /**
+   * Checks whether the target may use the class, so that it needs to be loaded. Every class may be
+   * used until the platform classes are resolved, see {@link #resolvePlatform}, or when a class of
+   * the target is not decoded.
+   *
+   * @param className a {@link java.lang.String} object.
+   * @return a boolean.
+   */
+  public boolean mayUseClass(String className) {
+    return !platformResolved
+        || !decoded
+        || referencedClasses.contains(className)
+        || classHashes.containsKey(className);
+  }
+
+  /**
+   * Checks whether the target may call the method. A call through a platform class extending the
+   * class of the method, such as <code>javax.crypto.NullCipher</code>, is only known once the
+   * platform classes are resolved, every method may be called until then, see {@link
+   * #resolvePlatform}, or when a class of the target is not decoded.
+   *
+   * @param className a {@link java.lang.String} object, such as <code>javax.crypto.Cipher</code>.
+   * @param methodSignature a {@link java.lang.String} object, the SOOT signature of the method
+   *     such as <code>&lt;javax.crypto.Cipher: javax.crypto.Cipher
+   *     getInstance(java.lang.String)&gt;</code>.
+   * @return a boolean.
+   */
+  public boolean mayCall(String className, String methodSignature) {
+    return !platformResolved
+        || !decoded
+        || methodSignatures.contains(methodSignature)
+        || extendedClasses.contains(className);
+  }
+
+  /**
+   * Builds the SOOT signature of a method reference.
+   *
+   * @param owner a {@link java.lang.String} object, the internal name of the class.
+   * @param name a {@link java.lang.String} object.
+   * @param descriptor a {@link java.lang.String} object.
+   * @return a {@link java.lang.String} object.
+   */
+  static String toSootSignature(String owner, String name, String descriptor) {
+    return "<"
+        + Type.getObjectType(owner).getClassName()
+        + ": "
+        + PlatformClassCache.toSubSignature(name, descriptor)
+        + ">";
+  }
+
+}
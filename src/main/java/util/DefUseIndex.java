@@ -0,0 +1,333 @@
+/* Licensed under GPL-3.0 */
+package util;
+
+import analyzer.backward.ParamFakeUnitContainer;
+import analyzer.backward.PropertyFakeUnitContainer;
+import analyzer.backward.UnitContainer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import soot.ArrayType;
+import soot.EquivalentValue;
+import soot.Value;
+import soot.ValueBox;
+import soot.jimple.Constant;
+import soot.jimple.InvokeExpr;
+import soot.jimple.internal.JAssignStmt;
+import soot.jimple.internal.JInvokeStmt;
+
+/**
+ * DefUseIndex class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The definitions and uses of the units of a slice, read once for all the constants checked
+ *     within the slice by {@link util.Utils#isArgumentOfInvoke}.
+ *     <p>Walking back from a constant, the units reached through the definitions of the units
+ *     already reached are tracked until an invoke uses one of them as an argument. Rather than
+ *     comparing each unit to every tracked unit, the tracked definitions are kept in a hash map, so
+ *     each unit of the slice is checked in the time of its own uses.
+ *     <p>A unit printed the same as a unit already reached is not tracked again. The check was a
+ *     search for the print of the unit within the print of the list of the units reached, they
+ *     only differ when the unit or the method printed by a container holds the print of another
+ *     container, <code>UnitContainer{unit=..., method='...'}</code>.
+ */
+public class DefUseIndex {
+
+  private final List<UnitContainer> slice;
+  private final UnitFacts[] facts;
+
+  /**
+   * Constructor for DefUseIndex.
+   *
+   * @param slice a {@link java.util.List} object, the result of an analysis.
+   */
+  public DefUseIndex(List<UnitContainer> slice) {
+    this.slice = slice;
+    this.facts = new UnitFacts[slice.size()];
+  }
+
+  /**
+   * Checks whether the index was built for the slice as it is now.
+   *
+   * @param slice a {@link java.util.List} object.
+   * @return a boolean.
+   */
+  public boolean isIndexOf(List<UnitContainer> slice) {
+    return this.slice == slice && facts.length == slice.size();
+  }
+
+  /**
+   * Finds the invoke using the unit at the index, directly or through the units defined from it.
+   *
+   * @param index a int.
+   * @param outSet a {@link java.util.List} object, filled with the units reached.
+   * @return a {@link analyzer.backward.UnitContainer} object, the invoke or null.
+   */
+  public UnitContainer findInvokeUsing(int index, List<UnitContainer> outSet) {
+
+    UnitFacts base = getFacts(index);
+
+    if (base.invoke) {
+      for (Value arg : base.args) {
+        if (arg instanceof Constant) {
+          return base.container;
+        }
+      }
+    }
+
+    Reached reached = new Reached();
+    reached.add(base);
+    outSet.add(base.container);
+
+    for (int i = index; i >= 0; i--) {
+
+      UnitFacts cur = getFacts(i);
+
+      Boolean uses = reached.isUsedBy(cur);
+      if (uses == null) {
+        return cur.container;
+      }
+
+      if (uses && reached.add(cur)) {
+        outSet.add(cur.container);
+      }
+    }
+
+    return null;
+  }
+
+  private UnitFacts getFacts(int index) {
+    UnitFacts unitFacts = facts[index];
+    if (unitFacts == null) {
+      unitFacts = new UnitFacts(slice.get(index));
+      facts[index] = unitFacts;
+    }
+    return unitFacts;
+  }
+
+  /** What a unit of the slice defines and uses, printed once. */
+  private static class UnitFacts {
+
+    private final UnitContainer container;
+    private final String key;
+    private final String unitString;
+    private final boolean invoke;
+    private final boolean assign;
+    private final List<Value> args;
+    private final List<Value> uses = new ArrayList<>();
+    private final List<String> useStrings = new ArrayList<>();
+    private final List<ValueBox> defs;
+
+    private UnitFacts(UnitContainer container) {
+      this.container = container;
+      this.key = container.toString();
+      this.unitString = container.getUnit().toString();
+      this.invoke = container.getUnit() instanceof JInvokeStmt;
+      this.assign = container.getUnit() instanceof JAssignStmt;
+
+      if (invoke) {
+        InvokeExpr invokeExpr = ((JInvokeStmt) container.getUnit()).getInvokeExpr();
+        this.args = invokeExpr.getArgs();
+      } else {
+        this.args = new ArrayList<>();
+      }
+
+      for (ValueBox useBox : container.getUnit().getUseBoxes()) {
+        uses.add(useBox.getValue());
+        useStrings.add(useBox.getValue().toString());
+      }
+
+      this.defs = container.getUnit().getDefBoxes();
+    }
+  }
+
+  /** A definition of a unit reached from the constant. */
+  private static class Definition {
+
+    private final UnitContainer container;
+    private final String defString;
+    private final String callOnDefinition;
+    private final boolean fromAssign;
+
+    private Definition(UnitFacts unitFacts, ValueBox defBox) {
+      this.container = unitFacts.container;
+      this.defString = defBox.getValue().toString();
+      this.callOnDefinition = defBox + ".<";
+      this.fromAssign = unitFacts.assign;
+    }
+
+    /** Whether the value, an array, is an element of the definition within the same method. */
+    private boolean isArrayUse(UnitContainer cur, Value use) {
+      return defString.contains(use.toString())
+          && cur.getMethod().equals(container.getMethod())
+          && use.getType() instanceof ArrayType;
+    }
+  }
+
+  /** The units reached from the constant, indexed by what they define. */
+  private static class Reached {
+
+    private final Set<String> keys = new HashSet<>();
+    private final List<String> properties = new ArrayList<>();
+    private final List<ParamFakeUnitContainer> params = new ArrayList<>();
+
+    /** The definitions an invoke may use as an argument. */
+    private final Map<EquivalentValue, List<Definition>> definitions = new HashMap<>();
+    private final List<Definition> allDefinitions = new ArrayList<>();
+
+    /** The definitions a unit other than an invoke may use, without the uses of this. */
+    private final Map<EquivalentValue, List<Definition>> useDefinitions = new HashMap<>();
+    private final List<Definition> allUseDefinitions = new ArrayList<>();
+
+    /** The definitions of units other than assignments, an invoke may call a method on them. */
+    private final List<Definition> otherDefinitions = new ArrayList<>();
+
+    /** Tracks the unit, unless a unit printed the same is already tracked. */
+    private boolean add(UnitFacts unitFacts) {
+      if (!keys.add(unitFacts.key)) {
+        return false;
+      }
+
+      UnitContainer container = unitFacts.container;
+
+      if (container instanceof PropertyFakeUnitContainer) {
+        properties.add(((PropertyFakeUnitContainer) container).getOriginalProperty());
+        return true;
+      }
+
+      if (container instanceof ParamFakeUnitContainer) {
+        params.add((ParamFakeUnitContainer) container);
+        return true;
+      }
+
+      for (ValueBox defBox : unitFacts.defs) {
+        Definition definition = new Definition(unitFacts, defBox);
+
+        definitions
+            .computeIfAbsent(new EquivalentValue(defBox.getValue()), k -> new ArrayList<>())
+            .add(definition);
+        allDefinitions.add(definition);
+
+        if (!unitFacts.assign) {
+          otherDefinitions.add(definition);
+        }
+
+        if ((definition.defString.equals("r0") && unitFacts.unitString.startsWith("r0."))
+            || (definition.defString.equals("this") && unitFacts.unitString.startsWith("this."))) {
+          continue;
+        }
+
+        useDefinitions
+            .computeIfAbsent(new EquivalentValue(defBox.getValue()), k -> new ArrayList<>())
+            .add(definition);
+        allUseDefinitions.add(definition);
+      }
+
+      return true;
+    }
+
+    /**
+     * Checks the unit against the units reached.
+     *
+     * @return null when the unit is an invoke using one of them as an argument, true when it uses
+     *     one of them otherwise.
+     */
+    private Boolean isUsedBy(UnitFacts cur) {
+      boolean used = false;
+
+      for (String property : properties) {
+        if (cur.invoke) {
+          if (cur.unitString.contains(property + ".<")) {
+            used = true;
+          } else {
+            for (Value arg : cur.args) {
+              if (arg.toString().contains(property)) {
+                return null;
+              }
+            }
+          }
+        } else {
+          for (String use : cur.useStrings) {
+            if (use.contains(property)) {
+              used = true;
+              break;
+            }
+          }
+        }
+      }
+
+      if (!params.isEmpty()) {
+        for (String use : cur.useStrings) {
+          if (use.contains("@parameter")) {
+            Integer parameter =
+                Integer.valueOf(use.substring("@parameter".length(), use.indexOf(':')));
+
+            for (ParamFakeUnitContainer param : params) {
+              if (parameter.equals(param.getParam())
+                  && cur.container.getMethod().equals(param.getCallee())) {
+                used = true;
+              }
+            }
+          }
+        }
+      }
+
+      if (cur.invoke) {
+        for (Definition definition : otherDefinitions) {
+          if (cur.unitString.contains(definition.callOnDefinition)) {
+            used = true;
+          }
+        }
+
+        for (Value arg : cur.args) {
+          List<Definition> argDefinitions = definitions.get(new EquivalentValue(arg));
+          if (argDefinitions != null) {
+            for (Definition definition : argDefinitions) {
+              if (isPassed(cur, definition)) {
+                return null;
+              }
+            }
+          }
+
+          if (arg.getType() instanceof ArrayType) {
+            for (Definition definition : allDefinitions) {
+              if (definition.isArrayUse(cur.container, arg) && isPassed(cur, definition)) {
+                return null;
+              }
+            }
+          }
+        }
+
+      } else if (!used) {
+        for (Value use : cur.uses) {
+          if (useDefinitions.containsKey(new EquivalentValue(use))) {
+            return true;
+          }
+
+          if (use.getType() instanceof ArrayType) {
+            for (Definition definition : allUseDefinitions) {
+              if (definition.isArrayUse(cur.container, use)) {
+                return true;
+              }
+            }
+          }
+        }
+      }
+
+      return used;
+    }
+
+    /**
+     * Whether the definition is passed to the invoke, an invoke calling a method on the definition
+     * of a unit other than an assignment is only reached through it.
+     */
+    private boolean isPassed(UnitFacts cur, Definition definition) {
+      return definition.fromAssign || !cur.unitString.contains(definition.callOnDefinition);
+    }
+  }
+}
@@ -0,0 +1,376 @@
+/* Licensed under GPL-3.0 */
+package util;
+
+import frontEnd.Interface.outputRouting.ExceptionHandler;
+import frontEnd.Interface.outputRouting.ExceptionId;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.apache.logging.log4j.Logger;
+import org.jf.dexlib2.Opcodes;
+import org.jf.dexlib2.dexbacked.DexBackedDexFile;
+import org.jf.dexlib2.iface.ClassDef;
+import org.jf.dexlib2.iface.Method;
+import org.jf.dexlib2.iface.MethodImplementation;
+import org.jf.dexlib2.iface.instruction.Instruction;
+import org.jf.dexlib2.iface.instruction.ReferenceInstruction;
+import org.jf.dexlib2.iface.reference.FieldReference;
+import org.jf.dexlib2.iface.reference.MethodReference;
+import org.jf.dexlib2.iface.reference.Reference;
+import org.jf.dexlib2.iface.reference.TypeReference;
+import org.jf.dexlib2.util.DexUtil;
+
+/**
+ * DexArchiveIndex class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The classes of the dex files of an APK, read with a single open of the archive. The dex
+ *     files are told by their header rather than their name, as SOOT loads them. Each dex file is
+ *     parsed on its own thread, and a single pass over each class records its super types and the
+ *     classes and methods its instructions refer to, for the {@link ConstantPoolIndex} of the
+ *     APK. A class whose code cannot be decoded is kept without its references, marked as not
+ *     decoded, rather than failing the whole APK.
+ *     <p>The index of the last APK read is kept until the APK changes, the class names are asked
+ *     for more than once during a scan.
+ */
+public class DexArchiveIndex {
+
+  private static final Logger log =
+      org.apache.logging.log4j.LogManager.getLogger(DexArchiveIndex.class);
+
+  private static final Opcodes OPCODES = Opcodes.forApi(23);
+
+  /** The bytes of the header checked for a dex file, up to its endian tag. */
+  private static final int DEX_HEADER_SIZE = 44;
+
+  private static DexArchiveIndex last = null;
+
+  private final String key;
+  private final List<DexClass> classes;
+
+  private DexArchiveIndex(String key, List<DexClass> classes) {
+    this.key = key;
+    this.classes = Collections.unmodifiableList(classes);
+  }
+
+  /**
+   * Reads the dex files of the APK, or returns the index already read when the APK is unchanged.
+   *
+   * @param apkfile a {@link java.lang.String} object.
+   * @return a {@link util.DexArchiveIndex} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public static synchronized DexArchiveIndex open(String apkfile) throws ExceptionHandler {
+    File apk = new File(apkfile);
+    String key = apk.getAbsolutePath() + ":" + apk.length() + ":" + apk.lastModified();
+    if (last != null && last.key.equals(key)) {
+      return last;
+    }
+
+    // The previous index is dropped before reading, only a single one is ever held
+    last = null;
+    last = new DexArchiveIndex(key, readClasses(apk));
+    return last;
+  }
+
+  /** Drops the index of the last APK read. */
+  public static synchronized void reset() {
+    last = null;
+  }
+
+  /**
+   * Getter for the field <code>classes</code>, in the order of the dex files and of their classes.
+   *
+   * @return a {@link java.util.List} object.
+   */
+  public List<DexClass> getClasses() {
+    return classes;
+  }
+
+  /**
+   * The names of the classes, the ones of the android packages excluded.
+   *
+   * @return a {@link java.util.List} object.
+   */
+  public List<String> getClassNames() {
+    List<String> classNames = new ArrayList<>();
+    for (DexClass dexClass : classes) {
+      if (!dexClass.getName().toLowerCase().startsWith("android.")) {
+        classNames.add(dexClass.getName());
+      }
+    }
+    return classNames;
+  }
+
+  private static List<DexClass> readClasses(File apk) throws ExceptionHandler {
+    try (ZipFile zipFile = new ZipFile(apk)) {
+      List<ZipEntry> dexEntries = new ArrayList<>();
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        if (!entry.isDirectory() && isDex(zipFile, entry)) {
+          dexEntries.add(entry);
+        }
+      }
+
+      if (dexEntries.size() < 2) {
+        List<DexClass> classes = new ArrayList<>();
+        for (ZipEntry entry : dexEntries) classes.addAll(readDexEntry(zipFile, entry));
+        return classes;
+      }
+
+      // The entries are inflated and parsed concurrently, ZipFile serves them to every thread
+      int threads = Math.min(dexEntries.size(), Runtime.getRuntime().availableProcessors());
+      ExecutorService pool = Executors.newFixedThreadPool(threads);
+      try {
+        List<Future<List<DexClass>>> tasks = new ArrayList<>();
+        for (ZipEntry entry : dexEntries) {
+          tasks.add(pool.submit(() -> readDexEntry(zipFile, entry)));
+        }
+
+        List<DexClass> classes = new ArrayList<>();
+        for (Future<List<DexClass>> task : tasks) classes.addAll(task.get());
+        log.debug("Read " + classes.size() + " classes from " + dexEntries.size() + " dex files");
+        return classes;
+      } finally {
+        pool.shutdownNow();
+      }
+    } catch (IOException | ExecutionException | RuntimeException e) {
+      log.fatal("Error reading the dex files of " + apk.getPath());
+      throw new ExceptionHandler("Error with dex file classes.dex", ExceptionId.FILE_I);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExceptionHandler("Interrupted reading " + apk.getPath(), ExceptionId.FILE_I);
+    }
+  }
+
+  /**
+   * Checks whether the entry starts with the header of a dex file, whatever its name, as the
+   * <code>ZipDexContainer</code> of dexlib2 SOOT loads the dex files of an APK with does.
+   */
+  private static boolean isDex(ZipFile zipFile, ZipEntry entry) throws IOException {
+    byte[] header = new byte[DEX_HEADER_SIZE];
+    try (InputStream in = zipFile.getInputStream(entry)) {
+      int read = 0;
+      while (read < header.length) {
+        int count = in.read(header, read, header.length - read);
+        if (count == -1) {
+          return false;
+        }
+        read += count;
+      }
+    }
+
+    try {
+      DexUtil.verifyDexHeader(header, 0);
+      return true;
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  private static List<DexClass> readDexEntry(ZipFile zipFile, ZipEntry entry) throws IOException {
+    byte[] bytes;
+    try (InputStream in = zipFile.getInputStream(entry)) {
+      bytes = ArchiveIndex.readFully(in);
+    }
+
+    String hash = Utils.getContentHash(bytes);
+    List<DexClass> classes = new ArrayList<>();
+    for (ClassDef classDef : new DexBackedDexFile(OPCODES, bytes).getClasses()) {
+      classes.add(new DexClass(classDef, entry.getName(), hash));
+    }
+    return classes;
+  }
+
+  /**
+   * The class name of a dex type.
+   *
+   * @param type a {@link java.lang.String} object, such as <code>Ljavax/crypto/Cipher;</code>.
+   * @return a {@link java.lang.String} object, null for a primitive type.
+   */
+  static String toClassName(String type) {
+    int start = type.lastIndexOf('[') + 1;
+    if (type.charAt(start) != 'L') {
+      return null;
+    }
+    return type.substring(start + 1, type.length() - 1).replace('/', '.');
+  }
+
+  /**
+   * The metadata of a class read from a dex file.
+   *
+   * <p>The hash is the one of the whole dex file, a change within the dex file changes the hash of
+   * each of its classes. The references of a class that is not decoded are unknown, see {@link
+   * #isDecoded}.
+   */
+  public static class DexClass {
+    private final String name;
+    private final String dexEntry;
+    private final String hash;
+    private final String superClass;
+    private final List<String> interfaces = new ArrayList<>();
+    private final Set<String> references = new HashSet<>();
+    private final Set<String> fieldOwners = new HashSet<>();
+    private final Set<String> methodSignatures = new HashSet<>();
+    private boolean decoded = true;
+
+    DexClass(ClassDef classDef, String dexEntry, String hash) {
+      this.name = toClassName(classDef.getType());
+      this.dexEntry = dexEntry;
+      this.hash = hash;
+
+      String superType = null;
+      try {
+        superType = classDef.getSuperclass() == null ? null : toClassName(classDef.getSuperclass());
+
+        if (superType != null) addReference(superType);
+        for (String type : classDef.getInterfaces()) {
+          interfaces.add(toClassName(type));
+          addReference(toClassName(type));
+        }
+
+        for (Method method : classDef.getMethods()) {
+          MethodImplementation implementation = method.getImplementation();
+          if (implementation == null) continue;
+
+          for (Instruction instruction : implementation.getInstructions()) {
+            if (instruction instanceof ReferenceInstruction) {
+              addReference(((ReferenceInstruction) instruction).getReference());
+            }
+          }
+        }
+      } catch (RuntimeException e) {
+        log.warn("Cannot decode the class " + name + " of " + dexEntry + ": " + e.getMessage());
+        decoded = false;
+      }
+      this.superClass = superType;
+    }
+
+    private void addReference(Reference reference) {
+      if (reference instanceof TypeReference) {
+        addReference(toClassName(((TypeReference) reference).getType()));
+      } else if (reference instanceof FieldReference) {
+        String owner = toClassName(((FieldReference) reference).getDefiningClass());
+        addReference(owner);
+        if (owner != null && !owner.equals(name)) fieldOwners.add(owner);
+      } else if (reference instanceof MethodReference) {
+        MethodReference method = (MethodReference) reference;
+
+        // Array types may own a method reference, such as clone, they are never a criteria
+        if (method.getDefiningClass().startsWith("[")) return;
+
+        String owner = method.getDefiningClass();
+        StringBuilder descriptor = new StringBuilder("(");
+        for (CharSequence parameter : method.getParameterTypes()) descriptor.append(parameter);
+        descriptor.append(')').append(method.getReturnType());
+
+        addReference(toClassName(owner));
+        methodSignatures.add(
+            ConstantPoolIndex.toSootSignature(
+                owner.substring(1, owner.length() - 1), method.getName(), descriptor.toString()));
+      }
+    }
+
+    private void addReference(String className) {
+      if (className != null && !className.equals(name)) references.add(className);
+    }
+
+    /**
+     * Getter for the field <code>name</code>.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Whether the class was decoded, the references of a class that was not are incomplete.
+     *
+     * @return a boolean.
+     */
+    public boolean isDecoded() {
+      return decoded;
+    }
+
+    /**
+     * Getter for the field <code>dexEntry</code>, the name of the dex file within the APK.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getDexEntry() {
+      return dexEntry;
+    }
+
+    /**
+     * Getter for the field <code>hash</code>.
+     *
+     * @return a {@link java.lang.String} object.
+     */
+    public String getHash() {
+      return hash;
+    }
+
+    /**
+     * Getter for the field <code>superClass</code>.
+     *
+     * @return a {@link java.lang.String} object, null for <code>java.lang.Object</code>.
+     */
+    public String getSuperClass() {
+      return superClass;
+    }
+
+    /**
+     * Getter for the field <code>interfaces</code>.
+     *
+     * @return a {@link java.util.List} object.
+     */
+    public List<String> getInterfaces() {
+      return Collections.unmodifiableList(interfaces);
+    }
+
+    /**
+     * Getter for the field <code>references</code>, the classes the class refers to.
+     *
+     * @return a {@link java.util.Set} object.
+     */
+    public Set<String> getReferences() {
+      return Collections.unmodifiableSet(references);
+    }
+
+    /**
+     * Getter for the field <code>fieldOwners</code>, the classes whose fields the class reads or
+     * writes.
+     *
+     * @return a {@link java.util.Set} object.
+     */
+    public Set<String> getFieldOwners() {
+      return Collections.unmodifiableSet(fieldOwners);
+    }
+
+    /**
+     * Getter for the field <code>methodSignatures</code>, the SOOT signatures of the methods the
+     * class calls.
+     *
+     * @return a {@link java.util.Set} object.
+     */
+    public Set<String> getMethodSignatures() {
+      return Collections.unmodifiableSet(methodSignatures);
+    }
+  }
+}
@@ -3,14 +3,19 @@ package util;
 
 import analyzer.backward.MethodWrapper;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.logging.log4j.Logger;
 import slicer.backward.property.PropertyAnalysisResult;
 import slicer.backward.property.PropertyInfluencingInstructions;
 import soot.*;
-import soot.toolkits.graph.ExceptionalUnitGraph;
-import soot.toolkits.graph.UnitGraph;
+import soot.jimple.AssignStmt;
+import soot.jimple.FieldRef;
 import soot.util.Chain;
 
 /**
@@ -22,12 +27,20 @@ import soot.util.Chain;
  */
 public class FieldInitializationInstructionMap {
 
-  private static Map<String, List<PropertyAnalysisResult>> initializationInstructions = null;
+  private static final Logger log =
+      org.apache.logging.log4j.LogManager.getLogger(FieldInitializationInstructionMap.class);
+
+  private static final Map<String, FieldInitialization> initializationInstructions =
+      new ConcurrentHashMap<>();
+
+  /** The field each slicing thread waits for, to tell when the threads wait on each other. */
+  private static final Map<Thread, FieldInitialization> waitingFor = new HashMap<>();
+
   private static Map<String, List<MethodWrapper>> fieldVsMethodWrapper = null;
 
   /** reset. */
   public static void reset() {
-    initializationInstructions = null;
+    initializationInstructions.clear();
     fieldVsMethodWrapper = null;
   }
 
@@ -37,6 +50,19 @@ public class FieldInitializationInstructionMap {
    * @param classNames a {@link java.util.List} object.
    */
   public static void build(List<String> classNames) {
+    build(classNames, null);
+  }
+
+  /**
+   * build.
+   *
+   * <p>Only the writes within the given methods initialize a field, the methods unreachable from
+   * the entry points of the target never run.
+   *
+   * @param classNames a {@link java.util.List} object.
+   * @param methods a {@link java.util.Set} object, null for every method.
+   */
+  public static void build(List<String> classNames, Set<SootMethod> methods) {
 
     if (fieldVsMethodWrapper == null) {
 
@@ -44,49 +70,79 @@ public class FieldInitializationInstructionMap {
 
       for (String className : classNames) {
 
-        SootClass sClass = Scene.v().loadClassAndSupport(className);
+        SootClass sClass = Utils.loadClassAndSupport(className);
 
         Chain<SootField> sootFields = sClass.getFields();
 
         for (SootField field : sootFields) {
+          fieldVsMethodWrapper.put(field.toString(), new ArrayList<>());
+        }
+
+        if (sootFields.isEmpty()) {
+          continue;
+        }
 
-          List<MethodWrapper> initMethods = new ArrayList<>();
+        // A single pass over each method records the fields of the class it writes to
+        for (SootMethod method : sClass.getMethods()) {
 
-          List<SootMethod> methodList = sClass.getMethods();
+          if (method.isConcrete() && (methods == null || methods.contains(method))) {
 
-          for (SootMethod method : methodList) {
+            try {
+              Body initBody = Utils.retrieveActiveBody(method);
+              MethodWrapper methodWrapper = NamedMethodMap.getMethod(method);
 
-            if (method.isConcrete()) {
+              for (Unit unit : initBody.getUnits()) {
 
-              StringBuilder methodBody = new StringBuilder();
+                if (!(unit instanceof AssignStmt)
+                    || !(((AssignStmt) unit).getLeftOp() instanceof FieldRef)) {
+                  continue;
+                }
 
-              try {
-                Body initBody = method.retrieveActiveBody();
-                UnitGraph graph = new ExceptionalUnitGraph(initBody);
+                SootFieldRef fieldRef = ((FieldRef) ((AssignStmt) unit).getLeftOp()).getFieldRef();
 
-                for (Object aGraph : graph) {
-                  methodBody.append(aGraph);
+                if (!fieldRef.declaringClass().equals(sClass)) {
+                  continue;
                 }
 
-                if (methodBody.toString().contains(field.toString() + " =")) {
-                  initMethods.add(NamedMethodMap.getMethod(method.toString()));
+                List<MethodWrapper> initMethods = fieldVsMethodWrapper.get(fieldRef.getSignature());
+
+                if (initMethods != null
+                    && (initMethods.isEmpty()
+                        || initMethods.get(initMethods.size() - 1) != methodWrapper)) {
+                  initMethods.add(methodWrapper);
                 }
-              } catch (RuntimeException e) {
-                System.err.println(e);
-                continue;
               }
+            } catch (RuntimeException e) {
+              log.warn("Error retrieving the body of " + method + ": " + e.getMessage());
             }
           }
-
-          fieldVsMethodWrapper.put(field.toString(), initMethods);
         }
       }
     }
   }
 
+  /**
+   * The methods writing to the field, in the order of the methods of its class.
+   *
+   * @param fieldName a {@link java.lang.String} object.
+   * @return a {@link java.util.List} object, null for a field of a class not built.
+   */
+  static List<MethodWrapper> getInitMethods(String fieldName) {
+
+    if (fieldVsMethodWrapper == null) {
+      throw new RuntimeException("Execute build first ...");
+    }
+
+    return fieldVsMethodWrapper.get(fieldName);
+  }
+
   /**
    * getInitInstructions.
    *
+   * <p>Each field is sliced once, by the first thread asking for it, the other threads wait for
+   * its instructions. A field read while slicing its own initialization, by the same thread or by
+   * threads waiting on each other, gets the instructions found so far.
+   *
    * @param fieldName a {@link java.lang.String} object.
    * @return a {@link java.util.List} object.
    */
@@ -96,37 +152,72 @@ public class FieldInitializationInstructionMap {
       throw new RuntimeException("Execute build first ...");
     }
 
-    if (initializationInstructions == null) {
-      initializationInstructions = new HashMap<>();
-    }
-
-    if (!initializationInstructions.containsKey(fieldName)) {
+    FieldInitialization initialization =
+        initializationInstructions.computeIfAbsent(fieldName, k -> new FieldInitialization());
 
-      List<PropertyAnalysisResult> analysisResultList = new ArrayList<>();
+    if (initialization.owner != Thread.currentThread()) {
+      return initialization.await();
+    }
 
-      initializationInstructions.put(fieldName, analysisResultList);
+    if (!initialization.started) {
+      initialization.started = true;
 
-      List<MethodWrapper> initMethodList = fieldVsMethodWrapper.get(fieldName);
+      try {
+        List<MethodWrapper> initMethodList = fieldVsMethodWrapper.get(fieldName);
 
-      if (initMethodList == null || initMethodList.isEmpty()) {
-        return initializationInstructions.get(fieldName);
+        if (initMethodList != null) {
+          for (MethodWrapper method : initMethodList) {
 
-      } else {
+            PropertyInfluencingInstructions simpleSlicerInstructions =
+                new PropertyInfluencingInstructions(method, fieldName);
 
-        for (MethodWrapper method : initMethodList) {
+            PropertyAnalysisResult analysis = simpleSlicerInstructions.getSlicingResult();
 
-          PropertyInfluencingInstructions simpleSlicerInstructions =
-              new PropertyInfluencingInstructions(method, fieldName);
+            if (!analysis.getSlicingResult().isEmpty()) {
+              initialization.analysisResultList.add(analysis);
+            }
+          }
+        }
+      } finally {
+        initialization.done.complete(initialization.analysisResultList);
+      }
+    }
 
-          PropertyAnalysisResult analysis = simpleSlicerInstructions.getSlicingResult();
+    return initialization.analysisResultList;
+  }
 
-          if (!analysis.getSlicingResult().isEmpty()) {
-            analysisResultList.add(analysis);
+  /** The instructions initializing a field, sliced by the thread owning it. */
+  private static class FieldInitialization {
+
+    private final Thread owner = Thread.currentThread();
+    private final List<PropertyAnalysisResult> analysisResultList =
+        Collections.synchronizedList(new ArrayList<>());
+    private final CompletableFuture<List<PropertyAnalysisResult>> done =
+        new CompletableFuture<>();
+    private boolean started = false;
+
+    /** Waits for the owner to slice the field, unless the owner is waiting on this thread. */
+    private List<PropertyAnalysisResult> await() {
+      Thread current = Thread.currentThread();
+
+      synchronized (waitingFor) {
+        if (!done.isDone()) {
+          for (FieldInitialization next = this; next != null; next = waitingFor.get(next.owner)) {
+            if (next.owner == current) {
+              return new ArrayList<>(analysisResultList);
+            }
           }
         }
+        waitingFor.put(current, this);
       }
-    }
 
-    return initializationInstructions.get(fieldName);
+      try {
+        return done.join();
+      } finally {
+        synchronized (waitingFor) {
+          waitingFor.remove(current);
+        }
+      }
+    }
   }
 }
@@ -3,13 +3,17 @@ package util;
 
 import analyzer.backward.MethodWrapper;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import slicer.backward.MethodCallSiteInfo;
 import soot.*;
-import soot.toolkits.graph.ExceptionalUnitGraph;
-import soot.toolkits.graph.UnitGraph;
+import soot.jimple.DynamicInvokeExpr;
+import soot.jimple.InstanceInvokeExpr;
+import soot.jimple.InvokeExpr;
+import soot.jimple.StaticInvokeExpr;
+import soot.jimple.Stmt;
 
 /**
  * NamedMethodMap class.
@@ -21,6 +25,7 @@ import soot.toolkits.graph.UnitGraph;
 public class NamedMethodMap {
 
   private static Map<String, MethodWrapper> nameVsMethodMap = null;
+  private static Map<SootMethod, MethodWrapper> methodVsMethodWrapper = null;
 
   private static boolean isCallerCalleeBuilt = false;
 
@@ -34,6 +39,7 @@ public class NamedMethodMap {
     if (nameVsMethodMap == null) {
 
       nameVsMethodMap = new HashMap<>();
+      methodVsMethodWrapper = new IdentityHashMap<>();
 
       for (String className : classNames) {
         SootClass sClass = Scene.v().getSootClass(className);
@@ -46,6 +52,7 @@ public class NamedMethodMap {
   /** clearCallerCalleeGraph. */
   public static void clearCallerCalleeGraph() {
     nameVsMethodMap = null;
+    methodVsMethodWrapper = null;
     isCallerCalleeBuilt = false;
   }
 
@@ -56,8 +63,9 @@ public class NamedMethodMap {
    */
   public static void addCriteriaClass(String className) {
 
+    // A criteria class skipped when loading is phantom, or only known from the classes using it
     SootClass sClass = Scene.v().getSootClass(className);
-    if (sClass.isPhantomClass()) {
+    if (sClass.isPhantomClass() || sClass.resolvingLevel() < SootClass.SIGNATURES) {
       return;
     }
 
@@ -90,11 +98,27 @@ public class NamedMethodMap {
     }
   }
 
+  /**
+   * getMethod.
+   *
+   * @param method a {@link soot.SootMethod} object.
+   * @return a {@link analyzer.backward.MethodWrapper} object.
+   */
+  public static MethodWrapper getMethod(SootMethod method) {
+
+    if (methodVsMethodWrapper == null) {
+      throw new RuntimeException("Name vs Method Map is not built ...");
+    } else {
+      return methodVsMethodWrapper.get(method);
+    }
+  }
+
   private static void fillMethodMapForClass(SootClass sClass) {
     for (SootMethod m : sClass.getMethods()) {
       if (nameVsMethodMap.get(m.toString()) == null) {
         MethodWrapper methodWrapper = new MethodWrapper(m);
         nameVsMethodMap.put(m.toString(), methodWrapper);
+        methodVsMethodWrapper.put(m, methodWrapper);
       }
     }
   }
@@ -124,106 +148,64 @@ public class NamedMethodMap {
         if (m.isConcrete()) {
           Body b;
           try {
-            b = m.retrieveActiveBody();
+            b = Utils.retrieveActiveBody(m);
           } catch (RuntimeException e) {
             System.err.println(e);
             continue;
           }
 
-          MethodWrapper caller = NamedMethodMap.getMethod(m.toString());
-          UnitGraph graph = new ExceptionalUnitGraph(b);
-
-          Iterator gIt = graph.iterator();
+          MethodWrapper caller = NamedMethodMap.getMethod(m);
 
-          while (gIt.hasNext()) {
-            Unit u = (Unit) gIt.next();
+          for (Unit u : b.getUnits()) {
+            Stmt stmt = (Stmt) u;
 
-            String uStr = u.toString();
-
-            if (uStr.contains("}") || uStr.contains("{") || uStr.contains(";")) {
+            if (!stmt.containsInvokeExpr()) {
               continue;
             }
 
-            if (uStr.contains("staticinvoke ") || uStr.contains("void <init>")) {
-              String invokedMethod = uStr.substring(uStr.indexOf('<'), uStr.lastIndexOf('>') + 1);
-              MethodWrapper callee = NamedMethodMap.getMethod(invokedMethod);
-
-              if (callee != null && caller != callee) {
-                callee.setTopLevel(false);
-
-                MethodCallSiteInfo callSiteInfo =
-                    new MethodCallSiteInfo(
-                        caller,
-                        callee,
-                        u.getJavaSourceStartLineNumber(),
-                        u.getJavaSourceStartColumnNumber());
+            InvokeExpr invokeExpr = stmt.getInvokeExpr();
+            SootMethodRef methodRef = invokeExpr.getMethodRef();
 
-                caller.getCalleeList().add(callSiteInfo);
-                callee.getCallerList().add(caller);
-              }
-            } else if ((uStr.contains("virtualinvoke ")
-                    || uStr.contains("interfaceinvoke ")
-                    || uStr.contains("specialinvoke ")
-                    || uStr.contains("dynamicinvoke "))
-                && uStr.contains(".<")) {
-              String invokedMethod = uStr.substring(uStr.indexOf('<'), uStr.lastIndexOf('>') + 1);
-              String reference = uStr.substring(uStr.indexOf("invoke ") + 7, uStr.indexOf(".<"));
-
-              String refType = null;
-
-              for (ValueBox useBox : u.getUseBoxes()) {
-                if (useBox.getValue().toString().equals(reference)) {
-                  refType = useBox.getValue().getType().toString();
-                  break;
-                }
-              }
-
-              String[] splits = invokedMethod.split(": ");
-              String methodSignature = splits[1].substring(0, splits[1].lastIndexOf('>'));
-              List<SootClass> subClasses = classHierarchy.get(refType);
-
-              if (subClasses != null && !subClasses.isEmpty()) {
+            if (invokeExpr instanceof DynamicInvokeExpr) {
+              continue;
+            }
 
-                for (SootClass subClass : subClasses) {
-                  SootMethod subClassMethod = subClass.getMethodUnsafe(methodSignature);
+            if (invokeExpr instanceof StaticInvokeExpr
+                || SootMethod.constructorName.equals(methodRef.getName())) {
+              addCallSite(caller, getMethod(methodRef.tryResolve()), u);
+              continue;
+            }
 
-                  if (subClassMethod != null) {
-                    MethodWrapper callee = NamedMethodMap.getMethod(subClassMethod.toString());
+            Value base = ((InstanceInvokeExpr) invokeExpr).getBase();
+            List<SootClass> subClasses = classHierarchy.get(base.getType().toString());
 
-                    if (callee != null && caller != callee) {
-                      callee.setTopLevel(false);
+            if (subClasses != null && !subClasses.isEmpty()) {
+              for (SootClass subClass : subClasses) {
+                SootMethod subClassMethod = subClass.getMethodUnsafe(methodRef.getSubSignature());
 
-                      MethodCallSiteInfo callSiteInfo =
-                          new MethodCallSiteInfo(
-                              caller,
-                              callee,
-                              u.getJavaSourceStartLineNumber(),
-                              u.getJavaSourceStartColumnNumber());
-                      caller.getCalleeList().add(callSiteInfo);
-                      callee.getCallerList().add(caller);
-                    }
-                  }
-                }
-              } else {
-                MethodWrapper callee = NamedMethodMap.getMethod(invokedMethod);
-
-                if (callee != null && caller != callee) {
-                  callee.setTopLevel(false);
-
-                  MethodCallSiteInfo callSiteInfo =
-                      new MethodCallSiteInfo(
-                          caller,
-                          callee,
-                          u.getJavaSourceStartLineNumber(),
-                          u.getJavaSourceStartColumnNumber());
-                  caller.getCalleeList().add(callSiteInfo);
-                  callee.getCallerList().add(caller);
+                if (subClassMethod != null) {
+                  addCallSite(caller, getMethod(subClassMethod), u);
                 }
               }
+            } else {
+              addCallSite(caller, getMethod(methodRef.tryResolve()), u);
             }
           }
         }
       }
     }
   }
+
+  private static void addCallSite(MethodWrapper caller, MethodWrapper callee, Unit u) {
+    if (callee != null && caller != callee) {
+      callee.setTopLevel(false);
+
+      MethodCallSiteInfo callSiteInfo =
+          new MethodCallSiteInfo(
+              caller, callee, u.getJavaSourceStartLineNumber(), u.getJavaSourceStartColumnNumber());
+
+      caller.getCalleeList().add(callSiteInfo);
+      callee.getCallerList().add(caller);
+    }
+  }
 }
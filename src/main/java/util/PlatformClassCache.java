@@ -0,0 +1,441 @@
+/* Licensed under GPL-3.0 */
+package util;
+
+import frontEnd.Interface.outputRouting.ExceptionHandler;
+import frontEnd.Interface.outputRouting.ExceptionId;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * PlatformClassCache class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The hierarchy and the method signatures of the classes of the platform jars, such as the
+ *     <code>rt.jar</code> and <code>jce.jar</code> of a JDK or the <code>android.jar</code> an APK
+ *     targets, read once with ASM and kept in a cache directory, or in memory without one. The
+ *     cache file is named after the paths, the sizes and the modification times of the jars, and
+ *     is memory mapped when opened, a class is only decoded when it is looked up. An opened cache
+ *     is kept for the lifetime of the JVM, so a daemon scanning several targets only maps and
+ *     decodes the platform classes once.
+ *     <p>It lets the scan tell which platform classes the target may use before anything is
+ *     loaded into SOOT, see {@link util.ConstantPoolIndex#resolvePlatform}.
+ */
+public class PlatformClassCache {
+
+  private static final Logger log =
+      org.apache.logging.log4j.LogManager.getLogger(PlatformClassCache.class);
+
+  private static final int MAGIC = 0x43475043;
+
+  /** The version of the layout of the cache file, a cache of another version is rebuilt. */
+  private static final int FORMAT = 1;
+
+  /** The caches opened within this JVM, kept warm for the next scans, by their cache file. */
+  private static final Map<String, PlatformClassCache> OPENED = new ConcurrentHashMap<>();
+
+  private final ByteBuffer data;
+  private final Map<String, Integer> offsets;
+  private final Map<String, PlatformClass> classes = new ConcurrentHashMap<>();
+
+  private PlatformClassCache(ByteBuffer data, Map<String, Integer> offsets) {
+    this.data = data;
+    this.offsets = offsets;
+  }
+
+  /**
+   * Opens the cache of the platform jars within the cache directory, building it when missing.
+   * Without a cache directory, the platform classes are read into memory instead.
+   *
+   * @param cacheDir a {@link java.lang.String} object, null to keep the cache in memory only.
+   * @param platformJars a {@link java.util.List} object, the jars missing on disk are skipped.
+   * @return a {@link util.PlatformClassCache} object.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public static PlatformClassCache open(String cacheDir, List<String> platformJars)
+      throws ExceptionHandler {
+
+    List<File> jars = new ArrayList<>();
+    StringBuilder key = new StringBuilder();
+    for (String platformJar : platformJars) {
+      File jar = new File(platformJar).getAbsoluteFile();
+      if (jar.isFile()) {
+        jars.add(jar);
+        key.append(jar.getPath())
+            .append(':')
+            .append(jar.length())
+            .append(':')
+            .append(jar.lastModified())
+            .append(';');
+      }
+    }
+
+    String keyString = key.toString();
+    String fileName =
+        Utils.getContentHash(keyString.getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+
+    if (cacheDir == null) {
+      PlatformClassCache opened = OPENED.get("memory:" + fileName);
+      if (opened != null) {
+        log.debug("Reusing the platform classes already read of " + jars);
+        return opened;
+      }
+
+      log.info("Reading the platform classes of " + jars);
+      try {
+        PlatformClassCache cache =
+            read(ByteBuffer.wrap(encode(keyString, index(jars))), keyString);
+        OPENED.put("memory:" + fileName, cache);
+        return cache;
+      } catch (IOException e) {
+        log.fatal("Error reading the platform classes of " + jars);
+        throw new ExceptionHandler(
+            "Error reading the platform classes of " + jars, ExceptionId.FILE_READ);
+      }
+    }
+
+    File dir = new File(cacheDir, "platform");
+    if (!dir.isDirectory() && !dir.mkdirs()) {
+      log.fatal("The cache directory " + dir.getPath() + " cannot be created.");
+      throw new ExceptionHandler(
+          "The cache directory " + dir.getPath() + " cannot be created.", ExceptionId.FILE_CON);
+    }
+
+    File cacheFile = new File(dir, "platform-" + fileName + ".bin");
+
+    PlatformClassCache opened = OPENED.get(cacheFile.getPath());
+    if (opened != null) {
+      log.debug("Reusing the platform classes already opened from " + cacheFile.getPath());
+      return opened;
+    }
+
+    if (cacheFile.isFile()) {
+      try {
+        PlatformClassCache cache = read(cacheFile, keyString);
+        if (cache != null) {
+          log.debug("Using the platform classes cached in " + cacheFile.getPath());
+          OPENED.put(cacheFile.getPath(), cache);
+          return cache;
+        }
+      } catch (IOException | RuntimeException e) {
+        log.warn("Ignoring the unreadable platform cache " + cacheFile.getPath());
+      }
+    }
+
+    log.info("Caching the platform classes of " + jars);
+    write(cacheFile, keyString, index(jars));
+    try {
+      PlatformClassCache cache = read(cacheFile, keyString);
+      if (cache != null) OPENED.put(cacheFile.getPath(), cache);
+      return cache;
+    } catch (IOException e) {
+      log.fatal("Error reading the platform cache " + cacheFile.getPath());
+      throw new ExceptionHandler(
+          "Error reading the platform cache " + cacheFile.getPath(), ExceptionId.FILE_READ);
+    }
+  }
+
+  /** Reads the hierarchy and the method signatures of every class of the jars. */
+  private static Map<String, PlatformClass> index(List<File> jars) throws ExceptionHandler {
+    Map<String, PlatformClass> classes = new TreeMap<>();
+
+    for (File jar : jars) {
+      try (ZipFile zipFile = new ZipFile(jar)) {
+        Enumeration<? extends ZipEntry> entries = zipFile.entries();
+        while (entries.hasMoreElements()) {
+          ZipEntry entry = entries.nextElement();
+          if (!entry.isDirectory() && entry.getName().endsWith(".class")) {
+            try (InputStream in = zipFile.getInputStream(entry)) {
+              PlatformClass platformClass = PlatformClass.of(new ClassReader(in));
+              classes.putIfAbsent(platformClass.name, platformClass);
+            }
+          }
+        }
+      } catch (IOException | RuntimeException e) {
+        log.fatal("Error reading the platform classes of " + jar.getPath());
+        throw new ExceptionHandler(
+            "Error reading the file: " + jar.getPath(), ExceptionId.FILE_READ);
+      }
+    }
+
+    return classes;
+  }
+
+  private static void write(File cacheFile, String key, Map<String, PlatformClass> classes)
+      throws ExceptionHandler {
+
+    File temp = null;
+    try {
+      byte[] encoded = encode(key, classes);
+
+      temp = File.createTempFile("platform", ".tmp", cacheFile.getParentFile());
+      try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+        out.write(encoded);
+      }
+
+      if (!temp.renameTo(cacheFile) && !(cacheFile.delete() && temp.renameTo(cacheFile))) {
+        throw new IOException("Cannot replace " + cacheFile.getPath());
+      }
+    } catch (IOException e) {
+      if (temp != null) temp.delete();
+      log.fatal("Error writing the platform cache " + cacheFile.getPath());
+      throw new ExceptionHandler(
+          "Error writing the platform cache " + cacheFile.getPath(), ExceptionId.FILE_O);
+    }
+  }
+
+  /** Lays out the classes as in the cache file, their offsets ahead of their contents. */
+  private static byte[] encode(String key, Map<String, PlatformClass> classes) throws IOException {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    DataOutputStream bodyOut = new DataOutputStream(body);
+    Map<String, Integer> offsets = new TreeMap<>();
+    for (PlatformClass platformClass : classes.values()) {
+      offsets.put(platformClass.name, bodyOut.size());
+      writeString(bodyOut, platformClass.superName);
+      bodyOut.writeInt(platformClass.interfaces.size());
+      for (String anInterface : platformClass.interfaces) writeString(bodyOut, anInterface);
+      bodyOut.writeInt(platformClass.methods.size());
+      for (String method : platformClass.methods) writeString(bodyOut, method);
+    }
+    bodyOut.flush();
+
+    ByteArrayOutputStream encoded = new ByteArrayOutputStream(body.size() + offsets.size() * 64);
+    DataOutputStream out = new DataOutputStream(encoded);
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT);
+    writeString(out, key);
+    out.writeInt(offsets.size());
+    for (Map.Entry<String, Integer> entry : offsets.entrySet()) {
+      writeString(out, entry.getKey());
+      out.writeInt(entry.getValue());
+    }
+    body.writeTo(out);
+    out.flush();
+
+    return encoded.toByteArray();
+  }
+
+  /** Maps the cache file, null when it was built for other jars or in another format. */
+  private static PlatformClassCache read(File cacheFile, String key) throws IOException {
+    MappedByteBuffer buffer;
+    try (RandomAccessFile file = new RandomAccessFile(cacheFile, "r");
+        FileChannel channel = file.getChannel()) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    return read(buffer, key);
+  }
+
+  /** Reads the offsets of the classes laid out in the buffer, see {@link #encode}. */
+  private static PlatformClassCache read(ByteBuffer buffer, String key) {
+    if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT || !key.equals(readString(buffer))) {
+      return null;
+    }
+
+    int count = buffer.getInt();
+    Map<String, Integer> offsets = new HashMap<>(count * 2);
+    for (int i = 0; i < count; i++) {
+      offsets.put(readString(buffer), buffer.getInt());
+    }
+
+    return new PlatformClassCache(buffer.slice(), offsets);
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Checks whether the class is one of the platform classes.
+   *
+   * @param className a {@link java.lang.String} object.
+   * @return a boolean.
+   */
+  public boolean contains(String className) {
+    return offsets.containsKey(className);
+  }
+
+  /**
+   * Lists the super classes and the interfaces of a platform class, directly or not.
+   *
+   * @param className a {@link java.lang.String} object.
+   * @return a {@link java.util.Set} object, empty when the class is not a platform class.
+   */
+  public Set<String> getSuperTypes(String className) {
+    Set<String> superTypes = new LinkedHashSet<>();
+    Deque<String> worklist = new ArrayDeque<>();
+    worklist.push(className);
+
+    while (!worklist.isEmpty()) {
+      PlatformClass platformClass = getClass(worklist.pop());
+      if (platformClass == null) {
+        continue;
+      }
+
+      List<String> direct = new ArrayList<>(platformClass.interfaces);
+      if (!platformClass.superName.isEmpty()) {
+        direct.add(0, platformClass.superName);
+      }
+
+      for (String superType : direct) {
+        if (superTypes.add(superType)) {
+          worklist.push(superType);
+        }
+      }
+    }
+
+    return superTypes;
+  }
+
+  /**
+   * Finds the platform class declaring a method, looking up the super classes then the
+   * interfaces of the class.
+   *
+   * @param className a {@link java.lang.String} object.
+   * @param subSignature a {@link java.lang.String} object, such as <code>javax.crypto.Cipher
+   *     getInstance(java.lang.String)</code>.
+   * @return a {@link java.lang.String} object, null when no platform class declares it.
+   */
+  public String findDeclaringClass(String className, String subSignature) {
+    PlatformClass platformClass = getClass(className);
+    if (platformClass == null) {
+      return null;
+    }
+
+    if (platformClass.methods.contains(subSignature)) {
+      return className;
+    }
+
+    for (String superType : getSuperTypes(className)) {
+      PlatformClass superClass = getClass(superType);
+      if (superClass != null && superClass.methods.contains(subSignature)) {
+        return superType;
+      }
+    }
+
+    return null;
+  }
+
+  private PlatformClass getClass(String className) {
+    Integer offset = offsets.get(className);
+    if (offset == null) {
+      return null;
+    }
+
+    return classes.computeIfAbsent(
+        className,
+        name -> {
+          ByteBuffer buffer = data.duplicate();
+          buffer.position(offset);
+
+          PlatformClass platformClass = new PlatformClass(name, readString(buffer));
+          for (int i = buffer.getInt(); i > 0; i--) {
+            platformClass.interfaces.add(readString(buffer));
+          }
+          for (int i = buffer.getInt(); i > 0; i--) {
+            platformClass.methods.add(readString(buffer));
+          }
+          return platformClass;
+        });
+  }
+
+  /** The hierarchy and the method signatures of a platform class. */
+  private static class PlatformClass {
+
+    private final String name;
+    private final String superName;
+    private final List<String> interfaces = new ArrayList<>();
+    private final Set<String> methods = new LinkedHashSet<>();
+
+    private PlatformClass(String name, String superName) {
+      this.name = name;
+      this.superName = superName;
+    }
+
+    private static PlatformClass of(ClassReader reader) {
+      PlatformClass platformClass =
+          new PlatformClass(
+              Type.getObjectType(reader.getClassName()).getClassName(),
+              reader.getSuperName() == null
+                  ? ""
+                  : Type.getObjectType(reader.getSuperName()).getClassName());
+
+      for (String anInterface : reader.getInterfaces()) {
+        platformClass.interfaces.add(Type.getObjectType(anInterface).getClassName());
+      }
+
+      reader.accept(
+          new ClassVisitor(Opcodes.ASM8) {
+            @Override
+            public MethodVisitor visitMethod(
+                int access, String name, String descriptor, String signature, String[] ex) {
+              platformClass.methods.add(toSubSignature(name, descriptor));
+              return null;
+            }
+          },
+          ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+      return platformClass;
+    }
+  }
+
+  /**
+   * Builds the SOOT sub signature of a method.
+   *
+   * @param name a {@link java.lang.String} object.
+   * @param descriptor a {@link java.lang.String} object.
+   * @return a {@link java.lang.String} object.
+   */
+  static String toSubSignature(String name, String descriptor) {
+    StringBuilder subSignature = new StringBuilder();
+    subSignature.append(Type.getReturnType(descriptor).getClassName()).append(' ');
+    subSignature.append(name).append('(');
+
+    Type[] arguments = Type.getArgumentTypes(descriptor);
+    for (int i = 0; i < arguments.length; i++) {
+      if (i > 0) subSignature.append(',');
+      subSignature.append(arguments[i].getClassName());
+    }
+
+    return subSignature.append(')').toString();
+  }
+}
@@ -0,0 +1,73 @@
+/* Licensed under GPL-3.0 */
+package util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import soot.Body;
+import soot.SootMethod;
+import soot.toolkits.graph.UnitGraph;
+
+/**
+ * UnitGraphCache class.
+ *
+ * @author CryptoguardTeam
+ * @version 03.07.01
+ * @since 04.05.03
+ *     <p>The unit graphs of the methods analyzed during a scan. Every slicer and rule used to
+ *     build a new exceptional unit graph each time it visited a method, the graphs are now built
+ *     once and shared until the cache is reset for the next scan target. The least recently used
+ *     graphs are dropped once the cache holds more than its capacity.
+ */
+public class UnitGraphCache {
+
+  /** The number of unit graphs kept at once. */
+  private static final int CAPACITY = 4096;
+
+  private static Map<SootMethod, UnitGraph> methodVsUnitGraph = createMap();
+
+  /** reset. */
+  public static synchronized void reset() {
+    methodVsUnitGraph = createMap();
+  }
+
+  /**
+   * getUnitGraph.
+   *
+   * <p>Returns the unit graph of the active body of the method, it is built on the first request.
+   *
+   * @param method a {@link soot.SootMethod} object.
+   * @return a {@link soot.toolkits.graph.UnitGraph} object.
+   */
+  public static UnitGraph getUnitGraph(SootMethod method) {
+    UnitGraph graph;
+    synchronized (UnitGraphCache.class) {
+      graph = methodVsUnitGraph.get(method);
+    }
+
+    if (graph != null) {
+      return graph;
+    }
+
+    // Built outside of the cache lock, the construction takes the scene lock by itself
+    Body body = Utils.retrieveActiveBody(method);
+    UnitGraph newGraph = Utils.createUnitGraph(body);
+
+    synchronized (UnitGraphCache.class) {
+      graph = methodVsUnitGraph.get(method);
+      if (graph == null) {
+        graph = newGraph;
+        methodVsUnitGraph.put(method, graph);
+      }
+    }
+    return graph;
+  }
+
+  private static Map<SootMethod, UnitGraph> createMap() {
+    return new LinkedHashMap<SootMethod, UnitGraph>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<SootMethod, UnitGraph> eldest) {
+        return size() > CAPACITY;
+      }
+    };
+  }
+}
@@ -13,37 +13,34 @@ import frontEnd.MessagingSystem.routing.outputStructures.OutputStructure;
 import frontEnd.argsIdentifier;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
-import java.util.zip.ZipInputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.config.Configurator;
-import org.jf.dexlib2.DexFileFactory;
-import org.jf.dexlib2.Opcodes;
-import org.jf.dexlib2.dexbacked.ZipDexContainer;
-import org.jf.dexlib2.iface.ClassDef;
-import org.jf.dexlib2.iface.DexFile;
 import org.objectweb.asm.ClassReader;
 import rule.engine.EngineType;
-import slicer.backward.heuristic.HeuristicBasedAnalysisResult;
-import slicer.backward.heuristic.HeuristicBasedInstructions;
-import slicer.backward.orthogonal.OrthogonalInfluenceInstructions;
-import slicer.backward.orthogonal.OrthogonalSlicingResult;
+import slicer.backward.CalleeSliceSummary;
 import soot.*;
 import soot.jimple.Constant;
 import soot.jimple.InvokeExpr;
+import soot.jimple.Stmt;
 import soot.jimple.internal.JAssignStmt;
 import soot.jimple.internal.JInvokeStmt;
 import soot.options.Options;
+import soot.toolkits.graph.ExceptionalUnitGraph;
+import soot.toolkits.graph.UnitGraph;
 import soot.util.Chain;
 
 /**
@@ -57,7 +54,7 @@ public class Utils {
 
   //region Static Variables
   /** Constant <code>SLICE_LENGTH</code> */
-  public static final ArrayList<Integer> SLICE_LENGTH = new ArrayList<>();
+  public static final List<Integer> SLICE_LENGTH = Collections.synchronizedList(new ArrayList<>());
   /** Constant <code>lineSep="System.getProperty(file.separator)"</code> */
   public static final String fileSep = System.getProperty("file.separator");
   /** Constant <code>lineSep="System.getProperty(line.separator)"</code> */
@@ -87,17 +84,21 @@ public class Utils {
   private static final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMdd-HHmmss");
   private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(Utils.class);
   /** Constant <code>NUM_ORTHOGONAL=0</code> */
-  public static int NUM_ORTHOGONAL = 0;
+  public static final AtomicInteger NUM_ORTHOGONAL = new AtomicInteger();
   /** Constant <code>NUM_CONSTS_TO_CHECK=0</code> */
-  public static int NUM_CONSTS_TO_CHECK = 0;
+  public static final AtomicInteger NUM_CONSTS_TO_CHECK = new AtomicInteger();
   /** Constant <code>NUM_SLICES=0</code> */
-  public static int NUM_SLICES = 0;
+  public static final AtomicInteger NUM_SLICES = new AtomicInteger();
   /** Constant <code>NUM_HEURISTIC=0</code> */
-  public static int NUM_HEURISTIC = 0;
+  public static final AtomicInteger NUM_HEURISTIC = new AtomicInteger();
   /** Constant <code>DEPTH_COUNT</code> */
-  public static int[] DEPTH_COUNT;
+  public static AtomicIntegerArray DEPTH_COUNT;
   /** Constant <code>DEPTH=0</code> */
   public static int DEPTH = 0;
+  /** The lock guarding the parts of the SOOT scene that are loaded lazily during the analysis. */
+  private static final Object SCENE_LOCK = new Object();
+  /** The methods whose active body is retrieved and whose method references are resolved. */
+  private static final Set<SootMethod> PREPARED_BODIES = ConcurrentHashMap.newKeySet();
 
   static {
     ASSIGN_DONT_VISIT.add("<java.util.Map: java.lang.Object get(java.lang.Object)>");
@@ -113,7 +114,81 @@ public class Utils {
    */
   public static void initDepth(int depth) {
     DEPTH = depth;
-    DEPTH_COUNT = new int[depth];
+    DEPTH_COUNT = new AtomicIntegerArray(depth);
+  }
+
+  /**
+   * Retrieves the active body of a method. SOOT loads bodies and resolves classes lazily and is not
+   * safe to do so from several threads at once, so bodies that are not loaded yet are retrieved
+   * while holding the scene lock. The method references within the body are resolved at the same
+   * time, since resolving a phantom reference adds the method to its declaring class.
+   *
+   * <p>A method is only marked as prepared once its references are resolved, the body SOOT sets on
+   * the method before then is not returned without the lock.
+   *
+   * @param method a {@link soot.SootMethod} object.
+   * @return a {@link soot.Body} object.
+   */
+  public static Body retrieveActiveBody(SootMethod method) {
+    if (PREPARED_BODIES.contains(method)) return method.getActiveBody();
+
+    synchronized (SCENE_LOCK) {
+      if (PREPARED_BODIES.contains(method)) return method.getActiveBody();
+
+      Body body = method.retrieveActiveBody();
+      for (Unit unit : body.getUnits()) {
+        Stmt stmt = (Stmt) unit;
+        if (stmt.containsInvokeExpr()) {
+          try {
+            stmt.getInvokeExpr().getMethod();
+          } catch (RuntimeException e) {
+            log.debug("Unable to resolve " + stmt.getInvokeExpr().getMethodRef());
+          }
+        }
+      }
+      PREPARED_BODIES.add(method);
+      return body;
+    }
+  }
+
+  /**
+   * Creates the exceptional unit graph of a body while holding the scene lock, SOOT memoizes the
+   * exceptions thrown by each unit in maps that are shared between all graphs.
+   *
+   * @param body a {@link soot.Body} object.
+   * @return a {@link soot.toolkits.graph.UnitGraph} object.
+   */
+  public static UnitGraph createUnitGraph(Body body) {
+    synchronized (SCENE_LOCK) {
+      return new ExceptionalUnitGraph(body);
+    }
+  }
+
+  /**
+   * Loads a class and its supporting classes into the SOOT scene while holding the scene lock.
+   *
+   * @param className a {@link java.lang.String} object.
+   * @return a {@link soot.SootClass} object.
+   */
+  public static SootClass loadClassAndSupport(String className) {
+    synchronized (SCENE_LOCK) {
+      return Scene.v().loadClassAndSupport(className);
+    }
+  }
+
+  /**
+   * Resolves a class up to the given level while holding the scene lock, if it is not resolved that
+   * far already.
+   *
+   * @param sootClass a {@link soot.SootClass} object.
+   * @param level a int.
+   */
+  public static void forceResolve(SootClass sootClass, int level) {
+    if (sootClass.resolvingLevel() >= level) return;
+
+    synchronized (SCENE_LOCK) {
+      Scene.v().forceResolve(sootClass.getName(), level);
+    }
   }
   //endregion
 
@@ -655,20 +730,7 @@ public class Utils {
    * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
    */
   public static List<String> getClassNamesFromJarArchive(String jarPath) throws ExceptionHandler {
-    List<String> classNames = new ArrayList<>();
-    try {
-      ZipInputStream zip = new ZipInputStream(new FileInputStream(jarPath));
-      for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
-        if (!entry.isDirectory() && entry.getName().endsWith(".class")) {
-          String className = entry.getName().replace('/', '.');
-          classNames.add(className.substring(0, className.length() - ".class".length()));
-        }
-      }
-      return classNames;
-    } catch (IOException e) {
-      log.fatal("Error with file " + jarPath);
-      throw new ExceptionHandler("Error with file " + jarPath, ExceptionId.FILE_I);
-    }
+    return ArchiveIndex.open(jarPath).getClassNames();
   }
 
   /**
@@ -934,31 +996,7 @@ public class Utils {
    * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
    */
   public static List<String> getClassNamesFromApkArchive(String apkfile) throws ExceptionHandler {
-    List<String> classNames = new ArrayList<>();
-
-    File zipFile = new File(apkfile);
-
-    try {
-      ZipDexContainer zipContainer =
-          (ZipDexContainer) DexFileFactory.loadDexContainer(zipFile, Opcodes.forApi(23));
-
-      for (String dexEntryName : zipContainer.getDexEntryNames()) {
-        DexFile dexFile =
-            DexFileFactory.loadDexEntry(zipFile, dexEntryName, true, Opcodes.forApi(23))
-                .getDexFile();
-
-        for (ClassDef classDef : dexFile.getClasses()) {
-          String className = classDef.getType().replace('/', '.');
-          if (!className.toLowerCase().startsWith("landroid.")) {
-            classNames.add(className.substring(1, className.length() - 1));
-          }
-        }
-      }
-      return classNames;
-    } catch (IOException e) {
-      log.fatal("Error with dex file classes.dex");
-      throw new ExceptionHandler("Error with dex file classes.dex", ExceptionId.FILE_I);
-    }
+    return DexArchiveIndex.open(apkfile).getClassNames();
   }
 
   /**
@@ -1105,62 +1143,11 @@ public class Utils {
    */
   public static Map<String, String> getXmlFiles(String projectJarPath, List<String> excludes)
       throws ExceptionHandler {
-    Map<String, String> fileStrs = new HashMap<>();
-
-    if (new File(projectJarPath).isDirectory()) {
-      return fileStrs;
-    }
-
-    List<String> fileNames = getXmlFileNamesFromJarArchive(projectJarPath, excludes);
-
-    for (String fileName : fileNames) {
-      InputStream stream = readFileFromZip(projectJarPath, fileName);
-      fileStrs.put(fileName, convertStreamToString(stream));
+    if (!ArchiveIndex.isArchive(projectJarPath)) {
+      return new HashMap<>();
     }
 
-    return fileStrs;
-  }
-
-  private static List<String> getXmlFileNamesFromJarArchive(String jarPath, List<String> excludes)
-      throws ExceptionHandler {
-    List<String> classNames = new ArrayList<>();
-    try {
-      ZipInputStream zip = new ZipInputStream(new FileInputStream(jarPath));
-
-      for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
-        for (String exclude : excludes) {
-          if (!entry.isDirectory()
-              && entry.getName().endsWith(".xml")
-              && !entry.getName().endsWith(exclude)) {
-            String className = entry.getName();
-            classNames.add(className);
-          }
-        }
-      }
-    } catch (FileNotFoundException e) {
-      log.fatal("File " + jarPath + " is not found.");
-      throw new ExceptionHandler("File " + jarPath + " is not found.", ExceptionId.FILE_AFK);
-    } catch (IOException e) {
-      log.fatal("Error Reading " + jarPath + ".");
-      throw new ExceptionHandler("Error Reading " + jarPath + ".", ExceptionId.FILE_I);
-    }
-    return classNames;
-  }
-
-  private static InputStream readFileFromZip(String jarPath, String file) throws ExceptionHandler {
-    try {
-      ZipFile zipFile = new ZipFile(jarPath);
-      ZipEntry entry = zipFile.getEntry(file);
-      return zipFile.getInputStream(entry);
-    } catch (IOException e) {
-      log.fatal("Error Reading " + jarPath + ".");
-      throw new ExceptionHandler("Error Reading " + jarPath + ".", ExceptionId.FILE_I);
-    }
-  }
-
-  private static String convertStreamToString(java.io.InputStream is) {
-    java.util.Scanner s = new java.util.Scanner(is).useDelimiter("\\A");
-    return s.hasNext() ? s.next() : "";
+    return ArchiveIndex.open(projectJarPath).getXmlFiles(excludes);
   }
 
   /**
@@ -1565,12 +1552,36 @@ public class Utils {
    *     /jdk...:/jdk.../jre/lib/rt.jar:/jdk.../jre/lib/jce.jar
    */
   public static String getBaseSoot(String javaPath) {
-    String rt = Utils.osPathJoin(javaPath, "jre", "lib", "rt.jar");
-    String jce = Utils.osPathJoin(javaPath, "jre", "lib", "jce.jar");
+    List<String> platformJars = getBaseSootJars(javaPath);
 
-    setSunBootPath(javaPath, rt);
+    setSunBootPath(javaPath, platformJars.get(0));
 
-    return Utils.join(":", javaPath, rt, jce);
+    return Utils.join(":", javaPath, platformJars.get(0), platformJars.get(1));
+  }
+
+  /**
+   * getBaseSootJars.
+   *
+   * @param javaPath a {@link java.lang.String} object.
+   * @return a {@link java.util.List} object, the <code>rt.jar</code> and the <code>jce.jar</code>
+   *     of the JDK.
+   */
+  public static List<String> getBaseSootJars(String javaPath) {
+    return Arrays.asList(
+        Utils.osPathJoin(javaPath, "jre", "lib", "rt.jar"),
+        Utils.osPathJoin(javaPath, "jre", "lib", "jce.jar"));
+  }
+
+  /**
+   * getAndroidJar.
+   *
+   * @param androidHome a {@link java.lang.String} object.
+   * @param apkPath a {@link java.lang.String} object.
+   * @return a {@link java.lang.String} object, the <code>android.jar</code> of the platform the APK
+   *     targets, as SOOT picks it within the <code>platforms</code> of the android home.
+   */
+  public static String getAndroidJar(String androidHome, String apkPath) {
+    return Scene.v().getAndroidJarPath(Utils.osPathJoin(androidHome, "platforms"), apkPath);
   }
 
   /**
@@ -1679,6 +1690,26 @@ public class Utils {
     return "UNKNOWN";
   }
 
+  /**
+   * getContentHash.
+   *
+   * <p>Hashes the content of a file with SHA-256.
+   *
+   * @param bytes an array of {@link byte} objects.
+   * @return a {@link java.lang.String} object, the hash in hexadecimal.
+   */
+  public static String getContentHash(byte[] bytes) {
+    try {
+      StringBuilder hex = new StringBuilder();
+      for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+        hex.append(String.format("%02x", b));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
   /**
    * getCurrentTimeStamp.
    *
@@ -1731,47 +1762,23 @@ public class Utils {
     SootMethod method = ((JAssignStmt) currInstruction).getInvokeExpr().getMethod();
     if (method != null && method.isConcrete()) {
 
-      Scene.v().forceResolve(method.getDeclaringClass().getName(), BODIES);
-
-      List<UnitContainer> intraAnalysis = null;
+      Utils.forceResolve(method.getDeclaringClass(), BODIES);
 
-      DEPTH_COUNT[depth - 1]++;
+      DEPTH_COUNT.incrementAndGet(depth - 1);
 
       if (depth == 1) {
-
-        NUM_HEURISTIC++;
-
-        HeuristicBasedInstructions returnInfluencingInstructions =
-            new HeuristicBasedInstructions(method, "return");
-
-        intraAnalysis = returnInfluencingInstructions.getAnalysisResult().getAnalysis();
+        NUM_HEURISTIC.incrementAndGet();
       } else {
-
-        NUM_ORTHOGONAL++;
-
-        OrthogonalInfluenceInstructions other =
-            new OrthogonalInfluenceInstructions(method, "return", depth - 1);
-        intraAnalysis = other.getOrthogonalSlicingResult().getAnalysisResult();
+        NUM_ORTHOGONAL.incrementAndGet();
       }
 
-      // Get args
-      List<Integer> args = Utils.findInfluencingParamters(intraAnalysis);
-
-      // Get fields
-      Set<String> usedFields = new HashSet<>();
-      for (UnitContainer iUnit : intraAnalysis) {
-        for (ValueBox usebox : iUnit.getUnit().getUseBoxes()) {
-          if (usebox.getValue().toString().startsWith("r0.")
-              || usebox.getValue().toString().startsWith("this.")) {
-            usedFields.add(usebox.getValue().toString());
-          }
-        }
-      }
+      // The slice of the return value, its args and used fields are shared by every call site
+      CalleeSliceSummary summary = CalleeSummaryMap.getSummary(method, "return", depth);
 
-      unitContainer.setArgs(args);
-      unitContainer.setAnalysisResult(intraAnalysis);
+      unitContainer.setArgs(summary.getInfluencingParams());
+      unitContainer.setAnalysisResult(summary.getAnalysisResult());
       unitContainer.setMethod(caller);
-      unitContainer.setProperties(usedFields);
+      unitContainer.setProperties(summary.getUsedProperties());
     }
 
     return unitContainer;
@@ -1822,6 +1829,10 @@ public class Utils {
   /**
    * isArgumentOfInvoke.
    *
+   * <p>Walks back from the unit at the index through the units using what it defines, until an
+   * invoke takes one of them as an argument. The definitions and uses of the slice are read once
+   * for all the units checked, see {@link util.DefUseIndex}.
+   *
    * @param analysis a {@link analyzer.backward.Analysis} object.
    * @param index a int.
    * @param outSet a {@link java.util.List} object.
@@ -1829,175 +1840,9 @@ public class Utils {
    */
   public static UnitContainer isArgumentOfInvoke(
       Analysis analysis, int index, List<UnitContainer> outSet) {
-    NUM_CONSTS_TO_CHECK++;
-
-    UnitContainer baseUnit = analysis.getAnalysisResult().get(index);
-
-    if (baseUnit.getUnit() instanceof JInvokeStmt) {
-
-      InvokeExpr invokeExpr = ((JInvokeStmt) baseUnit.getUnit()).getInvokeExpr();
-
-      List<Value> args = invokeExpr.getArgs();
-
-      for (Value arg : args) {
-        if (arg instanceof Constant) {
-          return baseUnit;
-        }
-      }
-    }
-
-    outSet.add(analysis.getAnalysisResult().get(index));
-
-    for (int i = index; i >= 0; i--) {
-
-      UnitContainer curUnit = analysis.getAnalysisResult().get(i);
-
-      List<UnitContainer> inset = new ArrayList<>(outSet);
-
-      for (UnitContainer insetIns : inset) {
-        boolean outSetContainsCurUnit = !outSet.toString().contains(curUnit.toString());
-        if (insetIns instanceof PropertyFakeUnitContainer) {
-          String property = ((PropertyFakeUnitContainer) insetIns).getOriginalProperty();
-
-          if (curUnit.getUnit() instanceof JInvokeStmt) {
-            if (curUnit.getUnit().toString().contains(property + ".<")) {
-              if (outSetContainsCurUnit) {
-                outSet.add(curUnit);
-              }
-            } else {
-
-              InvokeExpr invokeExpr = ((JInvokeStmt) curUnit.getUnit()).getInvokeExpr();
-
-              List<Value> args = invokeExpr.getArgs();
-
-              for (Value arg : args) {
-                if (arg.toString().contains(property)) {
-                  return curUnit;
-                }
-              }
-            }
-
-          } else {
-            for (ValueBox useBox : curUnit.getUnit().getUseBoxes()) {
-              if (useBox.getValue().toString().contains(property)) {
-                if (outSetContainsCurUnit) {
-                  outSet.add(curUnit);
-                }
-              }
-            }
-          }
-        } else if (insetIns instanceof ParamFakeUnitContainer) {
-
-          int param = ((ParamFakeUnitContainer) insetIns).getParam();
-          String method = ((ParamFakeUnitContainer) insetIns).getCallee();
-
-          for (ValueBox useBox : curUnit.getUnit().getUseBoxes()) {
-            String useboxStr = useBox.getValue().toString();
-            if (useboxStr.contains("@parameter")) {
-              Integer parameter =
-                  Integer.valueOf(
-                      useboxStr.substring("@parameter".length(), useboxStr.indexOf(':')));
-              if (parameter.equals(param) && curUnit.getMethod().equals(method)) {
-                if (outSetContainsCurUnit) {
-                  outSet.add(curUnit);
-                }
-              }
-            }
-          }
-        } else if (insetIns.getUnit() instanceof JAssignStmt) {
-          if (curUnit.getUnit() instanceof JInvokeStmt) {
-
-            for (ValueBox defBox : insetIns.getUnit().getDefBoxes()) {
-
-              if (((JInvokeStmt) curUnit.getUnit()).containsInvokeExpr()) {
-
-                InvokeExpr invokeExpr = ((JInvokeStmt) curUnit.getUnit()).getInvokeExpr();
-                List<Value> args = invokeExpr.getArgs();
-
-                for (Value arg : args) {
-                  if (arg.equivTo(defBox.getValue())
-                      || isArrayUseBox(curUnit, insetIns, defBox, arg)) {
-                    return curUnit;
-                  }
-                }
-              } else if (curUnit.getUnit().toString().contains(defBox + ".<")) {
-                if (outSetContainsCurUnit) {
-                  outSet.add(curUnit);
-                }
-              }
-            }
-
-          } else {
-            for (ValueBox defBox : insetIns.getUnit().getDefBoxes()) {
+    NUM_CONSTS_TO_CHECK.incrementAndGet();
 
-              if ((defBox.getValue().toString().equals("r0")
-                      && insetIns.getUnit().toString().startsWith("r0."))
-                  || (defBox.getValue().toString().equals("this")
-                      && insetIns.getUnit().toString().startsWith("this."))) {
-                continue;
-              }
-
-              for (ValueBox useBox : curUnit.getUnit().getUseBoxes()) {
-
-                if (defBox.getValue().equivTo(useBox.getValue())
-                    || isArrayUseBox(curUnit, insetIns, defBox, useBox.getValue())) {
-                  if (outSetContainsCurUnit) {
-                    outSet.add(curUnit);
-                  }
-                }
-              }
-            }
-          }
-
-        } else {
-
-          if (curUnit.getUnit() instanceof JInvokeStmt) {
-            for (ValueBox defBox : insetIns.getUnit().getDefBoxes()) {
-              if (curUnit.getUnit().toString().contains(defBox + ".<")) {
-                if (outSetContainsCurUnit) {
-                  outSet.add(curUnit);
-                }
-              } else {
-
-                InvokeExpr invokeExpr = ((JInvokeStmt) curUnit.getUnit()).getInvokeExpr();
-
-                List<Value> args = invokeExpr.getArgs();
-
-                for (Value arg : args) {
-                  if (arg.equivTo(defBox.getValue())
-                      || isArrayUseBox(curUnit, insetIns, defBox, arg)) {
-                    return curUnit;
-                  }
-                }
-              }
-            }
-
-          } else {
-            for (ValueBox defBox : insetIns.getUnit().getDefBoxes()) {
-
-              if ((defBox.getValue().toString().equals("r0")
-                      && insetIns.getUnit().toString().startsWith("r0."))
-                  || (defBox.getValue().toString().equals("this")
-                      && insetIns.getUnit().toString().startsWith("this."))) {
-                continue;
-              }
-
-              for (ValueBox useBox : curUnit.getUnit().getUseBoxes()) {
-
-                if (defBox.getValue().equivTo(useBox.getValue())
-                    || isArrayUseBox(curUnit, insetIns, defBox, useBox.getValue())) {
-                  if (outSetContainsCurUnit) {
-                    outSet.add(curUnit);
-                  }
-                }
-              }
-            }
-          }
-        }
-      }
-    }
-
-    return null;
+    return analysis.getDefUseIndex().findInvokeUsing(index, outSet);
   }
 
   /**
@@ -2033,6 +1878,24 @@ public class Utils {
                   sourcePaths));
   }
 
+  /**
+   * Resets the heuristics counted while scanning, so the next scan within the same JVM starts
+   * from zero.
+   */
+  public static void resetHeuristics() {
+    NUM_ORTHOGONAL.set(0);
+    NUM_CONSTS_TO_CHECK.set(0);
+    NUM_SLICES.set(0);
+    NUM_HEURISTIC.set(0);
+    SLICE_LENGTH.clear();
+    initDepth(DEPTH);
+  }
+
+  /** Forgets the methods whose bodies were prepared, their scene is dropped between scans. */
+  public static void resetPreparedBodies() {
+    PREPARED_BODIES.clear();
+  }
+
   /**
    * calculateAverage.
    *
@@ -2040,11 +1903,13 @@ public class Utils {
    */
   public static double calculateAverage() {
     Integer sum = 0;
-    if (!Utils.SLICE_LENGTH.isEmpty()) {
-      for (Integer mark : Utils.SLICE_LENGTH) {
-        sum += mark;
+    synchronized (Utils.SLICE_LENGTH) {
+      if (!Utils.SLICE_LENGTH.isEmpty()) {
+        for (Integer mark : Utils.SLICE_LENGTH) {
+          sum += mark;
+        }
+        return sum.doubleValue() / Utils.SLICE_LENGTH.size();
       }
-      return sum.doubleValue() / Utils.SLICE_LENGTH.size();
     }
     return sum;
   }
@@ -2057,8 +1922,8 @@ public class Utils {
   public static ArrayList<String> createDepthCountList() {
     ArrayList<String> output = new ArrayList<>();
 
-    for (int i = 0; i < Utils.DEPTH_COUNT.length; i++) {
-      output.add(String.format("Depth: %d, Count %d", i + 1, Utils.DEPTH_COUNT[i]));
+    for (int i = 0; i < Utils.DEPTH_COUNT.length(); i++) {
+      output.add(String.format("Depth: %d, Count %d", i + 1, Utils.DEPTH_COUNT.get(i)));
     }
 
     return output;
@@ -2087,13 +1952,6 @@ public class Utils {
     return -1;
   }
 
-  private static boolean isArrayUseBox(
-      UnitContainer curUnit, UnitContainer insetIns, ValueBox defBox, Value useBox) {
-    return (defBox.getValue().toString().contains(useBox.toString())
-        && curUnit.getMethod().equals(insetIns.getMethod())
-        && useBox.getType() instanceof ArrayType);
-  }
-
   /**
    * createInvokeUnitContainer.
    *
@@ -2120,41 +1978,17 @@ public class Utils {
 
     if (method.isConcrete()) {
 
-      Scene.v().forceResolve(method.getDeclaringClass().getName(), BODIES);
-
-      if (depth == 1) {
-
-        for (String field : usedFields) {
-
-          HeuristicBasedInstructions influencingInstructions =
-              new HeuristicBasedInstructions(method, field);
-          HeuristicBasedAnalysisResult propAnalysis = influencingInstructions.getAnalysisResult();
+      Utils.forceResolve(method.getDeclaringClass(), BODIES);
 
-          if (propAnalysis.getAnalysis() != null) {
-            // Get args
-            List<Integer> args = Utils.findInfluencingParamters(propAnalysis.getAnalysis());
-            unitContainer.setArgs(args);
-            unitContainer.setMethod(caller);
-            unitContainer.getDefinedFields().add(field);
-            unitContainer.setAnalysisResult(propAnalysis.getAnalysis());
-          }
-        }
-      } else {
+      for (String field : usedFields) {
 
-        for (String field : usedFields) {
+        CalleeSliceSummary summary = CalleeSummaryMap.getSummary(method, field, depth);
 
-          OrthogonalInfluenceInstructions other =
-              new OrthogonalInfluenceInstructions(method, field, depth - 1);
-          OrthogonalSlicingResult orthoAnalysis = other.getOrthogonalSlicingResult();
-
-          if (orthoAnalysis.getAnalysisResult() != null) {
-            // Get args
-            List<Integer> args = Utils.findInfluencingParamters(orthoAnalysis.getAnalysisResult());
-            unitContainer.setArgs(args);
-            unitContainer.setMethod(caller);
-            unitContainer.getDefinedFields().add(field);
-            unitContainer.setAnalysisResult(orthoAnalysis.getAnalysisResult());
-          }
+        if (summary.getAnalysisResult() != null) {
+          unitContainer.setArgs(summary.getInfluencingParams());
+          unitContainer.setMethod(caller);
+          unitContainer.getDefinedFields().add(field);
+          unitContainer.setAnalysisResult(summary.getAnalysisResult());
         }
       }
     }
@@ -1,8 +1,7 @@
 /* Licensed under GPL-3.0 */
 package util.manifest;
 
-//import android.content.res.AXmlResourceParser;
-
+import android.content.res.AXmlResourceParser;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -18,8 +17,8 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
-
-//import test.AXMLPrinter;
+import org.xmlpull.v1.XmlPullParser;
+import test.AXMLPrinter;
 
 /**
  * ProcessManifest class.
@@ -105,78 +104,64 @@ public class ProcessManifest {
    * @param manifestIS a {@link java.io.InputStream} object.
    */
   protected void loadClassesFromBinaryManifest(InputStream manifestIS) {
-    /* try {
-        AXmlResourceParser parser = new AXmlResourceParser();
-        parser.open(manifestIS);
-
-        int type = -1;
-        boolean applicationEnabled = true;
-        while ((type = parser.next()) != XmlPullParser.END_DOCUMENT) {
-            switch (type) {
-                case XmlPullParser.START_DOCUMENT:
-                    break;
-                case XmlPullParser.START_TAG:
-                    String tagName = parser.getName();
-                    if (tagName.equals("manifest")) {
-                        this.packageName = getAttributeValue(parser, "package");
-                        String versionCode = getAttributeValue(parser, "versionCode");
-                        if (versionCode != null && versionCode.length() > 0) {
-                            this.versionCode = Integer.valueOf(versionCode);
-                        }
-                        this.versionName = getAttributeValue(parser, "versionName");
-                    } else if (tagName.equals("activity")
-                            || tagName.equals("receiver")
-                            || tagName.equals("service")
-                            || tagName.equals("provider")) {
-                        // We ignore disabled activities
-                        if (!applicationEnabled) {
-                            continue;
-                        }
-                        String attrValue = getAttributeValue(parser, "enabled");
-                        if (attrValue != null && attrValue.equals("false")) {
-                            continue;
-                        }
-
-                        // Get the class name
-                        attrValue = getAttributeValue(parser, "name");
-                        entryPointsClasses.add(expandClassName(attrValue));
-                    } else if (tagName.equals("uses-permission")) {
-                        String permissionName = getAttributeValue(parser, "name");
-                        // We probably don't want to do this in some cases, so leave it
-                        // to the user
-                        // permissionName = permissionName.substring(permissionName.lastIndexOf(".") + 1);
-                        this.permissions.add(permissionName);
-                    } else if (tagName.equals("uses-sdk")) {
-                        String minVersion = getAttributeValue(parser, "minSdkVersion");
-                        if (minVersion != null && minVersion.length() > 0) {
-                            this.minSdkVersion = Integer.valueOf(minVersion);
-                        }
-                        String targetVersion = getAttributeValue(parser, "targetSdkVersion");
-                        if (targetVersion != null && targetVersion.length() > 0) {
-                            this.targetSdkVersion = Integer.valueOf(targetVersion);
-                        }
-                    } else if (tagName.equals("application")) {
-                        // Check whether the application is disabled
-                        String attrValue = getAttributeValue(parser, "enabled");
-                        applicationEnabled = (attrValue == null || !attrValue.equals("false"));
-
-                        // Get the application name which is also the fully-qualified
-                        // name of the custom application object
-                        this.applicationName = getAttributeValue(parser, "name");
-                        if (this.applicationName != null && !this.applicationName.isEmpty()) {
-                            this.entryPointsClasses.add(expandClassName(this.applicationName));
-                        }
-                    }
-                    break;
-                case XmlPullParser.END_TAG:
-                    break;
-                case XmlPullParser.TEXT:
-                    break;
-            }
+    AXmlResourceParser parser = new AXmlResourceParser();
+    try {
+      parser.open(manifestIS);
+
+      int type;
+      boolean applicationEnabled = true;
+      while ((type = parser.next()) != XmlPullParser.END_DOCUMENT) {
+        if (type != XmlPullParser.START_TAG) {
+          continue;
         }
+
+        String tagName = parser.getName();
+        if (tagName.equals("manifest")) {
+          this.packageName = getAttributeValue(parser, "package");
+          String versionCode = getAttributeValue(parser, "versionCode");
+          if (versionCode.length() > 0) {
+            this.versionCode = Integer.valueOf(versionCode);
+          }
+          this.versionName = getAttributeValue(parser, "versionName");
+        } else if (tagName.equals("activity")
+            || tagName.equals("receiver")
+            || tagName.equals("service")
+            || tagName.equals("provider")) {
+          // The disabled components are never started
+          if (!applicationEnabled || getAttributeValue(parser, "enabled").equals("false")) {
+            continue;
+          }
+
+          String className = getAttributeValue(parser, "name");
+          if (!className.isEmpty()) {
+            entryPointsClasses.add(expandClassName(className));
+          }
+        } else if (tagName.equals("uses-permission")) {
+          this.permissions.add(getAttributeValue(parser, "name"));
+        } else if (tagName.equals("uses-sdk")) {
+          String minVersion = getAttributeValue(parser, "minSdkVersion");
+          if (minVersion.length() > 0) {
+            this.minSdkVersion = Integer.valueOf(minVersion);
+          }
+          String targetVersion = getAttributeValue(parser, "targetSdkVersion");
+          if (targetVersion.length() > 0) {
+            this.targetSdkVersion = Integer.valueOf(targetVersion);
+          }
+        } else if (tagName.equals("application")) {
+          applicationEnabled = !getAttributeValue(parser, "enabled").equals("false");
+
+          // The name of the application is the fully-qualified name of its custom object
+          this.applicationName = getAttributeValue(parser, "name");
+          if (!this.applicationName.isEmpty()) {
+            this.entryPointsClasses.add(expandClassName(this.applicationName));
+          }
+        }
+      }
     } catch (Exception e) {
-        e.printStackTrace();
-    }*/
+      throw new RuntimeException("Could not parse manifest: " + e.getMessage(), e);
+    } finally {
+      parser.close();
+    }
   }
 
   /**
@@ -196,13 +181,14 @@ public class ProcessManifest {
     }
   }
 
-  /* private String getAttributeValue(AXmlResourceParser parser, String attributeName) {
-      for (int i = 0; i < parser.getAttributeCount(); i++)
-          if (parser.getAttributeName(i).equals(attributeName)) {
-              return AXMLPrinter.getAttributeValue(parser, i);
-          }
-      return "";
-  }*/
+  private String getAttributeValue(AXmlResourceParser parser, String attributeName) {
+    for (int i = 0; i < parser.getAttributeCount(); i++)
+      if (parser.getAttributeName(i).equals(attributeName)) {
+        String value = AXMLPrinter.getAttributeValue(parser, i);
+        return value == null ? "" : value;
+      }
+    return "";
+  }
 
   /**
    * loadClassesFromTextManifest.
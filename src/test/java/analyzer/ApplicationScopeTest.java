@@ -0,0 +1,77 @@
+/* Licensed under GPL-3.0 */
+package analyzer;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+/**
+ * ApplicationScopeTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class ApplicationScopeTest {
+
+  //region Tests
+
+  /** testFilter. */
+  @Test
+  public void testFilter() {
+    ApplicationScope scope =
+        new ApplicationScope(
+            Arrays.asList("com.example.*", " org.acme"),
+            Arrays.asList("com.example.generated"),
+            false);
+
+    assertTrue(scope.contains("com.example.Main"));
+    assertTrue(scope.contains("com.example.crypto.Keys$Holder"));
+    assertTrue(scope.contains("org.acme.Tool"));
+    assertFalse(scope.contains("com.examples.Other"));
+    assertFalse(scope.contains("com.example.generated.Stub"));
+    assertFalse(scope.contains("net.other.Lib"));
+
+    assertEquals(
+        Arrays.asList("com.example.Main", "org.acme.Tool"),
+        scope.filter(
+            Arrays.asList(
+                "com.example.Main",
+                "net.other.Lib",
+                "com.example.generated.Stub",
+                "org.acme.Tool")));
+
+    List<String> classNames = Arrays.asList("a.A", "b.B");
+    assertSame(classNames, ApplicationScope.ALL.filter(classNames));
+  }
+
+  /** testFindReachableLibraries. */
+  @Test
+  public void testFindReachableLibraries() {
+    // app.Main -> lib.Client -> lib.Codec, lib.Unused is never referred to
+    Map<String, Set<String>> references = new HashMap<>();
+    references.put("app.Main", new HashSet<>(Arrays.asList("lib.Client", "java.lang.String")));
+    references.put("lib.Client", new HashSet<>(Arrays.asList("lib.Codec", "app.Main")));
+    references.put("lib.Codec", new HashSet<>());
+    references.put("lib.Unused", new HashSet<>(Arrays.asList("lib.Codec")));
+
+    assertEquals(
+        Arrays.asList("lib.Client", "lib.Codec"),
+        Arrays.asList(
+            ApplicationScope.findReachableLibraries(
+                    Arrays.asList("app.Main"),
+                    Arrays.asList("lib.Client", "lib.Codec", "lib.Unused"),
+                    references)
+                .toArray()));
+  }
+  //endregion
+}
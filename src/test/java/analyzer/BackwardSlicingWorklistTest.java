@@ -0,0 +1,329 @@
+/* Licensed under GPL-3.0 */
+package analyzer;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+import static test.TestUtilities.loadSootJar;
+import static test.TestUtilities.sampleNoSub_Jar;
+import static test.TestUtilities.sampleUtil_Jar;
+import static test.TestUtilities.verySimple_Jar;
+
+import analyzer.backward.Analysis;
+import analyzer.backward.MethodWrapper;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import slicer.backward.MethodCallSiteInfo;
+import slicer.backward.SlicingCriteria;
+import slicer.backward.method.MethodSlicingResult;
+import slicer.backward.property.PropertyAnalysisResult;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import util.FieldInitializationInstructionMap;
+import util.NamedMethodMap;
+import util.UnitGraphCache;
+
+/**
+ * BackwardSlicingWorklistTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class BackwardSlicingWorklistTest {
+
+  //region Attributes
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+  //endregion
+
+  //region Test Environment Setup
+
+  /** A value passed down three levels of callers to two sinks. */
+  public static class Chain {
+    /** sink. */
+    public static void sink(String value) {}
+
+    /** log. */
+    public static void log(String value) {}
+
+    /** top. */
+    public void top(String value) {
+      middle(value);
+    }
+
+    /** middle. */
+    public void middle(String value) {
+      bottom(value);
+    }
+
+    /** bottom. */
+    public void bottom(String value) {
+      sink(value);
+      log(value);
+    }
+  }
+
+  /** Writes the chain to a jar, loads it and builds the caller/callee relation of its methods. */
+  private void loadChain() throws Exception {
+    String jar = new File(tempDir.getRoot(), "chain.jar").getPath();
+    String entry = Chain.class.getName().replace('.', '/') + ".class";
+    try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+      out.putNextEntry(new ZipEntry(entry));
+      try (InputStream in = getClass().getResourceAsStream("/" + entry)) {
+        byte[] buffer = new byte[4096];
+        for (int read = in.read(buffer); read != -1; read = in.read(buffer))
+          out.write(buffer, 0, read);
+      }
+      out.closeEntry();
+    }
+
+    List<String> classNames = new ArrayList<>();
+    for (SootClass sootClass : loadSootJar(jar)) classNames.add(sootClass.getName());
+
+    NamedMethodMap.build(classNames);
+    NamedMethodMap.buildCallerCalleeRelation(classNames);
+    FieldInitializationInstructionMap.build(classNames);
+  }
+
+  private static MethodWrapper getChainMethod(String name) {
+    return NamedMethodMap.getMethod(
+        Scene.v().getSootClass(Chain.class.getName()).getMethodByName(name));
+  }
+
+  /** The single call site of the chain method. */
+  private static MethodCallSiteInfo getCallSite(String name) {
+    List<MethodCallSiteInfo> callSites = BaseAnalyzer.getCallSites(getChainMethod(name));
+    assertEquals(name, 1, callSites.size());
+    return callSites.get(0);
+  }
+
+  /** cleanUp. */
+  @After
+  public void cleanUp() {
+    NamedMethodMap.clearCallerCalleeGraph();
+    FieldInitializationInstructionMap.reset();
+    UnitGraphCache.reset();
+  }
+
+  /** The methods sliced from: every method of the criteria classes and of the jar. */
+  private static List<MethodWrapper> getCriteria(List<String> classNames) {
+    List<String> criteriaClasses = new ArrayList<>(BaseAnalyzer.getCriteriaClasses());
+    criteriaClasses.addAll(classNames);
+
+    List<MethodWrapper> criteria = new ArrayList<>();
+    for (String className : criteriaClasses) {
+      SootClass sootClass = Scene.v().getSootClass(className);
+      if (sootClass.isPhantomClass() || sootClass.resolvingLevel() < SootClass.SIGNATURES) {
+        continue;
+      }
+
+      for (SootMethod method : sootClass.getMethods()) {
+        MethodWrapper wrapper = NamedMethodMap.getMethod(method.toString());
+        if (wrapper != null && !wrapper.getCallerList().isEmpty()) criteria.add(wrapper);
+      }
+    }
+    return criteria;
+  }
+
+  /** The analyses of each method, printed once the slicing is over. */
+  private static Map<String, List<String>> printed(Map<MethodWrapper, List<Analysis>> result) {
+    Map<String, List<String>> printed = new LinkedHashMap<>();
+    for (Map.Entry<MethodWrapper, List<Analysis>> entry : result.entrySet()) {
+      List<String> analyses = new ArrayList<>();
+      for (Analysis analysis : entry.getValue())
+        analyses.add(analysis.getMethodChain() + " " + analysis.getAnalysisResult());
+      printed.put(entry.getKey().toString(), analyses);
+    }
+    return printed;
+  }
+  //endregion
+
+  //region Tests
+
+  /** testMaxDepth. */
+  @Test
+  public void testMaxDepth() throws Exception {
+    loadChain();
+    List<Integer> slicingParams = Collections.singletonList(0);
+
+    Map<MethodWrapper, List<Analysis>> result =
+        new BackwardSlicingWorklist(0, 0, null).slice(getCallSite("sink"), slicingParams);
+    assertTrue(result.containsKey(getChainMethod("bottom")));
+    assertTrue(result.containsKey(getChainMethod("middle")));
+    assertTrue(result.containsKey(getChainMethod("top")));
+
+    // A single level of callers above the method of the call site
+    result = new BackwardSlicingWorklist(1, 0, null).slice(getCallSite("sink"), slicingParams);
+    assertTrue(result.containsKey(getChainMethod("bottom")));
+    assertTrue(result.containsKey(getChainMethod("middle")));
+    assertFalse(result.containsKey(getChainMethod("top")));
+  }
+
+  /** testSharedSlices. */
+  @Test
+  public void testSharedSlices() throws Exception {
+    loadChain();
+    List<Integer> slicingParams = Collections.singletonList(0);
+    Map<BackwardSlicingWorklist.CriteriaKey, MethodSlicingResult> sharedSlices =
+        new ConcurrentHashMap<>();
+
+    new BackwardSlicingWorklist(0, 0, sharedSlices).slice(getCallSite("sink"), slicingParams);
+    assertEquals(3, sharedSlices.size());
+
+    // Only the call site of the second sink is sliced, its callers are those of the first one
+    Map<MethodWrapper, List<Analysis>> result =
+        new BackwardSlicingWorklist(0, 0, sharedSlices).slice(getCallSite("log"), slicingParams);
+    assertEquals(4, sharedSlices.size());
+    assertTrue(result.containsKey(getChainMethod("top")));
+  }
+
+  /** testMatchesBaseline. */
+  @Test
+  public void testMatchesBaseline() throws Exception {
+    int checked = 0;
+    for (String jar : Arrays.asList(verySimple_Jar, sampleUtil_Jar, sampleNoSub_Jar)) {
+      List<String> classNames = new ArrayList<>();
+      for (SootClass sootClass : loadSootJar(jar)) classNames.add(sootClass.getName());
+
+      NamedMethodMap.clearCallerCalleeGraph();
+      FieldInitializationInstructionMap.reset();
+      UnitGraphCache.reset();
+      NamedMethodMap.build(classNames);
+      NamedMethodMap.addCriteriaClasses(BaseAnalyzer.getCriteriaClasses());
+      NamedMethodMap.buildCallerCalleeRelation(classNames);
+      FieldInitializationInstructionMap.build(classNames);
+
+      Map<BackwardSlicingWorklist.CriteriaKey, MethodSlicingResult> sharedSlices =
+          new ConcurrentHashMap<>();
+
+      for (MethodWrapper criteria : getCriteria(classNames)) {
+        for (int param = 0; param < criteria.getMethod().getParameterCount(); param++) {
+          List<Integer> slicingParams = new ArrayList<>();
+          slicingParams.add(param);
+
+          for (MethodCallSiteInfo callSiteInfo : BaseAnalyzer.getCallSites(criteria)) {
+            String where = callSiteInfo + " " + slicingParams;
+
+            Map<MethodWrapper, List<Analysis>> expected = new HashMap<>();
+            baselineSlice(new SlicingCriteria(callSiteInfo, slicingParams), expected, null);
+            Map<String, List<String>> expectedPrinted = printed(expected);
+
+            BackwardSlicingWorklist worklist = new BackwardSlicingWorklist(0, 0, null);
+            assertEquals(
+                where, expectedPrinted, printed(worklist.slice(callSiteInfo, slicingParams)));
+
+            // A batched pass shares the slices of the call sites among its roots
+            worklist = new BackwardSlicingWorklist(0, 0, sharedSlices);
+            assertEquals(
+                where, expectedPrinted, printed(worklist.slice(callSiteInfo, slicingParams)));
+            checked++;
+          }
+        }
+      }
+    }
+    assertTrue(checked > 0);
+  }
+  //endregion
+
+  //region Baseline
+
+  /** BaseAnalyzer.runBackwardSlicingAnalysis as it was before the worklist, for the callers. */
+  private static void baselineSliceCallers(
+      MethodWrapper criteria,
+      List<Integer> slicingParams,
+      Map<MethodWrapper, List<Analysis>> methodVsAnalysisResult,
+      Map<SlicingCriteria, Boolean> slicingCriteriaMap) {
+
+    List<MethodWrapper> callers = criteria.getCallerList();
+    if (callers.isEmpty() || slicingParams == null || slicingParams.isEmpty()) {
+      return;
+    }
+
+    for (MethodCallSiteInfo callSiteInfo : BaseAnalyzer.getCallSites(criteria)) {
+      baselineSlice(
+          new SlicingCriteria(callSiteInfo, slicingParams),
+          methodVsAnalysisResult,
+          slicingCriteriaMap);
+    }
+  }
+
+  /** BaseAnalyzer.runBackwardSlicingAnalysisInternal as it was before the worklist. */
+  private static void baselineSlice(
+      SlicingCriteria slicingCriteria,
+      Map<MethodWrapper, List<Analysis>> methodVsAnalysisResult,
+      Map<SlicingCriteria, Boolean> slicingCriteriaMap) {
+
+    if (slicingCriteriaMap == null) {
+      slicingCriteriaMap = new HashMap<>();
+    }
+
+    MethodCallSiteInfo callSiteInfo = slicingCriteria.getMethodCallSiteInfo();
+    List<Integer> slicingParams = slicingCriteria.getParameters();
+
+    if (slicingCriteriaMap.get(slicingCriteria) != null) {
+      return;
+    }
+
+    slicingCriteriaMap.put(slicingCriteria, Boolean.TRUE);
+
+    MethodSlicingResult methodSlicingResult =
+        BaseAnalyzer.getInfluencingInstructions(
+            callSiteInfo, slicingParams, callSiteInfo.getCaller().getMethod());
+
+    if (methodSlicingResult.getPropertyUseMap() != null) {
+      for (String property : methodSlicingResult.getPropertyUseMap().keySet()) {
+        for (PropertyAnalysisResult propertyAnalysisResult :
+            methodSlicingResult.getPropertyUseMap().get(property)) {
+
+          methodVsAnalysisResult
+              .computeIfAbsent(propertyAnalysisResult.getMethodWrapper(), k -> new ArrayList<>())
+              .addAll(
+                  BaseAnalyzer.buildNewPropertyAnalysisList(
+                      callSiteInfo,
+                      methodSlicingResult.getAnalysisResult(),
+                      propertyAnalysisResult,
+                      methodVsAnalysisResult.get(callSiteInfo.getCallee())));
+
+          baselineSliceCallers(
+              propertyAnalysisResult.getMethodWrapper(),
+              propertyAnalysisResult.getInfluencingParams(),
+              methodVsAnalysisResult,
+              slicingCriteriaMap);
+        }
+      }
+    }
+
+    List<Analysis> newAnalysisList =
+        BaseAnalyzer.buildNewAnalysisList(
+            callSiteInfo,
+            methodSlicingResult.getAnalysisResult(),
+            methodVsAnalysisResult.get(callSiteInfo.getCallee()));
+
+    methodVsAnalysisResult
+        .computeIfAbsent(callSiteInfo.getCaller(), k -> new ArrayList<>())
+        .addAll(newAnalysisList);
+
+    baselineSliceCallers(
+        callSiteInfo.getCaller(),
+        methodSlicingResult.getInfluencingParameters(),
+        methodVsAnalysisResult,
+        slicingCriteriaMap);
+  }
+  //endregion
+}
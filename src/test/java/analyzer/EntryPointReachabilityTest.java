@@ -0,0 +1,133 @@
+/* Licensed under GPL-3.0 */
+package analyzer;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+import static test.TestUtilities.captureNewFileOutViaStdOut;
+import static test.TestUtilities.isLinux;
+import static util.Utils.makeArg;
+
+import frontEnd.MessagingSystem.routing.Listing;
+import frontEnd.MessagingSystem.routing.structure.Default.Issue;
+import frontEnd.MessagingSystem.routing.structure.Default.Report;
+import frontEnd.argsIdentifier;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.tools.ToolProvider;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rule.engine.EngineType;
+import soot.G;
+
+/**
+ * EntryPointReachabilityTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class EntryPointReachabilityTest {
+
+  //region Attributes
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+  //endregion
+
+  //region Tests
+
+  /** testFindReachable. */
+  @Test
+  public void testFindReachable() {
+    // main -> a -> b -> a, c is only called from the unreachable d
+    Map<String, List<String>> callees = new HashMap<>();
+    callees.put("main", Arrays.asList("a"));
+    callees.put("a", Arrays.asList("b"));
+    callees.put("b", Arrays.asList("a"));
+    callees.put("d", Arrays.asList("c"));
+
+    assertEquals(
+        Arrays.asList("main", "a", "b"),
+        new ArrayList<>(
+            EntryPointReachability.findReachable(
+                Collections.singletonList("main"),
+                node -> callees.getOrDefault(node, Collections.emptyList()))));
+  }
+
+  /** testParseEntryPoints. */
+  @Test
+  public void testParseEntryPoints() {
+    assertEquals(
+        Arrays.asList(
+            "com.example.Job",
+            "<com.example.Tool: void run(int,java.lang.String)>",
+            "<com.example.Tool: void <init>(int,int)>"),
+        EntryPointReachability.parseEntryPoints(
+            "com.example.Job, <com.example.Tool: void run(int,java.lang.String)>,,"
+                + "<com.example.Tool: void <init>(int,int)>"));
+  }
+
+  /** testDisabled. */
+  @Test
+  public void testDisabled() {
+    assertFalse(EntryPointReachability.DISABLED.isEnabled());
+    assertNull(
+        EntryPointReachability.DISABLED.findReachableMethods(
+            Arrays.asList("com.example.Main"), Collections.emptySet()));
+  }
+
+  /** testLambdaReachable. */
+  @Test
+  public void testLambdaReachable() throws Exception {
+    // The criteria is only called within lambda$main$0, which main never calls directly
+    File source = new File(tempDir.newFolder("app"), "Lambdas.java");
+    Files.write(
+        source.toPath(),
+        ("package app;\n"
+                + "public class Lambdas {\n"
+                + "  public static void main(String[] args) {\n"
+                + "    Runnable encrypt = () -> {\n"
+                + "      try {\n"
+                + "        javax.crypto.Cipher.getInstance(\"DES\");\n"
+                + "      } catch (Exception e) {\n"
+                + "        throw new IllegalStateException(e);\n"
+                + "      }\n"
+                + "    };\n"
+                + "    encrypt.run();\n"
+                + "  }\n"
+                + "}\n")
+            .getBytes(StandardCharsets.UTF_8));
+    assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, source.getPath()));
+
+    if (isLinux) {
+      G.reset();
+      File classFile = new File(source.getParentFile(), "Lambdas.class");
+      String fileOut = new File(tempDir.getRoot(), "lambdas.json").getPath();
+      String args =
+          makeArg(argsIdentifier.FORMAT, EngineType.CLASSFILES)
+              + makeArg(argsIdentifier.FORMATOUT, Listing.Default)
+              + makeArg(argsIdentifier.SOURCE, classFile.getPath())
+              + makeArg(argsIdentifier.REACHABLE)
+              + makeArg(argsIdentifier.NOEXIT)
+              + makeArg(argsIdentifier.OUT, fileOut);
+
+      Report report = Report.deserialize(new File(captureNewFileOutViaStdOut(args.split(" "))));
+
+      boolean found = false;
+      for (Issue issue : report.getIssues())
+        if (issue.getMessage().contains("DES")
+            && issue.getLocation() != null
+            && issue.getLocation().getMethodName().contains("lambda$")) found = true;
+      assertTrue(found);
+    }
+  }
+  //endregion
+}
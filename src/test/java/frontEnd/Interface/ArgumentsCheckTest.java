@@ -161,6 +161,30 @@ public class ArgumentsCheckTest {
     }
   }
 
+  /** paramaterCheck_gdl_WorkersWithHeuristics. */
+  @Test
+  public void paramaterCheck_gdl_WorkersWithHeuristics() {
+
+    String args =
+        makeArg(argsIdentifier.FORMAT, EngineType.DIR)
+            + makeArg(argsIdentifier.SOURCE, srcOneGrv)
+            + makeArg(argsIdentifier.OUT, fileOut)
+            + makeArg(argsIdentifier.FORMATOUT, Listing.ScarfXML)
+            + makeArg(argsIdentifier.WORKERS, 2)
+            + makeArg(argsIdentifier.HEURISTICS);
+
+    try {
+      EnvironmentInformation info =
+          ArgumentsCheck.paramaterCheck(Arrays.asList(cleaningArgs(args)));
+
+      assertEquals(2, info.getModuleWorkers());
+      assertTrue(info.getDisplayHeuristics());
+    } catch (Exception e) {
+      e.printStackTrace();
+      assertNull(e);
+    }
+  }
+
   /** paramaterCheck_jar. */
   @Test
   public void paramaterCheck_jar_enhancedInputFile() {
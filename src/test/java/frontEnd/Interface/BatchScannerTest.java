@@ -0,0 +1,126 @@
+/* Licensed under GPL-3.0 */
+package frontEnd.Interface;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.fail;
+
+import frontEnd.Interface.outputRouting.ExceptionHandler;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * BatchScannerTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class BatchScannerTest {
+
+  //region Attributes
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+  //endregion
+
+  //region Test Environment Setup
+  private String writeManifest(String name, String... lines) throws IOException {
+    File manifest = new File(tempDir.getRoot(), name);
+    Files.write(manifest.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+    return manifest.getPath();
+  }
+  //endregion
+
+  //region Tests
+
+  /** testLoadManifest. */
+  @Test
+  public void testLoadManifest() throws Exception {
+    List<BatchScanner.BatchTarget> targets =
+        BatchScanner.loadManifest(
+            writeManifest(
+                "targets.yaml",
+                "targets:",
+                "  - id: app",
+                "    format: jar",
+                "    source: [/builds/app.jar]",
+                "    dependency: /builds/libs",
+                "    args: [\"-depth\", \"2\"]",
+                "  - format: apk",
+                "    source: [/builds/mobile.apk]"));
+
+    assertEquals(2, targets.size());
+    assertEquals("mobile", targets.get(1).getId());
+
+    File outDir = tempDir.newFolder("reports");
+    assertEquals(
+        Arrays.asList(
+            "-in",
+            "jar",
+            "-s",
+            "/builds/app.jar",
+            "-d",
+            "/builds/libs",
+            "-o",
+            new File(outDir, "app").getPath(),
+            "-new",
+            "-depth",
+            "2",
+            "-m",
+            "D"),
+        BatchScanner.toJobArgs(targets.get(0), outDir, Arrays.asList("-m", "D")));
+  }
+
+  /** testParseJobTimeout. */
+  @Test
+  public void testParseJobTimeout() throws Exception {
+    assertEquals(
+        TimeUnit.MINUTES.toMillis(BatchScanner.DEFAULT_JOB_TIMEOUT),
+        BatchScanner.parseJobTimeout(null));
+    assertEquals(TimeUnit.MINUTES.toMillis(5), BatchScanner.parseJobTimeout("5"));
+    assertEquals(0, BatchScanner.parseJobTimeout("0"));
+    try {
+      BatchScanner.parseJobTimeout("-1");
+      fail("The negative timeout was accepted");
+    } catch (ExceptionHandler e) {
+      assertTrue(e.getMessage().contains("timeout"));
+    }
+  }
+
+  /** testRejectDuplicateIds. */
+  @Test
+  public void testRejectDuplicateIds() throws Exception {
+    try {
+      BatchScanner.loadManifest(
+          writeManifest(
+              "targets.json",
+              "{\"targets\": [",
+              "  {\"format\": \"jar\", \"source\": [\"/one/app.jar\"]},",
+              "  {\"format\": \"jar\", \"source\": [\"/two/app.jar\"]}]}"));
+      fail("The duplicate ids were accepted");
+    } catch (ExceptionHandler e) {
+      assertTrue(e.getMessage().contains("app"));
+    }
+  }
+
+  /** testRejectUnknownFormat. */
+  @Test
+  public void testRejectUnknownFormat() throws Exception {
+    try {
+      BatchScanner.loadManifest(
+          writeManifest(
+              "targets.yaml", "targets:", "  - format: war", "    source: [/builds/app.war]"));
+      fail("The unknown format was accepted");
+    } catch (ExceptionHandler e) {
+      assertTrue(e.getMessage().contains("app"));
+    }
+  }
+  //endregion
+}
@@ -0,0 +1,199 @@
+/* Licensed under GPL-3.0 */
+package frontEnd.Interface;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static test.TestUtilities.isLinux;
+import static test.TestUtilities.verySimple_Jar;
+import static test.TestUtilities.verySimple_Jar_NonVuln;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import frontEnd.Interface.outputRouting.ExceptionId;
+import frontEnd.MessagingSystem.routing.Listing;
+import frontEnd.MessagingSystem.routing.structure.Default.Issue;
+import frontEnd.MessagingSystem.routing.structure.Default.Report;
+import frontEnd.argsIdentifier;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rule.engine.EngineType;
+
+/**
+ * ScanDaemonTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class ScanDaemonTest {
+
+  //region Attributes
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+
+  private Thread daemon;
+  private Socket client;
+  private BufferedReader in;
+  private PrintWriter out;
+  //endregion
+
+  //region Test Environment Setup
+
+  /** setUp. */
+  @Before
+  public void setUp() throws Exception {
+    ServerSocket server = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+    daemon =
+        new Thread(
+            () -> {
+              try (ServerSocket serving = server) {
+                new ScanDaemon(serving).serve();
+              } catch (Exception e) {
+                e.printStackTrace();
+              }
+            });
+    daemon.start();
+
+    client = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+    in =
+        new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+    out =
+        new PrintWriter(
+            new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8), true);
+  }
+
+  /** tearDown. */
+  @After
+  public void tearDown() throws Exception {
+    if (daemon.isAlive()) send(mapper.createObjectNode().put("shutdown", true));
+    client.close();
+    daemon.join(10000);
+  }
+
+  private JsonNode send(JsonNode job) throws Exception {
+    out.println(mapper.writeValueAsString(job));
+    return mapper.readTree(in.readLine());
+  }
+
+  private ObjectNode scanJob(String id, String fileOut) {
+    return scanJob(id, verySimple_Jar, fileOut);
+  }
+
+  private ObjectNode scanJob(String id, String jar, String fileOut) {
+    ObjectNode job = mapper.createObjectNode().put("id", id);
+    job.putArray("args")
+        .add(argsIdentifier.FORMAT.getArg())
+        .add(EngineType.JAR.getFlag())
+        .add(argsIdentifier.SOURCE.getArg())
+        .add(jar)
+        .add(argsIdentifier.FORMATOUT.getArg())
+        .add(Listing.Default.getFlag())
+        .add(argsIdentifier.OUT.getArg())
+        .add(fileOut)
+        .add(argsIdentifier.NEW.getArg());
+    return job;
+  }
+
+  /** The findings of a report, without the ids numbering them within the report. */
+  private Set<String> findings(JsonNode reply) throws Exception {
+    assertEquals(ExceptionId.SUCCESS.getId().intValue(), reply.get("code").asInt());
+
+    Set<String> findings = new HashSet<>();
+    for (Issue issue : Report.deserialize(new File(reply.get("output").asText())).getIssues())
+      findings.add(
+          issue.getRuleNumber() + "|" + issue.getMessage() + "|" + issue.getDescription());
+    return findings;
+  }
+  //endregion
+
+  //region Tests
+
+  /** testInvalidJobs. */
+  @Test
+  public void testInvalidJobs() throws Exception {
+    out.println("{not json");
+    JsonNode reply = mapper.readTree(in.readLine());
+    assertEquals(ExceptionId.ARG_VALID.getId().intValue(), reply.get("code").asInt());
+
+    ObjectNode noArgs = mapper.createObjectNode().put("id", "none");
+    reply = send(noArgs);
+    assertEquals("none", reply.get("id").asText());
+    assertEquals(ExceptionId.ARG_VALID.getId().intValue(), reply.get("code").asInt());
+
+    ObjectNode nested = mapper.createObjectNode().put("id", "nested");
+    nested.putArray("args").add(argsIdentifier.DAEMON.getArg()).add("0");
+    assertEquals(ExceptionId.ARG_VALID.getId().intValue(), send(nested).get("code").asInt());
+
+    reply = send(mapper.createObjectNode().put("shutdown", true));
+    assertEquals(ExceptionId.SUCCESS.getId().intValue(), reply.get("code").asInt());
+    daemon.join(10000);
+    assertFalse(daemon.isAlive());
+  }
+
+  /** testRepeatedJobs. */
+  @Test
+  public void testRepeatedJobs() throws Exception {
+    if (isLinux) {
+      JsonNode first = send(scanJob("first", new File(tempDir.getRoot(), "first.json").getPath()));
+      JsonNode second =
+          send(scanJob("second", new File(tempDir.getRoot(), "second.json").getPath()));
+
+      assertEquals(ExceptionId.SUCCESS.getId().intValue(), first.get("code").asInt());
+      assertEquals(ExceptionId.SUCCESS.getId().intValue(), second.get("code").asInt());
+      assertEquals("second", second.get("id").asText());
+
+      Report firstReport = Report.deserialize(new File(first.get("output").asText()));
+      Report secondReport = Report.deserialize(new File(second.get("output").asText()));
+      assertFalse(firstReport.getIssues().isEmpty());
+      assertEquals(firstReport.getIssues().size(), secondReport.getIssues().size());
+    }
+  }
+
+  /** testJobsDoNotShareFindings. */
+  @Test
+  public void testJobsDoNotShareFindings() throws Exception {
+    if (isLinux) {
+      Set<String> before =
+          findings(
+              send(
+                  scanJob(
+                      "before",
+                      verySimple_Jar_NonVuln,
+                      new File(tempDir.getRoot(), "before.json").getPath())));
+      Set<String> vulnerable =
+          findings(
+              send(
+                  scanJob(
+                      "vulnerable",
+                      verySimple_Jar,
+                      new File(tempDir.getRoot(), "vulnerable.json").getPath())));
+      Set<String> after =
+          findings(
+              send(
+                  scanJob(
+                      "after",
+                      verySimple_Jar_NonVuln,
+                      new File(tempDir.getRoot(), "after.json").getPath())));
+
+      assertFalse(before.containsAll(vulnerable));
+      assertEquals(before, after);
+    }
+  }
+  //endregion
+}
@@ -0,0 +1,80 @@
+/* Licensed under GPL-3.0 */
+package rule.base;
+
+import static junit.framework.TestCase.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.junit.Test;
+
+/**
+ * CompiledPatternSetTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class CompiledPatternSetTest {
+
+  //region Attributes
+  private final List<String> brokenCrypto =
+      Arrays.asList(
+          "(.)*DES(.)*",
+          "(.)*DESede(.)*",
+          "\"AES\"",
+          "\"AES/ECB(.)*",
+          "(.)*RC4(.)*",
+          "PBEWithMD5AndDES");
+  private final List<String> httpUrl = Arrays.asList("\"http:(.)*", "\"http$");
+  private final String[] constants = {
+    "\"DES\"",
+    "\"desede\"",
+    "\"AES\"",
+    "\"aes\"",
+    "\"AES/ECB/PKCS5Padding\"",
+    "\"AES/GCM/NoPadding\"",
+    "\"RC4\"",
+    "PBEWithMD5AndDES",
+    "\"http://example.com\"",
+    "\"https://example.com\"",
+    "\"http",
+    "\"RSA\"",
+    "128",
+    ""
+  };
+  //endregion
+
+  //region Tests
+
+  /** testMatchesAsSequentialPatterns. */
+  @Test
+  public void testMatchesAsSequentialPatterns() {
+    for (List<String> patterns : Arrays.asList(brokenCrypto, httpUrl)) {
+      CompiledPatternSet patternSet = new CompiledPatternSet(patterns);
+
+      for (String constant : constants) {
+        int expected = -1;
+        for (int i = 0; i < patterns.size() && expected == -1; i++)
+          if (Pattern.compile(patterns.get(i), Pattern.CASE_INSENSITIVE)
+              .matcher(constant)
+              .matches()) expected = i;
+
+        assertEquals(constant, expected, patternSet.match(constant));
+      }
+    }
+  }
+
+  /** testFindRequiredLiteral. */
+  @Test
+  public void testFindRequiredLiteral() {
+    assertEquals("des", CompiledPatternSet.findRequiredLiteral("(.)*DES(.)*"));
+    assertEquals("\"aes/ecb", CompiledPatternSet.findRequiredLiteral("\"AES/ECB(.)*"));
+    assertEquals("\"http", CompiledPatternSet.findRequiredLiteral("\"http$"));
+    assertEquals("ab", CompiledPatternSet.findRequiredLiteral("abc?"));
+    assertNull(CompiledPatternSet.findRequiredLiteral("DES|AES"));
+    assertNull(CompiledPatternSet.findRequiredLiteral("(.)*"));
+  }
+  //endregion
+}
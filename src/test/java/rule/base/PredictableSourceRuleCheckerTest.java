@@ -0,0 +1,192 @@
+/* Licensed under GPL-3.0 */
+package rule.base;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+import static test.TestUtilities.loadSootJar;
+import static test.TestUtilities.sampleNoSub_Jar;
+import static test.TestUtilities.sampleUtil_Jar;
+import static test.TestUtilities.verySimple_Jar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import soot.IntType;
+import soot.LongType;
+import soot.RefType;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.SootMethodRef;
+import soot.Type;
+import soot.Unit;
+import soot.Value;
+import soot.VoidType;
+import soot.jimple.InvokeExpr;
+import soot.jimple.Jimple;
+import soot.jimple.StringConstant;
+
+/**
+ * PredictableSourceRuleCheckerTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class PredictableSourceRuleCheckerTest {
+
+  //region Test Environment Setup
+
+  private static SootMethodRef makeMethodRef(
+      String className, String name, List<Type> parameterTypes, Type returnType, boolean isStatic) {
+    SootClass sootClass = Scene.v().forceResolve(className, SootClass.SIGNATURES);
+    return Scene.v().makeMethodRef(sootClass, name, parameterTypes, returnType, isStatic);
+  }
+
+  /** The units assigning or invoking the predictable sources, along with ones that are close. */
+  private static List<Unit> makeSourceUnits() {
+    Jimple jimple = Jimple.v();
+    List<Type> none = Collections.emptyList();
+    RefType object = RefType.v("java.lang.Object");
+    RefType runtime = RefType.v("java.lang.Runtime");
+
+    List<InvokeExpr> staticInvokes =
+        Arrays.asList(
+            jimple.newStaticInvokeExpr(
+                makeMethodRef("java.lang.System", "nanoTime", none, LongType.v(), true)),
+            jimple.newStaticInvokeExpr(
+                makeMethodRef("java.lang.System", "currentTimeMillis", none, LongType.v(), true)),
+            jimple.newStaticInvokeExpr(
+                makeMethodRef(
+                    "java.lang.System",
+                    "identityHashCode",
+                    Collections.singletonList(object),
+                    IntType.v(),
+                    true),
+                Collections.<Value>singletonList(jimple.newLocal("r0", object))),
+            jimple.newStaticInvokeExpr(
+                makeMethodRef("java.lang.Runtime", "getRuntime", none, runtime, true)));
+
+    List<Unit> units = new ArrayList<>();
+    for (InvokeExpr invokeExpr : staticInvokes) {
+      units.add(jimple.newInvokeStmt(invokeExpr));
+      units.add(
+          jimple.newAssignStmt(
+              jimple.newLocal("l1", invokeExpr.getMethodRef().getReturnType()), invokeExpr));
+    }
+
+    RefType date = RefType.v("java.util.Date");
+    units.add(
+        jimple.newInvokeStmt(
+            jimple.newSpecialInvokeExpr(
+                jimple.newLocal("r1", date),
+                makeMethodRef(
+                    "java.util.Date", SootMethod.constructorName, none, VoidType.v(), false))));
+    units.add(
+        jimple.newAssignStmt(
+            jimple.newLocal("l2", LongType.v()),
+            jimple.newVirtualInvokeExpr(
+                jimple.newLocal("r1", date),
+                makeMethodRef("java.util.Date", "getTime", none, LongType.v(), false))));
+    return units;
+  }
+  //endregion
+
+  //region Tests
+
+  /** testInvokedSources. */
+  @Test
+  public void testInvokedSources() throws Exception {
+    loadSootJar(verySimple_Jar);
+    Jimple jimple = Jimple.v();
+    List<Type> none = Collections.emptyList();
+
+    SootMethodRef nanoTime =
+        makeMethodRef("java.lang.System", "nanoTime", none, LongType.v(), true);
+    assertTrue(
+        PredictableSourceRuleChecker.isPredictableSource(
+            jimple.newInvokeStmt(jimple.newStaticInvokeExpr(nanoTime))));
+    assertTrue(
+        PredictableSourceRuleChecker.isPredictableSource(
+            jimple.newAssignStmt(
+                jimple.newLocal("l0", LongType.v()), jimple.newStaticInvokeExpr(nanoTime))));
+
+    // The same method of another class
+    SootMethodRef otherNanoTime =
+        makeMethodRef("java.lang.Runtime", "nanoTime", none, LongType.v(), true);
+    assertFalse(
+        PredictableSourceRuleChecker.isPredictableSource(
+            jimple.newInvokeStmt(jimple.newStaticInvokeExpr(otherNanoTime))));
+  }
+
+  /** testSourceInConstant. */
+  @Test
+  public void testSourceInConstant() throws Exception {
+    loadSootJar(verySimple_Jar);
+    Jimple jimple = Jimple.v();
+    RefType string = RefType.v("java.lang.String");
+    String source = PredictableSourceRuleChecker.PREDICTABLE_SOURCES.get(0);
+
+    SootMethodRef valueOf =
+        makeMethodRef(
+            "java.lang.String",
+            "valueOf",
+            Collections.singletonList(RefType.v("java.lang.Object")),
+            string,
+            true);
+    Unit unit =
+        jimple.newAssignStmt(
+            jimple.newLocal("r0", string),
+            jimple.newStaticInvokeExpr(valueOf, StringConstant.v(source)));
+
+    // The unit prints a source, but it does not invoke one
+    assertTrue(unit.toString().contains(source));
+    assertFalse(PredictableSourceRuleChecker.isPredictableSource(unit));
+    assertFalse(
+        PredictableSourceRuleChecker.isPredictableSource(
+            jimple.newAssignStmt(jimple.newLocal("r1", string), StringConstant.v(source))));
+  }
+
+  /** testMatchesBaseline. */
+  @Test
+  public void testMatchesBaseline() throws Exception {
+    int checked = 0;
+    int predictable = 0;
+    for (String jar : Arrays.asList(verySimple_Jar, sampleUtil_Jar, sampleNoSub_Jar)) {
+      List<Unit> units = new ArrayList<>();
+      for (SootClass sootClass : loadSootJar(jar)) {
+        for (SootMethod method : new ArrayList<>(sootClass.getMethods())) {
+          if (method.isConcrete()) units.addAll(method.retrieveActiveBody().getUnits());
+        }
+      }
+      units.addAll(makeSourceUnits());
+
+      for (Unit unit : units) {
+        boolean expected = baselineIsPredictableSource(unit);
+        assertEquals(
+            unit.toString(), expected, PredictableSourceRuleChecker.isPredictableSource(unit));
+        if (expected) predictable++;
+        checked++;
+      }
+    }
+    assertTrue(checked > 0);
+    assertTrue(predictable > 0);
+  }
+  //endregion
+
+  //region Baseline
+
+  /** The check of PredictableSourceRuleChecker as it was, searching the text of the unit. */
+  private static boolean baselineIsPredictableSource(Unit unit) {
+    for (String predictableSource : PredictableSourceRuleChecker.PREDICTABLE_SOURCES) {
+      if (unit.toString().contains(predictableSource)) {
+        return true;
+      }
+    }
+    return false;
+  }
+  //endregion
+}
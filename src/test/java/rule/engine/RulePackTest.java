@@ -0,0 +1,167 @@
+/* Licensed under GPL-3.0 */
+package rule.engine;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.fail;
+
+import frontEnd.Interface.outputRouting.ExceptionHandler;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * RulePackTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class RulePackTest {
+
+  //region Attributes
+  private final List<File> rulePacks = new ArrayList<>();
+  //endregion
+
+  //region Test Environment Setup
+
+  /** tearDown. */
+  @After
+  public void tearDown() {
+    for (File rulePack : rulePacks) rulePack.delete();
+  }
+
+  private String writeRulePack(String suffix, String... lines) throws IOException {
+    File rulePack = File.createTempFile("rulePack", suffix);
+    rulePacks.add(rulePack);
+    Files.write(rulePack.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+    return rulePack.getAbsolutePath();
+  }
+  //endregion
+
+  //region Tests
+
+  /** testLoadYaml. */
+  @Test
+  public void testLoadYaml() throws Exception {
+    RulePack rulePack =
+        RulePack.load(
+            writeRulePack(
+                ".yaml",
+                "rules:",
+                "  - rule: \"1\"",
+                "    criteria:",
+                "      - className: com.example.crypto.Ciphers",
+                "        methodName: javax.crypto.Cipher create(java.lang.String)",
+                "        param: 0",
+                "    patterns:",
+                "      - \"(.)*SKIPJACK(.)*\""));
+
+    List<Criteria> base = new ArrayList<>();
+    List<Criteria> criteria = rulePack.withCriteria("1", base);
+    assertEquals(1, criteria.size());
+    assertEquals("com.example.crypto.Ciphers", criteria.get(0).getClassName());
+    assertEquals(0, criteria.get(0).getParam());
+
+    assertEquals(
+        Arrays.asList("\"AES\"", "(.)*SKIPJACK(.)*"),
+        rulePack.withPatterns("1", Arrays.asList("\"AES\"")));
+    assertTrue(rulePack.getCriteriaClasses().contains("com.example.crypto.Ciphers"));
+
+    assertSame(base, rulePack.withCriteria("2", base));
+  }
+
+  /** testLoadJson. */
+  @Test
+  public void testLoadJson() throws Exception {
+    RulePack rulePack =
+        RulePack.load(
+            writeRulePack(
+                ".json",
+                "{\"rules\": [{\"rule\": \"3\", \"criteria\": [{",
+                "  \"className\": \"com.example.crypto.Keys\",",
+                "  \"methodName\": \"void <init>(byte[])\",",
+                "  \"param\": 0}]}]}"));
+
+    assertEquals(1, rulePack.withCriteria("3", new ArrayList<>()).size());
+  }
+
+  /** testRejectUnknownRule. */
+  @Test
+  public void testRejectUnknownRule() throws Exception {
+    try {
+      RulePack.load(writeRulePack(".yaml", "rules:", "  - rule: \"99\""));
+      fail("The unknown rule was accepted");
+    } catch (ExceptionHandler e) {
+      assertTrue(e.getMessage().contains("99"));
+    }
+  }
+
+  /** testRejectPatternsOfRuleWithoutPatterns. */
+  @Test
+  public void testRejectPatternsOfRuleWithoutPatterns() throws Exception {
+    try {
+      RulePack.load(
+          writeRulePack(".yaml", "rules:", "  - rule: \"3\"", "    patterns:", "      - \"key\""));
+      fail("The patterns of a rule without patterns were accepted");
+    } catch (ExceptionHandler e) {
+      assertTrue(e.getMessage().contains("3"));
+    }
+  }
+
+  /** testRejectNumberedBackreference. */
+  @Test
+  public void testRejectNumberedBackreference() throws Exception {
+    try {
+      RulePack.load(
+          writeRulePack(".yaml", "rules:", "  - rule: \"1\"", "    patterns:", "      - '(a)\\1'"));
+      fail("The numbered backreference was accepted");
+    } catch (ExceptionHandler e) {
+      assertTrue(e.getMessage().contains("backreference"));
+    }
+  }
+
+  /** testRejectPatternsNotCompiledTogether. */
+  @Test
+  public void testRejectPatternsNotCompiledTogether() throws Exception {
+    // Valid on its own, the group name is taken by the first pattern of the rule once combined
+    try {
+      RulePack.load(
+          writeRulePack(
+              ".yaml", "rules:", "  - rule: \"1\"", "    patterns:", "      - '(?<p0>a)'"));
+      fail("The pattern clashing with the patterns of the rule was accepted");
+    } catch (ExceptionHandler e) {
+      assertTrue(e.getMessage().contains("invalid pattern"));
+    }
+  }
+
+  /** testLoadNamedBackreference. */
+  @Test
+  public void testLoadNamedBackreference() throws Exception {
+    RulePack rulePack =
+        RulePack.load(
+            writeRulePack(
+                ".yaml", "rules:", "  - rule: \"1\"", "    patterns:", "      - '(?<q>a)\\k<q>'"));
+
+    assertEquals(Arrays.asList("(?<q>a)\\k<q>"), rulePack.withPatterns("1", new ArrayList<>()));
+  }
+
+  /** testHasNumberedBackreference. */
+  @Test
+  public void testHasNumberedBackreference() {
+    assertTrue(RulePack.hasNumberedBackreference("(.)*(DES)\\2"));
+    assertFalse(RulePack.hasNumberedBackreference("\\\\1"));
+    assertFalse(RulePack.hasNumberedBackreference("\\Q\\1\\E"));
+    assertTrue(RulePack.hasNumberedBackreference("\\Q\\E(a)\\1"));
+    assertFalse(RulePack.hasNumberedBackreference("\\0101"));
+  }
+  //endregion
+}
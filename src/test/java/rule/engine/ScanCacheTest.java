@@ -0,0 +1,171 @@
+/* Licensed under GPL-3.0 */
+package rule.engine;
+
+import static junit.framework.TestCase.assertEquals;
+
+import frontEnd.MessagingSystem.AnalysisIssue;
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import util.ConstantPoolIndex;
+
+/**
+ * ScanCacheTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class ScanCacheTest {
+
+  //region Attributes
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+
+  private Map<String, String> hashes;
+  private Map<String, Set<String>> references;
+  private Map<String, Set<String>> fieldOwners;
+  //endregion
+
+  //region Test Environment Setup
+
+  /** setUp. */
+  @Before
+  public void setUp() {
+    // Main -> Service -> Crypto -> Keys, Report -> Service, Other is on its own
+    hashes = new HashMap<>();
+    references = new HashMap<>();
+    fieldOwners = new HashMap<>();
+    addClass(hashes, references, "app.Main", "1", "app.Service", "java.lang.String");
+    addClass(hashes, references, "app.Report", "2", "app.Service");
+    addClass(hashes, references, "app.Service", "3", "app.Crypto");
+    addClass(hashes, references, "app.Crypto", "4", "app.Keys", "javax.crypto.Cipher");
+    addClass(hashes, references, "app.Keys", "5");
+    addClass(hashes, references, "app.Other", "6", "java.lang.Object");
+  }
+
+  private static void addClass(
+      Map<String, String> hashes,
+      Map<String, Set<String>> references,
+      String className,
+      String hash,
+      String... referenced) {
+    hashes.put(className, hash);
+    references.put(className, new HashSet<>(Arrays.asList(referenced)));
+  }
+  //endregion
+
+  //region Tests
+
+  /** testNothingChanged. */
+  @Test
+  public void testNothingChanged() {
+    assertEquals(
+        new HashSet<>(),
+        ScanCache.findRescanScope(
+            hashes, references, fieldOwners, new HashMap<>(hashes), references, fieldOwners));
+  }
+
+  /** testChangedClass. */
+  @Test
+  public void testChangedClass() {
+    Map<String, String> changed = new HashMap<>(hashes);
+    changed.put("app.Service", "7");
+
+    assertEquals(
+        new HashSet<>(
+            Arrays.asList("app.Main", "app.Report", "app.Service", "app.Crypto", "app.Keys")),
+        ScanCache.findRescanScope(
+            hashes, references, fieldOwners, changed, references, fieldOwners));
+  }
+
+  /** testRemovedClass. */
+  @Test
+  public void testRemovedClass() {
+    Map<String, String> changed = new HashMap<>(hashes);
+    Map<String, Set<String>> changedReferences = new HashMap<>(references);
+    changed.remove("app.Report");
+    changedReferences.remove("app.Report");
+
+    assertEquals(
+        new HashSet<>(Arrays.asList("app.Report", "app.Service", "app.Crypto", "app.Keys")),
+        ScanCache.findRescanScope(
+            hashes, references, fieldOwners, changed, changedReferences, fieldOwners));
+  }
+
+  /** testAddedClass. */
+  @Test
+  public void testAddedClass() {
+    Map<String, String> changed = new HashMap<>(hashes);
+    Map<String, Set<String>> changedReferences = new HashMap<>(references);
+    addClass(changed, changedReferences, "app.Audit", "8", "app.Keys");
+
+    assertEquals(
+        new HashSet<>(Arrays.asList("app.Audit", "app.Keys")),
+        ScanCache.findRescanScope(
+            hashes, references, fieldOwners, changed, changedReferences, fieldOwners));
+  }
+
+  /** testChangedFieldWriter. */
+  @Test
+  public void testChangedFieldWriter() {
+    // Writer sets Config.mode, Reader reads it without referring to Writer
+    addClass(hashes, references, "app.Config", "8");
+    addClass(hashes, references, "app.Writer", "9", "app.Config");
+    addClass(hashes, references, "app.Reader", "10", "app.Config", "javax.crypto.Cipher");
+    fieldOwners.put("app.Writer", new HashSet<>(Arrays.asList("app.Config")));
+    fieldOwners.put("app.Reader", new HashSet<>(Arrays.asList("app.Config")));
+
+    Map<String, String> changed = new HashMap<>(hashes);
+    changed.put("app.Writer", "11");
+
+    assertEquals(
+        new HashSet<>(Arrays.asList("app.Writer", "app.Config", "app.Reader")),
+        ScanCache.findRescanScope(
+            hashes, references, fieldOwners, changed, references, fieldOwners));
+  }
+
+  /** testMergeIssuesWithoutClass. */
+  @Test
+  public void testMergeIssuesWithoutClass() throws Exception {
+    ConstantPoolIndex index = new ConstantPoolIndex();
+    try (InputStream in = getClass().getResourceAsStream("ScanCacheTest.class")) {
+      index.addClass(in);
+    }
+    String cacheDir = tempDir.getRoot().getPath();
+    List<String> target = Collections.singletonList(new File(cacheDir, "app.jar").getPath());
+
+    AnalysisIssue classIssue = new AnalysisIssue(1);
+    classIssue.setClassName(ScanCacheTest.class.getName());
+    classIssue.setInfo("Found: \"DES\"");
+    AnalysisIssue projectIssue = new AnalysisIssue(2);
+    projectIssue.setInfo("Found: \"http://\"");
+
+    ScanCache.open(cacheDir, EngineType.JAR, target, null, index)
+        .save(Arrays.asList(classIssue, projectIssue));
+
+    ScanCache cache = ScanCache.open(cacheDir, EngineType.JAR, target, null, index);
+    assertEquals(new HashSet<>(), cache.getRescanScope());
+
+    List<String> merged = new ArrayList<>();
+    for (AnalysisIssue issue : cache.merge(Collections.singletonList(projectIssue)))
+      merged.add(ScanCache.CachedIssue.of(issue).toString());
+
+    assertEquals(
+        Arrays.asList(
+            ScanCache.CachedIssue.of(projectIssue).toString(),
+            ScanCache.CachedIssue.of(classIssue).toString()),
+        merged);
+  }
+  //endregion
+}
@@ -0,0 +1,133 @@
+/* Licensed under GPL-3.0 */
+package rule.engine;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+import analyzer.ProgramModel;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import util.ConstantPoolIndex;
+import util.Utils;
+
+/**
+ * ScanEngineTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class ScanEngineTest {
+
+  //region Attributes
+  private static final String CIPHER = "javax.crypto.Cipher";
+  private static final String GET_INSTANCE = "javax.crypto.Cipher getInstance(java.lang.String)";
+
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+
+  private List<String> platformJars;
+  private ConstantPoolIndex index;
+  //endregion
+
+  //region Test Environment Setup
+
+  /** A platform class. */
+  public static class Platform {
+    /** run. */
+    public void run() {}
+  }
+
+  /** A class of the target, only calling the platform class. */
+  public static class Caller {
+    /** call. */
+    public void call() {
+      new Platform().run();
+    }
+  }
+
+  /** setUp. */
+  @Before
+  public void setUp() throws IOException {
+    String platformJar = new File(tempDir.getRoot(), "platform.jar").getPath();
+    platformJars = Collections.singletonList(platformJar);
+
+    try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(platformJar))) {
+      out.putNextEntry(new ZipEntry(Platform.class.getName().replace('.', '/') + ".class"));
+      try (InputStream in = getClassFile(Platform.class)) {
+        byte[] buffer = new byte[4096];
+        for (int read = in.read(buffer); read != -1; read = in.read(buffer))
+          out.write(buffer, 0, read);
+      }
+      out.closeEntry();
+    }
+
+    index = new ConstantPoolIndex();
+    try (InputStream in = getClassFile(Caller.class)) {
+      index.addClass(in);
+    }
+  }
+
+  private InputStream getClassFile(Class<?> clazz) {
+    return getClass().getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class");
+  }
+
+  private ProgramModel getModel() {
+    List<String> classNames = Collections.singletonList(Caller.class.getName());
+    return new ProgramModel(
+        EngineType.JAR, classNames, classNames, Collections.emptyMap(), index);
+  }
+  //endregion
+
+  //region Tests
+
+  /** testCriteriaSkippedWithoutCache. */
+  @Test
+  public void testCriteriaSkippedWithoutCache() throws Exception {
+    assertTrue(getModel().isCriteriaReferenced(CIPHER, GET_INSTANCE));
+
+    ScanEngine.resolvePlatform(index, null, platformJars);
+
+    assertFalse(getModel().isCriteriaReferenced(CIPHER, GET_INSTANCE));
+    assertTrue(getModel().isCriteriaReferenced(Platform.class.getName(), "void run()"));
+    assertFalse(index.mayUseClass(CIPHER));
+  }
+
+  /** testCriteriaKeptWithoutPlatformJars. */
+  @Test
+  public void testCriteriaKeptWithoutPlatformJars() throws Exception {
+    ScanEngine.resolvePlatform(
+        index, null, Collections.singletonList(new File(tempDir.getRoot(), "rt.jar").getPath()));
+
+    assertTrue(getModel().isCriteriaReferenced(CIPHER, GET_INSTANCE));
+    assertTrue(index.mayUseClass(CIPHER));
+  }
+
+  /** testPlatformJars. */
+  @Test
+  public void testPlatformJars() {
+    String javaHome = tempDir.getRoot().getPath();
+    List<String> apk = Collections.singletonList(new File(javaHome, "app.apk").getPath());
+
+    assertEquals(
+        Utils.getBaseSootJars(javaHome),
+        ScanEngine.getPlatformJars(EngineType.JAR, platformJars, null, javaHome));
+    assertNull(ScanEngine.getPlatformJars(EngineType.JAR, platformJars, null, null));
+
+    // The android classes of an APK are not ruled out against the JDK alone
+    assertNull(ScanEngine.getPlatformJars(EngineType.APK, apk, null, javaHome));
+    assertNull(ScanEngine.getPlatformJars(EngineType.APK, apk, javaHome, javaHome));
+  }
+  //endregion
+}
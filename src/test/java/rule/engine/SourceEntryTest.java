@@ -0,0 +1,117 @@
+/* Licensed under GPL-3.0 */
+package rule.engine;
+
+import static junit.framework.TestCase.assertEquals;
+
+import frontEnd.MessagingSystem.AnalysisIssue;
+import frontEnd.MessagingSystem.AnalysisLocation;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import util.Utils;
+
+/**
+ * SourceEntryTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class SourceEntryTest {
+
+  //region Attributes
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+  //endregion
+
+  //region Test Environment Setup
+
+  /** cleanUp. */
+  @After
+  public void cleanUp() {
+    Utils.resetHeuristics();
+  }
+  //endregion
+
+  //region Tests
+
+  /** testPlanModuleScans. */
+  @Test
+  public void testPlanModuleScans() {
+    // app -> core -> util, tool is on its own
+    Map<String, List<String>> moduleVsDependency = new HashMap<>();
+    moduleVsDependency.put("util", Arrays.asList("/project/util/src/main/java"));
+    moduleVsDependency.put(
+        "core", Arrays.asList("/project/util/src/main/java", "/project/core/src/main/java"));
+    moduleVsDependency.put(
+        "app",
+        Arrays.asList(
+            "/project/util/src/main/java",
+            "/project/core/src/main/java",
+            "/project/app/src/main/java"));
+    moduleVsDependency.put("tool", Arrays.asList("/project/tool/src/main/java"));
+
+    Map<String, List<String>> moduleScans =
+        SourceEntry.planModuleScans(moduleVsDependency, "/project");
+
+    assertEquals(Arrays.asList("app", "tool"), Arrays.asList(moduleScans.keySet().toArray()));
+    assertEquals(moduleVsDependency.get("app"), moduleScans.get("app"));
+  }
+
+  /** testPlanRootModule. */
+  @Test
+  public void testPlanRootModule() {
+    Map<String, List<String>> moduleVsDependency =
+        Collections.singletonMap("project", Arrays.asList("/project/src/main/java"));
+
+    assertEquals(moduleVsDependency, SourceEntry.planModuleScans(moduleVsDependency, "/project"));
+  }
+
+  /** testIssues. */
+  @Test
+  public void testIssues() throws Exception {
+    AnalysisIssue issue = new AnalysisIssue(1);
+    issue.setClassName("app.Crypto");
+    issue.setInfo("Found: \"DES\"");
+    issue.addMethod("<app.Crypto: void encrypt()>", new AnalysisLocation(12, 12, 0));
+
+    File issuesFile = tempDir.newFile("module0.json");
+    SourceEntry.writeIssues(issuesFile, Collections.singletonList(issue));
+    List<AnalysisIssue> issues = SourceEntry.readIssues(issuesFile);
+
+    assertEquals(1, issues.size());
+    assertEquals(
+        ScanCache.CachedIssue.of(issue).toString(),
+        ScanCache.CachedIssue.of(issues.get(0)).toString());
+  }
+
+  /** testHeuristicsSummed. */
+  @Test
+  public void testHeuristicsSummed() throws Exception {
+    Utils.initDepth(2);
+    Utils.resetHeuristics();
+    Utils.NUM_SLICES.set(3);
+    Utils.SLICE_LENGTH.addAll(Arrays.asList(2, 4, 6));
+    Utils.DEPTH_COUNT.set(0, 3);
+
+    // Two workers scanning a module each, summed into the project scan
+    File heuristicsFile = tempDir.newFile("module0.json.heuristics");
+    SourceEntry.writeHeuristics(heuristicsFile, SourceEntry.ModuleHeuristics.counted());
+    Utils.resetHeuristics();
+    SourceEntry.readHeuristics(heuristicsFile).addToCounted();
+    SourceEntry.readHeuristics(heuristicsFile).addToCounted();
+
+    assertEquals(6, Utils.NUM_SLICES.get());
+    assertEquals(Arrays.asList(2, 4, 6, 2, 4, 6), Utils.SLICE_LENGTH);
+    assertEquals(4.0, Utils.calculateAverage(), 0.0);
+    assertEquals(6, Utils.DEPTH_COUNT.get(0));
+    assertEquals(0, Utils.DEPTH_COUNT.get(1));
+  }
+  //endregion
+}
@@ -0,0 +1,216 @@
+/* Licensed under GPL-3.0 */
+package slicer;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+import static test.TestUtilities.loadSootJar;
+import static test.TestUtilities.sampleNoSub_Jar;
+import static test.TestUtilities.sampleUtil_Jar;
+import static test.TestUtilities.verySimple_Jar;
+
+import analyzer.backward.UnitContainer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import soot.EquivTo;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.ValueBox;
+import soot.toolkits.scalar.FlowSet;
+
+/**
+ * IndexedValueSparseSetTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class IndexedValueSparseSetTest {
+
+  //region Test Environment Setup
+
+  /** An element printing a given text. */
+  private static class Text {
+    private final String text;
+
+    Text(String text) {
+      this.text = text;
+    }
+
+    @Override
+    public String toString() {
+      return text;
+    }
+  }
+
+  /** An element equivalent to the others of the same id, whatever their text. */
+  private static class Equiv extends Text implements EquivTo {
+    private final int id;
+
+    Equiv(int id, String text) {
+      super(text);
+      this.id = id;
+    }
+
+    @Override
+    public boolean equivTo(Object o) {
+      return o instanceof Equiv && ((Equiv) o).id == id;
+    }
+
+    @Override
+    public int equivHashCode() {
+      return id;
+    }
+  }
+
+  /**
+   * The elements the slicers put in their sets for the method: a container of each unit, twice so
+   * that equal texts meet, and the values the units use, compared by their equivalence.
+   */
+  private static List<Object> toElements(SootMethod method) {
+    List<Object> elements = new ArrayList<>();
+    for (Unit unit : method.retrieveActiveBody().getUnits()) {
+      for (int copy = 0; copy < 2; copy++) {
+        UnitContainer container = new UnitContainer();
+        container.setUnit(unit);
+        container.setMethod(method.toString());
+        elements.add(container);
+      }
+      for (ValueBox useBox : unit.getUseBoxes()) elements.add(useBox.getValue());
+    }
+    return elements;
+  }
+
+  private static void assertSame(String where, FlowSet baseline, FlowSet indexed) {
+    assertEquals(where, baseline.size(), indexed.size());
+    assertEquals(where, baseline.toList().toString(), indexed.toList().toString());
+  }
+  //endregion
+
+  //region Tests
+
+  /** testSameTextKeptOnce. */
+  @Test
+  public void testSameTextKeptOnce() {
+    Text first = new Text("return r0");
+    Text second = new Text("return r0");
+
+    IndexedValueSparseSet set = new IndexedValueSparseSet();
+    set.add(first);
+    set.add(second);
+
+    assertEquals(1, set.size());
+    assertTrue(set.toList().get(0) == first);
+    assertTrue(set.contains(second));
+
+    // The text of a removed element is no longer indexed, the other one can take its place
+    set.remove(second);
+    assertEquals(1, set.size());
+    set.remove(first);
+    assertFalse(set.contains(second));
+    set.add(second);
+    assertTrue(set.toList().get(0) == second);
+  }
+
+  /** testSameTextInUnion. */
+  @Test
+  public void testSameTextInUnion() {
+    IndexedValueSparseSet set = new IndexedValueSparseSet();
+    IndexedValueSparseSet other = new IndexedValueSparseSet();
+    set.add(new Text("r0 = 1"));
+    other.add(new Text("r0 = 1"));
+    other.add(new Text("r1 = 2"));
+
+    assertFalse(set.equals(other));
+    set.union(other, set);
+
+    assertEquals(2, set.size());
+    assertTrue(set.equals(other));
+  }
+
+  /** testEquivalentElements. */
+  @Test
+  public void testEquivalentElements() {
+    Equiv element = new Equiv(1, "a");
+
+    IndexedValueSparseSet set = new IndexedValueSparseSet();
+    set.add(element);
+    set.add(new Equiv(1, "b"));
+
+    assertEquals(1, set.size());
+    assertTrue(set.contains(new Equiv(1, "c")));
+    assertFalse(set.contains(new Equiv(2, "c")));
+
+    IndexedValueSparseSet copy = set.clone();
+    set.remove(element);
+    assertFalse(set.contains(new Equiv(1, "c")));
+    assertTrue(copy.contains(new Equiv(1, "c")));
+  }
+
+  /** testMatchesBaseline. */
+  @Test
+  public void testMatchesBaseline() throws Exception {
+    Random random = new Random(42);
+    int checked = 0;
+
+    for (String jar : Arrays.asList(verySimple_Jar, sampleUtil_Jar, sampleNoSub_Jar)) {
+      for (SootClass sootClass : loadSootJar(jar)) {
+        for (SootMethod method : new ArrayList<>(sootClass.getMethods())) {
+          if (!method.isConcrete()) continue;
+
+          List<Object> elements = toElements(method);
+          FlowSet[] baseline = {new ValueArraySparseSet(), new ValueArraySparseSet()};
+          FlowSet[] indexed = {new IndexedValueSparseSet(), new IndexedValueSparseSet()};
+
+          for (int step = 0; step < 4 * elements.size(); step++) {
+            Object element = elements.get(random.nextInt(elements.size()));
+            int set = random.nextInt(2);
+            String where = method + " at step " + step;
+
+            switch (random.nextInt(7)) {
+              case 0:
+              case 1:
+                baseline[set].add(element);
+                indexed[set].add(element);
+                break;
+              case 2:
+                baseline[set].remove(element);
+                indexed[set].remove(element);
+                break;
+              case 3:
+                baseline[set].union(baseline[1 - set], baseline[set]);
+                indexed[set].union(indexed[1 - set], indexed[set]);
+                break;
+              case 4:
+                FlowSet baselineDest = baseline[set].emptySet();
+                FlowSet indexedDest = indexed[set].emptySet();
+                baseline[set].intersection(baseline[1 - set], baselineDest);
+                indexed[set].intersection(indexed[1 - set], indexedDest);
+                assertSame(where, baselineDest, indexedDest);
+                break;
+              case 5:
+                baseline[set].difference(baseline[1 - set], baseline[set]);
+                indexed[set].difference(indexed[1 - set], indexed[set]);
+                break;
+              default:
+                assertEquals(
+                    where, baseline[set].contains(element), indexed[set].contains(element));
+                baseline[set] = baseline[set].clone();
+                indexed[set] = indexed[set].clone();
+            }
+
+            assertSame(where, baseline[set], indexed[set]);
+            assertEquals(where, baseline[0].equals(baseline[1]), indexed[0].equals(indexed[1]));
+            checked++;
+          }
+        }
+      }
+    }
+    assertTrue(checked > 0);
+  }
+  //endregion
+}
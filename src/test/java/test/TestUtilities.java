@@ -4,10 +4,16 @@ package test;
 import static junit.framework.TestCase.assertTrue;
 
 import frontEnd.Interface.EntryPoint;
+import frontEnd.Interface.outputRouting.ExceptionHandler;
 import java.io.*;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import org.apache.commons.lang3.StringUtils;
+import soot.G;
+import soot.Scene;
+import soot.SootClass;
+import soot.options.Options;
 import util.Utils;
 
 /**
@@ -227,6 +233,11 @@ public class TestUtilities {
   public static final String verySimple_Klass_NonVuln =
       Utils.osPathJoin(verySimple_Path_NonVuln, "very.class");
 
+  public static final String sampleUtil_Jar =
+      Utils.osPathJoin(testRec, "mvn-sample-master", "sample-util-1.0-SNAPSHOT.jar");
+  public static final String sampleNoSub_Jar =
+      Utils.osPathJoin(testRec, "gradle-nosub-master", "gradle-nosub-1.0-SNAPSHOT.jar");
+
   public static final String verySimple_Path = Utils.osPathJoin(testRec, "VerySimple");
   public static final String verySimple_Jar = Utils.osPathJoin(verySimple_Path, "very.jar");
   public static final String verySimple_Jar_xml = Utils.osPathJoin(testPath, "verySimple_jar.xml");
@@ -277,6 +288,31 @@ public class TestUtilities {
               Utils.osPathJoin(classSource, "PassEncryptor.class")));
   //endregion
 
+  /**
+   * Loads the classes of the jar into a new SOOT scene as application classes, along with the JDK
+   * of <code>JAVA_HOME</code>, for the tests comparing what is built from their bodies.
+   *
+   * @param jar a {@link java.lang.String} object.
+   * @return a {@link java.util.List} object, the classes of the jar.
+   * @throws frontEnd.Interface.outputRouting.ExceptionHandler if any.
+   */
+  public static List<SootClass> loadSootJar(String jar) throws ExceptionHandler {
+    G.reset();
+    Options.v().set_keep_line_number(true);
+    Options.v().set_allow_phantom_refs(true);
+    Scene.v()
+        .setSootClassPath(Utils.join(":", jar, Utils.getBaseSoot(System.getenv("JAVA_HOME"))));
+
+    List<SootClass> classes = new ArrayList<>();
+    for (String className : Utils.getClassNamesFromJarArchive(jar)) {
+      SootClass sootClass = Scene.v().loadClassAndSupport(className);
+      sootClass.setApplicationClass();
+      classes.add(sootClass);
+    }
+    Scene.v().loadNecessaryClasses();
+    return classes;
+  }
+
   public static String[] cleaningArgs(String arg) {
     ArrayList<String> cleanArgs = new ArrayList<>(Arrays.asList(arg.split(" ")));
     cleanArgs.removeIf(StringUtils::isEmpty);
@@ -0,0 +1,93 @@
+/* Licensed under GPL-3.0 */
+package util;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * ArchiveIndexTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class ArchiveIndexTest {
+
+  //region Attributes
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+  //endregion
+
+  //region Test Environment Setup
+  private String writeJar(String... entries) throws IOException {
+    File jar = tempDir.newFile("app.jar");
+    try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+      for (String entry : entries) {
+        out.putNextEntry(new ZipEntry(entry));
+        out.write(("<" + entry + "/>").getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+      }
+    }
+    return jar.getPath();
+  }
+
+  /** tearDown. */
+  @After
+  public void tearDown() {
+    ArchiveIndex.reset();
+  }
+  //endregion
+
+  //region Tests
+
+  /** testOpen. */
+  @Test
+  public void testOpen() throws Exception {
+    String jar =
+        writeJar(
+            "com/example/Main.class",
+            "com/example/Main$Inner.class",
+            "META-INF/maven/pom.xml",
+            "WEB-INF/web.xml",
+            "spring/beans.xml");
+
+    ArchiveIndex index = ArchiveIndex.open(jar);
+    assertSame(index, ArchiveIndex.open(jar));
+
+    assertEquals(
+        Arrays.asList("com.example.Main", "com.example.Main$Inner"), index.getClassNames());
+
+    Map<String, String> xmlFiles = index.getXmlFiles(Arrays.asList("web.xml", "pom.xml"));
+    assertEquals(Collections.singleton("spring/beans.xml"), xmlFiles.keySet());
+    assertEquals("<spring/beans.xml/>", xmlFiles.get("spring/beans.xml"));
+    assertEquals(3, index.getXmlFiles(Collections.emptyList()).size());
+  }
+
+  /** testIsArchive. */
+  @Test
+  public void testIsArchive() throws Exception {
+    File source = tempDir.newFile("Main.java");
+    Files.write(source.toPath(), Arrays.asList("class Main {}"), StandardCharsets.UTF_8);
+
+    assertTrue(ArchiveIndex.isArchive(writeJar("com/example/Main.class")));
+    assertFalse(ArchiveIndex.isArchive(source.getPath()));
+    assertFalse(ArchiveIndex.isArchive(tempDir.getRoot().getPath()));
+  }
+  //endregion
+}
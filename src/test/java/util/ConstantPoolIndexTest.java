@@ -0,0 +1,55 @@
+/* Licensed under GPL-3.0 */
+package util;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.Test;
+
+/**
+ * ConstantPoolIndexTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class ConstantPoolIndexTest {
+
+  //region Tests
+
+  /** testToSootSignature. */
+  @Test
+  public void testToSootSignature() {
+    assertEquals(
+        "<javax.crypto.Cipher: javax.crypto.Cipher getInstance(java.lang.String)>",
+        ConstantPoolIndex.toSootSignature(
+            "javax/crypto/Cipher", "getInstance", "(Ljava/lang/String;)Ljavax/crypto/Cipher;"));
+    assertEquals(
+        "<javax.crypto.spec.PBEKeySpec: void <init>(char[],byte[],int,int)>",
+        ConstantPoolIndex.toSootSignature("javax/crypto/spec/PBEKeySpec", "<init>", "([C[BII)V"));
+  }
+
+  /** testMayCall. */
+  @Test
+  public void testMayCall() throws IOException {
+    ConstantPoolIndex index = new ConstantPoolIndex();
+    try (InputStream in = getClass().getResourceAsStream("ConstantPoolIndexTest.class")) {
+      index.addClass(in);
+    }
+
+    assertTrue(
+        index.mayCall(
+            "java.lang.Class",
+            "<java.lang.Class: java.io.InputStream getResourceAsStream(java.lang.String)>"));
+    assertTrue(index.mayCall("java.lang.Object", "<java.lang.Object: java.lang.String toString()>"));
+
+    // Nothing is ruled out until the platform classes are resolved
+    assertTrue(
+        index.mayCall(
+            "javax.crypto.Cipher",
+            "<javax.crypto.Cipher: javax.crypto.Cipher getInstance(java.lang.String)>"));
+  }
+  //endregion
+}
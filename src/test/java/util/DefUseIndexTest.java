@@ -0,0 +1,338 @@
+/* Licensed under GPL-3.0 */
+package util;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+import static test.TestUtilities.loadSootJar;
+import static test.TestUtilities.sampleNoSub_Jar;
+import static test.TestUtilities.sampleUtil_Jar;
+import static test.TestUtilities.verySimple_Jar;
+
+import analyzer.backward.ParamFakeUnitContainer;
+import analyzer.backward.PropertyFakeUnitContainer;
+import analyzer.backward.UnitContainer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import soot.ArrayType;
+import soot.Local;
+import soot.RefType;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.SootMethodRef;
+import soot.Unit;
+import soot.Value;
+import soot.ValueBox;
+import soot.jimple.AssignStmt;
+import soot.jimple.Constant;
+import soot.jimple.FieldRef;
+import soot.jimple.IdentityStmt;
+import soot.jimple.InvokeExpr;
+import soot.jimple.Jimple;
+import soot.jimple.ParameterRef;
+import soot.jimple.StringConstant;
+import soot.jimple.internal.JAssignStmt;
+import soot.jimple.internal.JInvokeStmt;
+
+/**
+ * DefUseIndexTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class DefUseIndexTest {
+
+  //region Test Environment Setup
+
+  /**
+   * The units of the method as a slice, from the last one back to the first. A parameter and a
+   * field written are followed by the fake units the slicers add for them.
+   */
+  private static List<UnitContainer> toSlice(SootMethod method) {
+    List<Unit> units = new ArrayList<>(method.retrieveActiveBody().getUnits());
+    Collections.reverse(units);
+
+    List<UnitContainer> slice = new ArrayList<>();
+    for (Unit unit : units) {
+      UnitContainer container = new UnitContainer();
+      container.setUnit(unit);
+      container.setMethod(method.toString());
+      slice.add(container);
+
+      if (unit instanceof IdentityStmt
+          && ((IdentityStmt) unit).getRightOp() instanceof ParameterRef) {
+        ParamFakeUnitContainer param = new ParamFakeUnitContainer();
+        param.setUnit(unit);
+        param.setParam(((ParameterRef) ((IdentityStmt) unit).getRightOp()).getIndex());
+        param.setCallee(method.toString());
+        param.setMethod(method.toString());
+        slice.add(param);
+      }
+
+      if (unit instanceof AssignStmt && ((AssignStmt) unit).getLeftOp() instanceof FieldRef) {
+        PropertyFakeUnitContainer property = new PropertyFakeUnitContainer();
+        property.setUnit(unit);
+        property.setMethod(method.toString());
+        property.setOriginalProperty(
+            ((FieldRef) ((AssignStmt) unit).getLeftOp()).getField().getSignature());
+        slice.add(property);
+      }
+    }
+    return slice;
+  }
+
+  private static UnitContainer toContainer(Unit unit) {
+    UnitContainer container = new UnitContainer();
+    container.setUnit(unit);
+    container.setMethod("<Caller: void call()>");
+    return container;
+  }
+
+  /** An invoke of <code>String.valueOf</code> on the local. */
+  private static Unit makeInvoke(Local arg) {
+    SootClass string = Scene.v().forceResolve("java.lang.String", SootClass.SIGNATURES);
+    SootMethodRef valueOf =
+        Scene.v()
+            .makeMethodRef(
+                string,
+                "valueOf",
+                Collections.singletonList(RefType.v("java.lang.Object")),
+                RefType.v("java.lang.String"),
+                true);
+    return Jimple.v().newInvokeStmt(Jimple.v().newStaticInvokeExpr(valueOf, arg));
+  }
+
+  /** The units reached, the baseline adds a unit again for each of its uses matched. */
+  private static List<String> printed(List<UnitContainer> outSet) {
+    Set<String> printed = new LinkedHashSet<>();
+    for (UnitContainer container : outSet) printed.add(container.toString());
+    return new ArrayList<>(printed);
+  }
+  //endregion
+
+  //region Tests
+
+  /** testSamePrintTrackedOnce. */
+  @Test
+  public void testSamePrintTrackedOnce() throws Exception {
+    loadSootJar(verySimple_Jar);
+    Jimple jimple = Jimple.v();
+    Local r1 = jimple.newLocal("r1", RefType.v("java.lang.String"));
+    Local r2 = jimple.newLocal("r2", RefType.v("java.lang.String"));
+    Unit copy = jimple.newAssignStmt(r2, r1);
+
+    // The copy is in the slice twice, from two paths of the slicer
+    List<UnitContainer> slice =
+        Arrays.asList(
+            toContainer(makeInvoke(r2)),
+            toContainer(copy),
+            toContainer(copy),
+            toContainer(jimple.newAssignStmt(r1, StringConstant.v("key"))));
+
+    List<UnitContainer> outSet = new ArrayList<>();
+    assertSame(slice.get(0), new DefUseIndex(slice).findInvokeUsing(3, outSet));
+    assertEquals(Arrays.asList(slice.get(3), slice.get(2)), outSet);
+  }
+
+  /** testPrintWithinConstantTracked. */
+  @Test
+  public void testPrintWithinConstantTracked() throws Exception {
+    loadSootJar(verySimple_Jar);
+    Jimple jimple = Jimple.v();
+    Local r1 = jimple.newLocal("r1", RefType.v("java.lang.String"));
+    Local r2 = jimple.newLocal("r2", RefType.v("java.lang.String"));
+    UnitContainer copy = toContainer(jimple.newAssignStmt(r2, r1));
+    UnitContainer constant = new UnitContainer();
+    constant.setUnit(jimple.newAssignStmt(r1, StringConstant.v("key")));
+    constant.setMethod(copy.toString());
+
+    // The print of the constant holds the print of the copy, the copy is still a distinct unit
+    assertTrue(constant.toString().contains(copy.toString()));
+    List<UnitContainer> slice = Arrays.asList(toContainer(makeInvoke(r2)), copy, constant);
+
+    List<UnitContainer> outSet = new ArrayList<>();
+    assertSame(slice.get(0), new DefUseIndex(slice).findInvokeUsing(2, outSet));
+    assertEquals(Arrays.asList(constant, copy), outSet);
+  }
+
+  /** testMatchesBaseline. */
+  @Test
+  public void testMatchesBaseline() throws Exception {
+    int checked = 0;
+    for (String jar : Arrays.asList(verySimple_Jar, sampleUtil_Jar, sampleNoSub_Jar)) {
+      for (SootClass sootClass : loadSootJar(jar)) {
+        for (SootMethod method : new ArrayList<>(sootClass.getMethods())) {
+          if (!method.isConcrete()) continue;
+
+          List<UnitContainer> slice = toSlice(method);
+          DefUseIndex defUseIndex = new DefUseIndex(slice);
+          for (int index = 0; index < slice.size(); index++) {
+            List<UnitContainer> expectedOutSet = new ArrayList<>();
+            List<UnitContainer> outSet = new ArrayList<>();
+
+            String where = method + " at " + index;
+            assertEquals(
+                where,
+                String.valueOf(baselineIsArgumentOfInvoke(slice, index, expectedOutSet)),
+                String.valueOf(defUseIndex.findInvokeUsing(index, outSet)));
+            assertEquals(where, printed(expectedOutSet), printed(outSet));
+            checked++;
+          }
+        }
+      }
+    }
+    assertTrue(checked > 0);
+  }
+  //endregion
+
+  //region Baseline
+
+  /** Utils.isArgumentOfInvoke as it was before the index, walking the whole slice per unit. */
+  private static UnitContainer baselineIsArgumentOfInvoke(
+      List<UnitContainer> slice, int index, List<UnitContainer> outSet) {
+
+    UnitContainer baseUnit = slice.get(index);
+
+    if (baseUnit.getUnit() instanceof JInvokeStmt) {
+      InvokeExpr invokeExpr = ((JInvokeStmt) baseUnit.getUnit()).getInvokeExpr();
+      for (Value arg : invokeExpr.getArgs()) {
+        if (arg instanceof Constant) {
+          return baseUnit;
+        }
+      }
+    }
+
+    outSet.add(baseUnit);
+
+    for (int i = index; i >= 0; i--) {
+
+      UnitContainer curUnit = slice.get(i);
+
+      List<UnitContainer> inset = new ArrayList<>(outSet);
+
+      for (UnitContainer insetIns : inset) {
+        boolean outSetContainsCurUnit = !outSet.toString().contains(curUnit.toString());
+        if (insetIns instanceof PropertyFakeUnitContainer) {
+          String property = ((PropertyFakeUnitContainer) insetIns).getOriginalProperty();
+
+          if (curUnit.getUnit() instanceof JInvokeStmt) {
+            if (curUnit.getUnit().toString().contains(property + ".<")) {
+              if (outSetContainsCurUnit) {
+                outSet.add(curUnit);
+              }
+            } else {
+              InvokeExpr invokeExpr = ((JInvokeStmt) curUnit.getUnit()).getInvokeExpr();
+              for (Value arg : invokeExpr.getArgs()) {
+                if (arg.toString().contains(property)) {
+                  return curUnit;
+                }
+              }
+            }
+          } else {
+            for (ValueBox useBox : curUnit.getUnit().getUseBoxes()) {
+              if (useBox.getValue().toString().contains(property)) {
+                if (outSetContainsCurUnit) {
+                  outSet.add(curUnit);
+                }
+              }
+            }
+          }
+        } else if (insetIns instanceof ParamFakeUnitContainer) {
+
+          int param = ((ParamFakeUnitContainer) insetIns).getParam();
+          String method = ((ParamFakeUnitContainer) insetIns).getCallee();
+
+          for (ValueBox useBox : curUnit.getUnit().getUseBoxes()) {
+            String useboxStr = useBox.getValue().toString();
+            if (useboxStr.contains("@parameter")) {
+              Integer parameter =
+                  Integer.valueOf(
+                      useboxStr.substring("@parameter".length(), useboxStr.indexOf(':')));
+              if (parameter.equals(param) && curUnit.getMethod().equals(method)) {
+                if (outSetContainsCurUnit) {
+                  outSet.add(curUnit);
+                }
+              }
+            }
+          }
+        } else if (insetIns.getUnit() instanceof JAssignStmt) {
+          if (curUnit.getUnit() instanceof JInvokeStmt) {
+            for (ValueBox defBox : insetIns.getUnit().getDefBoxes()) {
+              InvokeExpr invokeExpr = ((JInvokeStmt) curUnit.getUnit()).getInvokeExpr();
+              for (Value arg : invokeExpr.getArgs()) {
+                if (arg.equivTo(defBox.getValue())
+                    || isArrayUseBox(curUnit, insetIns, defBox, arg)) {
+                  return curUnit;
+                }
+              }
+            }
+          } else {
+            addUses(curUnit, insetIns, outSet, outSetContainsCurUnit);
+          }
+        } else {
+          if (curUnit.getUnit() instanceof JInvokeStmt) {
+            for (ValueBox defBox : insetIns.getUnit().getDefBoxes()) {
+              if (curUnit.getUnit().toString().contains(defBox + ".<")) {
+                if (outSetContainsCurUnit) {
+                  outSet.add(curUnit);
+                }
+              } else {
+                InvokeExpr invokeExpr = ((JInvokeStmt) curUnit.getUnit()).getInvokeExpr();
+                for (Value arg : invokeExpr.getArgs()) {
+                  if (arg.equivTo(defBox.getValue())
+                      || isArrayUseBox(curUnit, insetIns, defBox, arg)) {
+                    return curUnit;
+                  }
+                }
+              }
+            }
+          } else {
+            addUses(curUnit, insetIns, outSet, outSetContainsCurUnit);
+          }
+        }
+      }
+    }
+
+    return null;
+  }
+
+  private static void addUses(
+      UnitContainer curUnit,
+      UnitContainer insetIns,
+      List<UnitContainer> outSet,
+      boolean outSetContainsCurUnit) {
+    for (ValueBox defBox : insetIns.getUnit().getDefBoxes()) {
+
+      if ((defBox.getValue().toString().equals("r0")
+              && insetIns.getUnit().toString().startsWith("r0."))
+          || (defBox.getValue().toString().equals("this")
+              && insetIns.getUnit().toString().startsWith("this."))) {
+        continue;
+      }
+
+      for (ValueBox useBox : curUnit.getUnit().getUseBoxes()) {
+        if (defBox.getValue().equivTo(useBox.getValue())
+            || isArrayUseBox(curUnit, insetIns, defBox, useBox.getValue())) {
+          if (outSetContainsCurUnit) {
+            outSet.add(curUnit);
+          }
+        }
+      }
+    }
+  }
+
+  private static boolean isArrayUseBox(
+      UnitContainer curUnit, UnitContainer insetIns, ValueBox defBox, Value useBox) {
+    return (defBox.getValue().toString().contains(useBox.toString())
+        && curUnit.getMethod().equals(insetIns.getMethod())
+        && useBox.getType() instanceof ArrayType);
+  }
+  //endregion
+}
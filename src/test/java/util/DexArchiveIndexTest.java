@@ -0,0 +1,155 @@
+/* Licensed under GPL-3.0 */
+package util;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+import static test.TestUtilities.pathToAPK;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import org.jf.dexlib2.iface.ClassDef;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * DexArchiveIndexTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class DexArchiveIndexTest {
+
+  //region Attributes
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+  //endregion
+
+  //region Tests
+
+  /** testToClassName. */
+  @Test
+  public void testToClassName() {
+    assertEquals("javax.crypto.Cipher", DexArchiveIndex.toClassName("Ljavax/crypto/Cipher;"));
+    assertEquals("java.lang.String", DexArchiveIndex.toClassName("[[Ljava/lang/String;"));
+    assertNull(DexArchiveIndex.toClassName("[B"));
+  }
+
+  /** testOpen. */
+  @Test
+  public void testOpen() throws Exception {
+    DexArchiveIndex index = DexArchiveIndex.open(pathToAPK);
+    assertSame(index, DexArchiveIndex.open(pathToAPK));
+
+    List<String> classNames = index.getClassNames();
+    assertTrue(classNames.contains("org.rigorityj.android_sample.crypto.BadSymCrypto"));
+    for (String className : classNames) assertFalse(className.startsWith("android."));
+
+    DexArchiveIndex.DexClass badSymCrypto = null;
+    for (DexArchiveIndex.DexClass dexClass : index.getClasses())
+      if (dexClass.getName().equals("org.rigorityj.android_sample.crypto.BadSymCrypto"))
+        badSymCrypto = dexClass;
+
+    assertEquals("classes.dex", badSymCrypto.getDexEntry());
+    assertTrue(badSymCrypto.getReferences().contains("javax.crypto.spec.SecretKeySpec"));
+    assertTrue(
+        badSymCrypto
+            .getMethodSignatures()
+            .contains("<javax.crypto.spec.SecretKeySpec: void <init>(byte[],java.lang.String)>"));
+
+    DexArchiveIndex.reset();
+  }
+
+  /** testUndecodedClass. */
+  @Test
+  public void testUndecodedClass() throws Exception {
+    ClassDef broken =
+        (ClassDef)
+            Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] {ClassDef.class},
+                (proxy, method, args) -> {
+                  switch (method.getName()) {
+                    case "getType":
+                      return "Lapp/Broken;";
+                    case "getSuperclass":
+                      return "Ljava/lang/Object;";
+                    case "getInterfaces":
+                      return Collections.emptyList();
+                    default:
+                      throw new IllegalStateException("Invalid code item");
+                  }
+                });
+
+    DexArchiveIndex.DexClass brokenClass = new DexArchiveIndex.DexClass(broken, "classes.dex", "0");
+    assertFalse(brokenClass.isDecoded());
+    assertEquals("java.lang.Object", brokenClass.getSuperClass());
+
+    List<DexArchiveIndex.DexClass> classes =
+        new ArrayList<>(DexArchiveIndex.open(pathToAPK).getClasses());
+    classes.add(brokenClass);
+
+    ConstantPoolIndex index = new ConstantPoolIndex();
+    index.addDexClasses(classes);
+    assertTrue(
+        index
+            .getClassReferences()
+            .get("app.Broken")
+            .contains("org.rigorityj.android_sample.crypto.BadSymCrypto"));
+    assertTrue(
+        index
+            .getClassFieldOwners()
+            .get("app.Broken")
+            .contains("org.rigorityj.android_sample.crypto.BadSymCrypto"));
+
+    DexArchiveIndex.reset();
+  }
+
+  /** testDexEntriesByHeader. */
+  @Test
+  public void testDexEntriesByHeader() throws Exception {
+    byte[] dex;
+    try (ZipFile apk = new ZipFile(pathToAPK);
+        InputStream in = apk.getInputStream(apk.getEntry("classes.dex"))) {
+      dex = ArchiveIndex.readFully(in);
+    }
+
+    // A dex file named otherwise is read, an entry named as a dex file but holding text is not
+    File renamed = tempDir.newFile("renamed.apk");
+    try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(renamed))) {
+      out.putNextEntry(new ZipEntry("assets/secondary.jar"));
+      out.write(dex);
+      out.closeEntry();
+      out.putNextEntry(new ZipEntry("notes.dex"));
+      out.write("not a dex file".getBytes(StandardCharsets.UTF_8));
+      out.closeEntry();
+    }
+
+    Set<String> dexEntries = new HashSet<>();
+    for (DexArchiveIndex.DexClass dexClass : DexArchiveIndex.open(renamed.getPath()).getClasses())
+      dexEntries.add(dexClass.getDexEntry());
+
+    assertEquals(Collections.singleton("assets/secondary.jar"), dexEntries);
+    assertTrue(
+        DexArchiveIndex.open(renamed.getPath())
+            .getClassNames()
+            .contains("org.rigorityj.android_sample.crypto.BadSymCrypto"));
+
+    DexArchiveIndex.reset();
+  }
+  //endregion
+}
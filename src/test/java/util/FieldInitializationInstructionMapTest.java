@@ -0,0 +1,272 @@
+/* Licensed under GPL-3.0 */
+package util;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+import static test.TestUtilities.loadSootJar;
+import static test.TestUtilities.sampleNoSub_Jar;
+import static test.TestUtilities.sampleUtil_Jar;
+import static test.TestUtilities.verySimple_Jar;
+
+import analyzer.backward.MethodWrapper;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import slicer.backward.property.PropertyAnalysisResult;
+import soot.Body;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootField;
+import soot.SootMethod;
+import soot.Unit;
+
+/**
+ * FieldInitializationInstructionMapTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class FieldInitializationInstructionMapTest {
+
+  //region Attributes
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+  //endregion
+
+  //region Test Environment Setup
+
+  /** A class writing its fields in its constructor and in a setter. */
+  public static class Holder {
+    int count;
+    String name = "holder";
+
+    /** Constructor for Holder. */
+    public Holder() {
+      count = 1;
+    }
+
+    /** reset. */
+    public void reset() {
+      count = 0;
+      count = 2;
+    }
+
+    /** read. */
+    public int read() {
+      return count;
+    }
+  }
+
+  /** A class writing the field of another class. */
+  public static class Writer {
+    /** write. */
+    public void write(Holder holder) {
+      holder.count = 3;
+    }
+  }
+
+  /** Writes the classes to a jar and loads them, returning their names. */
+  private List<String> loadClasses(Class<?>... classes) throws Exception {
+    String jar = new File(tempDir.getRoot(), "fields.jar").getPath();
+    try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+      for (Class<?> clazz : classes) {
+        String entry = clazz.getName().replace('.', '/') + ".class";
+        out.putNextEntry(new ZipEntry(entry));
+        try (InputStream in = getClass().getResourceAsStream("/" + entry)) {
+          byte[] buffer = new byte[4096];
+          for (int read = in.read(buffer); read != -1; read = in.read(buffer))
+            out.write(buffer, 0, read);
+        }
+        out.closeEntry();
+      }
+    }
+
+    List<String> classNames = new ArrayList<>();
+    for (SootClass sootClass : loadSootJar(jar)) classNames.add(sootClass.getName());
+    return classNames;
+  }
+
+  private static SootMethod getHolderMethod(String subSignature) {
+    return Scene.v().getSootClass(Holder.class.getName()).getMethod(subSignature);
+  }
+
+  private static String getHolderField(String subSignature) {
+    return Scene.v().getSootClass(Holder.class.getName()).getField(subSignature).toString();
+  }
+
+  /** cleanUp. */
+  @After
+  public void cleanUp() {
+    FieldInitializationInstructionMap.reset();
+    NamedMethodMap.clearCallerCalleeGraph();
+  }
+
+  private static List<String> toNames(List<MethodWrapper> methods) {
+    List<String> names = new ArrayList<>();
+    for (MethodWrapper method : methods)
+      names.add(method == null ? null : method.getMethod().toString());
+    return names;
+  }
+
+  private static Map<String, List<PropertyAnalysisResult>> getInitInstructions(
+      List<String> fieldNames) {
+    Map<String, List<PropertyAnalysisResult>> results = new HashMap<>();
+    for (String fieldName : fieldNames)
+      results.put(fieldName, FieldInitializationInstructionMap.getInitInstructions(fieldName));
+    return results;
+  }
+  //endregion
+
+  //region Tests
+
+  /** testInitMethods. */
+  @Test
+  public void testInitMethods() throws Exception {
+    List<String> classNames = loadClasses(Holder.class, Writer.class);
+    NamedMethodMap.build(classNames);
+    FieldInitializationInstructionMap.build(classNames);
+
+    String init = getHolderMethod("void <init>()").toString();
+    String reset = getHolderMethod("void reset()").toString();
+
+    // Each writer once, in the order of the methods of the class, the readers and others left out
+    assertEquals(
+        Arrays.asList(init, reset),
+        toNames(FieldInitializationInstructionMap.getInitMethods(getHolderField("int count"))));
+    assertEquals(
+        Collections.singletonList(init),
+        toNames(
+            FieldInitializationInstructionMap.getInitMethods(
+                getHolderField("java.lang.String name"))));
+  }
+
+  /** testInitMethodsReached. */
+  @Test
+  public void testInitMethodsReached() throws Exception {
+    List<String> classNames = loadClasses(Holder.class, Writer.class);
+    NamedMethodMap.build(classNames);
+    FieldInitializationInstructionMap.build(
+        classNames, new HashSet<>(Collections.singletonList(getHolderMethod("void reset()"))));
+
+    assertEquals(
+        Collections.singletonList(getHolderMethod("void reset()").toString()),
+        toNames(FieldInitializationInstructionMap.getInitMethods(getHolderField("int count"))));
+    assertTrue(
+        FieldInitializationInstructionMap.getInitMethods(getHolderField("java.lang.String name"))
+            .isEmpty());
+  }
+
+  /** testMatchesBaseline. */
+  @Test
+  public void testMatchesBaseline() throws Exception {
+    int checked = 0;
+    for (String jar : Arrays.asList(verySimple_Jar, sampleUtil_Jar, sampleNoSub_Jar)) {
+      List<SootClass> classes = loadSootJar(jar);
+      List<String> classNames = new ArrayList<>();
+      for (SootClass sootClass : classes) classNames.add(sootClass.getName());
+
+      FieldInitializationInstructionMap.reset();
+      NamedMethodMap.clearCallerCalleeGraph();
+      NamedMethodMap.build(classNames);
+      FieldInitializationInstructionMap.build(classNames);
+
+      for (SootClass sootClass : classes) {
+        for (SootField field : sootClass.getFields()) {
+          assertEquals(
+              field.toString(),
+              toNames(baselineInitMethods(sootClass, field)),
+              toNames(FieldInitializationInstructionMap.getInitMethods(field.toString())));
+          checked++;
+        }
+      }
+    }
+    assertTrue(checked > 0);
+  }
+
+  /** testConcurrentInitInstructions. */
+  @Test
+  public void testConcurrentInitInstructions() throws Exception {
+    List<SootClass> classes = loadSootJar(verySimple_Jar);
+    List<String> classNames = new ArrayList<>();
+    List<String> fieldNames = new ArrayList<>();
+    for (SootClass sootClass : classes) {
+      classNames.add(sootClass.getName());
+      for (SootField field : sootClass.getFields()) fieldNames.add(field.toString());
+    }
+    assertTrue(!fieldNames.isEmpty());
+
+    NamedMethodMap.build(classNames);
+    FieldInitializationInstructionMap.build(classNames);
+
+    // Every thread gets the instructions the first one sliced, each field is sliced only once
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Map<String, List<PropertyAnalysisResult>>>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        List<String> order = new ArrayList<>(fieldNames);
+        Collections.rotate(order, thread);
+        futures.add(executor.submit(() -> getInitInstructions(order)));
+      }
+
+      Map<String, List<PropertyAnalysisResult>> first = futures.get(0).get();
+      for (Future<Map<String, List<PropertyAnalysisResult>>> future : futures) {
+        Map<String, List<PropertyAnalysisResult>> results = future.get();
+        for (String fieldName : fieldNames)
+          assertSame(fieldName, first.get(fieldName), results.get(fieldName));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+  //endregion
+
+  //region Baseline
+
+  /** The methods FieldInitializationInstructionMap.build found, searching their text per field. */
+  private static List<MethodWrapper> baselineInitMethods(SootClass sClass, SootField field) {
+
+    List<MethodWrapper> initMethods = new ArrayList<>();
+
+    for (SootMethod method : sClass.getMethods()) {
+
+      if (method.isConcrete()) {
+
+        StringBuilder methodBody = new StringBuilder();
+
+        try {
+          Body initBody = Utils.retrieveActiveBody(method);
+
+          for (Unit unit : initBody.getUnits()) {
+            methodBody.append(unit);
+          }
+
+          if (methodBody.toString().contains(field.toString() + " =")) {
+            initMethods.add(NamedMethodMap.getMethod(method.toString()));
+          }
+        } catch (RuntimeException e) {
+          System.err.println(e);
+        }
+      }
+    }
+
+    return initMethods;
+  }
+  //endregion
+}
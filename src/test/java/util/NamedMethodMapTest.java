@@ -0,0 +1,315 @@
+/* Licensed under GPL-3.0 */
+package util;
+
+import static junit.framework.TestCase.assertTrue;
+import static test.TestUtilities.loadSootJar;
+import static test.TestUtilities.sampleNoSub_Jar;
+import static test.TestUtilities.sampleUtil_Jar;
+import static test.TestUtilities.verySimple_Jar;
+
+import analyzer.backward.MethodWrapper;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import slicer.backward.MethodCallSiteInfo;
+import soot.Body;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.SootMethodRef;
+import soot.Unit;
+import soot.ValueBox;
+import soot.jimple.Stmt;
+
+/**
+ * NamedMethodMapTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class NamedMethodMapTest {
+
+  //region Attributes
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+  //endregion
+
+  //region Test Environment Setup
+
+  /** A class declaring a method. */
+  public static class Base {
+    /** run. */
+    public void run() {}
+  }
+
+  /** A class inheriting the method. */
+  public static class Child extends Base {}
+
+  /** A class calling the inherited method and passing a constant the text parsing skipped. */
+  public static class Caller {
+    /** call. */
+    public void call(Child child) {
+      child.run();
+    }
+
+    /** log. */
+    public void log() {
+      print("{key: value;}");
+    }
+
+    /** print. */
+    public static void print(String message) {}
+  }
+
+  /** Writes the classes to a jar and loads it. */
+  private List<String> loadClasses(Class<?>... classes) throws Exception {
+    String jar = new File(tempDir.getRoot(), "calls.jar").getPath();
+    try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+      for (Class<?> clazz : classes) {
+        String entry = clazz.getName().replace('.', '/') + ".class";
+        out.putNextEntry(new ZipEntry(entry));
+        try (InputStream in = getClass().getResourceAsStream("/" + entry)) {
+          copy(in, out);
+        }
+        out.closeEntry();
+      }
+    }
+
+    List<String> classNames = new ArrayList<>();
+    for (SootClass sootClass : loadSootJar(jar)) classNames.add(sootClass.getName());
+    return classNames;
+  }
+
+  private static void copy(InputStream in, ZipOutputStream out) throws IOException {
+    byte[] buffer = new byte[4096];
+    for (int read = in.read(buffer); read != -1; read = in.read(buffer)) out.write(buffer, 0, read);
+  }
+
+  private static List<String> getCallees(Class<?> clazz, String methodName) {
+    SootMethod method = Scene.v().getSootClass(clazz.getName()).getMethodByName(methodName);
+
+    List<String> callees = new ArrayList<>();
+    for (MethodCallSiteInfo site : NamedMethodMap.getMethod(method).getCalleeList())
+      callees.add(site.getCallee().getMethod().getSignature());
+    return callees;
+  }
+
+  private static String getSignature(Class<?> clazz, String methodName) {
+    return Scene.v().getSootClass(clazz.getName()).getMethodByName(methodName).getSignature();
+  }
+
+  /** cleanUp. */
+  @After
+  public void cleanUp() {
+    NamedMethodMap.clearCallerCalleeGraph();
+  }
+
+  private static String toSite(MethodWrapper caller, Unit u) {
+    return caller.getMethod()
+        + " @ "
+        + u.getJavaSourceStartLineNumber()
+        + ":"
+        + u.getJavaSourceStartColumnNumber();
+  }
+
+  private static String toEdge(MethodWrapper caller, MethodWrapper callee, int line, int column) {
+    return caller.getMethod() + " -> " + callee.getMethod() + " @ " + line + ":" + column;
+  }
+  //endregion
+
+  //region Tests
+
+  /** testInheritedCallee. */
+  @Test
+  public void testInheritedCallee() throws Exception {
+    List<String> classNames = loadClasses(Base.class, Child.class, Caller.class);
+    NamedMethodMap.build(classNames);
+    NamedMethodMap.buildCallerCalleeRelation(classNames);
+
+    // The call names the child, the method invoked is the one the base declares
+    String run = getSignature(Base.class, "run");
+    assertTrue(getCallees(Caller.class, "call").contains(run));
+    assertTrue(NamedMethodMap.getMethod(run).getCallerList().size() == 1);
+  }
+
+  /** testCalleeWithConstantText. */
+  @Test
+  public void testCalleeWithConstantText() throws Exception {
+    List<String> classNames = loadClasses(Base.class, Child.class, Caller.class);
+    NamedMethodMap.build(classNames);
+    NamedMethodMap.buildCallerCalleeRelation(classNames);
+
+    // The unit prints the braces and the semicolon of the constant
+    String print = getSignature(Caller.class, "print");
+    assertTrue(getCallees(Caller.class, "log").contains(print));
+    assertTrue(!NamedMethodMap.getMethod(print).isTopLevel());
+  }
+
+  /** testMatchesBaseline. */
+  @Test
+  public void testMatchesBaseline() throws Exception {
+    int checked = 0;
+    for (String jar : Arrays.asList(verySimple_Jar, sampleUtil_Jar, sampleNoSub_Jar)) {
+      List<String> classNames = new ArrayList<>();
+      for (SootClass sootClass : loadSootJar(jar)) classNames.add(sootClass.getName());
+
+      NamedMethodMap.clearCallerCalleeGraph();
+      NamedMethodMap.build(classNames);
+
+      Set<String> expected = new HashSet<>();
+      Set<String> unparsedSites = new HashSet<>();
+      baselineCallerCalleeRelation(classNames, expected, unparsedSites);
+
+      NamedMethodMap.buildCallerCalleeRelation(classNames);
+
+      Set<String> edges = new HashSet<>();
+      for (String className : classNames) {
+        for (SootMethod method : Scene.v().getSootClass(className).getMethods()) {
+          MethodWrapper caller = NamedMethodMap.getMethod(method);
+          if (caller == null) continue;
+
+          for (MethodCallSiteInfo site : caller.getCalleeList()) {
+            String edge =
+                toEdge(caller, site.getCallee(), site.getLineNumber(), site.getColumnNumber());
+            edges.add(edge);
+            assertTrue(edge, site.getCallee().getCallerList().contains(caller));
+            assertTrue(edge, !site.getCallee().isTopLevel());
+          }
+        }
+      }
+
+      // Every call the text found is kept, the others are only on sites the text could not parse
+      for (String edge : expected) {
+        assertTrue(edge, edges.contains(edge));
+        checked++;
+      }
+      for (String edge : edges) {
+        if (expected.contains(edge)) continue;
+        String caller = edge.substring(0, edge.indexOf(" -> "));
+        assertTrue(edge, unparsedSites.contains(caller + edge.substring(edge.indexOf(" @ "))));
+      }
+    }
+    assertTrue(checked > 0);
+  }
+  //endregion
+
+  //region Baseline
+
+  /**
+   * NamedMethodMap.buildCallerCalleeRelation as it was before the typed invokes, parsing the text
+   * of each unit. The call sites the text does not give the method invoked of, skipped for a brace
+   * or a semicolon, printing another signature or resolving to an inherited method, are added to
+   * unparsedSites.
+   */
+  private static void baselineCallerCalleeRelation(
+      List<String> classNames, Set<String> edges, Set<String> unparsedSites) {
+
+    Map<String, List<SootClass>> classHierarchy = Utils.getClassHierarchyAnalysis(classNames);
+
+    for (String className : classNames) {
+      for (SootMethod m : Scene.v().getSootClass(className).getMethods()) {
+        if (!m.isConcrete()) continue;
+
+        Body b = Utils.retrieveActiveBody(m);
+        MethodWrapper caller = NamedMethodMap.getMethod(m.toString());
+
+        for (Unit u : b.getUnits()) {
+          String uStr = u.toString();
+
+          // A branch prints the unit it goes to, a call there was linked on the branch's line too
+          if (!((Stmt) u).containsInvokeExpr()) {
+            Set<String> branchEdges = new HashSet<>();
+            addEdges(branchEdges, classHierarchy, caller, u);
+            assertTrue(uStr, branchEdges.isEmpty() || !u.getUnitBoxes().isEmpty());
+            continue;
+          }
+
+          SootMethodRef methodRef = ((Stmt) u).getInvokeExpr().getMethodRef();
+          SootMethod invoked = methodRef.tryResolve();
+          if (uStr.contains("}")
+              || uStr.contains("{")
+              || uStr.contains(";")
+              || !uStr.substring(uStr.indexOf('<'), uStr.lastIndexOf('>') + 1)
+                  .equals(methodRef.getSignature())
+              || (invoked != null && !invoked.getSignature().equals(methodRef.getSignature()))) {
+            unparsedSites.add(toSite(caller, u));
+          }
+
+          addEdges(edges, classHierarchy, caller, u);
+        }
+      }
+    }
+  }
+
+  private static void addEdges(
+      Set<String> edges,
+      Map<String, List<SootClass>> classHierarchy,
+      MethodWrapper caller,
+      Unit u) {
+
+    String uStr = u.toString();
+
+    if (uStr.contains("}") || uStr.contains("{") || uStr.contains(";")) {
+      return;
+    }
+
+    if (uStr.contains("staticinvoke ") || uStr.contains("void <init>")) {
+      String invokedMethod = uStr.substring(uStr.indexOf('<'), uStr.lastIndexOf('>') + 1);
+      addEdge(edges, caller, NamedMethodMap.getMethod(invokedMethod), u);
+    } else if ((uStr.contains("virtualinvoke ")
+            || uStr.contains("interfaceinvoke ")
+            || uStr.contains("specialinvoke ")
+            || uStr.contains("dynamicinvoke "))
+        && uStr.contains(".<")) {
+      String invokedMethod = uStr.substring(uStr.indexOf('<'), uStr.lastIndexOf('>') + 1);
+      String reference = uStr.substring(uStr.indexOf("invoke ") + 7, uStr.indexOf(".<"));
+
+      String refType = null;
+
+      for (ValueBox useBox : u.getUseBoxes()) {
+        if (useBox.getValue().toString().equals(reference)) {
+          refType = useBox.getValue().getType().toString();
+          break;
+        }
+      }
+
+      String[] splits = invokedMethod.split(": ");
+      String methodSignature = splits[1].substring(0, splits[1].lastIndexOf('>'));
+      List<SootClass> subClasses = classHierarchy.get(refType);
+
+      if (subClasses != null && !subClasses.isEmpty()) {
+        for (SootClass subClass : subClasses) {
+          SootMethod subClassMethod = subClass.getMethodUnsafe(methodSignature);
+
+          if (subClassMethod != null) {
+            addEdge(edges, caller, NamedMethodMap.getMethod(subClassMethod.toString()), u);
+          }
+        }
+      } else {
+        addEdge(edges, caller, NamedMethodMap.getMethod(invokedMethod), u);
+      }
+    }
+  }
+
+  private static void addEdge(
+      Set<String> edges, MethodWrapper caller, MethodWrapper callee, Unit u) {
+    if (callee != null && caller != callee) {
+      int line = u.getJavaSourceStartLineNumber();
+      edges.add(toEdge(caller, callee, line, u.getJavaSourceStartColumnNumber()));
+    }
+  }
+  //endregion
+}
@@ -0,0 +1,143 @@
+/* Licensed under GPL-3.0 */
+package util;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * PlatformClassCacheTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class PlatformClassCacheTest {
+
+  //region Attributes
+  private static final String RUN = "void run(java.lang.String)";
+
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+
+  private String platformJar;
+  //endregion
+
+  //region Test Environment Setup
+
+  /** A platform class declaring a method. */
+  public static class Base {
+    /**
+     * run.
+     *
+     * @param value a {@link java.lang.String} object.
+     */
+    public void run(String value) {}
+  }
+
+  /** A platform class inheriting the method. */
+  public static class Child extends Base {}
+
+  /** A class of the target calling the method through the platform class inheriting it. */
+  public static class Caller {
+    /** call. */
+    public void call() {
+      new Child().run("value");
+    }
+  }
+
+  /** setUp. */
+  @Before
+  public void setUp() throws IOException {
+    platformJar = new File(tempDir.getRoot(), "platform.jar").getPath();
+
+    try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(platformJar))) {
+      for (Class<?> platformClass : Arrays.asList(Base.class, Child.class)) {
+        out.putNextEntry(new ZipEntry(platformClass.getName().replace('.', '/') + ".class"));
+        try (InputStream in = getClassFile(platformClass)) {
+          byte[] buffer = new byte[4096];
+          for (int read = in.read(buffer); read != -1; read = in.read(buffer))
+            out.write(buffer, 0, read);
+        }
+        out.closeEntry();
+      }
+    }
+  }
+
+  private InputStream getClassFile(Class<?> clazz) {
+    return getClass().getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class");
+  }
+  //endregion
+
+  //region Tests
+
+  /** testHierarchy. */
+  @Test
+  public void testHierarchy() throws Exception {
+    String cacheDir = new File(tempDir.getRoot(), "cache").getPath();
+
+    for (int run = 0; run < 2; run++) {
+      PlatformClassCache cache =
+          PlatformClassCache.open(cacheDir, Collections.singletonList(platformJar));
+
+      assertTrue(cache.contains(Child.class.getName()));
+      assertEquals(
+          Arrays.asList(Base.class.getName(), "java.lang.Object"),
+          Arrays.asList(cache.getSuperTypes(Child.class.getName()).toArray()));
+      assertEquals(Base.class.getName(), cache.findDeclaringClass(Child.class.getName(), RUN));
+      assertNull(cache.findDeclaringClass(Child.class.getName(), "void stop()"));
+    }
+
+    assertEquals(1, new File(cacheDir, "platform").list().length);
+  }
+
+  /** testInMemory. */
+  @Test
+  public void testInMemory() throws Exception {
+    PlatformClassCache cache =
+        PlatformClassCache.open(null, Collections.singletonList(platformJar));
+
+    assertTrue(cache.contains(Child.class.getName()));
+    assertEquals(Base.class.getName(), cache.findDeclaringClass(Child.class.getName(), RUN));
+    assertTrue(cache == PlatformClassCache.open(null, Collections.singletonList(platformJar)));
+    assertEquals(1, tempDir.getRoot().list().length);
+  }
+
+  /** testResolvePlatform. */
+  @Test
+  public void testResolvePlatform() throws Exception {
+    ConstantPoolIndex index = new ConstantPoolIndex();
+    try (InputStream in = getClassFile(Caller.class)) {
+      index.addClass(in);
+    }
+
+    String inherited = "<" + Base.class.getName() + ": " + RUN + ">";
+    String cipher = "<javax.crypto.Cipher: javax.crypto.Cipher getInstance(java.lang.String)>";
+    assertTrue(index.mayCall(Base.class.getName(), inherited));
+    assertTrue(index.mayCall("javax.crypto.Cipher", cipher));
+    assertTrue(index.mayUseClass("javax.crypto.Cipher"));
+
+    String cacheDir = new File(tempDir.getRoot(), "cache").getPath();
+    index.resolvePlatform(
+        PlatformClassCache.open(cacheDir, Collections.singletonList(platformJar)));
+
+    assertTrue(index.mayCall(Base.class.getName(), inherited));
+    assertFalse(index.mayCall("javax.crypto.Cipher", cipher));
+    assertTrue(index.mayUseClass(Base.class.getName()));
+    assertFalse(index.mayUseClass("javax.crypto.Cipher"));
+  }
+  //endregion
+}
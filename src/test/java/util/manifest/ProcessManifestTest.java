@@ -0,0 +1,36 @@
+/* Licensed under GPL-3.0 */
+package util.manifest;
+
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+/**
+ * ProcessManifestTest class.
+ *
+ * @author CryptoguardTeam
+ * @version $Id: $Id
+ * @since 04.05.03
+ */
+public class ProcessManifestTest {
+
+  //region Tests
+
+  /** testUnreadableBinaryManifest. */
+  @Test
+  public void testUnreadableBinaryManifest() {
+    ProcessManifest manifest = new ProcessManifest();
+    try {
+      manifest.loadClassesFromBinaryManifest(
+          new ByteArrayInputStream("<manifest/>".getBytes(StandardCharsets.UTF_8)));
+      fail("An unreadable manifest was read without any component");
+    } catch (RuntimeException e) {
+      assertTrue(e.getMessage(), e.getMessage().startsWith("Could not parse manifest"));
+      assertTrue(manifest.getEntryPointClasses().isEmpty());
+    }
+  }
+  //endregion
+}